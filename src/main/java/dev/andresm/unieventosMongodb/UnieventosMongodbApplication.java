@@ -2,8 +2,10 @@ package dev.andresm.unieventosMongodb;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class UnieventosMongodbApplication {
 
     public static void main(String[] args) {
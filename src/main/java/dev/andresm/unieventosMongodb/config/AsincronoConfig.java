@@ -0,0 +1,34 @@
+package dev.andresm.unieventosMongodb.config;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Configuración de las respuestas asíncronas de Spring MVC.
+
+ * Las respuestas StreamingResponseBody se escriben en el grupo de hilos
+ * "ejecutorDescargas" y no en un hilo nuevo por petición, con un tiempo
+ * máximo configurable para descargas grandes.
+ */
+@Configuration
+public class AsincronoConfig implements WebMvcConfigurer {
+
+    private final ThreadPoolTaskExecutor ejecutorDescargas;
+    private final long tiempoMaximo;
+
+    public AsincronoConfig(@Qualifier("ejecutorDescargas") ThreadPoolTaskExecutor ejecutorDescargas,
+                           @Value("${descargas.tiempo.maximo:300000}") long tiempoMaximo) {
+        this.ejecutorDescargas = ejecutorDescargas;
+        this.tiempoMaximo = tiempoMaximo;
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(ejecutorDescargas);
+        configurer.setDefaultTimeout(tiempoMaximo);
+    }
+}
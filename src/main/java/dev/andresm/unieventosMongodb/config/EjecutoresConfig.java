@@ -0,0 +1,109 @@
+package dev.andresm.unieventosMongodb.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Grupos de hilos usados para el trabajo en segundo plano.
+
+ * Cada grupo tiene un tamaño fijo configurable, de modo que una ráfaga
+ * de trabajo nunca consume los hilos de Tomcat que atienden las peticiones.
+ */
+@Configuration
+public class EjecutoresConfig {
+
+    /**
+     * Hilos que procesan las notificaciones de la bandeja de pagos.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor ejecutorPagos(@Value("${pagos.bandeja.hilos:4}") int hilos) {
+
+        ThreadPoolTaskExecutor ejecutor = new ThreadPoolTaskExecutor();
+        ejecutor.setCorePoolSize(hilos);
+        ejecutor.setMaxPoolSize(hilos);
+        ejecutor.setQueueCapacity(hilos);
+        ejecutor.setThreadNamePrefix("pagos-");
+        ejecutor.setWaitForTasksToCompleteOnShutdown(true);
+        ejecutor.setAwaitTerminationSeconds(30);
+        ejecutor.initialize();
+        return ejecutor;
+    }
+
+    /**
+     * Hilos que envían correos por lotes; uno por cada conexión SMTP del pool.
+     * Cuando están ocupados y la cola se llena, EmailServicioImp envía el grupo
+     * rechazado en el hilo del lote (el pool de conexiones sigue limitando el SMTP).
+     */
+    @Bean
+    public ThreadPoolTaskExecutor ejecutorCorreos(@Value("${correos.smtp.conexiones:3}") int conexiones) {
+
+        ThreadPoolTaskExecutor ejecutor = new ThreadPoolTaskExecutor();
+        ejecutor.setCorePoolSize(conexiones);
+        ejecutor.setMaxPoolSize(conexiones);
+        ejecutor.setQueueCapacity(conexiones);
+        ejecutor.setThreadNamePrefix("correos-");
+        ejecutor.setWaitForTasksToCompleteOnShutdown(true);
+        ejecutor.setAwaitTerminationSeconds(30);
+        ejecutor.initialize();
+        return ejecutor;
+    }
+
+    /**
+     * Hilo único que envía las campañas de correo, una detrás de otra.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor ejecutorCampanas() {
+
+        ThreadPoolTaskExecutor ejecutor = new ThreadPoolTaskExecutor();
+        ejecutor.setCorePoolSize(1);
+        ejecutor.setMaxPoolSize(1);
+        ejecutor.setThreadNamePrefix("campanas-");
+        ejecutor.setWaitForTasksToCompleteOnShutdown(false);
+        ejecutor.initialize();
+        return ejecutor;
+    }
+
+    /**
+     * Hilos que escriben las descargas en streaming (StreamingResponseBody),
+     * como el PDF de entradas de una orden. La cola acotada rechaza las
+     * descargas que excedan la capacidad en lugar de acumularlas.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor ejecutorDescargas(@Value("${descargas.hilos:8}") int hilos,
+                                                    @Value("${descargas.cola:50}") int cola) {
+
+        ThreadPoolTaskExecutor ejecutor = new ThreadPoolTaskExecutor();
+        ejecutor.setCorePoolSize(hilos);
+        ejecutor.setMaxPoolSize(hilos);
+        ejecutor.setQueueCapacity(cola);
+        ejecutor.setThreadNamePrefix("descargas-");
+        ejecutor.setWaitForTasksToCompleteOnShutdown(true);
+        ejecutor.setAwaitTerminationSeconds(30);
+        ejecutor.initialize();
+        return ejecutor;
+    }
+
+    /**
+     * Hilos que calculan en paralelo los bloques de eventos de un reporte consolidado.
+     * Si todos están ocupados y la cola se llena, el hilo de la petición
+     * calcula su parte en lugar de rechazar el reporte.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor ejecutorReportes(@Value("${reportes.hilos:8}") int hilos,
+                                                   @Value("${reportes.cola:32}") int cola) {
+
+        ThreadPoolTaskExecutor ejecutor = new ThreadPoolTaskExecutor();
+        ejecutor.setCorePoolSize(hilos);
+        ejecutor.setMaxPoolSize(hilos);
+        ejecutor.setQueueCapacity(cola);
+        ejecutor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        ejecutor.setThreadNamePrefix("reportes-");
+        ejecutor.setWaitForTasksToCompleteOnShutdown(false);
+        ejecutor.initialize();
+        return ejecutor;
+    }
+}
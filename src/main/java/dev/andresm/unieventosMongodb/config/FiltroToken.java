@@ -33,6 +33,11 @@ import java.io.IOException;
 @RequiredArgsConstructor
 public class FiltroToken extends OncePerRequestFilter {
 
+    /**
+     * Atributo de la petición con el id de la cuenta del token (rutas /api/cuenta).
+     */
+    public static final String ATRIBUTO_ID_CUENTA = "idCuenta";
+
     private final JWTUtils jwtUtils;
 
     /**
@@ -44,7 +49,7 @@ public class FiltroToken extends OncePerRequestFilter {
      * 3. Obtiene la URI de la petición
      * 4. Extrae el token del encabezado Authorization
      * 5. Valida acceso según la ruta:
-     * - /api/admin → requiere rol ADMIN
+     * - /api/admin y /api/acceso → requieren rol ADMIN
      * - /api/cuenta → requiere rol CLIENTE
      * - otras rutas → acceso libre
      * 6. Valida el token (firma, expiración y contenido)
@@ -76,8 +81,8 @@ public class FiltroToken extends OncePerRequestFilter {
             try {
                 // 5. Validar acceso a rutas protegidas
 
-                // ADMIN > acceso exclusivo
-                if (requestURI.startsWith("/api/admin")) {
+                // ADMIN > acceso exclusivo (incluye la validación de entradas en la puerta)
+                if (requestURI.startsWith("/api/admin") || requestURI.startsWith("/api/acceso")) {
                     if (token != null) {
 
                         // 6. Validar el token usando JWTUtils
@@ -122,7 +127,9 @@ public class FiltroToken extends OncePerRequestFilter {
                             return;
                         }
 
-                        // 13. Acceso permitido
+                        // 13. Acceso permitido; los controladores leen el id de la cuenta
+                        //     para verificar que el recurso le pertenece
+                        request.setAttribute(ATRIBUTO_ID_CUENTA, jws.getPayload().get("id").toString());
                         error = false;
 
                     } else {
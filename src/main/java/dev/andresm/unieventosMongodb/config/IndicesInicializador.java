@@ -0,0 +1,46 @@
+package dev.andresm.unieventosMongodb.config;
+
+import dev.andresm.unieventosMongodb.dto.indices.ReporteIndiceDTO;
+import dev.andresm.unieventosMongodb.servicios.interfaces.IndiceServicio;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Crea los índices de MongoDB cuando la aplicación termina de iniciar.
+
+ * Flujo:
+ * 1. Crear los índices declarados en IndiceServicio.
+ * 2. Mostrar en consola los índices faltantes o sin uso.
+
+ * Un error de MongoDB no detiene el arranque de la aplicación.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class IndicesInicializador {
+
+    private final IndiceServicio indiceServicio;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void inicializarIndices() {
+
+        try {
+            // 1. Crear índices
+            indiceServicio.crearIndices();
+
+            // 2. Reportar índices que requieren atención
+            for (ReporteIndiceDTO indice : indiceServicio.generarReporteIndices()) {
+                if (!indice.estado().equals("OK") && !indice.estado().equals("NO_DECLARADO")) {
+                    log.warn("Índice {}: {}.{} ({})",
+                            indice.estado(), indice.coleccion(), indice.nombre(), indice.claves());
+                }
+            }
+
+        } catch (Exception e) {
+            log.warn("No fue posible verificar los índices", e);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package dev.andresm.unieventosMongodb.controladores;
+
+import dev.andresm.unieventosMongodb.dto.acceso.ResultadoAcceso;
+import dev.andresm.unieventosMongodb.dto.acceso.ResultadoAccesoDTO;
+import dev.andresm.unieventosMongodb.dto.acceso.ValidarAccesoDTO;
+import dev.andresm.unieventosMongodb.dto.conex.MensajeDTO;
+import dev.andresm.unieventosMongodb.servicios.interfaces.AccesoServicio;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Controlador encargado del control de acceso en la puerta de los eventos.
+
+ * Permite:
+ * - Validar las entradas escaneadas por los lectores de la puerta
+
+ * Requiere un token de administrador (personal de la puerta).
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/acceso")
+public class AccesoControlador {
+
+    private final AccesoServicio accesoServicio;
+
+    /**
+     * Validar una entrada escaneada.
+
+     * La respuesta es 200 en todos los casos; el campo resultado indica
+     * si la persona puede ingresar o por qué se rechaza la entrada.
+     * Las entradas son grupales: al permitir el ingreso, cantidad indica
+     * cuántas personas entran con ese código.
+     *
+     * @param validarAccesoDTO código leído del QR y evento de la puerta
+     * @return resultado de la validación
+     */
+    @PostMapping("/validar")
+    public ResponseEntity<MensajeDTO<ResultadoAccesoDTO>> validarAcceso(
+            @Valid @RequestBody ValidarAccesoDTO validarAccesoDTO
+    ) {
+
+        ResultadoAccesoDTO resultado = accesoServicio.validarAcceso(validarAccesoDTO);
+
+        return ResponseEntity.ok(
+                new MensajeDTO<>(
+                        resultado.resultado() != ResultadoAcceso.PERMITIDO,
+                        resultado.resultado() == ResultadoAcceso.PERMITIDO
+                                ? "Ingreso permitido para " + resultado.cantidad()
+                                        + (resultado.cantidad() == 1 ? " persona" : " personas")
+                                : "Ingreso rechazado",
+                        resultado
+                )
+        );
+    }
+}
@@ -1,25 +1,37 @@
 package dev.andresm.unieventosMongodb.controladores;
 
 import dev.andresm.unieventosMongodb.documentos.Reporte;
+import dev.andresm.unieventosMongodb.dto.campana.CrearCampanaDTO;
+import dev.andresm.unieventosMongodb.dto.campana.ProgresoCampanaDTO;
 import dev.andresm.unieventosMongodb.dto.conex.MensajeDTO;
 import dev.andresm.unieventosMongodb.dto.cupon.ActualizarCuponDTO;
 import dev.andresm.unieventosMongodb.dto.cupon.CrearCuponDTO;
 import dev.andresm.unieventosMongodb.dto.cupon.ItemCuponDTO;
+import dev.andresm.unieventosMongodb.dto.email.EstadisticasEmailDTO;
 import dev.andresm.unieventosMongodb.dto.evento.CrearEventoDTO;
 import dev.andresm.unieventosMongodb.dto.evento.EditarEventoDTO;
 import dev.andresm.unieventosMongodb.dto.evento.ItemEventoDTO;
+import dev.andresm.unieventosMongodb.dto.indices.ReporteIndiceDTO;
+import dev.andresm.unieventosMongodb.dto.reportes.GenerarReporteConsolidadoDTO;
 import dev.andresm.unieventosMongodb.dto.reportes.GenerarReporteDTO;
+import dev.andresm.unieventosMongodb.dto.reportes.ReporteConsolidadoDTO;
+import dev.andresm.unieventosMongodb.servicios.interfaces.CampanaServicio;
 import dev.andresm.unieventosMongodb.servicios.interfaces.CuponServicio;
+import dev.andresm.unieventosMongodb.servicios.interfaces.EmailServicio;
 import dev.andresm.unieventosMongodb.servicios.interfaces.EventoServicio;
+import dev.andresm.unieventosMongodb.servicios.interfaces.IndiceServicio;
 import dev.andresm.unieventosMongodb.servicios.interfaces.ReporteServicio;
+import dev.andresm.unieventosMongodb.servicios.interfaces.ResumenVentasServicio;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 /**
@@ -35,6 +47,7 @@ import java.util.List;
  * - Gestionar cupones
  * - Consultar reportes y estadísticas
  * - Descargar reportes PDF
+ * - Generar reportes consolidados (PDF y CSV) por rango de fechas u organizador
 
  * Este controlador NO contiene lógica de negocio.
  * Toda la lógica se delega a los servicios correspondientes.
@@ -47,6 +60,10 @@ public class AdministradorControlador {
     private final CuponServicio cuponServicio;
     private final EventoServicio eventoServicio;
     private final ReporteServicio reporteServicio;
+    private final IndiceServicio indiceServicio;
+    private final EmailServicio emailServicio;
+    private final CampanaServicio campanaServicio;
+    private final ResumenVentasServicio resumenVentasServicio;
 
     // =========================================================================
     // EVENTOS
@@ -243,15 +260,36 @@ public class AdministradorControlador {
         );
     }
 
+    /**
+     * Reconstruye el resumen diario de ventas desde las órdenes pagadas.
+     * Tarea de mantenimiento; conviene ejecutarla fuera de las horas de venta.
+     *
+     * @return cantidad de documentos de resumen generados
+     */
+    @PostMapping("/reportes/resumen/reconstruir")
+    public ResponseEntity<MensajeDTO<Long>> reconstruirResumenVentas() {
+
+        long documentos = resumenVentasServicio.reconstruirResumen();
+
+        return ResponseEntity.ok(
+                new MensajeDTO<>(false,
+                        "Resumen de ventas reconstruido",
+                        documentos)
+        );
+    }
+
     /**
      * Descarga el reporte PDF de un evento.
+
+     * El reporte se calcula antes de responder (los errores llegan como JSON)
+     * y el PDF se escribe directamente en la respuesta, sin copiarlo en memoria.
      *
      * @param idEvento identificador del evento
      * @return archivo PDF
      * @throws Exception si ocurre error en la generación
      */
     @GetMapping("/reportes/pdf/{idEvento}")
-    public ResponseEntity<byte[]> descargarReportePDF(
+    public ResponseEntity<StreamingResponseBody> descargarReportePDF(
             @PathVariable String idEvento
     ) throws Exception {
 
@@ -260,30 +298,238 @@ public class AdministradorControlador {
                 new GenerarReporteDTO(idEvento)
         );
 
-        // Crear flujo PDF
-        ByteArrayOutputStream outputStream =
-                new ByteArrayOutputStream();
-
-        // Generar PDF
-        reporteServicio.generarPDF(reporte, outputStream);
+        // Escribir el PDF en la respuesta a medida que se genera
+        StreamingResponseBody pdf = Transmision.transmitir(salida -> reporteServicio.generarPDF(reporte, salida));
 
-        // Convertir a bytes
-        byte[] pdf = outputStream.toByteArray();
+        // Retornar archivo
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_PDF)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("reporte_" + idEvento + ".pdf")
+                        .build()
+                        .toString())
+                .body(pdf);
+    }
 
-        // Configurar headers
-        HttpHeaders headers = new HttpHeaders();
+    /**
+     * Genera un reporte consolidado de los eventos de un rango de fechas
+     * y/o de un organizador.
+     *
+     * @param generarReporteConsolidadoDTO rango de fechas y/o organizador
+     * @return reporte consolidado
+     * @throws Exception si los criterios no son válidos
+     */
+    @PostMapping("/reportes/consolidado")
+    public ResponseEntity<MensajeDTO<ReporteConsolidadoDTO>> generarReporteConsolidado(
+            @RequestBody GenerarReporteConsolidadoDTO generarReporteConsolidadoDTO
+    ) throws Exception {
 
-        headers.setContentType(MediaType.APPLICATION_PDF);
+        ReporteConsolidadoDTO reporte = reporteServicio.generarReporteConsolidado(generarReporteConsolidadoDTO);
 
-        headers.setContentDispositionFormData(
-                "attachment",
-                "reporte_" + idEvento + ".pdf"
+        return ResponseEntity.ok().body(
+                new MensajeDTO<>(
+                        false,
+                        "Reporte consolidado generado correctamente",
+                        reporte
+                )
         );
+    }
 
-        // Retornar archivo
-        return ResponseEntity
-                .ok()
-                .headers(headers)
+    /**
+     * Descarga el reporte consolidado en PDF, escrito directamente en la respuesta.
+     *
+     * @param generarReporteConsolidadoDTO rango de fechas y/o organizador
+     * @return archivo PDF
+     * @throws Exception si los criterios no son válidos
+     */
+    @PostMapping("/reportes/consolidado/pdf")
+    public ResponseEntity<StreamingResponseBody> generarPDFConsolidado(
+            @RequestBody GenerarReporteConsolidadoDTO generarReporteConsolidadoDTO
+    ) throws Exception {
+
+        // 1. Calcular el reporte (los errores se responden como JSON)
+        ReporteConsolidadoDTO reporte = reporteServicio.generarReporteConsolidado(generarReporteConsolidadoDTO);
+
+        // 2. Generar PDF sobre el flujo de la respuesta
+        StreamingResponseBody pdf = Transmision.transmitir(salida -> reporteServicio.generarPDFConsolidado(reporte, salida));
+
+        return ResponseEntity.ok()
+                .header(
+                        HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename("reporte_consolidado.pdf").build().toString()
+                )
+                .contentType(MediaType.APPLICATION_PDF)
                 .body(pdf);
     }
-}
\ No newline at end of file
+
+    /**
+     * Descarga el reporte consolidado en CSV, escrito directamente en la respuesta.
+     *
+     * @param generarReporteConsolidadoDTO rango de fechas y/o organizador
+     * @return archivo CSV
+     * @throws Exception si los criterios no son válidos
+     */
+    @PostMapping("/reportes/consolidado/csv")
+    public ResponseEntity<StreamingResponseBody> generarCSVConsolidado(
+            @RequestBody GenerarReporteConsolidadoDTO generarReporteConsolidadoDTO
+    ) throws Exception {
+
+        // 1. Calcular el reporte (los errores se responden como JSON)
+        ReporteConsolidadoDTO reporte = reporteServicio.generarReporteConsolidado(generarReporteConsolidadoDTO);
+
+        // 2. Generar CSV sobre el flujo de la respuesta
+        StreamingResponseBody csv = Transmision.transmitir(salida -> reporteServicio.generarCSVConsolidado(reporte, salida));
+
+        return ResponseEntity.ok()
+                .header(
+                        HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename("reporte_consolidado.csv").build().toString()
+                )
+                .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                .body(csv);
+    }
+
+    // =========================================================================
+    // ÍNDICES
+    // =========================================================================
+
+    /**
+     * Reporta el estado de los índices de MongoDB
+     * (declarados, faltantes y sin uso).
+     *
+     * @return estado de cada índice
+     */
+    @GetMapping("/indices")
+    public ResponseEntity<MensajeDTO<List<ReporteIndiceDTO>>> reporteIndices() {
+
+        List<ReporteIndiceDTO> indices = indiceServicio.generarReporteIndices();
+
+        return ResponseEntity.ok(
+                new MensajeDTO<>(false,
+                        "Reporte de índices",
+                        indices)
+        );
+    }
+
+    // =========================================================================
+    // CORREOS
+    // =========================================================================
+
+    /**
+     * Consulta las métricas del envío de correos
+     * (enviados, fallidos, conexiones SMTP y mensajes por minuto).
+     *
+     * @return métricas de envío
+     */
+    @GetMapping("/correos/estadisticas")
+    public ResponseEntity<MensajeDTO<EstadisticasEmailDTO>> estadisticasCorreos() {
+
+        return ResponseEntity.ok(
+                new MensajeDTO<>(false,
+                        "Estadísticas de correos",
+                        emailServicio.obtenerEstadisticas())
+        );
+    }
+
+    // =========================================================================
+    // CAMPAÑAS
+    // =========================================================================
+
+    /**
+     * Crea una campaña de correos para todos los clientes activos.
+     * El envío se realiza en segundo plano.
+     *
+     * @param crearCampanaDTO asunto, mensaje y cupón o evento a anunciar
+     * @return id de la campaña creada
+     * @throws Exception si el cupón o el evento no existen
+     */
+    @PostMapping("/campanas")
+    public ResponseEntity<MensajeDTO<String>> crearCampana(
+            @Valid @RequestBody CrearCampanaDTO crearCampanaDTO
+    ) throws Exception {
+
+        String idCampana = campanaServicio.crearCampana(crearCampanaDTO);
+
+        return ResponseEntity.ok(
+                new MensajeDTO<>(false,
+                        "Campaña creada, el envío está en curso",
+                        idCampana)
+        );
+    }
+
+    /**
+     * Lista el avance de todas las campañas.
+     *
+     * @return progreso de cada campaña
+     */
+    @GetMapping("/campanas")
+    public ResponseEntity<MensajeDTO<List<ProgresoCampanaDTO>>> listarCampanas() {
+
+        return ResponseEntity.ok(
+                new MensajeDTO<>(false,
+                        "Campañas",
+                        campanaServicio.listarCampanas())
+        );
+    }
+
+    /**
+     * Consulta el avance de una campaña.
+     *
+     * @param id identificador de la campaña
+     * @return progreso de la campaña
+     * @throws Exception si la campaña no existe
+     */
+    @GetMapping("/campanas/{id}")
+    public ResponseEntity<MensajeDTO<ProgresoCampanaDTO>> obtenerProgresoCampana(
+            @PathVariable String id
+    ) throws Exception {
+
+        return ResponseEntity.ok(
+                new MensajeDTO<>(false,
+                        "Progreso de la campaña",
+                        campanaServicio.obtenerProgreso(id))
+        );
+    }
+
+    /**
+     * Pausa una campaña en curso.
+     *
+     * @param id identificador de la campaña
+     * @return mensaje de confirmación
+     * @throws Exception si la campaña no está en curso
+     */
+    @PutMapping("/campanas/{id}/pausar")
+    public ResponseEntity<MensajeDTO<String>> pausarCampana(
+            @PathVariable String id
+    ) throws Exception {
+
+        campanaServicio.pausarCampana(id);
+
+        return ResponseEntity.ok(
+                new MensajeDTO<>(false,
+                        "Campaña pausada",
+                        id)
+        );
+    }
+
+    /**
+     * Reanuda una campaña pausada desde la última cuenta procesada.
+     *
+     * @param id identificador de la campaña
+     * @return mensaje de confirmación
+     * @throws Exception si la campaña no está pausada
+     */
+    @PutMapping("/campanas/{id}/reanudar")
+    public ResponseEntity<MensajeDTO<String>> reanudarCampana(
+            @PathVariable String id
+    ) throws Exception {
+
+        campanaServicio.reanudarCampana(id);
+
+        return ResponseEntity.ok(
+                new MensajeDTO<>(false,
+                        "Campaña reanudada",
+                        id)
+        );
+    }
+}
@@ -0,0 +1,136 @@
+package dev.andresm.unieventosMongodb.controladores;
+
+import dev.andresm.unieventosMongodb.config.FiltroToken;
+import dev.andresm.unieventosMongodb.documentos.Orden;
+import dev.andresm.unieventosMongodb.servicios.interfaces.OrdenServicio;
+import dev.andresm.unieventosMongodb.servicios.interfaces.QRServicio;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Controlador encargado de entregar las entradas de las órdenes pagadas.
+
+ * Permite:
+ * - Obtener la imagen del QR de cada entrada
+ * - Descargar en PDF todas las entradas de la orden
+
+ * Las entradas son credenciales de ingreso al evento, por eso están bajo
+ * /api/cuenta (token de CLIENTE) y solo se entregan al dueño de la orden.
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/cuenta/entradas")
+public class EntradaControlador {
+
+    private final OrdenServicio ordenServicio;
+    private final QRServicio qrServicio;
+
+    @Value("${qr.cache.segundos:86400}")
+    private long segundosCacheQR;
+
+    /**
+     * Obtener la imagen del código QR de una entrada de la orden.
+
+     * La imagen se envía como binario (image/png o image/svg+xml) en lugar
+     * de Base64 dentro del JSON. El ETag se calcula sin generar la imagen,
+     * así que si el navegador ya la tiene (If-None-Match) se responde
+     * 304 sin leerla ni codificarla.
+
+     * La caché es privada: solo el navegador del cliente guarda la imagen,
+     * nunca un proxy compartido.
+     */
+    @GetMapping("/{idOrden}/{indice}")
+    public ResponseEntity<byte[]> obtenerQREntrada(
+            @PathVariable String idOrden,
+            @PathVariable int indice,
+            @RequestParam(defaultValue = "png") String formato,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String etagCliente,
+            @RequestAttribute(FiltroToken.ATRIBUTO_ID_CUENTA) String idCuenta
+    ) throws Exception {
+
+        if (!formato.equals("png") && !formato.equals("svg")) {
+            throw new Exception("Formato de QR no soportado: " + formato);
+        }
+
+        String contenido = ordenServicio.obtenerContenidoEntrada(idOrden, indice, idCuenta);
+        String etag = qrServicio.generarEtag(contenido, formato);
+        CacheControl cache = CacheControl.maxAge(Duration.ofSeconds(segundosCacheQR)).cachePrivate();
+
+        // El cliente ya tiene esta misma imagen
+        if (coincideEtag(etagCliente, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(cache)
+                    .build();
+        }
+
+        ResponseEntity.BodyBuilder respuesta = ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(cache);
+
+        if (formato.equals("svg")) {
+            return respuesta
+                    .contentType(MediaType.valueOf("image/svg+xml"))
+                    .body(qrServicio.generarSVG(contenido).getBytes(StandardCharsets.UTF_8));
+        }
+
+        return respuesta
+                .contentType(MediaType.IMAGE_PNG)
+                .body(qrServicio.obtenerImagen(contenido));
+    }
+
+    /**
+     * Descargar en PDF todas las entradas de una orden pagada.
+
+     * La orden se valida antes de empezar la respuesta, así que los errores
+     * se responden como JSON. Después, el PDF se escribe página por página
+     * directamente en la respuesta (StreamingResponseBody), sin armarlo
+     * antes en memoria.
+     */
+    @GetMapping("/{idOrden}/pdf")
+    public ResponseEntity<StreamingResponseBody> descargarEntradas(
+            @PathVariable String idOrden,
+            @RequestAttribute(FiltroToken.ATRIBUTO_ID_CUENTA) String idCuenta
+    ) throws Exception {
+
+        Orden orden = ordenServicio.obtenerOrdenPagada(idOrden, idCuenta);
+
+        StreamingResponseBody pdf = Transmision.transmitir(salida -> ordenServicio.generarPDFEntradas(orden, salida));
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_PDF)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("entradas_" + idOrden + ".pdf")
+                        .build()
+                        .toString())
+                .body(pdf);
+    }
+
+    /**
+     * Indica si el encabezado If-None-Match contiene el ETag dado
+     * (admite "*", varios valores separados por coma y ETags débiles).
+     */
+    private boolean coincideEtag(String etagCliente, String etag) {
+
+        if (etagCliente == null) {
+            return false;
+        }
+
+        return Arrays.stream(etagCliente.split(","))
+                .map(String::trim)
+                .map(valor -> valor.startsWith("W/") ? valor.substring(2) : valor)
+                .anyMatch(valor -> valor.equals("*") || valor.equals(etag));
+    }
+}
@@ -122,9 +122,12 @@ public class EventoControlador {
      */
 
     @GetMapping("/listar")
-    public ResponseEntity<MensajeDTO<List<ItemEventoDTO>>> listarEventos() {
+    public ResponseEntity<MensajeDTO<PaginaEventosDTO>> listarEventos(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer tamano
+    ) throws Exception {
 
-        List<ItemEventoDTO> lista = eventoServicio.listarEventos();
+        PaginaEventosDTO lista = eventoServicio.listarEventos(cursor, tamano);
 
         return ResponseEntity.ok(
                 new MensajeDTO<>(
@@ -141,9 +144,12 @@ public class EventoControlador {
      */
 
     @GetMapping("/listar-cliente")
-    public ResponseEntity<MensajeDTO<List<ItemEventoDTO>>> listarEventosCliente() {
+    public ResponseEntity<MensajeDTO<PaginaEventosDTO>> listarEventosCliente(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer tamano
+    ) throws Exception {
 
-        List<ItemEventoDTO> lista = eventoServicio.listarEventosCliente();
+        PaginaEventosDTO lista = eventoServicio.listarEventosCliente(cursor, tamano);
 
         return ResponseEntity.ok(
                 new MensajeDTO<>(
@@ -203,12 +209,14 @@ public class EventoControlador {
      */
 
     @PostMapping("/filtrar")
-    public ResponseEntity<MensajeDTO<List<ItemEventoDTO>>> filtrarEventos(
-            @RequestBody FiltroEventoDTO filtroEventoDTO
-    ) {
+    public ResponseEntity<MensajeDTO<PaginaEventosDTO>> filtrarEventos(
+            @RequestBody FiltroEventoDTO filtroEventoDTO,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer tamano
+    ) throws Exception {
 
-        List<ItemEventoDTO> lista =
-                eventoServicio.filtrarEventos(filtroEventoDTO);
+        PaginaEventosDTO lista =
+                eventoServicio.filtrarEventos(filtroEventoDTO, cursor, tamano);
 
         return ResponseEntity.ok(
                 new MensajeDTO<>(
@@ -219,6 +227,53 @@ public class EventoControlador {
         );
     }
 
+    /* =============================================================================
+     *  SUGERENCIAS (AUTOCOMPLETADO)
+     * =============================================================================
+     */
+
+    @GetMapping("/sugerencias")
+    public ResponseEntity<MensajeDTO<List<SugerenciaEventoDTO>>> sugerirEventos(
+            @RequestParam String prefijo,
+            @RequestParam(required = false) Integer limite
+    ) {
+
+        List<SugerenciaEventoDTO> sugerencias =
+                eventoServicio.sugerirEventos(prefijo, limite);
+
+        return ResponseEntity.ok(
+                new MensajeDTO<>(
+                        false,
+                        "Sugerencias obtenidas correctamente",
+                        sugerencias
+                )
+        );
+    }
+
+    /* =============================================================================
+     *  BÚSQUEDA POR TEXTO
+     * =============================================================================
+     */
+
+    @GetMapping("/buscar")
+    public ResponseEntity<MensajeDTO<BusquedaEventoDTO>> buscarEventosTexto(
+            @RequestParam String texto,
+            @RequestParam(required = false) Integer pagina,
+            @RequestParam(required = false) Integer tamano
+    ) throws Exception {
+
+        BusquedaEventoDTO resultado =
+                eventoServicio.buscarEventosTexto(texto, pagina, tamano);
+
+        return ResponseEntity.ok(
+                new MensajeDTO<>(
+                        false,
+                        "Búsqueda realizada correctamente",
+                        resultado
+                )
+        );
+    }
+
     /* =============================================================================
      *  FILTRAR POR CIUDAD
      * =============================================================================
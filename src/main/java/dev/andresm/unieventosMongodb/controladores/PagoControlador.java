@@ -3,6 +3,7 @@ package dev.andresm.unieventosMongodb.controladores;
 import com.mercadopago.resources.payment.Payment;
 import com.mercadopago.resources.preference.Preference;
 import dev.andresm.unieventosMongodb.dto.conex.MensajeDTO;
+import dev.andresm.unieventosMongodb.servicios.interfaces.BandejaPagoServicio;
 import dev.andresm.unieventosMongodb.servicios.interfaces.PagoServicio;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -24,6 +25,7 @@ import java.util.Map;
 public class PagoControlador {
 
     private final PagoServicio pagoServicio;
+    private final BandejaPagoServicio bandejaPagoServicio;
 
     /**
      * Crear preferencia de pago para una orden.
@@ -69,6 +71,8 @@ public class PagoControlador {
 
     /**
      * Endpoint utilizado por MercadoPago para enviar notificaciones.
+     * La notificación solo se guarda en la bandeja de pagos y se procesa
+     * en segundo plano, por lo que la respuesta es inmediata.
      *
      * @param request datos enviados por MercadoPago
      */
@@ -76,7 +80,7 @@ public class PagoControlador {
     public void procesarWebhook(
             @RequestBody Map<String, Object> request) {
 
-        pagoServicio.procesarWebhook(request);
+        bandejaPagoServicio.registrarNotificacion(request);
     }
 
 }
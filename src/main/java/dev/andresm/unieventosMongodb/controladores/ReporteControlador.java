@@ -5,12 +5,13 @@ import dev.andresm.unieventosMongodb.dto.conex.MensajeDTO;
 import dev.andresm.unieventosMongodb.dto.reportes.GenerarReporteDTO;
 import dev.andresm.unieventosMongodb.servicios.interfaces.ReporteServicio;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.io.ByteArrayOutputStream;
 
 /**
  * Controlador encargado de la gestión de reportes del sistema.
@@ -19,6 +20,8 @@ import java.io.ByteArrayOutputStream;
  * - Generar reportes de ventas por evento
  * - Exportar reportes en formato PDF
 
+ * Los reportes consolidados (varios eventos) están en AdministradorControlador.
+
  * Expone endpoints REST para que el frontend pueda:
  * - Consultar estadísticas de ventas
  * - Descargar reportes en PDF
@@ -64,8 +67,8 @@ public class ReporteControlador {
      * Genera y descarga un archivo PDF con la información del reporte.
 
      * Flujo:
-     * 1. Genera el reporte del evento.
-     * 2. Construye el archivo PDF en memoria.
+     * 1. Genera el reporte del evento (los errores se responden como JSON).
+     * 2. Escribe el PDF directamente en la respuesta, sin armarlo en memoria.
      * 3. Retorna el PDF como archivo descargable.
      *
      * @param generarReporteDTO DTO con el id del evento
@@ -73,26 +76,23 @@ public class ReporteControlador {
      * @throws Exception si ocurre un error durante la generación
      */
     @PostMapping("/pdf")
-    public ResponseEntity<byte[]> generarPDF(
+    public ResponseEntity<StreamingResponseBody> generarPDF(
             @RequestBody GenerarReporteDTO generarReporteDTO
     ) throws Exception {
 
         // 1. Generar reporte
         Reporte reporte = reporteServicio.generarReporte(generarReporteDTO);
 
-        // 2. Crear flujo en memoria
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-
-        // 3. Generar PDF
-        reporteServicio.generarPDF(reporte, outputStream);
+        // 2. Generar PDF sobre el flujo de la respuesta
+        StreamingResponseBody pdf = Transmision.transmitir(salida -> reporteServicio.generarPDF(reporte, salida));
 
-        // 4. Retornar archivo PDF
+        // 3. Retornar archivo PDF
         return ResponseEntity.ok()
                 .header(
                         HttpHeaders.CONTENT_DISPOSITION,
-                        "attachment; filename=reporte.pdf"
+                        ContentDisposition.attachment().filename("reporte.pdf").build().toString()
                 )
                 .contentType(MediaType.APPLICATION_PDF)
-                .body(outputStream.toByteArray());
+                .body(pdf);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,38 @@
+package dev.andresm.unieventosMongodb.controladores;
+
+import org.springframework.util.function.ThrowingConsumer;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Archivos que los controladores escriben directamente en la respuesta
+ * (StreamingResponseBody), sin armarlos antes en memoria.
+ */
+final class Transmision {
+
+    private Transmision() {
+    }
+
+    /**
+     * Crea el cuerpo de la respuesta a partir de una escritura sobre el flujo de salida.
+
+     * StreamingResponseBody solo admite IOException: las IOException y
+     * RuntimeException se propagan tal cual y el resto se envuelve en IOException.
+     *
+     * @param escritura escritura del archivo sobre el flujo de la respuesta
+     * @return cuerpo de la respuesta
+     */
+    static StreamingResponseBody transmitir(ThrowingConsumer<OutputStream> escritura) {
+        return salida -> {
+            try {
+                escritura.acceptWithException(salida);
+            } catch (IOException | RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IOException(e);
+            }
+        };
+    }
+}
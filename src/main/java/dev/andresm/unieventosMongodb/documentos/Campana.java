@@ -0,0 +1,54 @@
+package dev.andresm.unieventosMongodb.documentos;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Campaña de correos masivos (cupones o anuncios de eventos).
+
+ * - detalle guarda el HTML del cupón o del evento, generado una sola vez
+ *   al crear la campaña.
+ * - ultimoIdCuenta es el punto de control: al reanudar, el envío continúa
+ *   con las cuentas cuyo _id es mayor.
+ * - enviados y fallidos se actualizan al terminar cada lote.
+ * - idEjecucion y bloqueoHasta identifican la ejecución que está enviando la
+ *   campaña; solo ella avanza el punto de control y renueva el bloqueo en cada
+ *   lote. Si el bloqueo vence, otra ejecución puede tomar la campaña.
+ * - errores cuenta las ejecuciones seguidas que terminaron con error.
+ */
+@Document("campanas")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@ToString
+@Builder
+
+public class Campana implements Serializable {
+
+    @Id
+    @EqualsAndHashCode.Include
+    private String id;
+
+    private String asunto;
+    private String mensaje;
+    private String detalle;
+    private String codigoCupon;
+    private String idEvento;
+    private EstadoCampana estado;
+    private String ultimoIdCuenta;
+    private long destinatarios;
+    private long enviados;
+    private long fallidos;
+    private LocalDateTime fechaCreacion;
+    private LocalDateTime fechaFin;
+    private String idEjecucion;
+    private LocalDateTime bloqueoHasta;
+    private int errores;
+    private String ultimoError;
+}
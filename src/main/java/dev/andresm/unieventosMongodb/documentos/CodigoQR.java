@@ -0,0 +1,34 @@
+package dev.andresm.unieventosMongodb.documentos;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Imagen PNG de un código QR ya generado.
+
+ * - El identificador es el SHA-256 (hexadecimal) del contenido del QR,
+ *   que es determinista para cada entrada, así que el mismo QR nunca
+ *   se codifica dos veces.
+ */
+@Document("codigos_qr")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@ToString(exclude = "imagen")
+@Builder
+
+public class CodigoQR implements Serializable {
+
+    @Id
+    @EqualsAndHashCode.Include
+    private String hash;
+
+    private byte[] imagen;
+    private LocalDateTime fechaCreacion;
+}
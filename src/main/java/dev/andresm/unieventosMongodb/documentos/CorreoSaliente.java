@@ -0,0 +1,44 @@
+package dev.andresm.unieventosMongodb.documentos;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Correo registrado en la bandeja de salida.
+
+ * - Los servicios solo guardan el correo; el despachador programado
+ *   lo envía después en lotes.
+ * - idLote y fechaBloqueo identifican el lote que lo reclamó.
+ * - Un correo FALLIDO conserva el último error para su revisión.
+ */
+@Document("correos_salientes")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@ToString
+@Builder
+
+public class CorreoSaliente implements Serializable {
+
+    @Id
+    @EqualsAndHashCode.Include
+    private String id;
+
+    private String destinatario;
+    private String asunto;
+    private String contenido;
+    private EstadoCorreo estado;
+    private int intentos;
+    private String ultimoError;
+    private String idLote;
+    private LocalDateTime fechaCreacion;
+    private LocalDateTime fechaBloqueo;
+    private LocalDateTime proximoIntento;
+    private LocalDateTime fechaEnvio;
+}
@@ -14,4 +14,11 @@ public class DetalleOrden {
     private int cantidad;
     private double precioUnitario;
     private String nombreLocalidad;
+
+    // Código del detalle del carrito que originó el ítem (y de su reserva)
+    private String codigoDetalle;
+
+    // Número de la entrada dentro del evento (se asigna al pagar la orden);
+    // identifica el ingreso en el registro de accesos del evento
+    private Integer numeroEntrada;
 }
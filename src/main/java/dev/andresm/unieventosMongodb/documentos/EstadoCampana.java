@@ -0,0 +1,17 @@
+package dev.andresm.unieventosMongodb.documentos;
+
+/**
+ * Representa los estados de una campaña de correos masivos.
+
+ * - EN_CURSO: La campaña se está enviando (o se reanudará al iniciar la aplicación).
+ * - PAUSADA: El administrador detuvo el envío; puede reanudarse desde el último lote.
+ * - COMPLETADA: Se recorrieron todas las cuentas destinatarias.
+ * - FALLIDA: El envío falló varias veces seguidas; puede reanudarse desde el último lote.
+ */
+public enum EstadoCampana {
+
+    EN_CURSO,   // Enviándose
+    PAUSADA,    // Detenida por el administrador
+    COMPLETADA, // Terminada
+    FALLIDA     // Detenida por errores repetidos
+}
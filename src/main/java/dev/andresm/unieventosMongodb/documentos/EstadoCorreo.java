@@ -0,0 +1,17 @@
+package dev.andresm.unieventosMongodb.documentos;
+
+/**
+ * Representa los estados de un correo dentro de la bandeja de salida.
+
+ * - PENDIENTE: En espera de ser enviado (o de su siguiente reintento).
+ * - EN_ENVIO: Reclamado por un lote del despachador.
+ * - ENVIADO: Entregado correctamente al servidor SMTP.
+ * - FALLIDO: Se agotaron los reintentos; queda como correo muerto para revisión.
+ */
+public enum EstadoCorreo {
+
+    PENDIENTE,  // Esperando envío
+    EN_ENVIO,   // Reclamado por un lote
+    ENVIADO,    // Entregado al servidor SMTP
+    FALLIDO     // Reintentos agotados
+}
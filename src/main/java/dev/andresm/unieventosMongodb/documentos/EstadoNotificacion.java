@@ -0,0 +1,17 @@
+package dev.andresm.unieventosMongodb.documentos;
+
+/**
+ * Representa los estados de una notificación de pago dentro de la bandeja de entrada.
+
+ * - PENDIENTE: Recibida y esperando a ser procesada (o a su siguiente reintento).
+ * - EN_PROCESO: Reclamada por un trabajador que la está procesando.
+ * - PROCESADA: El pago se aplicó correctamente a la orden.
+ * - FALLIDA: Se agotaron los reintentos; requiere revisión manual.
+ */
+public enum EstadoNotificacion {
+
+    PENDIENTE,   // Esperando procesamiento
+    EN_PROCESO,  // Reclamada por un trabajador
+    PROCESADA,   // Aplicada a la orden
+    FALLIDA      // Reintentos agotados
+}
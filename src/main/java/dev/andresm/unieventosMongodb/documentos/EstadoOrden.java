@@ -8,6 +8,8 @@ package dev.andresm.unieventosMongodb.documentos;
  * - PAGADA: El pago fue aprobado correctamente por la pasarela.
  * - FALLIDA: El pago fue rechazado o ocurrió un error en la transacción.
  * - CANCELADA: La orden fue anulada manualmente o el pago fue rechazado.
+ * - EN_REVISION: El pago fue aprobado pero no había entradas suficientes para
+ *   registrar toda la venta; un administrador debe conciliarla o reembolsarla.
 
  * Este enum permite controlar el flujo del proceso de compra
  * y el estado de la transacción asociada.
@@ -18,5 +20,6 @@ public enum EstadoOrden {
     PENDIENTE,  // Esperando confirmación de pago
     PAGADA,     // Pago aprobado
     FALLIDA,    // Pago rechazado
-    CANCELADA   // Orden anulada manualmente
+    CANCELADA,  // Orden anulada manualmente
+    EN_REVISION // Pago aprobado sin entradas suficientes
 }
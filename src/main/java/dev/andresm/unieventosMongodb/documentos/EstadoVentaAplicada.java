@@ -0,0 +1,17 @@
+package dev.andresm.unieventosMongodb.documentos;
+
+/**
+ * Representa los estados de la venta de una orden en un documento del resumen de ventas.
+
+ * - SUMANDO: Se está sumando al resumen (o el intento anterior se interrumpió).
+ * - SUMADA: La venta quedó sumada al resumen.
+ * - DESCONTANDO: La orden fue anulada y su venta se está descontando.
+ * - DESCONTADA: La venta se descontó; la orden ya no cuenta en el resumen.
+ */
+public enum EstadoVentaAplicada {
+
+    SUMANDO,     // Suma en curso
+    SUMADA,      // Sumada al resumen
+    DESCONTANDO, // Descuento en curso
+    DESCONTADA   // Descontada del resumen
+}
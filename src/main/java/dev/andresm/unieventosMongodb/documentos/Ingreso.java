@@ -0,0 +1,42 @@
+package dev.andresm.unieventosMongodb.documentos;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Ingreso registrado al validar una entrada en la puerta de un evento.
+
+ * - El identificador es "idEvento:numeroEntrada", de modo que una entrada
+ *   solo puede registrar un ingreso aunque se valide en varias instancias.
+ * - Se guardan por lotes desde el registro en memoria de AccesoServicio.
+ * - Al anular una orden sus entradas se guardan con revocada = true
+ *   (aunque no hayan ingresado) y ya no pueden usarse en la puerta.
+ */
+@Document("ingresos")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@ToString
+@Builder
+
+public class Ingreso implements Serializable {
+
+    @Id
+    @EqualsAndHashCode.Include
+    private String id;
+
+    private String idEvento;
+    private int numeroEntrada;
+    private String idOrden;
+    private int cantidad;
+    private String puerta;
+    private LocalDateTime fecha;
+    private boolean revocada;
+    private LocalDateTime fechaRevocacion;
+}
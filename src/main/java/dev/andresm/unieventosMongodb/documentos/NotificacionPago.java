@@ -0,0 +1,44 @@
+package dev.andresm.unieventosMongodb.documentos;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Notificación de MercadoPago almacenada en la bandeja de entrada de pagos.
+
+ * - El identificador es el id del pago en MercadoPago, por lo que
+ *   las notificaciones repetidas de un mismo pago comparten documento.
+ * - notificaciones cuenta cuántas veces llegó el pago; si aumenta mientras
+ *   se procesa, la notificación vuelve a PENDIENTE al terminar.
+ * - idTrabajador y fechaBloqueo identifican al trabajador que la reclamó.
+ */
+@Document("notificaciones_pago")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@ToString
+
+public class NotificacionPago implements Serializable {
+
+    @Id
+    @EqualsAndHashCode.Include
+    private String idPago;
+
+    private Map<String, Object> contenido;
+    private EstadoNotificacion estado;
+    private int notificaciones;
+    private int intentos;
+    private String ultimoError;
+    private String idTrabajador;
+    private LocalDateTime fechaRecepcion;
+    private LocalDateTime fechaBloqueo;
+    private LocalDateTime proximoIntento;
+    private LocalDateTime fechaProcesamiento;
+}
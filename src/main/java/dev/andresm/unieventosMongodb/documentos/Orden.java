@@ -29,4 +29,7 @@ public class Orden implements Serializable {
     private double total;
     private LocalDateTime fecha;
     private List<DetalleOrden> items;
+    // true mientras el movimiento de inventario del estado actual no se haya aplicado:
+    // la venta de una orden PAGADA o la devolución de una orden CANCELADA
+    private Boolean inventarioPendiente;
 }
@@ -5,6 +5,7 @@ import org.springframework.data.annotation.Id;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 @Getter
 @Setter
@@ -56,6 +57,13 @@ public class Reporte {
 
     /**
      * Lista de localidades con su porcentaje de ocupación.
+     * Las entradas vendidas son las de órdenes pagadas (resumen de ventas),
+     * no el contador del inventario, que incluye las reservas del carrito.
      */
     private List<Localidad> localidad;
+
+    /**
+     * Ganancias de cada localidad (por nombre), tomadas del resumen de ventas.
+     */
+    private Map<String, Double> gananciasLocalidad;
 }
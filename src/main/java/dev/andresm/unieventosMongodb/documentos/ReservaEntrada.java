@@ -0,0 +1,46 @@
+package dev.andresm.unieventosMongodb.documentos;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Reserva temporal de entradas asociada a un detalle del carrito.
+
+ * - El identificador es el mismo codigoDetalle del DetalleCarrito,
+ *   por lo que cada ítem del carrito tiene como máximo una reserva.
+ * - Mientras la reserva esté vigente las entradas permanecen sumadas
+ *   en entradasVendidas de la localidad.
+ * - Cuando vence, el barrido programado devuelve las entradas y
+ *   elimina la reserva.
+ * - idBarrido y fechaBarrido se asignan cuando un barrido (o el carrito)
+ *   reclama la reserva para liberarla. Si el reclamo no termina, la reserva
+ *   vuelve a estar disponible cuando vence la concesión del reclamo.
+ */
+@Document("reservas")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@ToString
+@Builder
+
+public class ReservaEntrada implements Serializable {
+
+    @Id
+    @EqualsAndHashCode.Include
+    private String codigoDetalle;
+
+    private String idCuenta;
+    private String idEvento;
+    private String nombreLocalidad;
+    private int cantidad;
+    private LocalDateTime fechaCreacion;
+    private LocalDateTime fechaExpiracion;
+    private String idBarrido;
+    private LocalDateTime fechaBarrido;
+}
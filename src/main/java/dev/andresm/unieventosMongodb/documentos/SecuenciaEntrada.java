@@ -0,0 +1,32 @@
+package dev.andresm.unieventosMongodb.documentos;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.io.Serializable;
+
+/**
+ * Contador de entradas emitidas por evento.
+
+ * - El identificador es el id del evento.
+ * - ultimo es el último número de entrada asignado; cada orden pagada
+ *   reserva un rango con un $inc atómico, así que los números de un
+ *   evento son consecutivos y nunca se repiten.
+ */
+@Document("secuencias_entrada")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@ToString
+
+public class SecuenciaEntrada implements Serializable {
+
+    @Id
+    @EqualsAndHashCode.Include
+    private String idEvento;
+
+    private int ultimo;
+}
@@ -0,0 +1,44 @@
+package dev.andresm.unieventosMongodb.documentos;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Venta de una orden aplicada a un documento del resumen de ventas (VentaDiaria).
+
+ * - El identificador es "idOrden|idVenta", así que cada orden se suma
+ *   y se descuenta de cada documento del resumen una sola vez.
+ * - Guarda las entradas y ganancias sumadas, de modo que al anular la orden
+ *   se descuenta lo mismo del mismo documento (aunque cambie la fecha del pago).
+ * - bloqueoHasta identifica el proceso que la está sumando o descontando;
+ *   si se vence, otro proceso puede completar la operación.
+ */
+@Document("ventas_aplicadas")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@ToString
+@Builder
+
+public class VentaAplicada implements Serializable {
+
+    @Id
+    @EqualsAndHashCode.Include
+    private String id;
+
+    private String idOrden;
+    private String idVenta;
+    private String idEvento;
+    private String nombreLocalidad;
+    private String dia;
+    private int entradasVendidas;
+    private double ganancias;
+    private EstadoVentaAplicada estado;
+    private LocalDateTime bloqueoHasta;
+}
@@ -0,0 +1,44 @@
+package dev.andresm.unieventosMongodb.documentos;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Resumen de ventas de una localidad de un evento en un día.
+
+ * - El identificador es "idEvento|nombreLocalidad|dia", así que cada venta
+ *   se suma con un upsert + $inc sobre un único documento.
+ * - dia es la fecha del pago en formato yyyy-MM-dd.
+ * - Se actualiza al pagar y al anular una orden; los reportes leen
+ *   estos documentos en lugar de recorrer las órdenes.
+ * - Las órdenes sumadas se registran aparte, en "ventas_aplicadas" (VentaAplicada).
+ * - pendientes solo guarda las marcas de las sumas ("+idOrden") y descuentos
+ *   ("-idOrden") en curso: se agregan en la misma escritura que el $inc y se
+ *   retiran al cerrar la VentaAplicada, así que no crece con las ventas.
+ */
+@Document("ventas_diarias")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@ToString
+
+public class VentaDiaria implements Serializable {
+
+    @Id
+    @EqualsAndHashCode.Include
+    private String id;
+
+    private String idEvento;
+    private String nombreLocalidad;
+    private String dia;
+    private int entradasVendidas;
+    private double ganancias;
+    private List<String> pendientes = new ArrayList<>();
+}
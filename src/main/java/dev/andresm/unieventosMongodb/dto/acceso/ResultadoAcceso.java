@@ -0,0 +1,13 @@
+package dev.andresm.unieventosMongodb.dto.acceso;
+
+/**
+ * Resultado de validar una entrada en la puerta de un evento.
+ */
+public enum ResultadoAcceso {
+
+    PERMITIDO,          // Firma válida y primer ingreso de la entrada
+    DUPLICADO,          // La entrada ya había ingresado
+    REVOCADA,           // La orden de la entrada fue anulada (reembolso o contracargo)
+    FIRMA_INVALIDA,     // El código no fue emitido por la plataforma o fue alterado
+    EVENTO_DIFERENTE    // La entrada pertenece a otro evento
+}
@@ -0,0 +1,17 @@
+package dev.andresm.unieventosMongodb.dto.acceso;
+
+/**
+ * Respuesta de la validación de una entrada en la puerta.
+ *
+ * @param resultado       resultado de la validación
+ * @param idOrden         orden a la que pertenece la entrada (null si la firma es inválida)
+ * @param nombreLocalidad localidad de la entrada
+ * @param cantidad        personas que ingresan con la entrada
+ */
+public record ResultadoAccesoDTO(
+
+        ResultadoAcceso resultado,
+        String idOrden,
+        String nombreLocalidad,
+        int cantidad
+) {}
@@ -0,0 +1,18 @@
+package dev.andresm.unieventosMongodb.dto.acceso;
+
+import jakarta.validation.constraints.NotBlank;
+import org.hibernate.validator.constraints.Length;
+
+/**
+ * Datos enviados por el lector de la puerta al escanear una entrada.
+ *
+ * @param codigo   contenido leído del QR
+ * @param idEvento evento que se está controlando en la puerta
+ * @param puerta   identificador de la puerta o lector (opcional)
+ */
+public record ValidarAccesoDTO(
+
+        @NotBlank @Length(max = 512) String codigo,
+        @NotBlank String idEvento,
+        @Length(max = 50) String puerta
+) {}
@@ -0,0 +1,16 @@
+package dev.andresm.unieventosMongodb.dto.campana;
+
+import jakarta.validation.constraints.NotBlank;
+import org.hibernate.validator.constraints.Length;
+
+/**
+ * Datos para crear una campaña de correos a todos los clientes activos.
+ * Se puede anunciar un cupón, un evento, ambos o solo enviar el mensaje.
+ */
+public record CrearCampanaDTO(
+
+        @NotBlank @Length(max = 150) String asunto,
+        @NotBlank @Length(max = 2000) String mensaje,
+        String codigoCupon,
+        String idEvento
+) {}
@@ -0,0 +1,23 @@
+package dev.andresm.unieventosMongodb.dto.campana;
+
+import dev.andresm.unieventosMongodb.documentos.EstadoCampana;
+
+import java.time.LocalDateTime;
+
+/**
+ * Avance de una campaña de correos.
+ *
+ * @param porcentaje cuentas procesadas frente al total estimado al crear la campaña
+ */
+public record ProgresoCampanaDTO(
+
+        String id,
+        String asunto,
+        EstadoCampana estado,
+        long destinatarios,
+        long enviados,
+        long fallidos,
+        double porcentaje,
+        LocalDateTime fechaCreacion,
+        LocalDateTime fechaFin
+) {}
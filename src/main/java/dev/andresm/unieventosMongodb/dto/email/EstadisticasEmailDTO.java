@@ -0,0 +1,23 @@
+package dev.andresm.unieventosMongodb.dto.email;
+
+/**
+ * Métricas del envío de correos desde que inició la aplicación.
+ *
+ * @param enviados          correos aceptados por el servidor SMTP
+ * @param fallidos          correos que no pudieron enviarse
+ * @param conexionesAbiertas conexiones SMTP abiertas en total
+ * @param conexionesEnUso   conexiones prestadas en este momento
+ * @param conexionesLibres  conexiones abiertas esperando un envío
+ * @param mensajesPorMinuto promedio de correos enviados por minuto
+ * @param milisegundosPromedio tiempo promedio de envío de un correo
+ */
+public record EstadisticasEmailDTO(
+
+        long enviados,
+        long fallidos,
+        long conexionesAbiertas,
+        int conexionesEnUso,
+        int conexionesLibres,
+        double mensajesPorMinuto,
+        double milisegundosPromedio
+) {}
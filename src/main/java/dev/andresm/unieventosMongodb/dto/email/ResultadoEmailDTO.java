@@ -0,0 +1,13 @@
+package dev.andresm.unieventosMongodb.dto.email;
+
+/**
+ * Resultado del envío de un correo dentro de un lote.
+ *
+ * @param enviado true si el servidor SMTP aceptó el mensaje
+ * @param error   motivo del fallo (null si se envió)
+ */
+public record ResultadoEmailDTO(
+
+        boolean enviado,
+        String error
+) {}
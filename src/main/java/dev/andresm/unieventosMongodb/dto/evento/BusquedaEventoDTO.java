@@ -0,0 +1,17 @@
+package dev.andresm.unieventosMongodb.dto.evento;
+
+import java.util.List;
+
+/**
+ * DTO con el resultado de una búsqueda de eventos por texto.
+
+ * @param items eventos de la página, ordenados por relevancia.
+ * @param pagina número de la página retornada (inicia en 0).
+ * @param haySiguiente indica si existen más resultados.
+ */
+public record BusquedaEventoDTO(
+
+        List<ItemEventoDTO> items,
+        int pagina,
+        boolean haySiguiente
+) {}
@@ -0,0 +1,66 @@
+package dev.andresm.unieventosMongodb.dto.evento;
+
+import dev.andresm.unieventosMongodb.documentos.Evento;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Copia inmutable de los datos de catálogo de un evento, tal como
+ * la guarda y entrega la caché de eventos.
+
+ * No incluye entradas vendidas ni porcentaje de venta: esos valores
+ * cambian con cada compra y se consultan siempre en MongoDB.
+
+ * @param id Identificador del evento.
+ * @param nombre Nombre del evento.
+ * @param fecha Fecha del evento.
+ * @param ciudad Ciudad del evento.
+ * @param localidades Localidades con su nombre y precio.
+ */
+public record CatalogoEventoDTO(
+
+        String id,
+        String nombre,
+        LocalDateTime fecha,
+        String ciudad,
+        List<LocalidadCatalogoDTO> localidades
+) {
+
+    /**
+     * Localidad del catálogo: solo nombre y precio.
+     */
+    public record LocalidadCatalogoDTO(
+
+            String nombre,
+            double precio
+    ) {}
+
+    public CatalogoEventoDTO {
+        localidades = localidades == null ? List.of() : List.copyOf(localidades);
+    }
+
+    /**
+     * Crea la copia de catálogo de un evento leído de MongoDB.
+     */
+    public static CatalogoEventoDTO desde(Evento evento) {
+
+        List<LocalidadCatalogoDTO> localidades = evento.getLocalidades() == null
+                ? List.of()
+                : evento.getLocalidades().stream()
+                        .map(localidad -> new LocalidadCatalogoDTO(localidad.getNombre(), localidad.getPrecio()))
+                        .toList();
+
+        return new CatalogoEventoDTO(evento.getId(), evento.getNombre(), evento.getFecha(), evento.getCiudad(), localidades);
+    }
+
+    /**
+     * Busca una localidad del evento por su nombre.
+     */
+    public Optional<LocalidadCatalogoDTO> localidad(String nombre) {
+        return localidades.stream()
+                .filter(localidad -> localidad.nombre().equals(nombre))
+                .findFirst();
+    }
+}
@@ -0,0 +1,55 @@
+package dev.andresm.unieventosMongodb.dto.evento;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Posición de la paginación de eventos: fecha e id del último
+ * evento entregado (orden fecha, _id).
+
+ * Viaja al cliente como texto opaco: "fecha|id" en Base64 URL sin relleno.
+ *
+ * @param fecha fecha del último evento de la página
+ * @param id    identificador del último evento de la página
+ */
+public record CursorEventoDTO(
+
+        LocalDateTime fecha,
+        String id
+) {
+
+    /**
+     * Convierte la posición en el cursor opaco que recibe el cliente.
+     *
+     * @return cursor codificado
+     */
+    public String codificar() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((fecha + "|" + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Lee un cursor recibido del cliente.
+     *
+     * @param cursor cursor codificado
+     * @return posición de la paginación
+     * @throws Exception si el cursor está alterado o mal formado
+     */
+    public static CursorEventoDTO decodificar(String cursor) throws Exception {
+
+        try {
+            String[] partes = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8)
+                    .split("\\|", 2);
+
+            if (partes.length != 2 || partes[1].isBlank()) {
+                throw new IllegalArgumentException("Cursor incompleto");
+            }
+
+            return new CursorEventoDTO(LocalDateTime.parse(partes[0]), partes[1]);
+
+        } catch (RuntimeException e) {
+            throw new Exception("El cursor de paginación no es válido");
+        }
+    }
+}
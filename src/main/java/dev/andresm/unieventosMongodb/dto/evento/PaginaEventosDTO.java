@@ -0,0 +1,16 @@
+package dev.andresm.unieventosMongodb.dto.evento;
+
+import java.util.List;
+
+/**
+ * DTO que representa una página de eventos.
+
+ * @param items eventos de la página.
+ * @param siguiente cursor opaco para pedir la siguiente página;
+ *                  es null cuando no hay más resultados.
+ */
+public record PaginaEventosDTO(
+
+        List<ItemEventoDTO> items,
+        String siguiente
+) {}
@@ -0,0 +1,13 @@
+package dev.andresm.unieventosMongodb.dto.evento;
+
+/**
+ * DTO con una sugerencia de autocompletado de eventos.
+
+ * @param id Identificador del evento.
+ * @param nombre Nombre del evento tal como fue registrado.
+ */
+public record SugerenciaEventoDTO(
+
+        String id,
+        String nombre
+) {}
@@ -0,0 +1,24 @@
+package dev.andresm.unieventosMongodb.dto.indices;
+
+/**
+ * DTO que describe el estado de un índice de MongoDB.
+
+ * @param coleccion colección a la que pertenece el índice.
+ * @param nombre nombre del índice.
+ * @param claves campos del índice con su dirección (por ejemplo: estado:1, fecha:1).
+ * @param estado resultado de la verificación:
+ *               - OK: índice declarado y existente
+ *               - FALTANTE: índice declarado que no existe en MongoDB
+ *               - SIN_USO: índice existente, no declarado y sin accesos
+ *               - NO_DECLARADO: índice existente, no declarado pero en uso
+ * @param usos cantidad de accesos registrados por $indexStats
+ *             desde el último reinicio del servidor (-1 si no existe).
+ */
+public record ReporteIndiceDTO(
+
+        String coleccion,
+        String nombre,
+        String claves,
+        String estado,
+        long usos
+) {}
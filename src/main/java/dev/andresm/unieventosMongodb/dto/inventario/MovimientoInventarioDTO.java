@@ -0,0 +1,15 @@
+package dev.andresm.unieventosMongodb.dto.inventario;
+
+/**
+ * DTO que representa un movimiento de entradas sobre una localidad.
+
+ * Se utiliza en las operaciones por lote del inventario:
+ * - Evento afectado.
+ * - Localidad dentro del evento.
+ * - Cantidad de entradas a mover.
+ */
+public record MovimientoInventarioDTO(
+        String idEvento,
+        String nombreLocalidad,
+        int cantidad
+) {}
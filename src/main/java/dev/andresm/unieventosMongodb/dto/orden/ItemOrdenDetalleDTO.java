@@ -4,11 +4,12 @@ package dev.andresm.unieventosMongodb.dto.orden;
  * DTO que representa un ítem dentro del detalle de una orden.
 
  * Este DTO se utiliza para retornar la información de cada
- * entrada comprada dentro de una orden junto con su código QR.
+ * entrada comprada dentro de una orden junto con la URL de su código QR.
 
  * NOTA:
- * El QR se envía en formato Base64 para que el frontend
- * pueda renderizarlo directamente como imagen.
+ * El QR no viaja dentro del JSON: el frontend lo carga desde urlQr
+ * (image/png, o image/svg+xml agregando ?formato=svg), de modo que
+ * el detalle es liviano y el navegador puede cachear cada imagen.
  */
 public record ItemOrdenDetalleDTO(
 
@@ -17,6 +18,6 @@ public record ItemOrdenDetalleDTO(
         double precioUnitario,
         String nombreLocalidad,
 
-        // Código QR en formato Base64
-        String qr
+        // URL de la imagen del código QR de la entrada
+        String urlQr
 ) {}
@@ -0,0 +1,21 @@
+package dev.andresm.unieventosMongodb.dto.reportes;
+
+import java.time.LocalDate;
+
+/**
+ * DTO utilizado para solicitar un reporte de ventas de varios eventos.
+
+ * Los eventos se seleccionan por la fecha en que se realizan (rango de días,
+ * ambos inclusive), por organizador o por ambos criterios a la vez.
+ * Debe enviarse al menos uno de los dos.
+ *
+ * @param fechaInicio   primer día del rango (null para no limitar)
+ * @param fechaFin      último día del rango (null para no limitar)
+ * @param idOrganizador identificador del usuario que creó los eventos (null para no filtrar)
+ */
+public record GenerarReporteConsolidadoDTO(
+
+        LocalDate fechaInicio,
+        LocalDate fechaFin,
+        String idOrganizador
+) {}
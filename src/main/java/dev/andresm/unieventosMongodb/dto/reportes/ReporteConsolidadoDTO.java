@@ -0,0 +1,38 @@
+package dev.andresm.unieventosMongodb.dto.reportes;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Reporte de ventas de varios eventos, con el total y el detalle
+ * por evento, por ciudad y por tipo de evento.
+ *
+ * @param fechaInicio      primer día del rango solicitado (puede ser null)
+ * @param fechaFin         último día del rango solicitado (puede ser null)
+ * @param idOrganizador    organizador solicitado (puede ser null)
+ * @param fechaGeneracion  momento en que se generó el reporte
+ * @param totalEventos     cantidad de eventos incluidos
+ * @param capacidad        capacidad total de los eventos
+ * @param entradasVendidas entradas vendidas en total
+ * @param ganancias        ganancias totales
+ * @param porcentajeVenta  entradas vendidas sobre capacidad (0 - 100)
+ * @param eventos          detalle por evento, ordenado por fecha
+ * @param porCiudad        detalle por ciudad, de mayor a menor ganancia
+ * @param porTipo          detalle por tipo de evento, de mayor a menor ganancia
+ */
+public record ReporteConsolidadoDTO(
+
+        LocalDate fechaInicio,
+        LocalDate fechaFin,
+        String idOrganizador,
+        LocalDateTime fechaGeneracion,
+        int totalEventos,
+        int capacidad,
+        int entradasVendidas,
+        double ganancias,
+        double porcentajeVenta,
+        List<ResumenEventoDTO> eventos,
+        List<ResumenGrupoDTO> porCiudad,
+        List<ResumenGrupoDTO> porTipo
+) {}
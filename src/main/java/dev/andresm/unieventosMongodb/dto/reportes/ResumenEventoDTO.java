@@ -0,0 +1,31 @@
+package dev.andresm.unieventosMongodb.dto.reportes;
+
+import dev.andresm.unieventosMongodb.documentos.TipoEvento;
+
+import java.time.LocalDateTime;
+
+/**
+ * Ventas de un evento dentro de un reporte consolidado.
+ *
+ * @param idEvento         identificador del evento
+ * @param nombre           nombre del evento
+ * @param ciudad           ciudad del evento
+ * @param tipo             tipo del evento
+ * @param fecha            fecha del evento
+ * @param capacidad        suma de la capacidad de sus localidades
+ * @param entradasVendidas entradas vendidas en todas sus localidades
+ * @param ganancias        ganancias de las entradas vendidas
+ * @param porcentajeVenta  entradas vendidas sobre capacidad (0 - 100)
+ */
+public record ResumenEventoDTO(
+
+        String idEvento,
+        String nombre,
+        String ciudad,
+        TipoEvento tipo,
+        LocalDateTime fecha,
+        int capacidad,
+        int entradasVendidas,
+        double ganancias,
+        double porcentajeVenta
+) {}
@@ -0,0 +1,22 @@
+package dev.andresm.unieventosMongodb.dto.reportes;
+
+/**
+ * Ventas acumuladas de un grupo de eventos (por ciudad o por tipo)
+ * dentro de un reporte consolidado.
+ *
+ * @param nombre           ciudad o tipo del grupo
+ * @param eventos          cantidad de eventos del grupo
+ * @param capacidad        capacidad total de los eventos
+ * @param entradasVendidas entradas vendidas en los eventos
+ * @param ganancias        ganancias de los eventos
+ * @param porcentajeVenta  entradas vendidas sobre capacidad (0 - 100)
+ */
+public record ResumenGrupoDTO(
+
+        String nombre,
+        int eventos,
+        int capacidad,
+        int entradasVendidas,
+        double ganancias,
+        double porcentajeVenta
+) {}
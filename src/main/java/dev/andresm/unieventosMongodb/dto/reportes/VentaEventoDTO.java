@@ -0,0 +1,15 @@
+package dev.andresm.unieventosMongodb.dto.reportes;
+
+/**
+ * Ventas totales de un evento, sumadas sobre el resumen diario.
+ *
+ * @param idEvento         identificador del evento
+ * @param entradasVendidas suma de las entradas vendidas en todas sus localidades
+ * @param ganancias        suma de las ganancias de todas sus localidades
+ */
+public record VentaEventoDTO(
+
+        String idEvento,
+        int entradasVendidas,
+        double ganancias
+) {}
@@ -0,0 +1,16 @@
+package dev.andresm.unieventosMongodb.dto.reportes;
+
+/**
+ * Ventas de una localidad de un evento, calculadas por agregación
+ * sobre las órdenes pagadas.
+ *
+ * @param nombreLocalidad  nombre de la localidad
+ * @param entradasVendidas suma de las cantidades vendidas
+ * @param ganancias        suma de cantidad * precioUnitario
+ */
+public record VentaLocalidadDTO(
+
+        String nombreLocalidad,
+        int entradasVendidas,
+        double ganancias
+) {}
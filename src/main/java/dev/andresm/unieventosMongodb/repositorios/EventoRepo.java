@@ -2,17 +2,19 @@ package dev.andresm.unieventosMongodb.repositorios;
 
 import dev.andresm.unieventosMongodb.documentos.EstadoEvento;
 import dev.andresm.unieventosMongodb.documentos.Evento;
-import dev.andresm.unieventosMongodb.documentos.TipoEvento;
+import dev.andresm.unieventosMongodb.dto.evento.ItemEventoDTO;
+import org.springframework.data.mongodb.repository.Aggregation;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface EventoRepo extends MongoRepository<Evento, String> {
+public interface EventoRepo extends MongoRepository<Evento, String>, EventoRepoFiltros {
 
     /**
      * Buscar evento por ID.
@@ -26,26 +28,30 @@ public interface EventoRepo extends MongoRepository<Evento, String> {
     Optional<Evento> buscarId(String id);
 
     /**
-     * Buscar evento por tipo.
-     * Ejemplo de tipos:
-     * CONCIERTO, TEATRO, DEPORTE, CONFERENCIA, etc.
+     * Buscar varios eventos por ID en una sola consulta.
+     * Se usa para resolver los eventos de un carrito o de una orden
+     * sin consultar MongoDB una vez por ítem.
 
-     * @param tipo Tipo del evento
-     * @return Evento encontrado
+     * MongoDB:
+     * - _id: { $in: ids }
+     *
+     * @param ids Identificadores de los eventos
+     * @return Eventos encontrados (los inexistentes se omiten)
      */
-    @Query("{ tipo: ?0 }")
-    List<Evento> buscarPorTipo(
-            TipoEvento tipo);
+    @Query("{ _id: { $in: ?0 } }")
+    List<Evento> buscarPorIds(Collection<String> ids);
 
     /**
-     * Buscar evento por ciudad exacta.
+     * Buscar los datos de catálogo de varios eventos en una sola consulta.
+     * Solo se leen nombre, fecha, ciudad y el nombre y precio de cada
+     * localidad, que es lo que guarda la caché de eventos.
      *
-     * @param ciudad Ciudad del evento
-     * @return Evento encontrado
+     * @param ids Identificadores de los eventos
+     * @return Eventos encontrados con los campos de catálogo
      */
-    @Query("{ ciudad: ?0 }")
-    List<Evento> buscarPorCiudad(
-            String ciudad);
+    @Query(value = "{ _id: { $in: ?0 } }",
+            fields = "{ nombre: 1, fecha: 1, ciudad: 1, 'localidades.nombre': 1, 'localidades.precio': 1 }")
+    List<Evento> buscarCatalogoPorIds(Collection<String> ids);
 
     /**
      * Buscar evento por nombre exacto.
@@ -77,113 +83,27 @@ public interface EventoRepo extends MongoRepository<Evento, String> {
     Optional<Evento> buscarPorNombreIdDiferente(String nombre, String id);
 
     /**
-     * Buscar evento por nombre parcial (LIKE).
-     * Se usa una expresión regular con opción 'i'
-        para hacer la búsqueda insensible a mayúsculas.
-
-     * @param nombre Parte del nombre del evento
-     * @return Evento encontrado
-     */
-    @Query("{ nombre: { $regex: ?0, $options: 'i' } }")
-    List<Evento> buscarPorNombreParcial(
-            String nombre);
-
-   /**
-     * Buscar evento por nombre y ciudad.
-
-     * @param nombre Nombre del evento
-     * @param ciudad Ciudad donde se realiza
-     * @return Evento encontrado
-     */
-    @Query("{ nombre: ?0, ciudad: ?1 }")
-    List<Evento> buscarPorNombreYCiudad(
-            String nombre,
-            String ciudad);
-
-    /**
-     * Buscar eventos dentro de un rango de fechas.
-     * Usa operadores MongoDB:
-     * - $gte → mayor o igual
-     * - $lte → menor o igual
-
-     * @param inicio Fecha inicial
-     * @param fin Fecha final
-     * @return Evento encontrado
-     */
-    @Query("{ fecha: { $gte: ?0, $lte: ?1 } }")
-    List<Evento> buscarPorFecha(
-            LocalDateTime inicio,
-            LocalDateTime fin);
-
-    /**
-     *  Buscar eventos por rango de fechas y ciudad.
-
-     * @param inicio Fecha inicial
-     * @param fin Fecha final
-     * @param ciudad Ciudad del evento
-     * @return Evento encontrado
-     */
-    @Query("{ fecha: { $gte: ?0, $lte: ?1 }, ciudad: ?2 }")
-    List<Evento> buscarPorFechaYCiudad(
-            LocalDateTime inicio,
-            LocalDateTime fin,
-            String ciudad);
-
-    /**
-     * Buscar eventos por rango de fechas y tipo.
-
-     * @param inicio Fecha inicial
-     * @param fin Fecha final
-     * @param tipo Tipo de evento
-     * @return Evento encontrado
-     */
-    @Query("{ fecha: { $gte: ?0, $lte: ?1 }, tipo: ?2 }")
-    List<Evento> buscarPorFechaYTipo(
-            LocalDateTime inicio,
-            LocalDateTime fin,
-            TipoEvento tipo);
-
-    /**
-     * Buscar eventos por rango de fechas, tipo y ciudad.
-     * Consulta avanzada usada para filtros combinados.
-
-     * @param inicio Fecha inicial
-     * @param fin Fecha final
-     * @param tipo Tipo de evento
-     * @param ciudad Ciudad del evento
-     * @return Evento encontrado
-     */
-    @Query("{ fecha: { $gte: ?0, $lte: ?1 }, tipo: ?2, ciudad: ?3 }")
-    List<Evento> buscarPorFechaTipoYCiudad(
-            LocalDateTime inicio,
-            LocalDateTime fin,
-            TipoEvento tipo,
-            String ciudad
-    );
-
-    /**
-     * Buscar eventos por tipo y ciudad.
-     *
-     * @param tipo Tipo del evento
-     * @param ciudad Ciudad del evento
-     * @return Evento encontrado
-     */
-    @Query("{ tipo: ?0, ciudad: ?1 }")
-    List<Evento> buscarPorTipoYCiudad(
-            TipoEvento tipo,
-            String ciudad);
+     * Listar todos los eventos registrados como ítems resumidos.
 
-    /**
-     * Listar todos los eventos registrados.
-     * Retorna todos los documentos de la colección evento.
+     * La etapa $project lee solo los campos de ItemEventoDTO, de modo que
+     * MongoDB no envía localidades, ubicación ni imágenes de localidades.
+     * El resultado se construye directamente en el DTO.
      *
-     * @return Lista de eventos
+     * @return Lista de eventos resumidos
      */
-    @Query("{}")
-    List<Evento> listarTodos();
+    @Aggregation({
+            "{ $project: { " +
+                    "nombre: 1, " +
+                    "descripcion: 1, " +
+                    "urlImagenPoster: '$imagenPortada', " +
+                    "fecha: 1, " +
+                    "direccion: 1 " +
+                    "} }"
+    })
+    List<ItemEventoDTO> listarItems();
 
     /**
-     * - Buscar eventos disponibles para clientes.
+     * - Buscar eventos disponibles para clientes como ítems resumidos.
 
      * - Se retornan únicamente los eventos que:
      * - Están en estado ACTIVO
@@ -192,14 +112,36 @@ public interface EventoRepo extends MongoRepository<Evento, String> {
      * MongoDB:
      * - estado : ACTIVO
      * - fecha : { $gt: fechaActual }
+     * - $project con los campos de ItemEventoDTO
      *
      * @param estado estado del evento
      * @param fecha fecha actual
      * @return lista de eventos disponibles
      */
-    @Query("{ estado: ?0, fecha: { $gt: ?1 } }")
-    List<Evento> buscarEventoDisponibles(
+    @Aggregation({
+            "{ $match: { estado: ?0, fecha: { $gt: ?1 } } }",
+
+            "{ $project: { " +
+                    "nombre: 1, " +
+                    "descripcion: 1, " +
+                    "urlImagenPoster: '$imagenPortada', " +
+                    "fecha: 1, " +
+                    "direccion: 1 " +
+                    "} }"
+    })
+    List<ItemEventoDTO> buscarItemsDisponibles(
             EstadoEvento estado,
             LocalDateTime fecha
     );
+
+    /**
+     * Buscar los nombres de los eventos en un estado.
+     * Solo se leen nombre y estado (además del _id), ya que se usan
+     * para construir el índice de sugerencias.
+     *
+     * @param estado estado del evento
+     * @return eventos con id, nombre y estado
+     */
+    @Query(value = "{ estado: ?0 }", fields = "{ nombre: 1, estado: 1 }")
+    List<Evento> buscarNombresPorEstado(EstadoEvento estado);
 }
@@ -0,0 +1,83 @@
+package dev.andresm.unieventosMongodb.repositorios;
+
+import dev.andresm.unieventosMongodb.documentos.EstadoEvento;
+import dev.andresm.unieventosMongodb.documentos.Evento;
+import dev.andresm.unieventosMongodb.dto.evento.FiltroEventoDTO;
+import dev.andresm.unieventosMongodb.dto.evento.ItemEventoDTO;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Consultas dinámicas de eventos construidas con Criteria.
+
+ * Se implementa en EventoRepoFiltrosImpl y se expone a través de EventoRepo,
+ * de modo que el servicio sigue trabajando con un único repositorio.
+ */
+public interface EventoRepoFiltros {
+
+    /**
+     * Buscar eventos combinando cualquier subconjunto de criterios.
+
+     * Solo se aplican los criterios no nulos (o no vacíos en el caso de String):
+     * - nombre → coincidencia parcial, insensible a mayúsculas
+     * - tipo   → igualdad
+     * - ciudad → igualdad
+     * - fecha  → rango completo del día
+     * - estado → igualdad
+     *
+     * @param filtro criterios opcionales de búsqueda
+     * @param estado estado requerido del evento (null para no filtrar por estado)
+     * @return eventos encontrados con solo los campos de ItemEventoDTO
+     */
+    List<ItemEventoDTO> buscarEventos(FiltroEventoDTO filtro, EstadoEvento estado);
+
+    /**
+     * Buscar una página de eventos con paginación por cursor (keyset).
+
+     * Los eventos se ordenan por fecha y _id. La página empieza justo después
+     * del último evento de la página anterior, por lo que MongoDB no tiene que
+     * recorrer ni descartar los documentos ya entregados.
+     *
+     * @param filtro criterios opcionales de búsqueda (puede ser null)
+     * @param estado estado requerido del evento (null para no filtrar por estado)
+     * @param desde solo eventos con fecha posterior (null para no limitar)
+     * @param fechaCursor fecha del último evento entregado (null en la primera página)
+     * @param idCursor id del último evento entregado (null en la primera página)
+     * @param limite cantidad máxima de eventos a retornar
+     * @return eventos de la página con solo los campos de ItemEventoDTO
+     */
+    List<ItemEventoDTO> buscarPagina(FiltroEventoDTO filtro, EstadoEvento estado, LocalDateTime desde,
+                                     LocalDateTime fechaCursor, String idCursor, int limite);
+
+    /**
+     * Buscar eventos por texto usando el índice de texto de MongoDB
+     * sobre nombre, descripción y ciudad.
+
+     * Los resultados se ordenan por relevancia (textScore), de mayor a menor.
+     *
+     * @param texto palabras a buscar
+     * @param estado estado requerido del evento (null para no filtrar por estado)
+     * @param omitir cantidad de resultados a saltar (página * tamaño)
+     * @param limite cantidad máxima de eventos a retornar
+     * @return eventos encontrados con solo los campos de ItemEventoDTO
+     */
+    List<ItemEventoDTO> buscarTexto(String texto, EstadoEvento estado, long omitir, int limite);
+
+    /**
+     * Buscar los eventos que entran en un reporte consolidado.
+
+     * Solo se aplican los criterios no nulos:
+     * - desde / hasta → fecha del evento en [desde, hasta)
+     * - idUsuario     → organizador del evento
+
+     * Solo se leen los campos que usa el reporte (nombre, ciudad, tipo,
+     * fecha y nombre y capacidad de las localidades).
+     *
+     * @param desde fecha mínima del evento, inclusive (null para no limitar)
+     * @param hasta fecha máxima del evento, exclusiva (null para no limitar)
+     * @param idUsuario organizador de los eventos (null para no filtrar)
+     * @return eventos ordenados por fecha
+     */
+    List<Evento> buscarParaReporte(LocalDateTime desde, LocalDateTime hasta, String idUsuario);
+}
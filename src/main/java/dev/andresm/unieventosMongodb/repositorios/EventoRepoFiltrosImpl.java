@@ -0,0 +1,183 @@
+package dev.andresm.unieventosMongodb.repositorios;
+
+import dev.andresm.unieventosMongodb.documentos.EstadoEvento;
+import dev.andresm.unieventosMongodb.documentos.Evento;
+import dev.andresm.unieventosMongodb.dto.evento.FiltroEventoDTO;
+import dev.andresm.unieventosMongodb.dto.evento.ItemEventoDTO;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.ProjectionOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Implementación de las consultas dinámicas de eventos.
+
+ * Flujo:
+ * 1. Se agrega a un único Criteria cada filtro presente en el DTO.
+ * 2. El filtro por estado se resuelve en MongoDB (no en memoria).
+ * 3. La etapa $project solo trae los campos que necesita ItemEventoDTO,
+ *    sin localidades, ubicación ni imágenes de localidades, y MongoDB
+ *    entrega el resultado directamente con la forma del DTO.
+ * 4. En la paginación se ordena por fecha y _id y se continúa desde
+ *    el último evento entregado (sin skip).
+ */
+@RequiredArgsConstructor
+public class EventoRepoFiltrosImpl implements EventoRepoFiltros {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public List<ItemEventoDTO> buscarEventos(FiltroEventoDTO filtro, EstadoEvento estado) {
+
+        // 1. Filtrar solo con los criterios presentes
+        // 2. Proyectar directamente al ítem
+        return buscarItems(List.of(Aggregation.match(construirCriterio(filtro, estado))));
+    }
+
+    @Override
+    public List<ItemEventoDTO> buscarPagina(FiltroEventoDTO filtro, EstadoEvento estado, LocalDateTime desde,
+                                            LocalDateTime fechaCursor, String idCursor, int limite) {
+
+        // 1. Condiciones adicionales sobre la fecha (disponibilidad y cursor)
+        List<Criteria> condiciones = new ArrayList<>();
+        condiciones.add(construirCriterio(filtro, estado));
+
+        if (desde != null) {
+            condiciones.add(Criteria.where("fecha").gt(desde));
+        }
+
+        // 2. Continuar después del último evento: (fecha > f) o (fecha = f y _id > id)
+        if (fechaCursor != null && idCursor != null) {
+            condiciones.add(new Criteria().orOperator(
+                    Criteria.where("fecha").gt(fechaCursor),
+                    Criteria.where("fecha").is(fechaCursor).and("_id").gt(idCursor)
+            ));
+        }
+
+        Criteria criterio = condiciones.size() == 1
+                ? condiciones.get(0)
+                : new Criteria().andOperator(condiciones);
+
+        // 3. Orden estable y límite de la página
+        return buscarItems(List.of(
+                Aggregation.match(criterio),
+                Aggregation.sort(Sort.by(Sort.Order.asc("fecha"), Sort.Order.asc("id"))),
+                Aggregation.limit(limite)
+        ));
+    }
+
+    @Override
+    public List<ItemEventoDTO> buscarTexto(String texto, EstadoEvento estado, long omitir, int limite) {
+
+        // 1. $text debe ir en la primera etapa $match
+        List<AggregationOperation> etapas = new ArrayList<>();
+        etapas.add(Aggregation.match(TextCriteria.forDefaultLanguage().matching(texto)));
+
+        if (estado != null) {
+            etapas.add(Aggregation.match(Criteria.where("estado").is(estado)));
+        }
+
+        // 2. Ordenar por relevancia (y por _id para que la paginación sea estable)
+        etapas.add(contexto -> Document.parse("{ $sort: { score: { $meta: 'textScore' }, _id: 1 } }"));
+
+        // 3. Página solicitada
+        etapas.add(Aggregation.skip(omitir));
+        etapas.add(Aggregation.limit(limite));
+
+        return buscarItems(etapas);
+    }
+
+    @Override
+    public List<Evento> buscarParaReporte(LocalDateTime desde, LocalDateTime hasta, String idUsuario) {
+
+        // 1. Criterios presentes (índices fecha y idUsuario_fecha)
+        Criteria criterio = new Criteria();
+
+        if (idUsuario != null && !idUsuario.isBlank()) {
+            criterio = criterio.and("idUsuario").is(idUsuario);
+        }
+
+        if (desde != null || hasta != null) {
+            Criteria fecha = criterio.and("fecha");
+            if (desde != null) {
+                fecha.gte(desde);
+            }
+            if (hasta != null) {
+                fecha.lt(hasta);
+            }
+        }
+
+        // 2. Solo los campos del reporte, ordenados por fecha
+        Query query = new Query(criterio).with(Sort.by(Sort.Order.asc("fecha"), Sort.Order.asc("id")));
+        query.fields().include("nombre", "ciudad", "tipo", "fecha",
+                "localidades.nombre", "localidades.capacidadMaxima");
+
+        return mongoTemplate.find(query, Evento.class);
+    }
+
+    /**
+     * Ejecuta las etapas recibidas seguidas de la proyección del ítem
+     * y lee el resultado directamente en ItemEventoDTO.
+     */
+    private List<ItemEventoDTO> buscarItems(List<AggregationOperation> etapas) {
+
+        ProjectionOperation proyeccion = Aggregation.project("nombre", "descripcion", "fecha", "direccion")
+                .and("imagenPortada").as("urlImagenPoster");
+
+        List<AggregationOperation> pipeline = new ArrayList<>(etapas);
+        pipeline.add(proyeccion);
+
+        return mongoTemplate.aggregate(
+                Aggregation.newAggregation(Evento.class, pipeline),
+                ItemEventoDTO.class
+        ).getMappedResults();
+    }
+
+    /**
+     * Construye el criterio de búsqueda a partir de los filtros no vacíos.
+     */
+    private Criteria construirCriterio(FiltroEventoDTO filtro, EstadoEvento estado) {
+
+        Criteria criterio = new Criteria();
+
+        if (estado != null) {
+            criterio = criterio.and("estado").is(estado);
+        }
+
+        if (filtro == null) {
+            return criterio;
+        }
+
+        if (filtro.nombre() != null && !filtro.nombre().isBlank()) {
+            // Se escapa el texto para que se busque literal y no como expresión regular
+            criterio = criterio.and("nombre").regex(Pattern.quote(filtro.nombre()), "i");
+        }
+
+        if (filtro.tipo() != null) {
+            criterio = criterio.and("tipo").is(filtro.tipo());
+        }
+
+        if (filtro.ciudad() != null && !filtro.ciudad().isBlank()) {
+            criterio = criterio.and("ciudad").is(filtro.ciudad());
+        }
+
+        if (filtro.fecha() != null) {
+            LocalDate fecha = filtro.fecha();
+            criterio = criterio.and("fecha").gte(fecha.atStartOfDay()).lt(fecha.plusDays(1).atStartOfDay());
+        }
+
+        return criterio;
+    }
+}
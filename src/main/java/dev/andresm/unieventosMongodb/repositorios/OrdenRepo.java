@@ -174,4 +174,4 @@ public interface OrdenRepo extends MongoRepository<Orden, String> {
      */
     @Query("{ 'items.idEvento': ?0 }")
     List<Orden> buscarOrdenesPorEvento(String idEvento);
-}
\ No newline at end of file
+}
@@ -0,0 +1,70 @@
+package dev.andresm.unieventosMongodb.repositorios;
+
+import dev.andresm.unieventosMongodb.documentos.VentaDiaria;
+import dev.andresm.unieventosMongodb.dto.reportes.VentaEventoDTO;
+import dev.andresm.unieventosMongodb.dto.reportes.VentaLocalidadDTO;
+import org.springframework.data.mongodb.repository.Aggregation;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repositorio del resumen diario de ventas por evento y localidad.
+ */
+@Repository
+public interface VentaDiariaRepo extends MongoRepository<VentaDiaria, String> {
+
+    /**
+     * Suma las ventas de un evento por localidad a partir del resumen diario.
+
+     * Lee un documento por localidad y día (índice idEvento + dia),
+     * sin importar cuántas órdenes tenga el evento.
+     *
+     * @param idEvento identificador del evento
+     * @return ventas por localidad
+     */
+    @Aggregation({
+            "{ $match: { idEvento: ?0 } }",
+
+            "{ $group: { " +
+                    "_id: '$nombreLocalidad', " +
+                    "entradasVendidas: { $sum: '$entradasVendidas' }, " +
+                    "ganancias: { $sum: '$ganancias' } " +
+                    "} }",
+
+            "{ $project: { " +
+                    "_id: 0, " +
+                    "nombreLocalidad: '$_id', " +
+                    "entradasVendidas: 1, " +
+                    "ganancias: 1 " +
+                    "} }"
+    })
+    List<VentaLocalidadDTO> sumarVentasPorLocalidad(String idEvento);
+
+    /**
+     * Suma las ventas de varios eventos en una sola agregación,
+     * un resultado por evento (los eventos sin ventas no aparecen).
+     *
+     * @param idsEventos identificadores de los eventos
+     * @return ventas totales por evento
+     */
+    @Aggregation({
+            "{ $match: { idEvento: { $in: ?0 } } }",
+
+            "{ $group: { " +
+                    "_id: '$idEvento', " +
+                    "entradasVendidas: { $sum: '$entradasVendidas' }, " +
+                    "ganancias: { $sum: '$ganancias' } " +
+                    "} }",
+
+            "{ $project: { " +
+                    "_id: 0, " +
+                    "idEvento: '$_id', " +
+                    "entradasVendidas: 1, " +
+                    "ganancias: 1 " +
+                    "} }"
+    })
+    List<VentaEventoDTO> sumarVentasPorEvento(Collection<String> idsEventos);
+}
@@ -0,0 +1,557 @@
+package dev.andresm.unieventosMongodb.servicios.implement;
+
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.result.UpdateResult;
+import dev.andresm.unieventosMongodb.documentos.DetalleOrden;
+import dev.andresm.unieventosMongodb.documentos.Ingreso;
+import dev.andresm.unieventosMongodb.documentos.Orden;
+import dev.andresm.unieventosMongodb.documentos.SecuenciaEntrada;
+import dev.andresm.unieventosMongodb.dto.acceso.ResultadoAcceso;
+import dev.andresm.unieventosMongodb.dto.acceso.ResultadoAccesoDTO;
+import dev.andresm.unieventosMongodb.dto.acceso.ValidarAccesoDTO;
+import dev.andresm.unieventosMongodb.servicios.interfaces.AccesoServicio;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Implementación del servicio de entradas firmadas y control de acceso.
+
+ * Formato del código de una entrada (Base64 URL sin relleno):
+ * - versión (1 byte)
+ * - id del evento y id de la orden (12 bytes cada uno, ObjectId)
+ * - número de entrada (4 bytes) y cantidad (2 bytes)
+ * - longitud (1 byte) y nombre de la localidad en UTF-8
+ * - firma HMAC-SHA256 de todo lo anterior, truncada a 16 bytes
+
+ * En la puerta:
+ * - La firma se verifica con la clave de la aplicación, sin consultar MongoDB.
+ * - Cada evento tiene un registro en memoria con un bit por número de entrada;
+ *   marcar un ingreso o detectar un duplicado es una operación sobre el BitSet.
+ * - Al usar por primera vez el registro de un evento se cargan los ingresos
+ *   guardados, así que un reinicio no permite reutilizar entradas.
+ * - Los ingresos nuevos se guardan por lotes en "ingresos". Su _id es
+ *   "idEvento:numeroEntrada", por lo que si dos instancias aceptan la misma
+ *   entrada el duplicado queda detectado al guardar el lote.
+ * - Las entradas de una orden anulada se guardan como ingresos revocados y se
+ *   marcan en un segundo BitSet; cada volcado lee las revocaciones recientes
+ *   para que también las rechacen las demás instancias.
+ */
+@Slf4j
+@Service
+@Transactional
+public class AccesoServicioImp implements AccesoServicio {
+
+    private static final byte VERSION = 1;
+    private static final int BYTES_ID = 12;
+    private static final int BYTES_FIRMA = 16;
+
+    // versión + evento + orden + número + cantidad + longitud de la localidad
+    private static final int BYTES_CABECERA = 1 + BYTES_ID + BYTES_ID + 4 + 2 + 1;
+
+    private static final int CLAVE_DUPLICADA = 11000;
+
+    // Las revocaciones se releen con este margen para tolerar relojes desfasados
+    // entre instancias (marcar una entrada revocada dos veces no tiene efecto)
+    private static final long SEGUNDOS_MARGEN_REVOCACION = 60;
+
+    // HMAC-SHA256: la clave debe tener al menos el tamaño del hash
+    private static final int LONGITUD_MINIMA_CLAVE = 32;
+
+    private final MongoTemplate mongoTemplate;
+    private final ThreadLocal<Mac> firmas;
+    private final Map<String, RegistroIngresos> registros = new ConcurrentHashMap<>();
+    private LocalDateTime ultimaRevisionRevocaciones = LocalDateTime.now();
+
+    @Value("${acceso.registro.inactividad.minutos:360}")
+    private long minutosInactividad;
+
+    public AccesoServicioImp(MongoTemplate mongoTemplate,
+                             @Value("${acceso.firma.clave}") String claveFirma) {
+
+        this.mongoTemplate = mongoTemplate;
+
+        // La clave llega de la variable de entorno ACCESO_FIRMA_CLAVE; con una clave
+        // corta o ausente cualquiera podría falsificar entradas, así que no se inicia
+        if (claveFirma == null || claveFirma.getBytes(StandardCharsets.UTF_8).length < LONGITUD_MINIMA_CLAVE) {
+            throw new IllegalStateException("La clave de firma de entradas (ACCESO_FIRMA_CLAVE) debe tener al menos "
+                    + LONGITUD_MINIMA_CLAVE + " bytes");
+        }
+
+        // Mac no es seguro entre hilos: cada hilo conserva el suyo ya inicializado
+        SecretKeySpec clave = new SecretKeySpec(claveFirma.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+        this.firmas = ThreadLocal.withInitial(() -> {
+            try {
+                Mac mac = Mac.getInstance("HmacSHA256");
+                mac.init(clave);
+                return mac;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    @Override
+    public boolean asignarNumeros(Orden orden) {
+
+        // 1. Agrupar por evento los ítems que aún no tienen número
+        Map<String, List<DetalleOrden>> sinNumero = new LinkedHashMap<>();
+
+        for (DetalleOrden detalle : orden.getItems()) {
+            if (detalle.getNumeroEntrada() == null) {
+                sinNumero.computeIfAbsent(detalle.getIdEvento(), id -> new ArrayList<>()).add(detalle);
+            }
+        }
+
+        for (Map.Entry<String, List<DetalleOrden>> evento : sinNumero.entrySet()) {
+
+            List<DetalleOrden> items = evento.getValue();
+
+            // 2. Reservar un rango de números del evento con un $inc atómico
+            //    (el contador se crea en la primera venta)
+            SecuenciaEntrada secuencia = mongoTemplate.findAndModify(
+                    new Query(Criteria.where("_id").is(evento.getKey())),
+                    new Update().inc("ultimo", items.size()),
+                    FindAndModifyOptions.options().upsert(true).returnNew(true),
+                    SecuenciaEntrada.class
+            );
+
+            // 3. Numerar los ítems con el rango reservado
+            int numero = secuencia.getUltimo() - items.size();
+            for (DetalleOrden detalle : items) {
+                detalle.setNumeroEntrada(++numero);
+            }
+        }
+
+        return !sinNumero.isEmpty();
+    }
+
+    @Override
+    public Orden numerarOrden(Orden orden) {
+
+        // 1. Asignar los números que falten
+        if (!asignarNumeros(orden)) {
+            return orden;
+        }
+
+        // 2. Guardarlos solo si ningún ítem de la orden guardada tiene número todavía
+        UpdateResult resultado = mongoTemplate.updateFirst(
+                new Query(Criteria.where("_id").is(orden.getId())
+                        .and("items.numeroEntrada").exists(false)),
+                new Update().set("items", orden.getItems()),
+                Orden.class
+        );
+
+        if (resultado.getModifiedCount() > 0) {
+            return orden;
+        }
+
+        // 3. Otro proceso numeró la orden primero: se usan sus números
+        //    (los reservados aquí quedan sin usar)
+        Orden guardada = mongoTemplate.findById(orden.getId(), Orden.class);
+        return guardada != null ? guardada : orden;
+    }
+
+    @Override
+    public String generarCodigoEntrada(String idOrden, DetalleOrden detalle) {
+
+        if (detalle.getNumeroEntrada() == null) {
+            throw new IllegalStateException("La entrada no tiene número asignado");
+        }
+
+        byte[] localidad = detalle.getNombreLocalidad().getBytes(StandardCharsets.UTF_8);
+
+        if (localidad.length > 255) {
+            throw new IllegalArgumentException("El nombre de la localidad es demasiado largo");
+        }
+
+        // 1. Datos de la entrada en binario
+        ByteBuffer datos = ByteBuffer.allocate(BYTES_CABECERA + localidad.length + BYTES_FIRMA)
+                .put(VERSION)
+                .put(idABytes(detalle.getIdEvento()))
+                .put(idABytes(idOrden))
+                .putInt(detalle.getNumeroEntrada())
+                .putShort((short) detalle.getCantidad())
+                .put((byte) localidad.length)
+                .put(localidad);
+
+        // 2. Firma de los datos
+        datos.put(firmar(datos.array(), datos.position()));
+
+        // 3. Texto compacto para el QR
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(datos.array());
+    }
+
+    @Override
+    public ResultadoAccesoDTO validarAcceso(ValidarAccesoDTO validarAccesoDTO) {
+
+        // 1. Verificar la firma y leer la entrada (sin consultar MongoDB)
+        EntradaFirmada entrada = leerCodigo(validarAccesoDTO.codigo());
+
+        if (entrada == null) {
+            return new ResultadoAccesoDTO(ResultadoAcceso.FIRMA_INVALIDA, null, null, 0);
+        }
+
+        // 2. La entrada debe ser del evento que se controla en la puerta
+        if (!entrada.idEvento().equalsIgnoreCase(validarAccesoDTO.idEvento())) {
+            return resultado(ResultadoAcceso.EVENTO_DIFERENTE, entrada);
+        }
+
+        Ingreso ingreso = Ingreso.builder()
+                .id(entrada.idEvento() + ":" + entrada.numeroEntrada())
+                .idEvento(entrada.idEvento())
+                .numeroEntrada(entrada.numeroEntrada())
+                .idOrden(entrada.idOrden())
+                .cantidad(entrada.cantidad())
+                .puerta(validarAccesoDTO.puerta())
+                .fecha(LocalDateTime.now())
+                .build();
+
+        // 3. Marcar el ingreso en el registro del evento; si el registro se
+        //    descartó por inactividad mientras tanto, se vuelve a cargar
+        ResultadoAcceso marcado;
+        do {
+            marcado = registros.computeIfAbsent(entrada.idEvento(), this::cargarRegistro).marcar(ingreso);
+        } while (marcado == null);
+
+        return resultado(marcado, entrada);
+    }
+
+    @Override
+    public void revocarEntradas(Orden orden) {
+
+        List<DetalleOrden> numerados = orden.getItems().stream()
+                .filter(detalle -> detalle.getNumeroEntrada() != null)
+                .toList();
+
+        if (numerados.isEmpty()) {
+            return;
+        }
+
+        // 1. Guardar las entradas como revocadas; si ya ingresaron se conserva
+        //    el ingreso y solo se agrega la marca
+        LocalDateTime ahora = LocalDateTime.now();
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Ingreso.class);
+
+        for (DetalleOrden detalle : numerados) {
+            bulk.upsert(
+                    new Query(Criteria.where("_id").is(detalle.getIdEvento() + ":" + detalle.getNumeroEntrada())),
+                    new Update()
+                            .set("revocada", true)
+                            .set("fechaRevocacion", ahora)
+                            .setOnInsert("idEvento", detalle.getIdEvento())
+                            .setOnInsert("numeroEntrada", detalle.getNumeroEntrada())
+                            .setOnInsert("idOrden", orden.getId())
+                            .setOnInsert("cantidad", detalle.getCantidad())
+            );
+        }
+        bulk.execute();
+
+        // 2. Marcarlas en los registros que esta instancia tiene cargados
+        for (DetalleOrden detalle : numerados) {
+            RegistroIngresos registro = registros.get(detalle.getIdEvento());
+            if (registro != null) {
+                registro.revocar(detalle.getNumeroEntrada());
+            }
+        }
+    }
+
+    @Override
+    public int volcarIngresos() {
+
+        int guardados = 0;
+
+        for (Map.Entry<String, RegistroIngresos> registro : registros.entrySet()) {
+
+            // 1. Tomar los ingresos marcados desde el último volcado
+            List<Ingreso> pendientes = registro.getValue().tomarPendientes();
+
+            if (pendientes.isEmpty()) {
+                continue;
+            }
+
+            // 2. Un bulk sin orden por evento
+            try {
+                BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Ingreso.class);
+                bulk.insert(pendientes);
+                guardados += bulk.execute().getInsertedCount();
+
+            } catch (BulkOperationException e) {
+
+                // 3. Los duplicados son entradas aceptadas también en otra instancia;
+                //    el resto de errores se reintenta en el siguiente volcado
+                List<Ingreso> reintentar = new ArrayList<>();
+
+                for (BulkWriteError error : e.getErrors()) {
+                    Ingreso ingreso = pendientes.get(error.getIndex());
+                    if (error.getCode() == CLAVE_DUPLICADA) {
+                        log.info("Ingreso repetido en otra instancia o entrada revocada: {}", ingreso.getId());
+                    } else {
+                        reintentar.add(ingreso);
+                    }
+                }
+
+                guardados += e.getResult().getInsertedCount();
+                registro.getValue().devolver(reintentar);
+
+            } catch (RuntimeException e) {
+
+                // 4. Sin conexión u otro fallo: el lote completo se reintenta
+                registro.getValue().devolver(pendientes);
+                log.warn("No fue posible guardar los ingresos del evento {}", registro.getKey(), e);
+            }
+        }
+
+        return guardados;
+    }
+
+    /**
+     * Tarea programada: guarda los ingresos pendientes, aplica las revocaciones
+     * hechas en otras instancias y libera la memoria de los eventos sin
+     * escaneos recientes.
+     */
+    @Scheduled(fixedDelayString = "${acceso.ingresos.intervalo:1000}")
+    public void volcarRegistros() {
+
+        volcarIngresos();
+        leerRevocaciones();
+
+        long limite = System.nanoTime() - TimeUnit.MINUTES.toNanos(minutosInactividad);
+        registros.entrySet().removeIf(registro -> registro.getValue().descartarSiInactivo(limite));
+    }
+
+    /**
+     * Guarda los ingresos pendientes al detener la aplicación.
+     */
+    @PreDestroy
+    public void volcarAlDetener() {
+        volcarIngresos();
+    }
+
+    /**
+     * Marca en los registros cargados las entradas revocadas desde la revisión
+     * anterior (incluidas las revocadas en otras instancias). Si la consulta
+     * falla se repite el mismo intervalo en el siguiente volcado.
+     */
+    private void leerRevocaciones() {
+
+        LocalDateTime inicio = LocalDateTime.now();
+
+        Query query = new Query(Criteria.where("fechaRevocacion")
+                .gte(ultimaRevisionRevocaciones.minusSeconds(SEGUNDOS_MARGEN_REVOCACION)));
+        query.fields().include("idEvento").include("numeroEntrada");
+
+        try (Stream<Ingreso> revocados = mongoTemplate.stream(query, Ingreso.class)) {
+            revocados.forEach(ingreso -> {
+                RegistroIngresos registro = registros.get(ingreso.getIdEvento());
+                if (registro != null) {
+                    registro.revocar(ingreso.getNumeroEntrada());
+                }
+            });
+            ultimaRevisionRevocaciones = inicio;
+
+        } catch (RuntimeException e) {
+            log.warn("No fue posible leer las entradas revocadas", e);
+        }
+    }
+
+    /**
+     * Crea el registro de un evento con los ingresos ya guardados en MongoDB,
+     * incluidas las entradas revocadas.
+     */
+    private RegistroIngresos cargarRegistro(String idEvento) {
+
+        Query query = new Query(Criteria.where("idEvento").is(idEvento));
+        query.fields().include("numeroEntrada").include("revocada");
+
+        RegistroIngresos registro = new RegistroIngresos();
+
+        try (Stream<Ingreso> ingresos = mongoTemplate.stream(query, Ingreso.class)) {
+            ingresos.forEach(ingreso -> {
+                registro.marcados.set(ingreso.getNumeroEntrada());
+                if (ingreso.isRevocada()) {
+                    registro.revocados.set(ingreso.getNumeroEntrada());
+                }
+            });
+        }
+        return registro;
+    }
+
+    /**
+     * Verifica la firma del código y extrae la entrada.
+     * Cualquier código mal formado o alterado devuelve null.
+     */
+    private EntradaFirmada leerCodigo(String codigo) {
+
+        byte[] datos;
+        try {
+            datos = Base64.getUrlDecoder().decode(codigo);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+
+        // 1. Validar versión y longitud
+        if (datos.length < BYTES_CABECERA + BYTES_FIRMA || datos[0] != VERSION) {
+            return null;
+        }
+
+        int bytesLocalidad = Byte.toUnsignedInt(datos[BYTES_CABECERA - 1]);
+        int bytesDatos = BYTES_CABECERA + bytesLocalidad;
+
+        if (datos.length != bytesDatos + BYTES_FIRMA) {
+            return null;
+        }
+
+        // 2. Comparar la firma en tiempo constante
+        byte[] firma = Arrays.copyOfRange(datos, bytesDatos, datos.length);
+        if (!MessageDigest.isEqual(firmar(datos, bytesDatos), firma)) {
+            return null;
+        }
+
+        // 3. Leer los campos
+        ByteBuffer buffer = ByteBuffer.wrap(datos, 1, bytesDatos - 1);
+        byte[] idEvento = new byte[BYTES_ID];
+        byte[] idOrden = new byte[BYTES_ID];
+        buffer.get(idEvento).get(idOrden);
+        int numeroEntrada = buffer.getInt();
+        int cantidad = Short.toUnsignedInt(buffer.getShort());
+
+        if (numeroEntrada <= 0) {
+            return null;
+        }
+
+        return new EntradaFirmada(
+                HexFormat.of().formatHex(idEvento),
+                HexFormat.of().formatHex(idOrden),
+                numeroEntrada,
+                cantidad,
+                new String(datos, BYTES_CABECERA, bytesLocalidad, StandardCharsets.UTF_8)
+        );
+    }
+
+    /**
+     * HMAC-SHA256 de los primeros bytes indicados, truncado a BYTES_FIRMA.
+     */
+    private byte[] firmar(byte[] datos, int longitud) {
+        Mac mac = firmas.get();
+        mac.update(datos, 0, longitud);
+        return Arrays.copyOf(mac.doFinal(), BYTES_FIRMA);
+    }
+
+    /**
+     * Convierte un ObjectId en texto hexadecimal a sus 12 bytes.
+     */
+    private static byte[] idABytes(String id) {
+        if (id == null || id.length() != BYTES_ID * 2) {
+            throw new IllegalArgumentException("Identificador no válido: " + id);
+        }
+        return HexFormat.of().parseHex(id);
+    }
+
+    private static ResultadoAccesoDTO resultado(ResultadoAcceso resultado, EntradaFirmada entrada) {
+        return new ResultadoAccesoDTO(resultado, entrada.idOrden(), entrada.nombreLocalidad(), entrada.cantidad());
+    }
+
+    /**
+     * Datos de una entrada leídos de un código con firma válida.
+     */
+    private record EntradaFirmada(
+            String idEvento,
+            String idOrden,
+            int numeroEntrada,
+            int cantidad,
+            String nombreLocalidad
+    ) {}
+
+    /**
+     * Ingresos de un evento: un bit por número de entrada, un bit por
+     * entrada revocada y los ingresos que aún no se han guardado en MongoDB.
+     */
+    private static final class RegistroIngresos {
+
+        private final BitSet marcados = new BitSet();
+        private final BitSet revocados = new BitSet();
+        private List<Ingreso> pendientes = new ArrayList<>();
+        private long ultimoUso = System.nanoTime();
+        private boolean descartado;
+
+        /**
+         * Marca el ingreso de una entrada.
+         *
+         * @return PERMITIDO si es el primer ingreso, REVOCADA o DUPLICADO si se
+         *         rechaza, null si el registro fue descartado
+         */
+        private synchronized ResultadoAcceso marcar(Ingreso ingreso) {
+
+            if (descartado) {
+                return null;
+            }
+
+            ultimoUso = System.nanoTime();
+
+            if (revocados.get(ingreso.getNumeroEntrada())) {
+                return ResultadoAcceso.REVOCADA;
+            }
+
+            if (marcados.get(ingreso.getNumeroEntrada())) {
+                return ResultadoAcceso.DUPLICADO;
+            }
+
+            marcados.set(ingreso.getNumeroEntrada());
+            pendientes.add(ingreso);
+            return ResultadoAcceso.PERMITIDO;
+        }
+
+        private synchronized void revocar(int numeroEntrada) {
+            revocados.set(numeroEntrada);
+        }
+
+        private synchronized List<Ingreso> tomarPendientes() {
+            List<Ingreso> tomados = pendientes;
+            pendientes = new ArrayList<>();
+            return tomados;
+        }
+
+        private synchronized void devolver(List<Ingreso> ingresos) {
+            pendientes.addAll(ingresos);
+        }
+
+        /**
+         * Descarta el registro si no tiene ingresos por guardar
+         * y no se ha usado desde el límite indicado.
+         */
+        private synchronized boolean descartarSiInactivo(long limite) {
+            descartado = pendientes.isEmpty() && ultimoUso - limite < 0;
+            return descartado;
+        }
+    }
+}
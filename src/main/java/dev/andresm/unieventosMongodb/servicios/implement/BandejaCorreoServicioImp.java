@@ -0,0 +1,214 @@
+package dev.andresm.unieventosMongodb.servicios.implement;
+
+import dev.andresm.unieventosMongodb.documentos.CorreoSaliente;
+import dev.andresm.unieventosMongodb.documentos.EstadoCorreo;
+import dev.andresm.unieventosMongodb.dto.email.EmailDTO;
+import dev.andresm.unieventosMongodb.dto.email.ResultadoEmailDTO;
+import dev.andresm.unieventosMongodb.servicios.interfaces.BandejaCorreoServicio;
+import dev.andresm.unieventosMongodb.servicios.interfaces.EmailServicio;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Implementación de la bandeja de salida de correos.
+
+ * - encolarEmail solo inserta un documento en "correos_salientes".
+ * - Una tarea programada reclama un lote de correos pendientes
+ *   (mismo esquema de marcado del barrido de reservas), los envía
+ *   y registra el resultado de todo el lote con escrituras agrupadas.
+ * - Un envío fallido se reintenta con espera exponencial; al agotar
+ *   los reintentos el correo queda FALLIDO (correo muerto).
+ * - Un lote cuyo bloqueo venció (por ejemplo por un reinicio de la
+ *   aplicación) vuelve a estar disponible.
+ */
+@Slf4j
+@Service
+@Transactional
+@RequiredArgsConstructor
+public class BandejaCorreoServicioImp implements BandejaCorreoServicio {
+
+    private final MongoTemplate mongoTemplate;
+    private final EmailServicio emailServicio;
+
+    @Value("${correos.bandeja.lote:50}")
+    private int tamanoLote;
+
+    @Value("${correos.bandeja.reintentos:5}")
+    private int maximoIntentos;
+
+    @Value("${correos.bandeja.espera.inicial:30000}")
+    private long esperaInicial;
+
+    @Value("${correos.bandeja.espera.maxima:3600000}")
+    private long esperaMaxima;
+
+    @Value("${correos.bandeja.bloqueo.segundos:600}")
+    private long segundosBloqueo;
+
+    @Override
+    public void encolarEmail(EmailDTO emailDTO) {
+
+        LocalDateTime ahora = LocalDateTime.now();
+
+        CorreoSaliente correo = CorreoSaliente.builder()
+                .destinatario(emailDTO.destinatario())
+                .asunto(emailDTO.asunto())
+                .contenido(emailDTO.contenido())
+                .estado(EstadoCorreo.PENDIENTE)
+                .intentos(0)
+                .fechaCreacion(ahora)
+                .proximoIntento(ahora)
+                .build();
+
+        mongoTemplate.insert(correo);
+    }
+
+    @Override
+    public int despacharLote() {
+
+        LocalDateTime ahora = LocalDateTime.now();
+
+        // 1. Buscar un lote de correos listos para enviar (solo el _id)
+        Query listos = new Query(disponibles(ahora))
+                .with(Sort.by(Sort.Direction.ASC, "proximoIntento"))
+                .limit(tamanoLote);
+        listos.fields().include("_id");
+
+        List<String> ids = mongoTemplate.find(listos, CorreoSaliente.class).stream()
+                .map(CorreoSaliente::getId)
+                .toList();
+
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        // 2. Marcar el lote; los que otro despachador reclamó entre tanto quedan por fuera
+        String idLote = UUID.randomUUID().toString();
+
+        mongoTemplate.updateMulti(
+                new Query(new Criteria().andOperator(Criteria.where("_id").in(ids), disponibles(ahora))),
+                new Update()
+                        .set("estado", EstadoCorreo.EN_ENVIO)
+                        .set("idLote", idLote)
+                        .set("fechaBloqueo", ahora),
+                CorreoSaliente.class
+        );
+
+        List<CorreoSaliente> lote = mongoTemplate.find(
+                new Query(Criteria.where("idLote").is(idLote)), CorreoSaliente.class);
+
+        // 3. Enviar el lote por las conexiones SMTP del pool y separar los resultados
+        List<ResultadoEmailDTO> resultados = emailServicio.enviarEmails(lote.stream()
+                .map(correo -> new EmailDTO(correo.getAsunto(), correo.getContenido(), correo.getDestinatario()))
+                .toList());
+
+        List<String> enviados = new ArrayList<>();
+        Map<CorreoSaliente, String> fallidos = new LinkedHashMap<>();
+
+        for (int i = 0; i < lote.size(); i++) {
+            if (resultados.get(i).enviado()) {
+                enviados.add(lote.get(i).getId());
+            } else {
+                fallidos.put(lote.get(i), resultados.get(i).error());
+            }
+        }
+
+        // 4. Cerrar los enviados con una sola actualización
+        if (!enviados.isEmpty()) {
+            mongoTemplate.updateMulti(
+                    new Query(Criteria.where("_id").in(enviados).and("idLote").is(idLote)),
+                    new Update()
+                            .set("estado", EstadoCorreo.ENVIADO)
+                            .set("fechaEnvio", LocalDateTime.now())
+                            .unset("idLote")
+                            .unset("ultimoError"),
+                    CorreoSaliente.class
+            );
+        }
+
+        // 5. Reprogramar o apartar los fallidos en una escritura bulk
+        if (!fallidos.isEmpty()) {
+
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, CorreoSaliente.class);
+
+            for (Map.Entry<CorreoSaliente, String> fallido : fallidos.entrySet()) {
+
+                int intentos = fallido.getKey().getIntentos() + 1;
+                boolean agotado = intentos >= maximoIntentos;
+
+                bulk.updateOne(
+                        new Query(Criteria.where("_id").is(fallido.getKey().getId()).and("idLote").is(idLote)),
+                        new Update()
+                                .set("estado", agotado ? EstadoCorreo.FALLIDO : EstadoCorreo.PENDIENTE)
+                                .set("intentos", intentos)
+                                .set("ultimoError", fallido.getValue())
+                                .set("proximoIntento", LocalDateTime.now().plus(Duration.ofMillis(espera(intentos))))
+                                .unset("idLote")
+                );
+
+                if (agotado) {
+                    log.warn("Correo a {} descartado tras {} intentos: {}",
+                            fallido.getKey().getDestinatario(), intentos, fallido.getValue());
+                }
+            }
+
+            bulk.execute();
+        }
+
+        return enviados.size();
+    }
+
+    /**
+     * Tarea programada que envía los correos pendientes.
+     * Cada ejecución procesa como máximo un lote.
+     */
+    @Scheduled(fixedDelayString = "${correos.bandeja.intervalo:5000}")
+    public void despacharCorreos() {
+
+        try {
+            despacharLote();
+        } catch (Exception e) {
+            // Un fallo no detiene el despachador; se reintenta en la siguiente ejecución
+            log.error("Error despachando correos", e);
+        }
+    }
+
+    /**
+     * Correos pendientes cuyo reintento ya venció, o reclamados
+     * por un lote cuyo bloqueo venció.
+     */
+    private Criteria disponibles(LocalDateTime ahora) {
+        return new Criteria().orOperator(
+                Criteria.where("estado").is(EstadoCorreo.PENDIENTE).and("proximoIntento").lte(ahora),
+                Criteria.where("estado").is(EstadoCorreo.EN_ENVIO)
+                        .and("fechaBloqueo").lt(ahora.minusSeconds(segundosBloqueo))
+        );
+    }
+
+    /**
+     * Espera en milisegundos antes del intento indicado: se duplica en cada
+     * fallo sin superar la espera máxima.
+     */
+    private long espera(int intentos) {
+        long factor = 1L << Math.min(intentos - 1, 20);
+        return Math.min(esperaInicial * factor, esperaMaxima);
+    }
+}
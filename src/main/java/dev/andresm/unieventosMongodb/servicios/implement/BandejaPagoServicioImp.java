@@ -0,0 +1,268 @@
+package dev.andresm.unieventosMongodb.servicios.implement;
+
+import dev.andresm.unieventosMongodb.documentos.EstadoNotificacion;
+import dev.andresm.unieventosMongodb.documentos.NotificacionPago;
+import dev.andresm.unieventosMongodb.servicios.interfaces.BandejaPagoServicio;
+import dev.andresm.unieventosMongodb.servicios.interfaces.PagoServicio;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Implementación de la bandeja de entrada de notificaciones de pago.
+
+ * - El webhook solo guarda la notificación (un upsert por id de pago)
+ *   y responde; la consulta a MercadoPago, el inventario y el email
+ *   se ejecutan después en el grupo de hilos "ejecutorPagos".
+ * - Una tarea programada reclama las notificaciones pendientes con
+ *   findAndModify, por lo que cada una la toma un único trabajador.
+ * - Si el procesamiento falla se reintenta con espera exponencial;
+ *   al agotar los reintentos la notificación queda FALLIDA.
+ * - Una notificación EN_PROCESO cuyo bloqueo venció (por ejemplo por un
+ *   reinicio de la aplicación) vuelve a estar disponible.
+ */
+@Slf4j
+@Service
+@Transactional
+public class BandejaPagoServicioImp implements BandejaPagoServicio {
+
+    private final MongoTemplate mongoTemplate;
+    private final PagoServicio pagoServicio;
+    private final ThreadPoolTaskExecutor ejecutorPagos;
+    private final Semaphore hilosDisponibles;
+
+    @Value("${pagos.bandeja.reintentos:8}")
+    private int maximoIntentos;
+
+    @Value("${pagos.bandeja.espera.inicial:5000}")
+    private long esperaInicial;
+
+    @Value("${pagos.bandeja.espera.maxima:600000}")
+    private long esperaMaxima;
+
+    @Value("${pagos.bandeja.bloqueo.segundos:300}")
+    private long segundosBloqueo;
+
+    public BandejaPagoServicioImp(MongoTemplate mongoTemplate,
+                                  PagoServicio pagoServicio,
+                                  @Qualifier("ejecutorPagos") ThreadPoolTaskExecutor ejecutorPagos) {
+        this.mongoTemplate = mongoTemplate;
+        this.pagoServicio = pagoServicio;
+        this.ejecutorPagos = ejecutorPagos;
+        this.hilosDisponibles = new Semaphore(ejecutorPagos.getMaxPoolSize());
+    }
+
+    @Override
+    public boolean registrarNotificacion(Map<String, Object> request) {
+
+        // 1. Solo interesan las notificaciones de pagos
+        if (!"payment".equals(request.get("type"))) {
+            return false;
+        }
+
+        // 2. Validar que venga el id del pago
+        if (!(request.get("data") instanceof Map<?, ?> data) || data.get("id") == null) {
+            log.warn("Notificación de pago sin id");
+            return false;
+        }
+
+        String idPago = data.get("id").toString();
+
+        if (!idPago.matches("\\d+")) {
+            log.warn("Id de pago inválido: {}", idPago);
+            return false;
+        }
+
+        LocalDateTime ahora = LocalDateTime.now();
+
+        // 3. Guardar o acumular la notificación (idempotente por id de pago)
+        Query query = new Query(Criteria.where("_id").is(idPago));
+        Update update = new Update()
+                .setOnInsert("estado", EstadoNotificacion.PENDIENTE)
+                .setOnInsert("intentos", 0)
+                .setOnInsert("fechaRecepcion", ahora)
+                .setOnInsert("proximoIntento", ahora)
+                .set("contenido", request)
+                .inc("notificaciones", 1);
+
+        try {
+            mongoTemplate.upsert(query, update, NotificacionPago.class);
+        } catch (DuplicateKeyException e) {
+            // Otra notificación del mismo pago la insertó primero
+            mongoTemplate.upsert(query, update, NotificacionPago.class);
+        }
+
+        // 4. Si el pago ya se había cerrado, el cambio de estado se vuelve a procesar
+        mongoTemplate.updateFirst(
+                new Query(Criteria.where("_id").is(idPago)
+                        .and("estado").in(EstadoNotificacion.PROCESADA, EstadoNotificacion.FALLIDA)),
+                new Update()
+                        .set("estado", EstadoNotificacion.PENDIENTE)
+                        .set("intentos", 0)
+                        .set("proximoIntento", ahora),
+                NotificacionPago.class
+        );
+
+        return true;
+    }
+
+    @Override
+    public int despacharPendientes() {
+
+        int despachadas = 0;
+
+        // Se reclama una notificación solo si hay un hilo libre para procesarla
+        while (hilosDisponibles.tryAcquire()) {
+
+            NotificacionPago notificacion = reclamar();
+
+            if (notificacion == null) {
+                hilosDisponibles.release();
+                break;
+            }
+
+            try {
+                ejecutorPagos.execute(() -> procesar(notificacion));
+                despachadas++;
+            } catch (RejectedExecutionException e) {
+                hilosDisponibles.release();
+                devolver(notificacion);
+                break;
+            }
+        }
+
+        return despachadas;
+    }
+
+    /**
+     * Tarea programada que entrega las notificaciones pendientes al grupo de hilos.
+     */
+    @Scheduled(fixedDelayString = "${pagos.bandeja.intervalo:1000}")
+    public void despacharBandeja() {
+
+        try {
+            despacharPendientes();
+        } catch (Exception e) {
+            log.error("Error despachando notificaciones de pago", e);
+        }
+    }
+
+    /**
+     * Reclama de forma atómica la siguiente notificación lista para procesar.
+     */
+    private NotificacionPago reclamar() {
+
+        LocalDateTime ahora = LocalDateTime.now();
+
+        // 1. Pendientes cuyo reintento ya venció, o en proceso con el bloqueo vencido
+        Query query = new Query(new Criteria().orOperator(
+                Criteria.where("estado").is(EstadoNotificacion.PENDIENTE).and("proximoIntento").lte(ahora),
+                Criteria.where("estado").is(EstadoNotificacion.EN_PROCESO)
+                        .and("fechaBloqueo").lt(ahora.minusSeconds(segundosBloqueo))
+        )).with(Sort.by(Sort.Direction.ASC, "proximoIntento"));
+
+        // 2. Marcarla con un trabajador nuevo
+        Update update = new Update()
+                .set("estado", EstadoNotificacion.EN_PROCESO)
+                .set("idTrabajador", UUID.randomUUID().toString())
+                .set("fechaBloqueo", ahora);
+
+        return mongoTemplate.findAndModify(
+                query, update, FindAndModifyOptions.options().returnNew(true), NotificacionPago.class);
+    }
+
+    /**
+     * Procesa una notificación reclamada y registra su resultado.
+     */
+    private void procesar(NotificacionPago notificacion) {
+
+        try {
+            // 1. Aplicar el pago a la orden
+            pagoServicio.procesarPago(Long.parseLong(notificacion.getIdPago()));
+
+            // 2. Cerrar la notificación solo si no llegó otra del mismo pago mientras tanto
+            boolean cerrada = mongoTemplate.updateFirst(
+                    new Query(Criteria.where("_id").is(notificacion.getIdPago())
+                            .and("idTrabajador").is(notificacion.getIdTrabajador())
+                            .and("notificaciones").is(notificacion.getNotificaciones())),
+                    new Update()
+                            .set("estado", EstadoNotificacion.PROCESADA)
+                            .set("fechaProcesamiento", LocalDateTime.now())
+                            .unset("idTrabajador")
+                            .unset("ultimoError"),
+                    NotificacionPago.class
+            ).getMatchedCount() > 0;
+
+            // 3. Si llegó una notificación nueva, se procesa otra vez
+            if (!cerrada) {
+                devolver(notificacion);
+            }
+
+        } catch (Exception e) {
+
+            // 4. Programar el reintento con espera exponencial o marcarla como fallida
+            int intentos = notificacion.getIntentos() + 1;
+            boolean agotada = intentos >= maximoIntentos;
+
+            mongoTemplate.updateFirst(
+                    new Query(Criteria.where("_id").is(notificacion.getIdPago())
+                            .and("idTrabajador").is(notificacion.getIdTrabajador())),
+                    new Update()
+                            .set("estado", agotada ? EstadoNotificacion.FALLIDA : EstadoNotificacion.PENDIENTE)
+                            .set("intentos", intentos)
+                            .set("ultimoError", e.getMessage())
+                            .set("proximoIntento", LocalDateTime.now().plus(Duration.ofMillis(espera(intentos))))
+                            .unset("idTrabajador"),
+                    NotificacionPago.class
+            );
+
+            log.warn("Error procesando el pago {} (intento {})", notificacion.getIdPago(), intentos, e);
+
+        } finally {
+            hilosDisponibles.release();
+        }
+    }
+
+    /**
+     * Devuelve una notificación reclamada a PENDIENTE para procesarla de inmediato.
+     */
+    private void devolver(NotificacionPago notificacion) {
+
+        mongoTemplate.updateFirst(
+                new Query(Criteria.where("_id").is(notificacion.getIdPago())
+                        .and("idTrabajador").is(notificacion.getIdTrabajador())),
+                new Update()
+                        .set("estado", EstadoNotificacion.PENDIENTE)
+                        .set("proximoIntento", LocalDateTime.now())
+                        .unset("idTrabajador"),
+                NotificacionPago.class
+        );
+    }
+
+    /**
+     * Espera en milisegundos antes del intento indicado: se duplica en cada
+     * fallo sin superar la espera máxima.
+     */
+    private long espera(int intentos) {
+        long factor = 1L << Math.min(intentos - 1, 20);
+        return Math.min(esperaInicial * factor, esperaMaxima);
+    }
+}
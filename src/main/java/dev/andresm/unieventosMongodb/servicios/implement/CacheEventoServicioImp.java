@@ -0,0 +1,148 @@
+package dev.andresm.unieventosMongodb.servicios.implement;
+
+import dev.andresm.unieventosMongodb.documentos.Evento;
+import dev.andresm.unieventosMongodb.dto.evento.CatalogoEventoDTO;
+import dev.andresm.unieventosMongodb.repositorios.EventoRepo;
+import dev.andresm.unieventosMongodb.servicios.interfaces.CacheEventoServicio;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Implementación de la caché de eventos.
+
+ * - Contenido: una copia inmutable (CatalogoEventoDTO) con los campos de
+ *   catálogo, leídos de MongoDB con una proyección. Los llamadores
+ *   comparten la copia sin poder modificarla.
+ * - Estructura: LinkedHashMap en orden de acceso (LRU). Cuando se supera
+ *   "cache.eventos.maximo" se descarta el evento usado hace más tiempo.
+ * - Vencimiento: cada entrada guarda su hora de expiración según
+ *   "cache.eventos.ttl.segundos"; una entrada vencida se vuelve a leer de MongoDB.
+ * - Invalidación: editarEvento y eliminarEvento retiran el evento.
+
+ * La consulta a MongoDB se hace fuera del bloqueo, para que una lectura lenta
+ * no detenga a los demás hilos. Un contador de invalidaciones evita guardar
+ * un evento leído antes de una edición que terminó durante la consulta.
+ */
+@Service
+public class CacheEventoServicioImp implements CacheEventoServicio {
+
+    private final EventoRepo eventoRepo;
+    private final long ttlMilisegundos;
+    private final Map<String, Entrada> eventos;
+    private long invalidaciones;
+
+    /**
+     * Evento en caché con su hora de expiración.
+     */
+    private record Entrada(CatalogoEventoDTO evento, long expira) {}
+
+    public CacheEventoServicioImp(EventoRepo eventoRepo,
+                                  @Value("${cache.eventos.maximo:500}") int maximo,
+                                  @Value("${cache.eventos.ttl.segundos:60}") long ttlSegundos) {
+
+        this.eventoRepo = eventoRepo;
+        this.ttlMilisegundos = ttlSegundos * 1000;
+        this.eventos = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entrada> mayor) {
+                return size() > maximo;
+            }
+        };
+    }
+
+    @Override
+    public Optional<CatalogoEventoDTO> obtenerEvento(String idEvento) {
+
+        long ahora = System.currentTimeMillis();
+        long version;
+
+        // 1. Buscar en caché
+        synchronized (eventos) {
+            Entrada entrada = eventos.get(idEvento);
+
+            if (entrada != null && entrada.expira() > ahora) {
+                return Optional.of(entrada.evento());
+            }
+            version = invalidaciones;
+        }
+
+        // 2. Leer de MongoDB (los eventos inexistentes no se guardan)
+        Optional<CatalogoEventoDTO> eventoOptional = eventoRepo.buscarCatalogoPorIds(List.of(idEvento)).stream()
+                .findFirst()
+                .map(CatalogoEventoDTO::desde);
+
+        // 3. Guardar en caché si no hubo invalidaciones durante la consulta
+        eventoOptional.ifPresent(evento -> {
+            synchronized (eventos) {
+                if (version == invalidaciones) {
+                    eventos.put(idEvento, new Entrada(evento, ahora + ttlMilisegundos));
+                }
+            }
+        });
+
+        return eventoOptional;
+    }
+
+    @Override
+    public Map<String, CatalogoEventoDTO> obtenerEventos(Collection<String> idsEventos) {
+
+        long ahora = System.currentTimeMillis();
+        long version;
+
+        Map<String, CatalogoEventoDTO> resultado = new HashMap<>();
+        Set<String> faltantes = new LinkedHashSet<>();
+
+        // 1. Resolver desde caché los ids distintos
+        synchronized (eventos) {
+            for (String idEvento : new LinkedHashSet<>(idsEventos)) {
+                Entrada entrada = eventos.get(idEvento);
+
+                if (entrada != null && entrada.expira() > ahora) {
+                    resultado.put(idEvento, entrada.evento());
+                } else {
+                    faltantes.add(idEvento);
+                }
+            }
+            version = invalidaciones;
+        }
+
+        if (faltantes.isEmpty()) {
+            return resultado;
+        }
+
+        // 2. Una sola consulta $in para todos los faltantes
+        List<Evento> leidos = eventoRepo.buscarCatalogoPorIds(faltantes);
+
+        // 3. Guardar en caché si no hubo invalidaciones durante la consulta
+        synchronized (eventos) {
+            for (Evento leido : leidos) {
+                CatalogoEventoDTO evento = CatalogoEventoDTO.desde(leido);
+                resultado.put(evento.id(), evento);
+
+                if (version == invalidaciones) {
+                    eventos.put(evento.id(), new Entrada(evento, ahora + ttlMilisegundos));
+                }
+            }
+        }
+
+        return resultado;
+    }
+
+    @Override
+    public void invalidar(String idEvento) {
+
+        synchronized (eventos) {
+            eventos.remove(idEvento);
+            invalidaciones++;
+        }
+    }
+}
@@ -0,0 +1,514 @@
+package dev.andresm.unieventosMongodb.servicios.implement;
+
+import dev.andresm.unieventosMongodb.documentos.*;
+import dev.andresm.unieventosMongodb.dto.campana.CrearCampanaDTO;
+import dev.andresm.unieventosMongodb.dto.campana.ProgresoCampanaDTO;
+import dev.andresm.unieventosMongodb.dto.email.EmailDTO;
+import dev.andresm.unieventosMongodb.dto.email.ResultadoEmailDTO;
+import dev.andresm.unieventosMongodb.repositorios.CuponRepo;
+import dev.andresm.unieventosMongodb.repositorios.EventoRepo;
+import dev.andresm.unieventosMongodb.servicios.interfaces.BandejaCorreoServicio;
+import dev.andresm.unieventosMongodb.servicios.interfaces.CampanaServicio;
+import dev.andresm.unieventosMongodb.servicios.interfaces.EmailServicio;
+import dev.andresm.unieventosMongodb.servicios.interfaces.PlantillaServicio;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Implementación del servicio de campañas de correos masivos.
+
+ * - Las campañas se ejecutan en "ejecutorCampanas", que tiene un solo hilo:
+ *   se envían una detrás de otra y comparten el límite de correos por minuto.
+ * - Los destinatarios se recorren con mongoTemplate.stream ordenados por _id,
+ *   leyendo solo email y nombre; en memoria solo hay un lote a la vez.
+ * - Cada lote se envía por el pool SMTP (EmailServicio.enviarEmails) y después
+ *   se guarda el avance junto con el último _id procesado. Al reanudar o al
+ *   reiniciar la aplicación el envío continúa desde ese punto; como mucho se
+ *   repite el lote que estaba en curso.
+ * - Cada ejecución reclama la campaña con findAndModify (idEjecucion y un
+ *   bloqueo con vencimiento) y solo continúa mientras lo conserve, así una
+ *   campaña nunca se envía desde dos hilos o instancias a la vez.
+ * - Una tarea programada retoma las campañas en curso sin ejecución vigente
+ *   (reinicio, error o instancia detenida). Tras varios errores seguidos la
+ *   campaña queda FALLIDA.
+ * - Los correos que fallan pasan a la bandeja de salida, que los reintenta.
+ */
+@Slf4j
+@Service
+@Transactional
+public class CampanaServicioImp implements CampanaServicio {
+
+    private static final DateTimeFormatter FORMATO_FECHA = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+
+    private final MongoTemplate mongoTemplate;
+    private final CuponRepo cuponRepo;
+    private final EventoRepo eventoRepo;
+    private final EmailServicio emailServicio;
+    private final BandejaCorreoServicio bandejaCorreoServicio;
+    private final PlantillaServicio plantillaServicio;
+    private final ThreadPoolTaskExecutor ejecutorCampanas;
+
+    @Value("${campanas.lote:100}")
+    private int tamanoLote;
+
+    @Value("${campanas.mensajes.minuto:300}")
+    private int mensajesPorMinuto;
+
+    @Value("${campanas.bloqueo.segundos:300}")
+    private long segundosBloqueo;
+
+    @Value("${campanas.errores.maximo:5}")
+    private int maximoErrores;
+
+    /**
+     * Campañas ya entregadas al ejecutor en esta instancia, para no encolarlas dos veces.
+     */
+    private final Set<String> programadas = ConcurrentHashMap.newKeySet();
+
+    public CampanaServicioImp(MongoTemplate mongoTemplate,
+                              CuponRepo cuponRepo,
+                              EventoRepo eventoRepo,
+                              EmailServicio emailServicio,
+                              BandejaCorreoServicio bandejaCorreoServicio,
+                              PlantillaServicio plantillaServicio,
+                              @Qualifier("ejecutorCampanas") ThreadPoolTaskExecutor ejecutorCampanas) {
+        this.mongoTemplate = mongoTemplate;
+        this.cuponRepo = cuponRepo;
+        this.eventoRepo = eventoRepo;
+        this.emailServicio = emailServicio;
+        this.bandejaCorreoServicio = bandejaCorreoServicio;
+        this.plantillaServicio = plantillaServicio;
+        this.ejecutorCampanas = ejecutorCampanas;
+    }
+
+    @Override
+    public String crearCampana(CrearCampanaDTO crearCampanaDTO) throws Exception {
+
+        // 1. Generar una sola vez el HTML del cupón y del evento anunciados
+        StringBuilder detalle = new StringBuilder();
+
+        if (crearCampanaDTO.codigoCupon() != null && !crearCampanaDTO.codigoCupon().isBlank()) {
+
+            Cupon cupon = cuponRepo.buscarCodigo(crearCampanaDTO.codigoCupon())
+                    .orElseThrow(() -> new Exception("El cupón no existe"));
+
+            if (cupon.getEstado() != EstadoCupon.DISPONIBLE) {
+                throw new Exception("El cupón no está disponible");
+            }
+
+            detalle.append(plantillaServicio.renderizar("campana-cupon", PlantillaServicio.modelo(
+                    "codigo", cupon.getCodigo(),
+                    "descuento", (int) cupon.getDescuento(),
+                    "vencimiento", cupon.getFechaVencimiento() != null ? cupon.getFechaVencimiento().toLocalDate() : ""
+            )));
+        }
+
+        if (crearCampanaDTO.idEvento() != null && !crearCampanaDTO.idEvento().isBlank()) {
+
+            Evento evento = eventoRepo.buscarId(crearCampanaDTO.idEvento())
+                    .orElseThrow(() -> new Exception("El evento no existe"));
+
+            detalle.append(plantillaServicio.renderizar("campana-evento", PlantillaServicio.modelo(
+                    "nombre", evento.getNombre(),
+                    "fecha", evento.getFecha() != null ? evento.getFecha().format(FORMATO_FECHA) : "",
+                    "ciudad", evento.getCiudad() != null ? evento.getCiudad() : "",
+                    "direccion", evento.getDireccion() != null ? evento.getDireccion() : ""
+            )));
+        }
+
+        // 2. Estimar el total de destinatarios (solo para mostrar el avance)
+        long destinatarios = mongoTemplate.count(new Query(criterioDestinatarios(null)), Cuenta.class);
+
+        // 3. Guardar la campaña en curso
+        Campana campana = Campana.builder()
+                .asunto(crearCampanaDTO.asunto())
+                .mensaje(crearCampanaDTO.mensaje())
+                .detalle(detalle.toString())
+                .codigoCupon(crearCampanaDTO.codigoCupon())
+                .idEvento(crearCampanaDTO.idEvento())
+                .estado(EstadoCampana.EN_CURSO)
+                .destinatarios(destinatarios)
+                .fechaCreacion(LocalDateTime.now())
+                .build();
+
+        mongoTemplate.insert(campana);
+
+        // 4. Enviar en segundo plano
+        programar(campana.getId());
+
+        return campana.getId();
+    }
+
+    @Override
+    public ProgresoCampanaDTO obtenerProgreso(String id) throws Exception {
+        return mapProgreso(obtenerCampana(id));
+    }
+
+    @Override
+    public List<ProgresoCampanaDTO> listarCampanas() {
+
+        Query query = new Query().with(Sort.by(Sort.Direction.DESC, "fechaCreacion"));
+        query.fields().exclude("detalle", "mensaje");
+
+        return mongoTemplate.find(query, Campana.class).stream()
+                .map(this::mapProgreso)
+                .toList();
+    }
+
+    @Override
+    public void pausarCampana(String id) throws Exception {
+
+        // El hilo de envío revisa el estado al terminar cada lote
+        boolean pausada = mongoTemplate.updateFirst(
+                new Query(Criteria.where("_id").is(id).and("estado").is(EstadoCampana.EN_CURSO)),
+                new Update().set("estado", EstadoCampana.PAUSADA),
+                Campana.class
+        ).getMatchedCount() > 0;
+
+        if (!pausada) {
+            obtenerCampana(id);
+            throw new Exception("La campaña no está en curso");
+        }
+    }
+
+    @Override
+    public void reanudarCampana(String id) throws Exception {
+
+        boolean reanudada = mongoTemplate.updateFirst(
+                new Query(Criteria.where("_id").is(id).and("estado").in(EstadoCampana.PAUSADA, EstadoCampana.FALLIDA)),
+                new Update()
+                        .set("estado", EstadoCampana.EN_CURSO)
+                        .set("errores", 0)
+                        .unset("fechaFin"),
+                Campana.class
+        ).getMatchedCount() > 0;
+
+        if (!reanudada) {
+            obtenerCampana(id);
+            throw new Exception("La campaña no está pausada ni fallida");
+        }
+
+        // Si la ejecución anterior sigue terminando su lote, ella misma continúa
+        // (ve la campaña EN_CURSO) y esta no logra reclamarla
+        programar(id);
+    }
+
+    /**
+     * Tarea programada que retoma las campañas en curso sin una ejecución vigente:
+     * al iniciar la aplicación, después de un error o cuando venció el bloqueo
+     * de la instancia que las enviaba.
+     */
+    @Scheduled(initialDelayString = "${campanas.revision.espera:10000}",
+            fixedDelayString = "${campanas.revision.intervalo:60000}")
+    public void reanudarPendientes() {
+
+        try {
+            Query query = new Query(new Criteria().andOperator(
+                    Criteria.where("estado").is(EstadoCampana.EN_CURSO),
+                    sinEjecucionVigente(LocalDateTime.now())
+            ));
+            query.fields().include("_id");
+
+            for (Campana campana : mongoTemplate.find(query, Campana.class)) {
+                programar(campana.getId());
+            }
+        } catch (Exception e) {
+            log.error("No fue posible reanudar las campañas", e);
+        }
+    }
+
+    /**
+     * Entrega la campaña al ejecutor si esta instancia no la tiene ya en cola o en envío.
+     */
+    private void programar(String id) {
+
+        if (programadas.add(id)) {
+            ejecutorCampanas.execute(() -> ejecutar(id));
+        }
+    }
+
+    /**
+     * Envía una campaña desde su último punto de control hasta terminarla,
+     * hasta que se pause o hasta que otra ejecución la tome.
+     */
+    private void ejecutar(String id) {
+
+        String idEjecucion = UUID.randomUUID().toString();
+
+        try {
+            // 0. Reclamar la campaña; si otra ejecución la tiene, no se hace nada
+            Campana campana = reclamar(id, idEjecucion);
+
+            if (campana == null) {
+                return;
+            }
+
+            // 1. Cursor sobre las cuentas pendientes, ordenadas por _id y solo con email y nombre
+            Query query = new Query(criterioDestinatarios(campana.getUltimoIdCuenta()))
+                    .with(Sort.by(Sort.Direction.ASC, "_id"))
+                    .cursorBatchSize(tamanoLote);
+            query.fields().include("email", "usuario.nombre");
+
+            long inicio = System.nanoTime();
+            long procesados = 0;
+
+            try (Stream<Cuenta> cuentas = mongoTemplate.stream(query, Cuenta.class)) {
+
+                Iterator<Cuenta> iterador = cuentas.iterator();
+
+                while (iterador.hasNext()) {
+
+                    // 2. Tomar el siguiente lote del cursor
+                    List<Cuenta> lote = new ArrayList<>(tamanoLote);
+                    while (iterador.hasNext() && lote.size() < tamanoLote) {
+                        lote.add(iterador.next());
+                    }
+
+                    // 3. Generar y enviar los correos del lote
+                    List<EmailDTO> correos = new ArrayList<>(lote.size());
+                    for (Cuenta cuenta : lote) {
+                        correos.add(new EmailDTO(campana.getAsunto(), generarContenido(campana, cuenta), cuenta.getEmail()));
+                    }
+
+                    List<ResultadoEmailDTO> resultados = emailServicio.enviarEmails(correos);
+
+                    // 4. Los fallidos pasan a la bandeja de salida para reintentarlos
+                    int fallidos = 0;
+                    for (int i = 0; i < resultados.size(); i++) {
+                        if (!resultados.get(i).enviado()) {
+                            bandejaCorreoServicio.encolarEmail(correos.get(i));
+                            fallidos++;
+                        }
+                    }
+
+                    // 5. Guardar el avance y el punto de control y renovar el bloqueo,
+                    //    solo si esta ejecución sigue siendo la dueña de la campaña
+                    Campana actualizada = mongoTemplate.findAndModify(
+                            new Query(Criteria.where("_id").is(id).and("idEjecucion").is(idEjecucion)),
+                            new Update()
+                                    .inc("enviados", lote.size() - fallidos)
+                                    .inc("fallidos", fallidos)
+                                    .set("ultimoIdCuenta", lote.get(lote.size() - 1).getId())
+                                    .set("bloqueoHasta", LocalDateTime.now().plusSeconds(segundosBloqueo))
+                                    .set("errores", 0),
+                            FindAndModifyOptions.options().returnNew(true),
+                            Campana.class
+                    );
+
+                    // 5.1 Otra ejecución tomó la campaña (el bloqueo venció): detenerse
+                    if (actualizada == null) {
+                        return;
+                    }
+
+                    // 5.2 Pausada: soltar la campaña, salvo que se haya reanudado entre tanto
+                    if (actualizada.getEstado() != EstadoCampana.EN_CURSO && liberarDetenida(id, idEjecucion)) {
+                        return;
+                    }
+
+                    // 6. Respetar el límite de correos por minuto
+                    procesados += lote.size();
+                    esperarTurno(inicio, procesados);
+                }
+            }
+
+            // 7. Se recorrieron todas las cuentas: no queda nada por enviar
+            mongoTemplate.updateFirst(
+                    new Query(Criteria.where("_id").is(id).and("idEjecucion").is(idEjecucion)),
+                    new Update()
+                            .set("estado", EstadoCampana.COMPLETADA)
+                            .set("fechaFin", LocalDateTime.now())
+                            .unset("idEjecucion")
+                            .unset("bloqueoHasta"),
+                    Campana.class
+            );
+
+        } catch (InterruptedException e) {
+            // La aplicación se está deteniendo; la campaña queda EN_CURSO y se retoma al iniciar
+            Thread.currentThread().interrupt();
+
+        } catch (Exception e) {
+            registrarError(id, idEjecucion, e);
+
+        } finally {
+            programadas.remove(id);
+        }
+    }
+
+    /**
+     * Reclama una campaña en curso que no tiene una ejecución vigente.
+     *
+     * @return la campaña reclamada, o null si no está en curso o ya tiene dueño
+     */
+    private Campana reclamar(String id, String idEjecucion) {
+
+        LocalDateTime ahora = LocalDateTime.now();
+
+        return mongoTemplate.findAndModify(
+                new Query(new Criteria().andOperator(
+                        Criteria.where("_id").is(id).and("estado").is(EstadoCampana.EN_CURSO),
+                        sinEjecucionVigente(ahora)
+                )),
+                new Update()
+                        .set("idEjecucion", idEjecucion)
+                        .set("bloqueoHasta", ahora.plusSeconds(segundosBloqueo)),
+                FindAndModifyOptions.options().returnNew(true),
+                Campana.class
+        );
+    }
+
+    /**
+     * Campañas sin ejecución, o cuya ejecución dejó vencer el bloqueo.
+     */
+    private Criteria sinEjecucionVigente(LocalDateTime ahora) {
+        return new Criteria().orOperator(
+                Criteria.where("idEjecucion").is(null),
+                Criteria.where("bloqueoHasta").lt(ahora)
+        );
+    }
+
+    /**
+     * Suelta una campaña que ya no está en curso.
+     *
+     * @return false si se reanudó mientras tanto; la ejecución conserva la campaña y continúa
+     */
+    private boolean liberarDetenida(String id, String idEjecucion) {
+
+        return mongoTemplate.updateFirst(
+                new Query(Criteria.where("_id").is(id)
+                        .and("idEjecucion").is(idEjecucion)
+                        .and("estado").ne(EstadoCampana.EN_CURSO)),
+                new Update().unset("idEjecucion").unset("bloqueoHasta"),
+                Campana.class
+        ).getMatchedCount() > 0;
+    }
+
+    /**
+     * Suelta la campaña después de un error para que la tarea programada la retome
+     * desde el último lote. Tras campanas.errores.maximo errores seguidos queda FALLIDA.
+     */
+    private void registrarError(String id, String idEjecucion, Exception error) {
+
+        try {
+            Campana campana = mongoTemplate.findAndModify(
+                    new Query(Criteria.where("_id").is(id).and("idEjecucion").is(idEjecucion)),
+                    new Update()
+                            .inc("errores", 1)
+                            .set("ultimoError", error.getMessage())
+                            .unset("idEjecucion")
+                            .unset("bloqueoHasta"),
+                    FindAndModifyOptions.options().returnNew(true),
+                    Campana.class
+            );
+
+            if (campana != null && campana.getErrores() >= maximoErrores) {
+                mongoTemplate.updateFirst(
+                        new Query(Criteria.where("_id").is(id).and("estado").is(EstadoCampana.EN_CURSO)),
+                        new Update()
+                                .set("estado", EstadoCampana.FALLIDA)
+                                .set("fechaFin", LocalDateTime.now()),
+                        Campana.class
+                );
+                log.error("La campaña {} quedó FALLIDA tras {} errores", id, campana.getErrores(), error);
+            } else {
+                log.warn("Error enviando la campaña {}; se retoma desde el último lote", id, error);
+            }
+
+        } catch (Exception e) {
+            // Sin poder registrarlo, el bloqueo vence y la tarea programada la retoma
+            log.error("Error enviando la campaña {}", id, error);
+        }
+    }
+
+    /**
+     * Clientes activos, opcionalmente a partir de un _id (punto de control).
+     */
+    private Criteria criterioDestinatarios(String ultimoIdCuenta) {
+
+        Criteria criterio = Criteria.where("rol").is(Rol.CLIENTE).and("estado").is(EstadoCuenta.ACTIVO);
+
+        if (ultimoIdCuenta != null) {
+            criterio = criterio.and("_id").gt(ultimoIdCuenta);
+        }
+        return criterio;
+    }
+
+    /**
+     * HTML del correo de una cuenta; el detalle de la campaña ya viene generado.
+     */
+    private String generarContenido(Campana campana, Cuenta cuenta) throws Exception {
+
+        String nombre = cuenta.getUsuario() != null && cuenta.getUsuario().getNombre() != null
+                ? cuenta.getUsuario().getNombre()
+                : "";
+
+        return plantillaServicio.renderizar("campana", PlantillaServicio.modelo(
+                "nombre", nombre,
+                "mensaje", campana.getMensaje(),
+                "detalle", campana.getDetalle()
+        ));
+    }
+
+    /**
+     * Duerme lo necesario para no superar campanas.mensajes.minuto.
+     */
+    private void esperarTurno(long inicio, long procesados) throws InterruptedException {
+
+        long esperado = procesados * 60_000L / Math.max(mensajesPorMinuto, 1);
+        long transcurrido = (System.nanoTime() - inicio) / 1_000_000;
+
+        if (esperado > transcurrido) {
+            Thread.sleep(esperado - transcurrido);
+        }
+    }
+
+    private Campana obtenerCampana(String id) throws Exception {
+
+        Campana campana = mongoTemplate.findById(id, Campana.class);
+
+        if (campana == null) {
+            throw new Exception("La campaña no existe");
+        }
+        return campana;
+    }
+
+    private ProgresoCampanaDTO mapProgreso(Campana campana) {
+
+        long procesados = campana.getEnviados() + campana.getFallidos();
+        double porcentaje = campana.getEstado() == EstadoCampana.COMPLETADA || campana.getDestinatarios() == 0
+                ? 100
+                : Math.min(100, procesados * 100.0 / campana.getDestinatarios());
+
+        return new ProgresoCampanaDTO(
+                campana.getId(),
+                campana.getAsunto(),
+                campana.getEstado(),
+                campana.getDestinatarios(),
+                campana.getEnviados(),
+                campana.getFallidos(),
+                porcentaje,
+                campana.getFechaCreacion(),
+                campana.getFechaFin()
+        );
+    }
+}
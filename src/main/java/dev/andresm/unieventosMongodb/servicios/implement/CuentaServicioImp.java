@@ -7,13 +7,18 @@ import dev.andresm.unieventosMongodb.documentos.Cuenta;
 import dev.andresm.unieventosMongodb.dto.cuenta.*;
 import dev.andresm.unieventosMongodb.dto.cupon.CrearCuponDTO;
 import dev.andresm.unieventosMongodb.dto.email.EmailDTO;
+import dev.andresm.unieventosMongodb.dto.evento.CatalogoEventoDTO;
 import dev.andresm.unieventosMongodb.dto.cuenta.CodigoPasswordDTO;
 import dev.andresm.unieventosMongodb.documentos.*;
 import dev.andresm.unieventosMongodb.repositorios.CuentaRepo;
 import dev.andresm.unieventosMongodb.repositorios.EventoRepo;
+import dev.andresm.unieventosMongodb.servicios.interfaces.CacheEventoServicio;
 import dev.andresm.unieventosMongodb.servicios.interfaces.CuentaServicio;
 import dev.andresm.unieventosMongodb.servicios.interfaces.CuponServicio;
-import dev.andresm.unieventosMongodb.servicios.interfaces.EmailServicio;
+import dev.andresm.unieventosMongodb.servicios.interfaces.BandejaCorreoServicio;
+import dev.andresm.unieventosMongodb.servicios.interfaces.PlantillaServicio;
+import dev.andresm.unieventosMongodb.servicios.interfaces.InventarioServicio;
+import dev.andresm.unieventosMongodb.servicios.interfaces.ReservaServicio;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -43,10 +48,14 @@ import java.util.Optional;
 public class CuentaServicioImp implements CuentaServicio {
 
     private final CuentaRepo cuentaRepo;
-    private final EmailServicio emailServicio;
+    private final BandejaCorreoServicio bandejaCorreoServicio;
+    private final PlantillaServicio plantillaServicio;
     private final JWTUtils jwtUtils;
     private final CuponServicio cuponServicio;
     private final EventoRepo eventoRepo;
+    private final InventarioServicio inventarioServicio;
+    private final CacheEventoServicio cacheEventoServicio;
+    private final ReservaServicio reservaServicio;
     private final BCryptPasswordEncoder passwordEncoder;
 
     /**
@@ -104,16 +113,18 @@ public class CuentaServicioImp implements CuentaServicio {
             EmailDTO emailDTO = EmailDTO.builder()
 
                     .asunto("Su código de activación es: " + codigoValidacionRegistro.getCodigo())
-                    .contenido("Ingrese el código para poder activar su cuenta")
+                    .contenido(plantillaServicio.renderizar("codigo-activacion", PlantillaServicio.modelo(
+                            "nombre", cuenta.nombre(),
+                            "codigo", codigoValidacionRegistro.getCodigo())))
                     .destinatario(cuenta.email())
                     .build();
 
-            // El método enviarEmail se llama en esta línea.
-            emailServicio.enviarEmail(emailDTO);
-
             // Guardar la nueva cuenta en el repositorio
             Cuenta cuentaCreada = cuentaRepo.save(nuevaCuenta);
 
+            // Registrar el correo en la bandeja de salida (se envía en segundo plano)
+            bandejaCorreoServicio.encolarEmail(emailDTO);
+
             // Retornar el identificador de la cuenta creada.
             return cuentaCreada.getId(); // "Cuenta creada con éxito";
 
@@ -197,22 +208,32 @@ public class CuentaServicioImp implements CuentaServicio {
 
             EmailDTO emailDTO = EmailDTO.builder()
                     .asunto("Su código de activación es: " + cuenta.getCodigoValidacionRegistro().getCodigo())
-                    .contenido("Ingrese el código para poder activar su cuenta")
+                    .contenido(plantillaServicio.renderizar("codigo-activacion", PlantillaServicio.modelo(
+                            "nombre", cuenta.getUsuario().getNombre(),
+                            "codigo", cuenta.getCodigoValidacionRegistro().getCodigo())))
                     .destinatario(cuenta.getEmail())
                     .build();
 
-            emailServicio.enviarEmail(emailDTO);
             cuentaRepo.save(cuenta);
+            bandejaCorreoServicio.encolarEmail(emailDTO);
             throw new Exception("El código de verificación ha expirado");
         }
         List<String> b = new ArrayList<>();
         b.add(cuenta.getId());
-        String codigoCupon = cuponServicio.crearCupon(new CrearCuponDTO("Cupon R-1", "Código de bienvenida", 15, LocalDateTime.now().plusYears(2), TipoCupon.INDIVIDUAL, b));
-        emailServicio.enviarEmail(new EmailDTO("¡Te damos la bienvenida! Disfruta un 15% de descuento en Unieventos", "Esté es tu código:" + codigoCupon, cuenta.getEmail()));
+        LocalDateTime vencimientoCupon = LocalDateTime.now().plusYears(2);
+        String codigoCupon = cuponServicio.crearCupon(new CrearCuponDTO("Cupon R-1", "Código de bienvenida", 15, vencimientoCupon, TipoCupon.INDIVIDUAL, b));
         cuenta.setEstado(EstadoCuenta.ACTIVO);
         cuenta.setCodigoValidacionRegistro(null);
 
         cuentaRepo.save(cuenta);
+        bandejaCorreoServicio.encolarEmail(new EmailDTO(
+                "¡Te damos la bienvenida! Disfruta un 15% de descuento en Unieventos",
+                plantillaServicio.renderizar("cupon", PlantillaServicio.modelo(
+                        "mensaje", "¡Te damos la bienvenida a UniEventos, " + cuenta.getUsuario().getNombre() + "!",
+                        "descuento", 15,
+                        "codigo", codigoCupon,
+                        "vencimiento", vencimientoCupon.toLocalDate())),
+                cuenta.getEmail()));
         return true;
     }
 
@@ -513,12 +534,12 @@ public class CuentaServicioImp implements CuentaServicio {
         // @Builder del EmailDTO
         EmailDTO email = EmailDTO.builder()
                 .asunto("Código de recuperación de contraseña")
-                .contenido("Ingrese solo el código: " + codigoValidacion)
+                .contenido(plantillaServicio.renderizar("recuperacion-password", PlantillaServicio.modelo("codigo", codigoValidacion)))
                 .destinatario(codigoPasswordDTO.email())
                 .build();
 
-        emailServicio.enviarEmail(email);
         cuentaRepo.save(cuenta);
+        bandejaCorreoServicio.encolarEmail(email);
 
         return "Se ha enviado un correo con el código de recuperación";
 
@@ -656,6 +677,8 @@ public class CuentaServicioImp implements CuentaServicio {
      * Agrega un evento al carrito del usuario.
      * Valida la existencia del evento, la localidad
      * y la disponibilidad de entradas.
+     * Las entradas quedan apartadas con una reserva temporal
+     * que vence si el carrito se abandona.
      *
      * @param agregarEventoDTO información del evento a agregar
      * @return mensaje de confirmación
@@ -681,31 +704,14 @@ public class CuentaServicioImp implements CuentaServicio {
             throw new Exception("La cuenta ha sido eliminada");
         }
 
-        // 2. Buscar evento
-        Optional<Evento> optionalEvento = eventoRepo.buscarId(agregarEventoDTO.idEvento());
-
-        if (optionalEvento.isEmpty()) {
-            throw new Exception("El evento no fue encontrado");
+        // 2. Reservar las entradas con una actualización atómica en MongoDB.
+        //    Si no se puede reservar se consulta el evento solo para explicar el motivo.
+        if (!inventarioServicio.reservarEntradas(
+                agregarEventoDTO.idEvento(), agregarEventoDTO.nombreLocalidad(), agregarEventoDTO.cantidad())) {
+            lanzarErrorReserva(agregarEventoDTO.idEvento(), agregarEventoDTO.nombreLocalidad());
         }
 
-        Evento evento = optionalEvento.get();
-
-        // 3. Buscar localidad
-        Optional<Localidad> optionalLocalidad = evento.getLocalidades().stream()
-                .filter(l -> l.getNombre().equals(agregarEventoDTO.nombreLocalidad()))
-                .findFirst();
-
-        if (optionalLocalidad.isEmpty()) {
-            throw new Exception("La localidad no existe");
-        }
-
-        Localidad localidad = optionalLocalidad.get();
-
-        if (localidad.cantidadDisponible() < agregarEventoDTO.cantidad()) {
-            throw new Exception("No hay suficientes entradas disponibles, hay " + localidad.cantidadDisponible());
-        }
-
-        // 4. Obtener o crear carrito
+        // 3. Obtener o crear carrito
         Carrito carrito = cuenta.getCarrito();
 
         if (carrito == null) {
@@ -713,30 +719,79 @@ public class CuentaServicioImp implements CuentaServicio {
             cuenta.setCarrito(carrito);
         }
 
-        // 5. Crear detalle con Builder
+        // 4. Crear detalle con Builder
         DetalleCarrito detalleCarrito = DetalleCarrito.builder()
                 .idEvento(agregarEventoDTO.idEvento())
                 .cantidad(agregarEventoDTO.cantidad())
                 .nombreLocalidad(agregarEventoDTO.nombreLocalidad())
                 .build();
 
-        // 6. Evitar NullPointer
+        // 5. Evitar NullPointer
         if (carrito.getItems() == null) {
             carrito.setItems(new ArrayList<>());
         }
-        // 7. Agregar al carrito
+        // 6. Agregar al carrito
         carrito.getItems().add(detalleCarrito);
 
-        // 8. Actualizar entradas vendidas
-        localidad.setEntradasVendidas(
-                localidad.getEntradasVendidas() + agregarEventoDTO.cantidad());
-
-        // 9. Guardar cuenta
-        cuentaRepo.save(cuenta);
+        // 7. Registrar la reserva temporal del detalle y guardar la cuenta
+        //    (si algo falla, se deshace la reserva y se devuelven las entradas)
+        try {
+            reservaServicio.registrarReserva(cuenta.getId(), detalleCarrito);
+            cuentaRepo.save(cuenta);
+        } catch (RuntimeException e) {
+            deshacerReserva(detalleCarrito);
+            throw e;
+        }
 
         return "Evento agregado al carrito con éxito";
     }
 
+    /**
+     * Deshace la retención de un detalle cuyo registro de reserva o carrito falló:
+     * elimina la reserva si alcanzó a guardarse y devuelve sus entradas.
+
+     * Una reserva recién registrada no ha vencido, así que el barrido no pudo
+     * haberla liberado. El detalle queda como una reserva vencida: sin entradas
+     * retenidas, de modo que al pagarlo se vuelve a validar el aforo.
+     *
+     * @param detalle detalle del carrito con la localidad y cantidad retenidas
+     */
+    private void deshacerReserva(DetalleCarrito detalle) {
+
+        reservaServicio.reclamarReserva(detalle.getCodigoDetalle());
+        inventarioServicio.liberarEntradas(detalle.getIdEvento(), detalle.getNombreLocalidad(), detalle.getCantidad());
+    }
+
+    /**
+     * Determina por qué no se pudo reservar una localidad y lanza
+     * la excepción correspondiente.
+
+     * Solo se ejecuta cuando la reserva atómica fue rechazada, por lo que
+     * la consulta del evento no hace parte del flujo normal del carrito.
+     *
+     * @param idEvento identificador del evento
+     * @param nombreLocalidad nombre de la localidad solicitada
+     * @throws Exception siempre, con el motivo del rechazo
+     */
+    private void lanzarErrorReserva(String idEvento, String nombreLocalidad) throws Exception {
+
+        Optional<Evento> optionalEvento = eventoRepo.buscarId(idEvento);
+
+        if (optionalEvento.isEmpty()) {
+            throw new Exception("El evento no fue encontrado");
+        }
+
+        Optional<Localidad> optionalLocalidad = optionalEvento.get().getLocalidades().stream()
+                .filter(l -> l.getNombre().equals(nombreLocalidad))
+                .findFirst();
+
+        if (optionalLocalidad.isEmpty()) {
+            throw new Exception("La localidad no existe");
+        }
+
+        throw new Exception("No hay suficientes entradas disponibles, hay " + optionalLocalidad.get().cantidadDisponible());
+    }
+
     /**
      * Edita un evento existente dentro del carrito.
      * Permite cambiar la localidad y la cantidad
@@ -786,55 +841,78 @@ public class CuentaServicioImp implements CuentaServicio {
 
         DetalleCarrito detalleCarrito = detalleOptional.get();
 
-        // 5. Buscar el evento asociado al detalle
-        Optional<Evento> eventoOptional = eventoRepo.buscarId(detalleCarrito.getIdEvento());
+        String idEvento = detalleCarrito.getIdEvento();
+        String localidadAnterior = detalleCarrito.getNombreLocalidad();
+        int cantidadAnterior = detalleCarrito.getCantidad();
 
-        if (eventoOptional.isEmpty()) {
-            throw new Exception("El evento no fue encontrado");
-        }
+        // 5. Reclamar la reserva del detalle. Si ya venció, el barrido
+        //    devolvió sus entradas y deben reservarse de nuevo completas
+        boolean reservaVigente = reservaServicio.reclamarReserva(detalleCarrito.getCodigoDetalle());
 
-        Evento evento = eventoOptional.get();
+        try {
 
-        // 6. Obtener la localidad anterior del detalle
-        Localidad localidadAnterior = evento.getLocalidades()
-                .stream()
-                .filter(localidad -> localidad.getNombre().equals(detalleCarrito.getNombreLocalidad()))
-                .findFirst()
-                .orElseThrow(() -> new Exception("Localidad anterior no encontrada"));
+            // 6. Reserva vencida: se reserva la cantidad nueva completa
+            if (!reservaVigente) {
 
-        // 7. Devolver las entradas anteriores
-        localidadAnterior.setEntradasVendidas(
-                localidadAnterior.getEntradasVendidas() - detalleCarrito.getCantidad());
+                if (!inventarioServicio.reservarEntradas(
+                        idEvento, editarEventoCarritoDTO.nuevaLocalidad(), editarEventoCarritoDTO.nuevaCantidad())) {
+                    lanzarErrorReserva(idEvento, editarEventoCarritoDTO.nuevaLocalidad());
+                }
+            }
 
-        // 8. Buscar la nueva localidad
+            // 7. Misma localidad: solo se reserva o libera la diferencia
+            else if (localidadAnterior.equals(editarEventoCarritoDTO.nuevaLocalidad())) {
 
+                int diferencia = editarEventoCarritoDTO.nuevaCantidad() - cantidadAnterior;
 
-        Optional<Localidad> localidadOptional = evento.getLocalidades()
-                .stream()
-                .filter(l -> l.getNombre().equals(editarEventoCarritoDTO.nuevaLocalidad()))
-                .findFirst();
+                if (diferencia > 0 && !inventarioServicio.reservarEntradas(idEvento, localidadAnterior, diferencia)) {
+                    lanzarErrorReserva(idEvento, localidadAnterior);
+                }
 
-        if (localidadOptional.isEmpty()) {
-            throw new Exception("La nueva localidad no existe");
-        }
+                if (diferencia < 0) {
+                    inventarioServicio.liberarEntradas(idEvento, localidadAnterior, -diferencia);
+                }
+            }
 
-        Localidad nuevaLocalidad = localidadOptional.get();
+            // 8. Nueva localidad: primero se reservan las nuevas entradas y
+            //    solo si la reserva se aplica se devuelven las anteriores
+            else {
 
-        // 9. Validar disponibilidad
-        if (nuevaLocalidad.cantidadDisponible() < editarEventoCarritoDTO.nuevaCantidad()) {
-            throw new Exception( "No hay suficientes entradas disponibles, hay " + nuevaLocalidad.cantidadDisponible());
-        }
+                if (!inventarioServicio.reservarEntradas(
+                        idEvento, editarEventoCarritoDTO.nuevaLocalidad(), editarEventoCarritoDTO.nuevaCantidad())) {
+                    lanzarErrorReserva(idEvento, editarEventoCarritoDTO.nuevaLocalidad());
+                }
 
-        // 10. Registrar nuevas entradas
-        nuevaLocalidad.setEntradasVendidas(
-                nuevaLocalidad.getEntradasVendidas() + editarEventoCarritoDTO.nuevaCantidad());
+                inventarioServicio.liberarEntradas(idEvento, localidadAnterior, cantidadAnterior);
+            }
 
-        // 11. Actualizar el detalle del carrito
+        } catch (Exception e) {
+            // Si la edición no se aplica, el detalle conserva su reserva anterior;
+            // si ni eso es posible, sus entradas se devuelven
+            if (reservaVigente) {
+                try {
+                    reservaServicio.registrarReserva(cuenta.getId(), detalleCarrito);
+                } catch (RuntimeException errorReserva) {
+                    deshacerReserva(detalleCarrito);
+                    e.addSuppressed(errorReserva);
+                }
+            }
+            throw e;
+        }
+
+        // 9. Actualizar el detalle del carrito
         detalleCarrito.setNombreLocalidad(editarEventoCarritoDTO.nuevaLocalidad());
         detalleCarrito.setCantidad(editarEventoCarritoDTO.nuevaCantidad());
 
-        // 12. Guardar cambios
-        cuentaRepo.save(cuenta);
+        // 10. Renovar la reserva con la nueva localidad y cantidad y guardar los cambios
+        //     (si algo falla, se deshace la reserva y se devuelven las entradas)
+        try {
+            reservaServicio.registrarReserva(cuenta.getId(), detalleCarrito);
+            cuentaRepo.save(cuenta);
+        } catch (RuntimeException e) {
+            deshacerReserva(detalleCarrito);
+            throw e;
+        }
 
         return "Evento del carrito editado con éxito";
     }
@@ -887,30 +965,17 @@ public class CuentaServicioImp implements CuentaServicio {
 
         DetalleCarrito detalleCarrito = detalleOptional.get();
 
-        // 4. Buscar el evento
-        Optional<Evento> eventoOptional = eventoRepo.buscarId(detalleCarrito.getIdEvento());
-
-        if (eventoOptional.isEmpty()) {
-            throw new Exception("El evento no fue encontrado");
+        // 4. Devolver las entradas a la localidad solo si la reserva seguía vigente
+        //    (una reserva vencida ya fue liberada por el barrido)
+        if (reservaServicio.reclamarReserva(detalleCarrito.getCodigoDetalle())) {
+            inventarioServicio.liberarEntradas(
+                    detalleCarrito.getIdEvento(), detalleCarrito.getNombreLocalidad(), detalleCarrito.getCantidad());
         }
 
-        Evento evento = eventoOptional.get();
-
-        // 5. Buscar la localidad
-        Localidad localidad = evento.getLocalidades()
-                .stream()
-                        .filter(l -> l.getNombre().equals(detalleCarrito.getNombreLocalidad()))
-                                .findFirst()
-                                        .orElseThrow(() -> new Exception("Localidad no encontrada"));
-
-        // 6. Devolver entradas vendidas
-        localidad.setEntradasVendidas(
-                localidad.getEntradasVendidas() - detalleCarrito.getCantidad());
-
-        // 7. Eliminar detalle
+        // 5. Eliminar detalle
         carrito.getItems().remove(detalleCarrito);
 
-        // 8. Guardar cambios
+        // 6. Guardar cambios
         cuentaRepo.save(cuenta);
 
         return "Evento eliminado del carrito correctamente";
@@ -952,41 +1017,41 @@ public class CuentaServicioImp implements CuentaServicio {
         List<ItemCarritoDTO> itemsDTO = new ArrayList<>();
         double total = 0;
 
+        // Cargar todos los eventos del carrito de una vez (nombre y precios desde la caché)
+        Map<String, CatalogoEventoDTO> eventos = cacheEventoServicio.obtenerEventos(
+                carrito.getItems().stream().map(DetalleCarrito::getIdEvento).toList());
+
         for (DetalleCarrito detalle : carrito.getItems()) {
 
             // Buscar el evento asociado al detalle del carrito
-            Optional<Evento> eventoOptional = eventoRepo.buscarId(detalle.getIdEvento());
+            CatalogoEventoDTO evento = eventos.get(detalle.getIdEvento());
 
-            if (eventoOptional.isEmpty()) {
+            if (evento == null) {
                 throw new Exception("Evento no encontrado");
             }
 
-            Evento evento = eventoOptional.get();
-
             // Buscar la localidad seleccionada dentro del evento
-           Optional<Localidad> localidadOptional = evento.getLocalidades()
-                   .stream()
-                   .filter(l -> l.getNombre().equals(detalle.getNombreLocalidad()))
-                   .findFirst();
+           Optional<CatalogoEventoDTO.LocalidadCatalogoDTO> localidadOptional =
+                   evento.localidad(detalle.getNombreLocalidad());
 
            if (localidadOptional.isEmpty()) {
                throw new Exception("Localidad no encontrada");
            }
 
-           Localidad localidad = localidadOptional.get();
+           CatalogoEventoDTO.LocalidadCatalogoDTO localidad = localidadOptional.get();
 
             // Calcular subtotal del ítem
-           double subtotal = localidad.getPrecio() * detalle.getCantidad();
+           double subtotal = localidad.precio() * detalle.getCantidad();
 
            total += subtotal;
 
             // Construir DTO del ítem
            itemsDTO.add(ItemCarritoDTO.builder()
-                            .idEvento(evento.getId())
-                            .nombreEvento(evento.getNombre())
-                            .nombreLocalidad(localidad.getNombre())
+                            .idEvento(evento.id())
+                            .nombreEvento(evento.nombre())
+                            .nombreLocalidad(localidad.nombre())
                             .cantidad(detalle.getCantidad())
-                            .precioUnitario(localidad.getPrecio())
+                            .precioUnitario(localidad.precio())
                             .subtotal(subtotal)
                             .build());
         }
@@ -1042,37 +1107,20 @@ public class CuentaServicioImp implements CuentaServicio {
 
         for (DetalleCarrito detalle : carrito.getItems()) {
 
-            // 8. Buscar el evento asociado al detalle del carrito
-            Optional<Evento> eventoOptional = eventoRepo.buscarId(detalle.getIdEvento());
-
-            // 9. Validar que el evento exista
-            if (eventoOptional.isEmpty()) {
-                throw new Exception("Evento no encontrado");
+            // 8. Restar las entradas de las reservas que sigan vigentes con una actualización atómica
+            if (reservaServicio.reclamarReserva(detalle.getCodigoDetalle())) {
+                inventarioServicio.liberarEntradas(
+                        detalle.getIdEvento(), detalle.getNombreLocalidad(), detalle.getCantidad());
             }
-
-            // 10. Obtener el evento encontrado
-            Evento evento = eventoOptional.get();
-
-            // 11. Buscar la localidad seleccionada dentro del evento
-            Localidad localidad = evento.getLocalidades()
-                    .stream()
-                    .filter(l -> l.getNombre().equals(detalle.getNombreLocalidad()))
-                    .findFirst()
-                    .orElseThrow(() -> new Exception("Localidad no encontrada"));
-
-            // 12. Restar las entradas vendidas previamente reservadas en el carrito
-            localidad.setEntradasVendidas(
-                    localidad.getEntradasVendidas() - detalle.getCantidad());
         }
 
-        // 13. Vaciar todos los items del carrito
+        // 9. Vaciar todos los items del carrito
         carrito.getItems().clear();
 
-
-        // 14. Guardar los cambios realizados en la cuenta y el carrito
+        // 10. Guardar los cambios realizados en la cuenta y el carrito
         cuentaRepo.save(cuenta);
 
-        // 15. Retornar mensaje de confirmación
+        // 11. Retornar mensaje de confirmación
         return "Carrito vaciado correctamente";
     }
 }
@@ -1,14 +1,33 @@
 package dev.andresm.unieventosMongodb.servicios.implement;
 
 import dev.andresm.unieventosMongodb.dto.email.EmailDTO;
+import dev.andresm.unieventosMongodb.dto.email.EstadisticasEmailDTO;
+import dev.andresm.unieventosMongodb.dto.email.ResultadoEmailDTO;
 import dev.andresm.unieventosMongodb.servicios.interfaces.EmailServicio;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
 import jakarta.mail.internet.MimeMessage;
-import lombok.RequiredArgsConstructor;
-import org.springframework.mail.javamail.JavaMailSender;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
 import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
 /**
  * =================================================================================
  *               IMPLEMENTACIÓN DEL SERVICIO DE ENVÍO DE CORREOS
@@ -16,119 +35,352 @@ import org.springframework.transaction.annotation.Transactional;
 
  * Esta clase implementa el servicio de envío de emails del sistema.
  * Forma parte de la capa de negocio y se encarga de construir y enviar
- * correos electrónicos utilizando JavaMailSender de Spring.
+ * correos electrónicos por SMTP.
+
+ * En lugar de abrir una conexión nueva por cada correo (javaMailSender.send),
+ * mantiene un pool pequeño de conexiones SMTP autenticadas y envía varios
+ * mensajes por cada una:
+ * - El número de conexiones abiertas a la vez nunca supera
+ *   correos.smtp.conexiones (límite de concurrencia).
+ * - Cada conexión se renueva al llegar a correos.smtp.mensajes.conexion
+ *   mensajes o tras correos.smtp.inactividad.segundos sin uso.
+ * - Una conexión que falla se descarta y el envío se repite una vez
+ *   con una conexión nueva.
 
  * Casos de uso comunes:
  * - Notificaciones del sistema
  * - Confirmaciones de acciones
  * - Recuperación de cuentas
+ * - Envíos masivos (bandeja de salida)
  */
+@Slf4j
 @Service
 @Transactional
-@RequiredArgsConstructor
 public class EmailServicioImp implements EmailServicio {
+
     /**
-     * =================================================================================
-     *           DEPENDENCIA: JavaMailSender
-     * =================================================================================
+     * JavaMailSenderImpl aporta la sesión de JavaMail y los datos del
+     * servidor (host, puerto, usuario y contraseña) configurados en spring.mail.
+     */
+    private final JavaMailSenderImpl javaMailSender;
 
-     * JavaMailSender es el componente de Spring que permite crear y enviar
-     * correos electrónicos utilizando el protocolo SMTP.
+    /**
+     * Hilos usados para enviar un lote por varias conexiones a la vez.
+     */
+    private final ThreadPoolTaskExecutor ejecutorCorreos;
 
-     * Es inyectado por Spring mediante inyección de dependencias.
+    /**
+     * Conexiones abiertas que no están en uso.
      */
-   private final JavaMailSender javaMailSender;
+    private final ConcurrentLinkedDeque<ConexionSmtp> conexionesLibres = new ConcurrentLinkedDeque<>();
+
+    /**
+     * Permisos de uso: uno por cada conexión que puede existir a la vez.
+     */
+    private final Semaphore permisos;
+    private final int maximoConexiones;
+
+    @Value("${correos.smtp.mensajes.conexion:90}")
+    private int mensajesPorConexion;
+
+    @Value("${correos.smtp.inactividad.segundos:60}")
+    private long segundosInactividad;
+
+    @Value("${correos.smtp.espera.milisegundos:30000}")
+    private long esperaConexion;
+
+    // Métricas
+    private final AtomicLong enviados = new AtomicLong();
+    private final AtomicLong fallidos = new AtomicLong();
+    private final AtomicLong conexionesAbiertas = new AtomicLong();
+    private final AtomicLong nanosEnvio = new AtomicLong();
+    private final long inicio = System.nanoTime();
+
+    public EmailServicioImp(JavaMailSenderImpl javaMailSender,
+                            @Qualifier("ejecutorCorreos") ThreadPoolTaskExecutor ejecutorCorreos,
+                            @Value("${correos.smtp.conexiones:3}") int maximoConexiones) {
+        this.javaMailSender = javaMailSender;
+        this.ejecutorCorreos = ejecutorCorreos;
+        this.maximoConexiones = maximoConexiones;
+        this.permisos = new Semaphore(maximoConexiones);
+    }
 
     /**
      * =================================================================================
      *           ENVÍO DE CORREO ELECTRÓNICO
      * =================================================================================
 
-     * Este método construye y envía un correo electrónico utilizando
-     * la información proporcionada en el EmailDTO.
-     *
-     * @param emailDTO Objeto que contiene:
-     *                 - destinatario del correo
-     *                 - asunto del correo
-     *                 - contenido del mensaje
+     * Construye el mensaje y lo envía por una conexión del pool.
      *
+     * @param emailDTO destinatario, asunto y contenido del correo
      * @return true si el correo se envía correctamente,
      *         false si ocurre algún error durante el proceso.
-     *
-     * @throws Exception si ocurre un error crítico durante la creación
-     *                   o envío del correo.
      */
     @Override
-    public boolean enviarEmail (EmailDTO emailDTO) throws Exception {
+    public boolean enviarEmail(EmailDTO emailDTO) throws Exception {
 
-        /**
-         * -----------------------------------------------------------------------------
-         *       CREACIÓN DEL MENSAJE
-         * -----------------------------------------------------------------------------
+        ResultadoEmailDTO resultado = enviarEmails(List.of(emailDTO)).get(0);
+
+        if (!resultado.enviado()) {
+            log.warn("No fue posible enviar el correo a {}: {}", emailDTO.destinatario(), resultado.error());
+        }
+        return resultado.enviado();
+    }
+
+    /**
+     * =================================================================================
+     *           ENVÍO POR LOTES
+     * =================================================================================
+
+     * Reparte el lote entre las conexiones disponibles; cada grupo se envía
+     * en su propio hilo reutilizando una misma conexión para todos sus mensajes.
+     * Si el ejecutor está lleno, el grupo se envía en el hilo que llama, así
+     * que el lote siempre termina con un resultado por cada correo.
+     */
+    @Override
+    public List<ResultadoEmailDTO> enviarEmails(List<EmailDTO> correos) {
+
+        if (correos.isEmpty()) {
+            return List.of();
+        }
+
+        ResultadoEmailDTO[] resultados = new ResultadoEmailDTO[correos.size()];
+
+        // 1. Un lote pequeño se envía en el hilo actual
+        int grupos = Math.min(maximoConexiones, correos.size());
+
+        if (grupos == 1) {
+            enviarGrupo(correos, resultados, 0, 1);
+            return Arrays.asList(resultados);
+        }
+
+        // 2. Repartir los correos (i, i + grupos, i + 2·grupos...) entre los hilos
+        List<CompletableFuture<Void>> tareas = new ArrayList<>();
+
+        for (int grupo = 0; grupo < grupos; grupo++) {
+            int desde = grupo;
+            try {
+                tareas.add(CompletableFuture.runAsync(
+                        () -> enviarGrupo(correos, resultados, desde, grupos), ejecutorCorreos));
+            } catch (RejectedExecutionException e) {
+                // Hilos y cola ocupados por otros lotes: el grupo se envía en este hilo.
+                // Fallar aquí haría reenviar el lote completo, aunque los grupos
+                // ya entregados al ejecutor se están enviando
+                enviarGrupo(correos, resultados, desde, grupos);
+            }
+        }
+
+        // 3. Esperar a que terminen todos los grupos
+        CompletableFuture.allOf(tareas.toArray(CompletableFuture[]::new)).join();
+
+        return Arrays.asList(resultados);
+    }
+
+    @Override
+    public EstadisticasEmailDTO obtenerEstadisticas() {
+
+        long totalEnviados = enviados.get();
+        double minutos = Math.max((System.nanoTime() - inicio) / 60_000_000_000.0, 1.0 / 60);
+        long intentos = totalEnviados + fallidos.get();
+
+        return new EstadisticasEmailDTO(
+                totalEnviados,
+                fallidos.get(),
+                conexionesAbiertas.get(),
+                maximoConexiones - permisos.availablePermits(),
+                conexionesLibres.size(),
+                totalEnviados / minutos,
+                intentos == 0 ? 0 : nanosEnvio.get() / 1_000_000.0 / intentos
+        );
+    }
+
+    /**
+     * Envía los correos de un grupo por una misma conexión.
+     */
+    private void enviarGrupo(List<EmailDTO> correos, ResultadoEmailDTO[] resultados, int desde, int salto) {
+
+        ConexionSmtp conexion = null;
+
+        try {
+            for (int i = desde; i < correos.size(); i += salto) {
+
+                long comienzo = System.nanoTime();
+
+                try {
+                    // 1. Construir el mensaje
+                    MimeMessage mensaje = construirMensaje(correos.get(i));
+
+                    // 2. Obtener una conexión (la misma del mensaje anterior si sigue vigente)
+                    if (conexion == null || !conexion.vigente()) {
+                        cerrar(conexion);
+                        conexion = null;
+                        conexion = obtenerConexion();
+                    }
+
+                    // 3. Enviar; si una conexión reutilizada falla se repite con una nueva
+                    try {
+                        conexion.enviar(mensaje);
+                    } catch (MessagingException e) {
+                        if (conexion.mensajes == 0) {
+                            throw e;
+                        }
+                        cerrar(conexion);
+                        conexion = null;
+                        conexion = obtenerConexion();
+                        conexion.enviar(mensaje);
+                    }
+
+                    enviados.incrementAndGet();
+                    resultados[i] = new ResultadoEmailDTO(true, null);
+
+                } catch (Exception e) {
+
+                    // 4. Registrar el fallo y descartar la conexión, que puede haber quedado inestable
+                    fallidos.incrementAndGet();
+                    resultados[i] = new ResultadoEmailDTO(false, e.getMessage());
+                    cerrar(conexion);
+                    conexion = null;
+
+                } finally {
+                    nanosEnvio.addAndGet(System.nanoTime() - comienzo);
+                }
+            }
+        } finally {
+            devolverConexion(conexion);
+        }
+    }
+
+    /**
+     * Crea el MimeMessage con destinatario, asunto, contenido HTML y remitente.
+     */
+    private MimeMessage construirMensaje(EmailDTO emailDTO) throws MessagingException {
 
-         * Se crea un objeto MimeMessage que representa el correo electrónico.
-         * Este objeto permite enviar mensajes con contenido HTML.
-         */
         MimeMessage mensaje = javaMailSender.createMimeMessage();
-        // Se crea un objeto Helper que permite asignar atributos para que construya ese objeto y poder enviarlo
-        /**
-         * -----------------------------------------------------------------------------
-         *  MimeMessageHelper
-         * -----------------------------------------------------------------------------
-         *
-         * MimeMessageHelper facilita la construcción del mensaje,
-         * permitiendo asignar de forma sencilla:
-         * - destinatario
-         * - asunto
-         * - contenido
-         * - remitente
-         */
         MimeMessageHelper helper = new MimeMessageHelper(mensaje);
 
-        try {
+        helper.setSubject(emailDTO.asunto());               // Asunto del correo
+        helper.setText(emailDTO.contenido(), true);   // Contenido en formato HTML
+        helper.setTo(emailDTO.destinatario());              // Destinatario
+        helper.setFrom("no_reply@unilocal.com");            // Remitente del sistema
 
-            /**
-             * -------------------------------------------------------------------------
-             *   ASIGNACIÓN DE ATRIBUTOS DEL CORREO
-             * -------------------------------------------------------------------------
+        return mensaje;
+    }
 
-             Parámetros asignados al mensaje por medio de Helper
-             */
-            helper.setSubject(emailDTO.asunto());               // Asunto del correo
-            helper.setText(emailDTO.contenido(), true);   // Contenido en formato HTML
-            helper.setTo(emailDTO.destinatario());              // Destinatario
-            helper.setFrom("no_reply@unilocal.com");            // Remitente del sistema
+    /**
+     * Toma una conexión libre o abre una nueva, respetando el límite de conexiones.
+     * Cada conexión obtenida debe cerrarse o devolverse exactamente una vez.
+     */
+    private ConexionSmtp obtenerConexion() throws Exception {
 
-            /**
-             * -------------------------------------------------------------------------
-             *   ENVÍO DEL CORREO
-             * -------------------------------------------------------------------------
+        if (!permisos.tryAcquire(esperaConexion, TimeUnit.MILLISECONDS)) {
+            throw new Exception("No hay conexiones SMTP disponibles");
+        }
 
-             * Se utiliza JavaMailSender para enviar el mensaje construido.
-             * Se llama la función de envío "JavaMailSender.send", send recibe el mensaje
-                JavaMailSender.send(recibe el MimeMessage)
-             */
-            javaMailSender.send(mensaje);
+        try {
+            // Reutilizar una conexión libre que siga vigente
+            ConexionSmtp conexion;
+
+            while ((conexion = conexionesLibres.pollFirst()) != null) {
+                if (conexion.disponible()) {
+                    return conexion;
+                }
+                conexion.cerrar();
+            }
 
-            // Si el envío se realiza correctamente, se retorna true
-            return true;
+            // Abrir una conexión nueva autenticada
+            Transport transport = javaMailSender.getSession().getTransport(javaMailSender.getProtocol());
+            transport.connect(
+                    javaMailSender.getHost(),
+                    javaMailSender.getPort(),
+                    javaMailSender.getUsername(),
+                    javaMailSender.getPassword()
+            );
+            conexionesAbiertas.incrementAndGet();
+            return new ConexionSmtp(transport);
 
         } catch (Exception e) {
+            permisos.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Devuelve la conexión al pool para el siguiente envío.
+     */
+    private void devolverConexion(ConexionSmtp conexion) {
+        if (conexion != null) {
+            conexion.ultimoUso = System.nanoTime();
+            conexionesLibres.offerFirst(conexion);
+            permisos.release();
+        }
+    }
 
-            /**
-             * -------------------------------------------------------------------------
-             *   MANEJO DE ERRORES
-             * -------------------------------------------------------------------------
+    /**
+     * Cierra una conexión prestada y libera su permiso.
+     */
+    private void cerrar(ConexionSmtp conexion) {
+        if (conexion != null) {
+            conexion.cerrar();
+            permisos.release();
+        }
+    }
 
-             * Si ocurre un error durante la construcción o el envío del correo,
-             * se captura la excepción y se retorna false.
-             */
-            e.printStackTrace();
+    /**
+     * Cierra las conexiones libres al detener la aplicación.
+     */
+    @PreDestroy
+    public void cerrarConexiones() {
+        ConexionSmtp conexion;
+        while ((conexion = conexionesLibres.pollFirst()) != null) {
+            conexion.cerrar();
         }
-        // Retorna false si el correo no pudo ser enviado
-        return false;
     }
-}
 
+    /**
+     * Conexión SMTP abierta junto con su uso acumulado.
+     */
+    private class ConexionSmtp {
+
+        private final Transport transport;
+        private int mensajes;
+        private long ultimoUso = System.nanoTime();
 
+        private ConexionSmtp(Transport transport) {
+            this.transport = transport;
+        }
 
+        /**
+         * La conexión no llegó al máximo de mensajes ni estuvo inactiva demasiado tiempo.
+         */
+        private boolean vigente() {
+            return mensajes < mensajesPorConexion
+                    && System.nanoTime() - ultimoUso < TimeUnit.SECONDS.toNanos(segundosInactividad);
+        }
+
+        /**
+         * Además de estar vigente, el servidor sigue respondiendo (NOOP).
+         * Se verifica solo al tomar una conexión libre del pool.
+         */
+        private boolean disponible() {
+            return vigente() && transport.isConnected();
+        }
+
+        private void enviar(MimeMessage mensaje) throws MessagingException {
+            if (mensaje.getSentDate() == null) {
+                mensaje.setSentDate(new Date());
+            }
+            mensaje.saveChanges();
+            transport.sendMessage(mensaje, mensaje.getAllRecipients());
+            mensajes++;
+            ultimoUso = System.nanoTime();
+        }
+
+        private void cerrar() {
+            try {
+                transport.close();
+            } catch (MessagingException e) {
+                // La conexión ya estaba cerrada por el servidor
+            }
+        }
+    }
+}
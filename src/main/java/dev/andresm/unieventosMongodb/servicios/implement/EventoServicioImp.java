@@ -7,16 +7,17 @@ import dev.andresm.unieventosMongodb.documentos.TipoEvento;
 import dev.andresm.unieventosMongodb.dto.evento.*;
 import dev.andresm.unieventosMongodb.repositorios.CuentaRepo;
 import dev.andresm.unieventosMongodb.repositorios.EventoRepo;
+import dev.andresm.unieventosMongodb.servicios.interfaces.CacheEventoServicio;
 import dev.andresm.unieventosMongodb.servicios.interfaces.EventoServicio;
+import dev.andresm.unieventosMongodb.servicios.interfaces.InventarioServicio;
+import dev.andresm.unieventosMongodb.servicios.interfaces.SugerenciaServicio;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 /**
  *  Implementación del servicio de eventos.
@@ -39,6 +40,15 @@ public class EventoServicioImp implements EventoServicio {
 
     private final CuentaRepo cuentaRepo;
     private final EventoRepo eventoRepo;
+    private final SugerenciaServicio sugerenciaServicio;
+    private final CacheEventoServicio cacheEventoServicio;
+    private final InventarioServicio inventarioServicio;
+
+    /**
+     * Tamaño de página por defecto y máximo permitido en los listados paginados.
+     */
+    private static final int TAMANO_PAGINA = 20;
+    private static final int TAMANO_PAGINA_MAXIMO = 100;
 
     /**
      * - Crea un nuevo evento en el sistema.
@@ -84,6 +94,10 @@ public class EventoServicioImp implements EventoServicio {
                 .build();
 
         eventoRepo.save(evento);
+
+        // Actualizar el índice de sugerencias
+        sugerenciaServicio.actualizarEvento(evento);
+
         return evento.getId();
     }
 
@@ -132,6 +146,13 @@ public class EventoServicioImp implements EventoServicio {
 
         // 4. Guardar cambios
         eventoRepo.save(evento);
+
+        // 5. Actualizar el índice de sugerencias (nombre o estado pudieron cambiar)
+        sugerenciaServicio.actualizarEvento(evento);
+
+        // 6. Retirar la versión anterior de la caché
+        cacheEventoServicio.invalidar(evento.getId());
+
         return evento.getId();
     }
 
@@ -156,7 +177,11 @@ public class EventoServicioImp implements EventoServicio {
         // 3. Eliminar el evento de la base de datos
         eventoRepo.delete(eventoOptional.get());
 
-        // 4. Retornar el id del evento desactivado
+        // 4. Retirar el evento del índice de sugerencias y de la caché
+        sugerenciaServicio.eliminarEvento(id);
+        cacheEventoServicio.invalidar(id);
+
+        // 5. Retornar el id del evento desactivado
         return id;
     }
 
@@ -196,14 +221,8 @@ public class EventoServicioImp implements EventoServicio {
     @Override
     public List<ItemEventoDTO> listarEventos() {
 
-        // 1. Obtener todos los eventos almacenados en la base de datos
-        return eventoRepo.listarTodos().stream()
-
-                // 2. Convertir cada evento en un DTO de tipo ItemEventoDTO
-                .map(this::mapItemEvento)
-
-                // 3. Recolectar los resultados en una lista y retornarla
-                .collect(Collectors.toList());
+        // Obtener todos los eventos ya proyectados como ItemEventoDTO
+        return eventoRepo.listarItems();
     }
 
     @Override
@@ -212,33 +231,49 @@ public class EventoServicioImp implements EventoServicio {
         // Obtener fecha actual del sistema
         LocalDateTime fechaActual = LocalDateTime.now();
 
-        // Consultar eventos disponibles en MongoDB
-        List<Evento> eventos = eventoRepo.buscarEventoDisponibles(
+        // Consultar eventos disponibles en MongoDB (ya proyectados como DTO)
+        return eventoRepo.buscarItemsDisponibles(
                 EstadoEvento.ACTIVO,
                 fechaActual
         );
+    }
 
-        // Convertir a DTO
-        return eventos.stream()
-                .map(this::mapItemEvento)
-                .toList();
+    /**
+     * - Lista una página de todos los eventos.
+     */
+    @Override
+    public PaginaEventosDTO listarEventos(String cursor, Integer tamano) throws Exception {
+
+        return paginar(null, null, null, cursor, tamano);
+    }
+
+    /**
+     * - Lista una página de los eventos disponibles para clientes.
+     */
+    @Override
+    public PaginaEventosDTO listarEventosCliente(String cursor, Integer tamano) throws Exception {
+
+        return paginar(null, EstadoEvento.ACTIVO, LocalDateTime.now(), cursor, tamano);
     }
 
     /* =======================   DISPONIBILIDAD   =========================================== */
     /**
      * - Verifica disponibilidad de localidades.
+
+     * La existencia del evento se valida con la caché y las entradas
+     * disponibles se consultan siempre en MongoDB.
      */
     @Override
     public boolean disponibilidad(DisponibilidadEventoDTO disponiblidadEventoDTO) throws Exception {
 
-       Optional<Evento> eventoOptional = eventoRepo.buscarId(disponiblidadEventoDTO.idEvento());;
-
-       if (eventoOptional.isEmpty()) {
+       if (cacheEventoServicio.obtenerEvento(disponiblidadEventoDTO.idEvento()).isEmpty()) {
            throw new Exception("No existe el evento");
        }
-        Evento evento = eventoOptional.get();
 
-       return evento.getLocalidades().stream().anyMatch(localidad -> localidad.getNombre().equals(disponiblidadEventoDTO.nombreLocalidad()) && localidad.cantidadDisponible() >= disponiblidadEventoDTO.cantidad());
+       return inventarioServicio.hayDisponibilidad(
+               disponiblidadEventoDTO.idEvento(),
+               disponiblidadEventoDTO.nombreLocalidad(),
+               disponiblidadEventoDTO.cantidad());
     }
 
     /**
@@ -264,17 +299,13 @@ public class EventoServicioImp implements EventoServicio {
     /**
      * - Filtrado dinámico de eventos.
 
-     * Este método delega la búsqueda al repositorio utilizando
-     * los métodos específicos ya definidos en EventoRepo.
+     * Este método delega la búsqueda a la consulta dinámica del repositorio,
+     * que compone en MongoDB cualquier combinación de filtros.
 
      * Estrategia:
-     * - Se evalúan los campos no nulos del DTO.
-     * - Se llama al método más específico posible del repositorio.
+     * - Se aplican todos los campos no nulos del DTO.
      * - Si no hay filtros, se listan todos los eventos.
-
-     * Validación adicional:
-     * - Después de obtener los resultados desde MongoDB,
-     *   se filtran en memoria únicamente los eventos con estado ACTIVO.
+     * - El estado ACTIVO también se filtra en MongoDB.
 
      * Esto garantiza que los clientes solo puedan visualizar
      * eventos disponibles en la plataforma.
@@ -285,114 +316,56 @@ public class EventoServicioImp implements EventoServicio {
     @Override
     public List<ItemEventoDTO> filtrarEventos(FiltroEventoDTO filtroEventoDTO) {
 
-        /**
-         * Lista que almacenará el resultado de la consulta.
-         * Aquí se guardarán los eventos que retorne MongoDB
-         * según el filtro aplicado.
-         */
-        List<Evento> eventos;
-
-        /*
-         * Extraemos los valores del DTO para trabajar con ellos
-         * de forma más clara y legible.
-         *
-         * Esto evita estar escribiendo repetidamente:
-         * filtroEventoDTO.nombre(), filtroEventoDTO.tipo(), etc.
-         *
-         * Además mejora la legibilidad del código en los condicionales.
-         */
-        String nombre = filtroEventoDTO.nombre();
-        TipoEvento tipo = filtroEventoDTO.tipo();
-        String ciudad = filtroEventoDTO.ciudad();
-        LocalDate fecha = filtroEventoDTO.fecha();
-
-        /*
-         * ===============================
-         * 1️. FILTROS MÁS ESPECÍFICOS
-         * ===============================
-         */
-
-        // Fecha + Tipo + Ciudad
-        if (fecha != null && tipo != null && ciudad != null) {
-            eventos = eventoRepo.buscarPorFechaTipoYCiudad(
-                    fecha.atStartOfDay(),
-                    fecha.atTime(23,59,59),
-                    tipo,
-                    ciudad
-            );
-        }
+        return eventoRepo.buscarEventos(filtroEventoDTO, EstadoEvento.ACTIVO);
+    }
 
-        // Fecha + Tipo
-        else if (fecha != null && tipo != null) {
-            eventos = eventoRepo.buscarPorFechaYTipo(
-                    fecha.atStartOfDay(),
-                    fecha.atTime(23,59,59),
-                    tipo
-            );
-        }
+    /**
+     * - Filtrado dinámico de eventos con paginación.
+     * Aplica los mismos criterios que filtrarEventos (solo eventos ACTIVOS).
+     */
+    @Override
+    public PaginaEventosDTO filtrarEventos(FiltroEventoDTO filtroEventoDTO, String cursor, Integer tamano) throws Exception {
 
-        // Fecha + Ciudad
-        else if (fecha != null && ciudad != null) {
-            eventos = eventoRepo.buscarPorFechaYCiudad(
-                    fecha.atStartOfDay(),
-                    fecha.atTime(23,59,59),
-                    ciudad
-            );
-        }
+        return paginar(filtroEventoDTO, EstadoEvento.ACTIVO, null, cursor, tamano);
+    }
 
-        // Tipo + Ciudad
-        else if (tipo != null && ciudad != null) {
-            eventos = eventoRepo.buscarPorTipoYCiudad(
-                    tipo,
-                    ciudad
-            );
-        }
+    /**
+     * - Sugerencias de autocompletado desde el índice en memoria.
+     */
+    @Override
+    public List<SugerenciaEventoDTO> sugerirEventos(String prefijo, Integer limite) {
 
-        // FILTRO POR NOMBRE Y CIUDAD
-        else if (nombre != null && !nombre.isBlank() &&
-                ciudad != null && !ciudad.isBlank()) {
-            eventos = eventoRepo.buscarPorNombreYCiudad(nombre, ciudad);
-        }
+        return sugerenciaServicio.sugerir(prefijo, limite);
+    }
 
-        /*
-         * ===============================
-         * 2️. FILTROS INDIVIDUALES
-         * ===============================
-         */
-
-        else if (fecha != null) {
-            eventos = eventoRepo.buscarPorFecha(
-                    fecha.atStartOfDay(),
-                    fecha.atTime(23,59,59)
-            );
-        }
+    /**
+     * - Búsqueda de eventos por texto con ranking de relevancia.
 
-        else if (tipo != null) {
-            eventos = eventoRepo.buscarPorTipo(tipo);
-        }
+     * Usa el índice de texto de MongoDB, por lo que el costo de la búsqueda
+     * no depende de recorrer toda la colección como ocurre con $regex.
+     */
+    @Override
+    public BusquedaEventoDTO buscarEventosTexto(String texto, Integer pagina, Integer tamano) throws Exception {
 
-        else if (ciudad != null && !ciudad.isBlank()) {
-            eventos = eventoRepo.buscarPorCiudad(ciudad);
+        if (texto == null || texto.isBlank()) {
+            throw new Exception("El texto de búsqueda es obligatorio");
         }
 
-        else if (nombre != null && !nombre.isBlank()) {
-            eventos = eventoRepo.buscarPorNombreParcial(nombre);
-        }
+        // 1. Normalizar página y tamaño
+        int numeroPagina = (pagina == null || pagina < 0) ? 0 : pagina;
+        int limite = (tamano == null || tamano <= 0) ? TAMANO_PAGINA : Math.min(tamano, TAMANO_PAGINA_MAXIMO);
 
-        /*
-         * ===============================
-         * 3️. SIN FILTROS
-         * ===============================
-         */
+        // 2. Consultar un elemento adicional para saber si hay otra página
+        List<ItemEventoDTO> items = eventoRepo.buscarTexto(
+                texto, EstadoEvento.ACTIVO, (long) numeroPagina * limite, limite + 1);
 
-        else {
-            eventos = eventoRepo.listarTodos();
-        }
-        // Solo se devuelven eventos ACTIVOS
-        return eventos.stream()
-                .filter(evento -> evento.getEstado() == EstadoEvento.ACTIVO)
-                .map(this::mapItemEvento)
-                .toList();
+        boolean haySiguiente = items.size() > limite;
+
+        return new BusquedaEventoDTO(
+                haySiguiente ? List.copyOf(items.subList(0, limite)) : items,
+                numeroPagina,
+                haySiguiente
+        );
     }
 
     /**
@@ -404,9 +377,7 @@ public class EventoServicioImp implements EventoServicio {
     @Override
     public List<ItemEventoDTO> filtrarEventosPorCiudad(String ciudad) {
 
-        return eventoRepo.buscarPorCiudad(ciudad).stream()
-                .map(this::mapItemEvento)
-                .toList();
+        return eventoRepo.buscarEventos(new FiltroEventoDTO(null, null, ciudad, null), null);
     }
 
     /**
@@ -418,10 +389,7 @@ public class EventoServicioImp implements EventoServicio {
     @Override
     public List<ItemEventoDTO> filtrarEventosPorTipo(TipoEvento tipo) {
 
-        return eventoRepo.buscarPorTipo(tipo)
-                .stream()
-                .map(this::mapItemEvento)
-                .toList();
+        return eventoRepo.buscarEventos(new FiltroEventoDTO(null, tipo, null, null), null);
     }
 
     /**
@@ -433,11 +401,8 @@ public class EventoServicioImp implements EventoServicio {
     @Override
     public List<ItemEventoDTO> filtrarEventosPorNombre(String nombre) {
 
-        return eventoRepo.buscarPorNombreParcial(nombre)
-                .stream()
-                .map(this::mapItemEvento)
-                .toList();
-        }
+        return eventoRepo.buscarEventos(new FiltroEventoDTO(nombre, null, null, null), null);
+    }
 
     /**
      * Filtra eventos por nombre y ciudad.
@@ -448,10 +413,8 @@ public class EventoServicioImp implements EventoServicio {
     @Override
     public List<ItemEventoDTO> filtrarEventosPorNombreYCiudad(FiltrarPorNombreYCiudadDTO filtrarPorNombreYCiudadDTO) {
 
-        return eventoRepo.buscarPorNombreYCiudad(filtrarPorNombreYCiudadDTO.nombre(), filtrarPorNombreYCiudadDTO.ciudad())
-                .stream()
-                .map(this::mapItemEvento)
-                .toList();
+        return eventoRepo.buscarEventos(new FiltroEventoDTO(
+                filtrarPorNombreYCiudadDTO.nombre(), null, filtrarPorNombreYCiudadDTO.ciudad(), null), null);
     }
 
     /**
@@ -463,15 +426,7 @@ public class EventoServicioImp implements EventoServicio {
     @Override
     public List<ItemEventoDTO> filtrarEventosPorFecha(FiltrarPorFechaDTO filtrarPorFechaDTO) {
 
-        LocalDate fecha = filtrarPorFechaDTO.fecha();
-
-        LocalDateTime inicio = fecha.atStartOfDay();
-        LocalDateTime fin = fecha.atTime(23, 59, 59);
-
-        return eventoRepo.buscarPorFecha(inicio, fin)
-                .stream()
-                .map(this::mapItemEvento)
-                .toList();
+        return eventoRepo.buscarEventos(new FiltroEventoDTO(null, null, null, filtrarPorFechaDTO.fecha()), null);
     }
 
     /**
@@ -483,25 +438,15 @@ public class EventoServicioImp implements EventoServicio {
     @Override
     public List<ItemEventoDTO> filtrarEventosPorFechaYCiudad(FiltrarPorFechaYCiudadDTO filtrarEventosPorFechaYCiudadDTO) {
 
-        LocalDateTime inicio = filtrarEventosPorFechaYCiudadDTO.fecha().atStartOfDay();
-        LocalDateTime fin = filtrarEventosPorFechaYCiudadDTO.fecha().atTime(23, 59, 59);
-
-        return eventoRepo.buscarPorFechaYCiudad(inicio, fin, filtrarEventosPorFechaYCiudadDTO.ciudad())
-                .stream()
-                .map(this::mapItemEvento)
-                .toList();
+        return eventoRepo.buscarEventos(new FiltroEventoDTO(
+                null, null, filtrarEventosPorFechaYCiudadDTO.ciudad(), filtrarEventosPorFechaYCiudadDTO.fecha()), null);
     }
 
     @Override
     public List<ItemEventoDTO> filtrarEventosPorFechaYTipo(FiltrarPorFechaYTipoDTO filtrarPorFechaYTipoDTO) {
 
-        LocalDateTime inicio = filtrarPorFechaYTipoDTO.fecha().atStartOfDay();
-        LocalDateTime fin = filtrarPorFechaYTipoDTO.fecha().atTime(23, 59, 59);
-
-        return eventoRepo.buscarPorFechaYTipo(inicio, fin, filtrarPorFechaYTipoDTO.tipo())
-                .stream()
-                .map(this::mapItemEvento)
-                .toList();
+        return eventoRepo.buscarEventos(new FiltroEventoDTO(
+                null, filtrarPorFechaYTipoDTO.tipo(), null, filtrarPorFechaYTipoDTO.fecha()), null);
     }
 
     /**
@@ -514,23 +459,18 @@ public class EventoServicioImp implements EventoServicio {
     @Override
     public List<ItemEventoDTO> filtrarEventosPorFechaYTipoYCiudad(FiltrarPorFechaYTipoYCiudadDTO filtrarPorFechaYTipoYCiudadDTO) {
 
-        LocalDateTime inicio = filtrarPorFechaYTipoYCiudadDTO.fecha().atStartOfDay();
-        LocalDateTime fin = filtrarPorFechaYTipoYCiudadDTO.fecha().atTime(23, 59, 59);
-
-        return eventoRepo.buscarPorFechaTipoYCiudad(inicio, fin, filtrarPorFechaYTipoYCiudadDTO.tipo(), filtrarPorFechaYTipoYCiudadDTO.ciudad())
-                .stream()
-                .map(this::mapItemEvento)
-                .toList();
+        return eventoRepo.buscarEventos(new FiltroEventoDTO(
+                null,
+                filtrarPorFechaYTipoYCiudadDTO.tipo(),
+                filtrarPorFechaYTipoYCiudadDTO.ciudad(),
+                filtrarPorFechaYTipoYCiudadDTO.fecha()), null);
     }
 
     @Override
     public List<ItemEventoDTO> filtrarEventosPorTipoYCiudad(FiltrarPorTipoYCiudadDTO filtrarEventosPorTipoYCiudad) {
 
-        return eventoRepo.buscarPorTipoYCiudad(filtrarEventosPorTipoYCiudad.tipo(),
-                filtrarEventosPorTipoYCiudad.ciudad())
-                .stream()
-                .map(this::mapItemEvento)
-                .toList();
+        return eventoRepo.buscarEventos(new FiltroEventoDTO(
+                null, filtrarEventosPorTipoYCiudad.tipo(), filtrarEventosPorTipoYCiudad.ciudad(), null), null);
     }
 
     /* =====================   MÉTODOS AUXILIARES   ========================================= */
@@ -550,16 +490,43 @@ public class EventoServicioImp implements EventoServicio {
     }
 
     /**
-     * Mapea un evento a su DTO resumido.
+     * Obtiene una página de eventos usando paginación por cursor.
+
+     * Flujo:
+     * 1. Limitar el tamaño de la página.
+     * 2. Decodificar el cursor (fecha|id del último evento entregado).
+     * 3. Consultar un evento más del tamaño pedido para saber si hay otra página.
+     * 4. Generar el cursor de la siguiente página a partir del último ítem.
      */
-    private ItemEventoDTO mapItemEvento(Evento evento) {
-        return new ItemEventoDTO(
-                evento.getId(),
-                evento.getNombre(),
-                evento.getDescripcion(),
-                evento.getImagenPortada(),
-                evento.getFecha(),
-                evento.getDireccion()
-        );
+    private PaginaEventosDTO paginar(FiltroEventoDTO filtro, EstadoEvento estado, LocalDateTime desde,
+                                     String cursor, Integer tamano) throws Exception {
+
+        // 1. Tamaño de página acotado
+        int limite = (tamano == null || tamano <= 0) ? TAMANO_PAGINA : Math.min(tamano, TAMANO_PAGINA_MAXIMO);
+
+        // 2. Decodificar el cursor
+        LocalDateTime fechaCursor = null;
+        String idCursor = null;
+
+        if (cursor != null && !cursor.isBlank()) {
+            CursorEventoDTO posicion = CursorEventoDTO.decodificar(cursor);
+            fechaCursor = posicion.fecha();
+            idCursor = posicion.id();
+        }
+
+        // 3. Consultar la página con un elemento adicional
+        List<ItemEventoDTO> items = eventoRepo.buscarPagina(filtro, estado, desde, fechaCursor, idCursor, limite + 1);
+
+        if (items.size() <= limite) {
+            return new PaginaEventosDTO(items, null);
+        }
+
+        // 4. Cursor de la siguiente página
+        List<ItemEventoDTO> pagina = List.copyOf(items.subList(0, limite));
+        ItemEventoDTO ultimo = pagina.get(limite - 1);
+
+        String siguiente = new CursorEventoDTO(ultimo.fecha(), ultimo.id()).codificar();
+
+        return new PaginaEventosDTO(pagina, siguiente);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,246 @@
+package dev.andresm.unieventosMongodb.servicios.implement;
+
+import dev.andresm.unieventosMongodb.dto.indices.ReporteIndiceDTO;
+import dev.andresm.unieventosMongodb.servicios.interfaces.IndiceServicio;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.TextIndexDefinition;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Implementación del servicio de índices.
+
+ * Los índices se declaran en un solo lugar según las consultas de los repositorios:
+ * - cuentas: email y usuario.cedula (únicos) → buscarEmail, buscarCedula
+ * - cupones: codigo (único) → buscarCodigo
+ * - eventos: nombre (único), (estado, fecha) y (ciudad, tipo, fecha) → listados y filtros;
+ *   índice de texto sobre nombre, descripción y ciudad → búsqueda por relevancia;
+ *   fecha e (idUsuario, fecha) → reportes consolidados por rango y por organizador
+ * - ordenes: (idCliente, fecha), (items.idEvento, estado) y codigoPasarela → órdenes por
+ *   cliente, por evento y webhook de pagos
+ * - reservas: (idBarrido, fechaExpiracion) → barrido de reservas vencidas;
+ *   fechaBarrido → reclamos vencidos que se vuelven a reclamar
+ * - ingresos: (idEvento, numeroEntrada) → carga del registro de accesos de un evento
+ * - ingresos: fechaRevocacion (disperso) → revocaciones recientes para las demás instancias
+ * - ventas_diarias: (idEvento, dia) → ventas por localidad en los reportes
+ * - ventas_aplicadas: idOrden → ventas de una orden que se descuentan al anularla
+
+ * Se crean con IndexOperations, que no hace nada si el índice ya existe.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class IndiceServicioImp implements IndiceServicio {
+
+    private final MongoTemplate mongoTemplate;
+
+    /**
+     * Índice declarado para una colección.
+     */
+    private record IndiceDeclarado(String coleccion, IndexDefinition definicion) {}
+
+    private static final List<IndiceDeclarado> INDICES = List.of(
+
+            new IndiceDeclarado("cuentas", new Index()
+                    .on("email", Sort.Direction.ASC).unique().named("email_unico")),
+            new IndiceDeclarado("cuentas", new Index()
+                    .on("usuario.cedula", Sort.Direction.ASC).unique().named("cedula_unica")),
+
+            new IndiceDeclarado("cuentas", new Index()
+                    .on("rol", Sort.Direction.ASC).on("estado", Sort.Direction.ASC).on("_id", Sort.Direction.ASC)
+                    .named("rol_estado_id")),
+
+            new IndiceDeclarado("cupones", new Index()
+                    .on("codigo", Sort.Direction.ASC).unique().named("codigo_unico")),
+
+            new IndiceDeclarado("eventos", new Index()
+                    .on("nombre", Sort.Direction.ASC).unique().named("nombre_unico")),
+            new IndiceDeclarado("eventos", new Index()
+                    .on("estado", Sort.Direction.ASC).on("fecha", Sort.Direction.ASC).named("estado_fecha")),
+            new IndiceDeclarado("eventos", new Index()
+                    .on("ciudad", Sort.Direction.ASC).on("tipo", Sort.Direction.ASC).on("fecha", Sort.Direction.ASC)
+                    .named("ciudad_tipo_fecha")),
+            new IndiceDeclarado("eventos", new Index()
+                    .on("fecha", Sort.Direction.ASC).named("fecha")),
+            new IndiceDeclarado("eventos", new Index()
+                    .on("idUsuario", Sort.Direction.ASC).on("fecha", Sort.Direction.ASC).named("usuario_fecha")),
+            new IndiceDeclarado("eventos", new TextIndexDefinition.TextIndexDefinitionBuilder()
+                    .onField("nombre", 3F)
+                    .onField("ciudad", 2F)
+                    .onField("descripcion")
+                    .withDefaultLanguage("spanish")
+                    .named("texto_eventos")
+                    .build()),
+
+            new IndiceDeclarado("ordenes", new Index()
+                    .on("idCliente", Sort.Direction.ASC).on("fecha", Sort.Direction.ASC).named("cliente_fecha")),
+            new IndiceDeclarado("ordenes", new Index()
+                    .on("items.idEvento", Sort.Direction.ASC).on("estado", Sort.Direction.ASC)
+                    .named("items_evento_estado")),
+            new IndiceDeclarado("ordenes", new Index()
+                    .on("codigoPasarela", Sort.Direction.ASC).sparse().named("codigo_pasarela")),
+
+            new IndiceDeclarado("reservas", new Index()
+                    .on("idBarrido", Sort.Direction.ASC).on("fechaExpiracion", Sort.Direction.ASC)
+                    .named("barrido_expiracion")),
+            new IndiceDeclarado("reservas", new Index()
+                    .on("fechaBarrido", Sort.Direction.ASC).sparse().named("fecha_barrido")),
+
+            new IndiceDeclarado("notificaciones_pago", new Index()
+                    .on("estado", Sort.Direction.ASC).on("proximoIntento", Sort.Direction.ASC)
+                    .named("estado_proximo_intento")),
+
+            new IndiceDeclarado("correos_salientes", new Index()
+                    .on("estado", Sort.Direction.ASC).on("proximoIntento", Sort.Direction.ASC)
+                    .named("estado_proximo_intento")),
+
+            new IndiceDeclarado("correos_salientes", new Index()
+                    .on("idLote", Sort.Direction.ASC).sparse().named("id_lote")),
+
+            new IndiceDeclarado("ventas_diarias", new Index()
+                    .on("idEvento", Sort.Direction.ASC).on("dia", Sort.Direction.ASC)
+                    .named("evento_dia")),
+            new IndiceDeclarado("ventas_aplicadas", new Index()
+                    .on("idOrden", Sort.Direction.ASC).named("orden")),
+
+            new IndiceDeclarado("ingresos", new Index()
+                    .on("idEvento", Sort.Direction.ASC).on("numeroEntrada", Sort.Direction.ASC)
+                    .named("evento_numero")),
+            new IndiceDeclarado("ingresos", new Index()
+                    .on("fechaRevocacion", Sort.Direction.ASC)
+                    .sparse()
+                    .named("fecha_revocacion"))
+    );
+
+    @Override
+    public int crearIndices() {
+
+        int fallidos = 0;
+
+        for (IndiceDeclarado indice : INDICES) {
+            try {
+                mongoTemplate.indexOps(indice.coleccion()).ensureIndex(indice.definicion());
+            } catch (RuntimeException e) {
+                // Por ejemplo: datos duplicados que impiden crear un índice único
+                fallidos++;
+                log.warn("No fue posible crear el índice {}.{}: {}",
+                        indice.coleccion(), nombre(indice.definicion()), e.getMessage());
+            }
+        }
+
+        return fallidos;
+    }
+
+    @Override
+    public List<ReporteIndiceDTO> generarReporteIndices() {
+
+        List<ReporteIndiceDTO> reporte = new ArrayList<>();
+
+        Map<String, List<IndiceDeclarado>> porColeccion = INDICES.stream()
+                .collect(Collectors.groupingBy(IndiceDeclarado::coleccion));
+
+        for (Map.Entry<String, List<IndiceDeclarado>> entrada : porColeccion.entrySet()) {
+
+            String coleccion = entrada.getKey();
+
+            // 1. Índices existentes (claves → nombre) y sus accesos
+            Map<String, String> existentes = new HashMap<>();
+            for (Document indice : mongoTemplate.getCollection(coleccion).listIndexes()) {
+                existentes.put(claves(indice.get("key", Document.class)), indice.getString("name"));
+            }
+
+            Map<String, Long> usos = usosPorIndice(coleccion);
+
+            // 2. Índices declarados: existentes o faltantes
+            Set<String> declarados = new HashSet<>();
+
+            for (IndiceDeclarado indice : entrada.getValue()) {
+
+                String claves = claves(indice.definicion().getIndexKeys());
+                declarados.add(claves);
+
+                String nombreExistente = existentes.get(claves);
+
+                if (nombreExistente == null) {
+                    reporte.add(new ReporteIndiceDTO(coleccion, nombre(indice.definicion()), claves, "FALTANTE", -1));
+                } else {
+                    reporte.add(new ReporteIndiceDTO(coleccion, nombreExistente, claves, "OK",
+                            usos.getOrDefault(nombreExistente, 0L)));
+                }
+            }
+
+            // 3. Índices existentes que no están declarados (se omite _id)
+            for (Map.Entry<String, String> existente : existentes.entrySet()) {
+
+                if (declarados.contains(existente.getKey()) || existente.getValue().equals("_id_")) {
+                    continue;
+                }
+
+                long accesos = usos.getOrDefault(existente.getValue(), 0L);
+
+                reporte.add(new ReporteIndiceDTO(coleccion, existente.getValue(), existente.getKey(),
+                        accesos == 0 ? "SIN_USO" : "NO_DECLARADO", accesos));
+            }
+        }
+
+        return reporte;
+    }
+
+    /**
+     * Consulta $indexStats para obtener los accesos de cada índice
+     * desde el último reinicio del servidor.
+     */
+    private Map<String, Long> usosPorIndice(String coleccion) {
+
+        Map<String, Long> usos = new HashMap<>();
+
+        for (Document estadistica : mongoTemplate.getCollection(coleccion)
+                .aggregate(List.of(new Document("$indexStats", new Document())))) {
+
+            Document accesos = estadistica.get("accesses", Document.class);
+            Number operaciones = accesos == null ? null : accesos.get("ops", Number.class);
+
+            usos.put(estadistica.getString("name"), operaciones == null ? 0L : operaciones.longValue());
+        }
+
+        return usos;
+    }
+
+    /**
+     * Representa las claves de un índice como texto (campo:dirección, ...),
+     * normalizando los valores numéricos para comparar índices creados
+     * desde la aplicación o desde la consola.
+
+     * Un índice de texto se representa como "texto", ya que MongoDB
+     * solo permite uno por colección y lo almacena con claves internas (_fts, _ftsx).
+     */
+    private String claves(Document claves) {
+
+        if (claves.containsKey("_fts") || claves.containsValue("text")) {
+            return "texto";
+        }
+
+        return claves.entrySet().stream()
+                .map(clave -> clave.getKey() + ":" + (clave.getValue() instanceof Number numero
+                        ? String.valueOf(numero.intValue())
+                        : String.valueOf(clave.getValue())))
+                .collect(Collectors.joining(", "));
+    }
+
+    private String nombre(IndexDefinition definicion) {
+        return definicion.getIndexOptions().getString("name");
+    }
+}
@@ -0,0 +1,256 @@
+package dev.andresm.unieventosMongodb.servicios.implement;
+
+import com.mongodb.client.result.UpdateResult;
+import dev.andresm.unieventosMongodb.documentos.Evento;
+import dev.andresm.unieventosMongodb.dto.inventario.MovimientoInventarioDTO;
+import dev.andresm.unieventosMongodb.servicios.interfaces.InventarioServicio;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.data.mongodb.MongoExpression;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Implementación del servicio de inventario de entradas.
+
+ * Cada operación se resuelve con un único updateFirst sobre la colección
+ * "eventos":
+ * - El filtro valida con $expr que la localidad exista y que la cantidad
+ *   solicitada sea válida frente a su capacidad.
+ * - La actualización modifica únicamente la localidad indicada
+ *   mediante el operador posicional filtrado $[l].
+
+ * Como MongoDB evalúa el filtro y aplica la actualización de forma atómica
+ * sobre el documento, dos compradores concurrentes nunca pueden
+ * sobrevender una localidad y no se pierden actualizaciones.
+ */
+@Service
+@Transactional
+@RequiredArgsConstructor
+public class InventarioServicioImp implements InventarioServicio {
+
+    private final MongoTemplate mongoTemplate;
+
+    /**
+     * Condición: existe una localidad con el nombre dado cuya
+     * capacidad admite la cantidad solicitada.
+     */
+    private static final String HAY_CAPACIDAD =
+            "{ $anyElementTrue: { $map: { " +
+                    "input: '$localidades', as: 'l', " +
+                    "in: { $and: [ " +
+                    "{ $eq: [ '$$l.nombre', ?0 ] }, " +
+                    "{ $lte: [ { $add: [ '$$l.entradasVendidas', ?1 ] }, '$$l.capacidadMaxima' ] } " +
+                    "] } } } }";
+
+    /**
+     * Condición: existe una localidad con el nombre dado que tiene
+     * al menos la cantidad de entradas que se desea liberar.
+     */
+    private static final String HAY_ENTRADAS =
+            "{ $anyElementTrue: { $map: { " +
+                    "input: '$localidades', as: 'l', " +
+                    "in: { $and: [ " +
+                    "{ $eq: [ '$$l.nombre', ?0 ] }, " +
+                    "{ $gte: [ '$$l.entradasVendidas', ?1 ] } " +
+                    "] } } } }";
+
+    /**
+     * Etapa $set que recalcula porcentajeVenta en todas las localidades.
+     */
+    private static final String RECALCULAR_PORCENTAJE =
+            "{ $set: { localidades: { $map: { " +
+                    "input: '$localidades', as: 'l', " +
+                    "in: { $mergeObjects: [ '$$l', { porcentajeVenta: { $cond: [ " +
+                    "{ $gt: [ '$$l.capacidadMaxima', 0 ] }, " +
+                    "{ $multiply: [ { $divide: [ '$$l.entradasVendidas', '$$l.capacidadMaxima' ] }, 100 ] }, " +
+                    "0 ] } } ] } } } } }";
+
+    @Override
+    public boolean reservarEntradas(String idEvento, String nombreLocalidad, int cantidad) {
+
+        if (cantidad <= 0) {
+            return false;
+        }
+
+        // 1. Filtrar el evento y validar la capacidad en el servidor
+        Query query = new Query(Criteria.where("_id").is(idEvento))
+                .addCriteria(Criteria.expr(MongoExpression.create(HAY_CAPACIDAD, nombreLocalidad, cantidad)));
+
+        // 2. Incrementar solo la localidad indicada
+        // 3. Si ningún documento cumple el filtro la reserva no se aplica
+        UpdateResult resultado = mongoTemplate.updateFirst(
+                query, actualizacionLocalidad(nombreLocalidad, cantidad), Evento.class);
+        return resultado.getModifiedCount() > 0;
+    }
+
+    @Override
+    public boolean hayDisponibilidad(String idEvento, String nombreLocalidad, int cantidad) {
+
+        // Misma condición de la reserva, evaluada como consulta de existencia
+        Query query = new Query(Criteria.where("_id").is(idEvento))
+                .addCriteria(Criteria.expr(MongoExpression.create(HAY_CAPACIDAD, nombreLocalidad, cantidad)));
+
+        return mongoTemplate.exists(query, Evento.class);
+    }
+
+    @Override
+    public boolean liberarEntradas(String idEvento, String nombreLocalidad, int cantidad) {
+
+        if (cantidad <= 0) {
+            return false;
+        }
+
+        // 1. Filtrar el evento y validar que existan entradas para liberar
+        // 2. Decrementar solo la localidad indicada
+        UpdateResult resultado = mongoTemplate.updateFirst(
+                filtroLiberacion(idEvento, nombreLocalidad, cantidad),
+                actualizacionLocalidad(nombreLocalidad, -cantidad),
+                Evento.class
+        );
+        return resultado.getModifiedCount() > 0;
+    }
+
+    @Override
+    public int liberarEntradas(List<MovimientoInventarioDTO> movimientos) {
+
+        // 1. Agrupar las cantidades por evento y localidad
+        Map<String, Map<String, Integer>> cantidades = agruparPorLocalidad(movimientos);
+
+        // 2. Una actualización condicional por localidad dentro del mismo bulk
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Evento.class);
+        int operaciones = 0;
+
+        for (Map.Entry<String, Map<String, Integer>> evento : cantidades.entrySet()) {
+            for (Map.Entry<String, Integer> localidad : evento.getValue().entrySet()) {
+
+                if (localidad.getValue() <= 0) {
+                    continue;
+                }
+
+                bulk.updateOne(
+                        filtroLiberacion(evento.getKey(), localidad.getKey(), localidad.getValue()),
+                        actualizacionLocalidad(localidad.getKey(), -localidad.getValue())
+                );
+                operaciones++;
+            }
+        }
+
+        if (operaciones == 0) {
+            return 0;
+        }
+
+        // 3. Un solo viaje a MongoDB para todo el lote
+        return bulk.execute().getModifiedCount();
+    }
+
+    @Override
+    public boolean registrarVenta(List<MovimientoInventarioDTO> movimientos, Collection<String> idsEventos) {
+
+        // 1. Agrupar las cantidades por evento y localidad
+        Map<String, Map<String, Integer>> cantidades = agruparPorLocalidad(movimientos);
+
+        // 2. Bulk ordenado: los porcentajes se recalculan después de sumar las entradas
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.ORDERED, Evento.class);
+        int incrementos = 0;
+
+        // 3. Un $inc condicional por localidad (nunca supera la capacidad máxima)
+        for (Map.Entry<String, Map<String, Integer>> evento : cantidades.entrySet()) {
+            for (Map.Entry<String, Integer> localidad : evento.getValue().entrySet()) {
+
+                if (localidad.getValue() <= 0) {
+                    continue;
+                }
+
+                bulk.updateOne(
+                        new Query(Criteria.where("_id").is(evento.getKey()))
+                                .addCriteria(Criteria.expr(MongoExpression.create(
+                                        HAY_CAPACIDAD, localidad.getKey(), localidad.getValue()))),
+                        actualizacionLocalidad(localidad.getKey(), localidad.getValue())
+                );
+                incrementos++;
+            }
+        }
+
+        // 4. Un $set por pipeline del porcentaje de venta por cada evento afectado
+        for (String idEvento : idsEventos) {
+            bulk.updateOne(new Query(Criteria.where("_id").is(idEvento)), actualizacionPorcentaje());
+        }
+
+        if (incrementos == 0 && idsEventos.isEmpty()) {
+            return true;
+        }
+
+        // 5. Un solo viaje a MongoDB; cada evento existente coincide una vez en el recálculo,
+        //    así que cualquier faltante corresponde a un incremento que no se aplicó
+        int coincidencias = bulk.execute().getMatchedCount();
+        return coincidencias >= incrementos + idsEventos.size();
+    }
+
+    @Override
+    public void recalcularPorcentajeVenta(String idEvento) {
+
+        // Actualización por pipeline: el porcentaje se calcula en MongoDB
+        // con los valores vigentes de cada localidad
+        mongoTemplate.updateFirst(
+                new Query(Criteria.where("_id").is(idEvento)),
+                actualizacionPorcentaje(),
+                Evento.class
+        );
+    }
+
+    /**
+     * Agrupa los movimientos sumando las cantidades de una misma
+     * localidad de un mismo evento.
+     */
+    private Map<String, Map<String, Integer>> agruparPorLocalidad(List<MovimientoInventarioDTO> movimientos) {
+
+        Map<String, Map<String, Integer>> cantidades = new LinkedHashMap<>();
+
+        for (MovimientoInventarioDTO movimiento : movimientos) {
+            cantidades.computeIfAbsent(movimiento.idEvento(), id -> new LinkedHashMap<>())
+                    .merge(movimiento.nombreLocalidad(), movimiento.cantidad(), Integer::sum);
+        }
+        return cantidades;
+    }
+
+    /**
+     * Actualización por pipeline que recalcula porcentajeVenta
+     * en todas las localidades del evento.
+     */
+    private AggregationUpdate actualizacionPorcentaje() {
+        AggregationOperation recalcular = context -> Document.parse(RECALCULAR_PORCENTAJE);
+        return AggregationUpdate.from(List.of(recalcular));
+    }
+
+    /**
+     * Filtro del evento que exige que la localidad tenga al menos
+     * la cantidad de entradas que se desea liberar.
+     */
+    private Query filtroLiberacion(String idEvento, String nombreLocalidad, int cantidad) {
+        return new Query(Criteria.where("_id").is(idEvento))
+                .addCriteria(Criteria.expr(MongoExpression.create(HAY_ENTRADAS, nombreLocalidad, cantidad)));
+    }
+
+    /**
+     * Suma (o resta) entradas vendidas únicamente en la localidad indicada
+     * mediante el operador posicional filtrado $[l].
+     */
+    private Update actualizacionLocalidad(String nombreLocalidad, int cantidad) {
+        return new Update()
+                .inc("localidades.$[l].entradasVendidas", cantidad)
+                .filterArray(Criteria.where("l.nombre").is(nombreLocalidad));
+    }
+}
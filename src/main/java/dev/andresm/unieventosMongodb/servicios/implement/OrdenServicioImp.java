@@ -1,9 +1,22 @@
 package dev.andresm.unieventosMongodb.servicios.implement;
 
+import com.itextpdf.io.image.ImageDataFactory;
+import com.itextpdf.kernel.colors.ColorConstants;
+import com.itextpdf.kernel.geom.PageSize;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.layout.Document;
+import com.itextpdf.layout.element.AreaBreak;
+import com.itextpdf.layout.element.Image;
+import com.itextpdf.layout.element.Paragraph;
+import com.itextpdf.layout.properties.AreaBreakType;
+import com.itextpdf.layout.properties.HorizontalAlignment;
+import com.itextpdf.layout.properties.TextAlignment;
 import dev.andresm.unieventosMongodb.documentos.*;
 import dev.andresm.unieventosMongodb.dto.cupon.CrearCuponDTO;
 import dev.andresm.unieventosMongodb.dto.cupon.RedimirCuponDTO;
 import dev.andresm.unieventosMongodb.dto.email.EmailDTO;
+import dev.andresm.unieventosMongodb.dto.evento.CatalogoEventoDTO;
 import dev.andresm.unieventosMongodb.dto.orden.CrearOrdenDTO;
 import dev.andresm.unieventosMongodb.dto.orden.ItemOrdenDTO;
 import dev.andresm.unieventosMongodb.dto.orden.ItemOrdenDetalleDTO;
@@ -12,18 +25,29 @@ import dev.andresm.unieventosMongodb.repositorios.CuentaRepo;
 import dev.andresm.unieventosMongodb.repositorios.CuponRepo;
 import dev.andresm.unieventosMongodb.repositorios.EventoRepo;
 import dev.andresm.unieventosMongodb.repositorios.OrdenRepo;
+import dev.andresm.unieventosMongodb.servicios.interfaces.CacheEventoServicio;
 import dev.andresm.unieventosMongodb.servicios.interfaces.CuponServicio;
-import dev.andresm.unieventosMongodb.servicios.interfaces.EmailServicio;
+import dev.andresm.unieventosMongodb.servicios.interfaces.AccesoServicio;
+import dev.andresm.unieventosMongodb.servicios.interfaces.BandejaCorreoServicio;
+import dev.andresm.unieventosMongodb.servicios.interfaces.InventarioServicio;
+import dev.andresm.unieventosMongodb.servicios.interfaces.PlantillaServicio;
 import dev.andresm.unieventosMongodb.servicios.interfaces.OrdenServicio;
 import dev.andresm.unieventosMongodb.servicios.interfaces.QRServicio;
+import dev.andresm.unieventosMongodb.servicios.interfaces.ReservaServicio;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.OutputStream;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Implementación del servicio de órdenes.
@@ -34,6 +58,7 @@ import java.util.Optional;
  * - Aplicar cupones de descuento
  * - Consultar órdenes por usuario o evento
  * - Generar información detallada de la orden (incluyendo QR)
+ * - Generar el PDF con las entradas de una orden pagada
 
  * IMPORTANTE:
  * Este servicio NO gestiona pagos.
@@ -52,10 +77,22 @@ public class OrdenServicioImp implements OrdenServicio {
     private final CuponRepo cuponRepo;
     private final CuponServicio cuponServicio;
     private final EventoRepo eventoRepo;
+    private final CacheEventoServicio cacheEventoServicio;
+    private final InventarioServicio inventarioServicio;
+    private final ReservaServicio reservaServicio;
     private final OrdenRepo ordenRepo;
-    private final EmailServicio emailServicio;
+    private final BandejaCorreoServicio bandejaCorreoServicio;
+    private final PlantillaServicio plantillaServicio;
+    private final AccesoServicio accesoServicio;
     private final QRServicio qrServicio;
 
+    /**
+     * Entradas cuyos QR se leen en una misma consulta al generar el PDF.
+     */
+    private static final int ENTRADAS_POR_BLOQUE = 50;
+
+    private static final DateTimeFormatter FORMATO_FECHA = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+
     @Override
     public String crearOrden(CrearOrdenDTO crearOrdenDTO) throws Exception {
 
@@ -100,28 +137,41 @@ public class OrdenServicioImp implements OrdenServicio {
         List<DetalleOrden> detallesOrden = new ArrayList<>();
         float total = 0;
 
-        // 5. Procesar los ítems del carrito
-        for (DetalleCarrito itemCarrito : cuenta.getCarrito().getItems()) {
-            // Buscar el evento usando Optional como en tu código
-            Optional<Evento> optionalEvento = eventoRepo.buscarId(itemCarrito.getIdEvento());
-            if (optionalEvento.isEmpty()) {
+        // 5. Cargar los eventos del carrito (datos de catálogo desde la caché,
+        //    los faltantes en una sola consulta $in)
+        List<DetalleCarrito> itemsCarrito = cuenta.getCarrito().getItems();
+        Map<String, CatalogoEventoDTO> eventos = cacheEventoServicio.obtenerEventos(
+                itemsCarrito.stream().map(DetalleCarrito::getIdEvento).distinct().toList()
+        );
+
+        // 5.1 Ítems cuya reserva del carrito sigue vigente: sus entradas ya están
+        //     sumadas en la localidad, así que no se descuentan otra vez del aforo
+        Set<String> reservados = reservaServicio.obtenerReservasVigentes(
+                itemsCarrito.stream().map(DetalleCarrito::getCodigoDetalle).toList()
+        );
+
+        // 6. Procesar los ítems del carrito
+        for (DetalleCarrito itemCarrito : itemsCarrito) {
+            // Buscar el evento ya cargado
+            CatalogoEventoDTO evento = eventos.get(itemCarrito.getIdEvento());
+            if (evento == null) {
                 throw new Exception("Evento no encontrado");
             }
-            Evento evento = optionalEvento.get();
 
             // Buscar localidad del evento
-            Optional<Localidad> optionalLocalidad = evento.getLocalidades().stream()
-                    .filter(localidad -> localidad.getNombre().equals(itemCarrito.getNombreLocalidad()))
-                    .findFirst();
+            Optional<CatalogoEventoDTO.LocalidadCatalogoDTO> optionalLocalidad =
+                    evento.localidad(itemCarrito.getNombreLocalidad());
             if (optionalLocalidad.isEmpty()) {
                 throw new Exception("Localidad no encontrada");
             }
-            Localidad localidad = optionalLocalidad.get();
-
-            // Validar aforo disponible
-            int aforoDisponible = localidad.getCapacidadMaxima() - localidad.getEntradasVendidas();
-            if (aforoDisponible < itemCarrito.getCantidad()) {
-                throw new Exception("No hay suficientes entradas disponibles para " + localidad.getNombre());
+            CatalogoEventoDTO.LocalidadCatalogoDTO localidad = optionalLocalidad.get();
+
+            // Validar aforo disponible solo si la reserva venció (las entradas
+            // vendidas se consultan siempre en MongoDB, nunca en la caché)
+            if (!reservados.contains(itemCarrito.getCodigoDetalle())
+                    && !inventarioServicio.hayDisponibilidad(
+                    itemCarrito.getIdEvento(), itemCarrito.getNombreLocalidad(), itemCarrito.getCantidad())) {
+                throw new Exception("No hay suficientes entradas disponibles para " + localidad.nombre());
             }
             //  No descontamos entradas todavía, se hará al confirmar pago
 
@@ -129,15 +179,16 @@ public class OrdenServicioImp implements OrdenServicio {
             DetalleOrden detalleOrden = new DetalleOrden();
             detalleOrden.setIdEvento(itemCarrito.getIdEvento());
             detalleOrden.setNombreLocalidad(itemCarrito.getNombreLocalidad());
-            detalleOrden.setPrecioUnitario(localidad.getPrecio());
+            detalleOrden.setPrecioUnitario(localidad.precio());
             detalleOrden.setCantidad(itemCarrito.getCantidad());
+            detalleOrden.setCodigoDetalle(itemCarrito.getCodigoDetalle());
             detallesOrden.add(detalleOrden);
 
             // Acumular total
-            total += (float) (localidad.getPrecio() * itemCarrito.getCantidad());
+            total += (float) (localidad.precio() * itemCarrito.getCantidad());
         }
 
-        // 6. Aplicar descuento si se redimió cupón
+        // 7. Aplicar descuento si se redimió cupón
         if (cuponRedimido) {
             double descuento = cupon.getDescuento();
             total -= (float) (total * (descuento / 100));
@@ -160,37 +211,43 @@ public class OrdenServicioImp implements OrdenServicio {
          * posteriormente se envía al correo del cliente registrado
          * en la plataforma.
          */
-        // 6.1 Verificar si es la primera compra
+        // 7.1 Verificar si es la primera compra
         boolean primeraCompra = esPrimeraCompra(crearOrdenDTO.idCliente());
 
         if (primeraCompra) {
 
             List<String> clientes = List.of(crearOrdenDTO.idCliente());
+            LocalDateTime vencimientoCupon = LocalDateTime.now().plusYears(1);
 
             String codigoCupon = cuponServicio.crearCupon(
                     new CrearCuponDTO(
                             "Cupón Primera Compra",
                             "Descuento del 10% por tu primera compra",
                             10,
-                            LocalDateTime.now().plusYears(1),
+                            vencimientoCupon,
                             TipoCupon.INDIVIDUAL,
                             clientes
                     )
             );
 
-            EmailDTO emailCupon = new EmailDTO(
-                    cuenta.getEmail(),
-                    "Cupón por tu primera compra - UniEventos",
-                    "Gracias por tu primera compra.\n\nTu código es:\n" + codigoCupon
-            );
+            EmailDTO emailCupon = EmailDTO.builder()
+                    .asunto("Cupón por tu primera compra - UniEventos")
+                    .contenido(plantillaServicio.renderizar("cupon", PlantillaServicio.modelo(
+                            "mensaje", "Gracias por tu primera compra.",
+                            "descuento", 10,
+                            "codigo", codigoCupon,
+                            "vencimiento", vencimientoCupon.toLocalDate())))
+                    .destinatario(cuenta.getEmail())
+                    .build();
 
-            emailServicio.enviarEmail(emailCupon);
+            // El correo se envía en segundo plano desde la bandeja de salida
+            bandejaCorreoServicio.encolarEmail(emailCupon);
         }
 
-        // 7. Guardar la orden en la base de datos
+        // 8. Guardar la orden en la base de datos
         ordenRepo.save(orden);
 
-        // 8. Retornar ID
+        // 9. Retornar ID
         return orden.getId();
     }
 
@@ -266,17 +323,18 @@ public class OrdenServicioImp implements OrdenServicio {
      * Este método realiza:
 
      * 1. Búsqueda de la orden en la base de datos.
-     * 2. Conversión de los objetos DetalleOrden a DTO.
-     * 3. Generación de un código QR para cada ítem de la orden comprada.
-     * 4. Construcción del DTO final OrdenDetalleDTO.
+     * 2. Conversión de los objetos DetalleOrden a DTO, cada uno con
+     *    la URL de la imagen QR de la entrada.
+     * 3. Construcción del DTO final OrdenDetalleDTO.
 
-     * El QR se genera utilizando el servicio QRServicio y
-     * contiene información que identifica la entrada para
-     * su validación en el evento.
+     * Los QR no se codifican en la respuesta: se generan una sola vez
+     * (al pagar la orden o en la primera consulta de la imagen) y se
+     * sirven como PNG o SVG desde GET /api/cuenta/entradas/{idOrden}/{indice}
+     * (solo para el cliente dueño de la orden).
 
      * @param idOrden Identificador de la orden.
      * @return OrdenDetalleDTO con el detalle completo.
-     * @throws Exception si la orden no existe o falla la generación del QR.
+     * @throws Exception si la orden no existe.
      */
     @Override
     public OrdenDetalleDTO obtenerItemsOrden(String idOrden) throws Exception {
@@ -284,46 +342,33 @@ public class OrdenServicioImp implements OrdenServicio {
         // 1. Obtener la orden almacenada en la base de datos
         Orden orden = obtenerOrden(idOrden);
 
-        // 2. Convertir cada DetalleOrden en un DTO incluyendo su QR
-        List<ItemOrdenDetalleDTO> itemsDTO = orden.getItems().stream()
-                .map(item -> {
-
-                    try {
-
-                        /**
-                         * 3. Construcción del contenido que se codificará
-                         * dentro del código QR.
-
-                         * Este contenido puede ser utilizado posteriormente
-                         * para validar la entrada en el evento.
-                         */
-                        String contenidoQR =
-                                "ORDEN:" + orden.getId() +
-                                "|EVENTO:" + item.getIdEvento() +
-                                "|LOCALIDAD:" + item.getNombreLocalidad() +
-                                "|CANTIDAD:" + item.getCantidad();
-
-                        /**
-                         * 4. Generar el QR utilizando el servicio QR
-                         */
-                        String qrBase64 = qrServicio.generarQR(contenidoQR);
-
-                        /**
-                         * 5. Construir el DTO del ítem incluyendo el QR
-                         */
-                        return new ItemOrdenDetalleDTO(
-                                item.getIdEvento(),
-                                item.getCantidad(),
-                                item.getPrecioUnitario(),
-                                item.getNombreLocalidad(),
-                                qrBase64
-                        );
-                    } catch (Exception e) {
-                        throw new RuntimeException("Error generando QR");
-                    }
-                }) .toList();
         /**
-         * 6. Construcción del DTO final que contiene
+         * 2. Convertir cada DetalleOrden en un DTO con la URL de su QR.
+
+         * La imagen no se incluye en la respuesta: se sirve aparte
+         * (ver obtenerContenidoEntrada) para que el detalle sea liviano
+         * y cada QR pueda cachearse en el navegador. Solo las órdenes
+         * pagadas tienen QR, ya que el QR da acceso al evento.
+         */
+        List<ItemOrdenDetalleDTO> itemsDTO = new ArrayList<>();
+
+        for (int i = 0; i < orden.getItems().size(); i++) {
+
+            DetalleOrden item = orden.getItems().get(i);
+
+            itemsDTO.add(new ItemOrdenDetalleDTO(
+                    item.getIdEvento(),
+                    item.getCantidad(),
+                    item.getPrecioUnitario(),
+                    item.getNombreLocalidad(),
+                    orden.getEstado() == EstadoOrden.PAGADA
+                            ? "/api/cuenta/entradas/" + orden.getId() + "/" + i
+                            : null
+            ));
+        }
+
+        /**
+         * 3. Construcción del DTO final que contiene
          * la información general de la orden
          */
         return new OrdenDetalleDTO(
@@ -336,6 +381,156 @@ public class OrdenServicioImp implements OrdenServicio {
         );
     }
 
+    @Override
+    public Orden obtenerOrdenPagada(String idOrden, String idCliente) throws Exception {
+
+        // 1. Obtener la orden almacenada en la base de datos
+        Orden orden = obtenerOrden(idOrden);
+
+        // 1.1 Las entradas son la credencial de ingreso: solo las obtiene el dueño de la orden
+        if (!orden.getIdCliente().equals(idCliente)) {
+            throw new Exception("La orden no pertenece a la cuenta");
+        }
+
+        // 2. Las entradas dan acceso al evento, así que solo existen para órdenes pagadas
+        if (orden.getEstado() != EstadoOrden.PAGADA) {
+            throw new Exception("La orden no ha sido pagada");
+        }
+
+        // 3. Órdenes pagadas antes de numerar las entradas
+        if (orden.getItems().stream().anyMatch(item -> item.getNumeroEntrada() == null)) {
+            orden = accesoServicio.numerarOrden(orden);
+        }
+
+        return orden;
+    }
+
+    @Override
+    public String obtenerContenidoEntrada(String idOrden, int indice, String idCliente) throws Exception {
+
+        // 1. Obtener la orden pagada (del cliente) con sus entradas numeradas
+        Orden orden = obtenerOrdenPagada(idOrden, idCliente);
+
+        // 2. Validar que la entrada exista dentro de la orden
+        if (indice < 0 || indice >= orden.getItems().size()) {
+            throw new Exception("La entrada no existe en la orden");
+        }
+
+        /**
+         * 3. Contenido firmado que se codifica en el QR; se valida
+         * en la puerta del evento sin consultar la base de datos
+         */
+        return accesoServicio.generarCodigoEntrada(orden.getId(), orden.getItems().get(indice));
+    }
+
+    /**
+     * Escribe el PDF con las entradas de una orden pagada.
+
+     * Flujo:
+     * 1. Consultar en una sola consulta los eventos de la orden.
+     * 2. Abrir el PDF directamente sobre el flujo de salida.
+     * 3. Por cada bloque de ítems, obtener sus QR (ya generados al pagar).
+     * 4. Escribir una página por entrada (ítem de la orden).
+     * 5. Cerrar el documento.
+
+     * Cada ítem es una entrada grupal: un solo número y un solo QR admiten a
+     * todas las personas del ítem, que deben ingresar juntas (en la puerta el
+     * primer escaneo las admite a todas y los siguientes son duplicados). Por eso
+     * la página muestra de forma destacada cuántas personas admite.
+
+     * El documento se crea con immediateFlush, así que cada página se escribe
+     * en el flujo en cuanto se completa: los primeros bytes salen con la
+     * primera entrada y la memoria no crece con el tamaño de la orden.
+     *
+     * @param orden orden pagada (ver obtenerOrdenPagada)
+     * @param salida flujo donde se escribe el PDF
+     * @throws Exception si ocurre un error al obtener los QR o al escribir
+     */
+    @Override
+    public void generarPDFEntradas(Orden orden, OutputStream salida) throws Exception {
+
+        List<DetalleOrden> items = orden.getItems();
+
+        // 1. Eventos de la orden en una sola consulta
+        Map<String, Evento> eventos = eventoRepo.buscarPorIds(
+                        items.stream().map(DetalleOrden::getIdEvento).distinct().toList())
+                .stream()
+                .collect(Collectors.toMap(Evento::getId, Function.identity()));
+
+        // 2. El PDF se escribe directamente en la salida, sin arreglo intermedio
+        PdfDocument pdfDocument = new PdfDocument(new PdfWriter(salida));
+        Document document = new Document(pdfDocument, PageSize.A6, true);
+        document.setMargins(24, 24, 24, 24);
+
+        try {
+            for (int inicio = 0; inicio < items.size(); inicio += ENTRADAS_POR_BLOQUE) {
+
+                List<DetalleOrden> bloque = items.subList(inicio, Math.min(inicio + ENTRADAS_POR_BLOQUE, items.size()));
+
+                // 3. QR del bloque en una sola consulta
+                List<String> contenidos = new ArrayList<>();
+                for (DetalleOrden item : bloque) {
+                    contenidos.add(accesoServicio.generarCodigoEntrada(orden.getId(), item));
+                }
+                Map<String, byte[]> qrs = qrServicio.obtenerImagenes(contenidos);
+
+                // 4. Una página por entrada
+                for (int i = 0; i < bloque.size(); i++) {
+
+                    if (inicio + i > 0) {
+                        document.add(new AreaBreak(AreaBreakType.NEXT_PAGE));
+                    }
+
+                    agregarEntrada(document, orden, bloque.get(i), eventos.get(bloque.get(i).getIdEvento()),
+                            qrs.get(contenidos.get(i)), inicio + i + 1, items.size());
+                }
+            }
+        } finally {
+            // 5. Cerrar el documento (escribe la tabla de referencias del PDF)
+            document.close();
+        }
+    }
+
+    /**
+     * Agrega la página de una entrada: evento, localidad, QR y datos de la orden.
+     */
+    private void agregarEntrada(Document document, Orden orden, DetalleOrden item, Evento evento,
+                                byte[] qr, int numero, int total) {
+
+        document.add(new Paragraph("UniEventos").setFontSize(8).setFontColor(ColorConstants.GRAY));
+
+        document.add(new Paragraph(evento != null ? evento.getNombre() : item.getIdEvento())
+                .setBold().setFontSize(14).setMarginBottom(2));
+
+        if (evento != null) {
+            document.add(new Paragraph(evento.getFecha().format(FORMATO_FECHA) + "\n"
+                    + evento.getDireccion() + ", " + evento.getCiudad())
+                    .setFontSize(9).setMultipliedLeading(1.1f));
+        }
+
+        document.add(new Paragraph("Localidad: " + item.getNombreLocalidad())
+                .setFontSize(10).setMarginBottom(2));
+
+        // Entrada grupal: el QR admite a todas las personas del ítem en un solo ingreso
+        if (item.getCantidad() > 1) {
+            document.add(new Paragraph("ADMITE " + item.getCantidad() + " PERSONAS")
+                    .setBold().setFontSize(12).setMarginBottom(0));
+            document.add(new Paragraph("Entrada grupal: todas las personas deben ingresar juntas")
+                    .setFontSize(8).setFontColor(ColorConstants.GRAY));
+        } else {
+            document.add(new Paragraph("ADMITE 1 PERSONA").setBold().setFontSize(12));
+        }
+
+        document.add(new Image(ImageDataFactory.create(qr))
+                .setWidth(170)
+                .setHeight(170)
+                .setHorizontalAlignment(HorizontalAlignment.CENTER));
+
+        document.add(new Paragraph("Orden " + orden.getId() + " · Entrada " + numero + " de " + total)
+                .setFontSize(7)
+                .setTextAlignment(TextAlignment.CENTER));
+    }
+
     /**
      * Verifica si el cliente está realizando su primera compra.
 
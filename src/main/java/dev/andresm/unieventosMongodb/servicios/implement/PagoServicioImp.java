@@ -10,21 +10,38 @@ import com.mercadopago.resources.payment.Payment;
 import com.mercadopago.resources.preference.Preference;
 import dev.andresm.unieventosMongodb.documentos.*;
 import dev.andresm.unieventosMongodb.dto.email.EmailDTO;
+import dev.andresm.unieventosMongodb.dto.evento.CatalogoEventoDTO;
+import dev.andresm.unieventosMongodb.dto.inventario.MovimientoInventarioDTO;
 import dev.andresm.unieventosMongodb.repositorios.CuentaRepo;
-import dev.andresm.unieventosMongodb.repositorios.EventoRepo;
 import dev.andresm.unieventosMongodb.repositorios.OrdenRepo;
-import dev.andresm.unieventosMongodb.servicios.interfaces.EmailServicio;
+import dev.andresm.unieventosMongodb.servicios.interfaces.AccesoServicio;
+import dev.andresm.unieventosMongodb.servicios.interfaces.BandejaCorreoServicio;
+import dev.andresm.unieventosMongodb.servicios.interfaces.CacheEventoServicio;
+import dev.andresm.unieventosMongodb.servicios.interfaces.InventarioServicio;
 import dev.andresm.unieventosMongodb.servicios.interfaces.PagoServicio;
+import dev.andresm.unieventosMongodb.servicios.interfaces.PlantillaServicio;
+import dev.andresm.unieventosMongodb.servicios.interfaces.QRServicio;
+import dev.andresm.unieventosMongodb.servicios.interfaces.ReservaServicio;
+import dev.andresm.unieventosMongodb.servicios.interfaces.ResumenVentasServicio;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.beans.factory.annotation.Value;
 
 import java.math.BigDecimal;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Implementación del servicio de pagos.
@@ -32,7 +49,7 @@ import java.util.Optional;
  * Responsabilidades:
  * - Generar preferencias de pago en MercadoPago
  * - Consultar pagos en la pasarela
- * - Procesar notificaciones (webhooks)
+ * - Aplicar los pagos notificados por MercadoPago (webhooks)
  * - Actualizar el estado de las órdenes según el resultado del pago
  * - Gestionar efectos secundarios (email, inventario)
 
@@ -40,6 +57,7 @@ import java.util.Optional;
  * Este servicio NO crea órdenes.
  * Solo trabaja sobre órdenes previamente registradas.
  */
+@Slf4j
 @Service
 @Transactional
 @RequiredArgsConstructor
@@ -47,8 +65,22 @@ public class PagoServicioImp implements PagoServicio {
 
     private final OrdenRepo ordenRepo;
     private final CuentaRepo cuentaRepo;
-    private final EventoRepo eventoRepo;
-    private final EmailServicio emailServicio;
+    private final BandejaCorreoServicio bandejaCorreoServicio;
+    private final PlantillaServicio plantillaServicio;
+    private final CacheEventoServicio cacheEventoServicio;
+    private final QRServicio qrServicio;
+    private final AccesoServicio accesoServicio;
+    private final InventarioServicio inventarioServicio;
+    private final ReservaServicio reservaServicio;
+    private final ResumenVentasServicio resumenVentasServicio;
+    private final MongoTemplate mongoTemplate;
+
+    /**
+     * Estados de MercadoPago que devuelven el dinero de un pago aprobado.
+     */
+    private static final Set<String> ESTADOS_REEMBOLSO = Set.of("refunded", "charged_back");
+
+    private static final DateTimeFormatter FORMATO_FECHA = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
 
     //@Value("${mercadopago.access.token}")
     private String accessToken;
@@ -154,204 +186,423 @@ public class PagoServicioImp implements PagoServicio {
     }
 
     // =========================================================
-    // MÉTODO: PROCESAR WEBHOOK
+    // MÉTODO: PROCESAR PAGO
     // =========================================================
 
     /**
-     * Procesa la notificación enviada por MercadoPago.
+     * Aplica a su orden un pago notificado por MercadoPago.
+     * Lo invoca la bandeja de pagos en su propio grupo de hilos;
+     * si lanza una excepción la notificación se reintenta.
 
      * Flujo completo:
-     * 1. Obtener tipo de notificación
-     * 2. Validar que sea tipo "payment"
-     * 3. Obtener objeto data
-     * 4. Validar estructura de data
-     * 5. Validar existencia del id del pago
-     * 6. Convertir id a Long
-     * 7. Consultar pago en MercadoPago
-     * 8. Obtener metadata del pago
-     * 9. Validar existencia de id_orden en metadata
-     * 10. Obtener id de la orden
-     * 11. Buscar orden en base de datos
-     * 12. Validar que la orden exista
-     * 13. Evitar reprocesamiento de órdenes pagadas
-     * 14. Crear objeto Pago del sistema
-     * 15. Asociar pago a la orden
-     * 16. Evaluar estado del pago
-     * 17. Si aprobado → actualizar estado de la orden
-     * 18. Obtener cuenta del cliente
-     * 19. Enviar email de confirmación
-     * 20. Recorrer items de la orden
-     * 21. Obtener evento
-     * 22. Obtener localidad
-     * 23. Actualizar entradas vendidas
-     * 24. Recalcular porcentaje
-     * 25. Guardar evento
-     * 26. Si rechazado → marcar orden como FALLIDA
-     * 27. Guardar orden
-     * 28. Manejo de errores (no romper webhook)
+     * 1. Consultar pago en MercadoPago
+     * 2. Obtener metadata del pago
+     * 3. Validar existencia de id_orden en metadata (si falta, se lanza excepción)
+     * 4. Obtener id de la orden
+     * 5. Buscar orden en base de datos
+     * 6. Validar que la orden exista (si no, se lanza excepción)
+     * 7. Orden ya pagada: completar su inventario si quedó pendiente; luego
+     *    anularla si el pago fue reembolsado o completar el resumen de ventas.
+     *    Orden anulada: completar la devolución de entradas y el resumen.
+     *    Orden en revisión: solo guardar el pago, la concilia un administrador
+     * 8. Crear objeto Pago del sistema
+     * 9. Asociar pago a la orden
+     * 10. Evaluar estado del pago
+     * 11. Si aprobado → numerar las entradas
+     * 12. Reclamar la orden con un update condicional (PAGADA + inventario pendiente)
+     * 13 - 16. Convertir en venta las reservas vigentes, sumar el resto al
+     *    inventario y quitar la marca de inventario pendiente (o pasar la
+     *    orden a EN_REVISION si no había entradas suficientes)
+     * 17. Si no fue aprobado → guardar el pago (y FALLIDA si fue rechazado) con un
+     *     update condicional que no toca una orden pagada o anulada entre tanto
+     * 18. Si fue aprobada → generar los QR de las entradas
+     * 19. Si fue aprobada → registrar el email de confirmación en la bandeja de salida
+     * 20. Si fue aprobada → sumar la venta al resumen diario por evento y localidad
      */
     @Override
-    public void procesarWebhook(Map<String, Object> request) {
-
-        try {
+    public void procesarPago(Long idPago) throws Exception {
 
-            // 1. Obtener tipo de notificación
-            Object tipo = request.get("type");
+        // 1. Consultar pago en MercadoPago
+        Payment payment = obtenerPago(idPago);
 
-            // 2. Validar que sea tipo payment
-            if (!"payment".equals(tipo)) {
-                return;
-            }
+        // 2. Obtener metadata
+        Map<String, Object> metadata = payment.getMetadata();
 
-            // 3. Obtener data
-            Object dataObj = request.get("data");
+        // 3. Validar metadata; sin orden la notificación no puede aplicarse y
+        //    se reintenta hasta quedar FALLIDA en la bandeja para revisión
+        if (metadata == null || metadata.get("id_orden") == null) {
+            throw new Exception("El pago " + idPago + " no tiene id_orden en la metadata");
+        }
 
-            // 4. Validar estructura
-            if (!(dataObj instanceof Map)) {
-                throw new RuntimeException("Formato inválido");
-            }
+        // 4. Obtener id orden
+        String idOrden = metadata.get("id_orden").toString();
 
-            @SuppressWarnings("unchecked")
-            Map<String, Object> data = (Map<String, Object>) dataObj;
+        // 5. Buscar orden
+        Optional<Orden> optionalOrden = ordenRepo.buscarId(idOrden);
 
-            // 5. Validar id del pago
-            if (data.get("id") == null) {
-                throw new RuntimeException("No viene id");
-            }
+        // 6. Validar existencia
+        if (optionalOrden.isEmpty()) {
+            throw new Exception("No existe la orden " + idOrden + " del pago " + idPago);
+        }
 
-            // 6. Convertir id
-            Long idPago = Long.parseLong(data.get("id").toString());
+        Orden orden = optionalOrden.get();
 
-            // 7. Consultar pago en MercadoPago
-            Payment payment = obtenerPago(idPago);
+        // 7. Evitar reprocesamiento de órdenes ya pagadas o anuladas
+        if (orden.getEstado() == EstadoOrden.PAGADA) {
 
-            // 8. Obtener metadata
-            Map<String, Object> metadata = payment.getMetadata();
+            // 7.1 Completar el inventario si el procesamiento anterior se interrumpió
+            //     después de reclamar la orden
+            registrarInventario(orden);
 
-            // 9. Validar metadata
-            if (metadata == null || metadata.get("id_orden") == null) {
-                System.out.println("Sin id_orden");
+            if (orden.getEstado() == EstadoOrden.EN_REVISION) {
                 return;
             }
 
-            // 10. Obtener id orden
-            String idOrden = metadata.get("id_orden").toString();
+            if (ESTADOS_REEMBOLSO.contains(payment.getStatus())) {
+                // 7.2 Reembolso o contracargo: anular la orden
+                orden.setPago(crearPago(payment));
+                anularOrden(orden);
+            } else {
+                // 7.3 Notificación repetida: completar el resumen de ventas por si el
+                //     procesamiento anterior se interrumpió antes de sumarla (idempotente)
+                resumenVentasServicio.registrarVenta(orden);
+            }
+            return;
+        }
 
-            // 11. Buscar orden
-            Optional<Orden> optionalOrden = ordenRepo.buscarId(idOrden);
+        if (orden.getEstado() == EstadoOrden.CANCELADA) {
+            // 7.4 Completar la anulación si quedó a medias: revocar las entradas,
+            //     devolverlas (si siguen pendientes) y descontar la venta del resumen
+            accesoServicio.revocarEntradas(orden);
+            liberarInventario(orden);
+            resumenVentasServicio.revertirVenta(orden);
+            return;
+        }
 
-            // 12. Validar existencia
-            if (optionalOrden.isEmpty()) {
-                System.out.println("No existe la orden");
-                return;
+        if (orden.getEstado() == EstadoOrden.EN_REVISION) {
+            // 7.5 Orden en revisión: no se sabe qué parte de su venta se sumó al inventario,
+            //     así que ni un reembolso la anula de forma automática (devolvería entradas
+            //     que quizá nunca se sumaron). Solo se guarda el pago para el administrador
+            mongoTemplate.updateFirst(
+                    new Query(Criteria.where("_id").is(orden.getId()).and("estado").is(EstadoOrden.EN_REVISION)),
+                    new Update().set("pago", crearPago(payment)),
+                    Orden.class
+            );
+            log.warn("Pago {} ({}) recibido para la orden {} en revisión", idPago, payment.getStatus(), orden.getId());
+            return;
+        }
+
+        // 8. Crear pago
+        Pago pago = crearPago(payment);
+
+        // 9. Asociar pago
+        orden.setPago(pago);
+
+        // =====================================================
+        // RESULTADO DEL PAGO
+        // =====================================================
+
+        // 10. Evaluar estado
+        if ("approved".equals(payment.getStatus())) {
+
+            // 11. Numerar las entradas por evento; el número identifica cada
+            //     entrada en el control de acceso
+            accesoServicio.asignarNumeros(orden);
+
+            // 12. Reclamar la orden de forma atómica ANTES de tocar el inventario:
+            //     queda PAGADA con el inventario pendiente. Si otro proceso la pagó o
+            //     la anuló entre tanto, no se aplica nada y la notificación se reintenta
+            orden.setEstado(EstadoOrden.PAGADA);
+            orden.setInventarioPendiente(true);
+
+            boolean reclamada = mongoTemplate.updateFirst(
+                    new Query(Criteria.where("_id").is(orden.getId())
+                            .and("estado").nin(EstadoOrden.PAGADA, EstadoOrden.CANCELADA, EstadoOrden.EN_REVISION)),
+                    new Update()
+                            .set("estado", EstadoOrden.PAGADA)
+                            .set("pago", pago)
+                            .set("items", orden.getItems())
+                            .set("inventarioPendiente", true),
+                    Orden.class
+            ).getModifiedCount() > 0;
+
+            if (!reclamada) {
+                throw new Exception("La orden " + orden.getId() + " cambió de estado mientras se procesaba el pago");
             }
 
-            Orden orden = optionalOrden.get();
+            // 13 - 16. Convertir las reservas en venta y sumar el resto al inventario
+            registrarInventario(orden);
+        }
 
-            // 13. Evitar reprocesamiento
-            if (orden.getEstado() == EstadoOrden.PAGADA)
-                return;
+        else {
 
-            // 14. Crear pago
-            Pago pago = crearPago(payment);
+            Update update = new Update().set("pago", pago);
 
-            // 15. Asociar pago
-            orden.setPago(pago);
+            if ("rejected".equals(payment.getStatus())) {
 
-            // =====================================================
-            // RESULTADO DEL PAGO
-            // =====================================================
+                // 17. Marcar como fallida
+                orden.setEstado(EstadoOrden.FALLIDA);
+                update.set("estado", EstadoOrden.FALLIDA);
+            }
 
-            // 16. Evaluar estado
-            if ("approved".equals(payment.getStatus())) {
+            // 17.1 Guardar solo el pago y el estado, y solo si la orden no se pagó ni se
+            //      anuló mientras tanto (otro pago de la misma orden pudo reclamarla). Nunca
+            //      se reescribe el documento leído en el paso 5, que puede estar desactualizado
+            boolean guardada = mongoTemplate.updateFirst(
+                    new Query(Criteria.where("_id").is(orden.getId())
+                            .and("estado").nin(EstadoOrden.PAGADA, EstadoOrden.CANCELADA, EstadoOrden.EN_REVISION)),
+                    update,
+                    Orden.class
+            ).getMatchedCount() > 0;
+
+            if (!guardada) {
+                log.info("Pago {} ({}) ignorado: la orden {} ya fue pagada o anulada",
+                        idPago, payment.getStatus(), orden.getId());
+                return;
+            }
+        }
 
-                // 17. Marcar como pagada
-                orden.setEstado(EstadoOrden.PAGADA);
+        // 18. Generar y guardar desde ya los QR de las entradas, de modo que servir
+        //     la imagen de cada entrada solo requiera leerla
+        if (orden.getEstado() == EstadoOrden.PAGADA) {
+            try {
+                qrServicio.obtenerImagenes(orden.getItems().stream()
+                        .map(detalle -> accesoServicio.generarCodigoEntrada(orden.getId(), detalle))
+                        .toList());
+            } catch (Exception e) {
+                // Si falla, el QR se genera en la primera consulta de la entrada
+                log.warn("No fue posible generar los QR de la orden {}", orden.getId(), e);
+            }
+        }
 
-                // 18. Obtener cuenta
+        // 19. Registrar el email de confirmación en la bandeja de salida. La orden ya quedó
+        //     pagada, así que un fallo al registrarlo no debe provocar que el pago se reprocese
+        if (orden.getEstado() == EstadoOrden.PAGADA) {
+            try {
                 Optional<Cuenta> optionalCuenta = cuentaRepo.buscarId(orden.getIdCliente());
 
                 if (optionalCuenta.isPresent()) {
+                    bandejaCorreoServicio.encolarEmail(EmailDTO.builder()
+                            .asunto("Confirmación de compra - UniEventos")
+                            .contenido(generarConfirmacion(orden))
+                            .destinatario(optionalCuenta.get().getEmail())
+                            .build());
+                }
+            } catch (Exception e) {
+                log.warn("No fue posible registrar la confirmación de la orden {}", orden.getId(), e);
+            }
+        }
 
-                    Cuenta cuenta = optionalCuenta.get();
-
-                    // 19. Enviar email
-                    EmailDTO email = new EmailDTO(
-                            cuenta.getEmail(),
-                            "Confirmación de compra",
-                            "Orden confirmada: " + orden.getId()
-                    );
+        // 20. Sumar la venta al resumen diario. Si falla, la notificación se reintenta
+        //     y el paso 7.3 suma los documentos que falten (cada uno guarda sus órdenes)
+        if (orden.getEstado() == EstadoOrden.PAGADA) {
+            resumenVentasServicio.registrarVenta(orden);
+        }
+    }
 
+    /**
+     * Suma al inventario la venta de una orden PAGADA cuyo inventario está pendiente.
+     * Es idempotente: se puede repetir hasta que termine.
+
+     * Flujo:
+     * 13. Reclamar las reservas vigentes del carrito con el id de la orden: sus
+     *     entradas ya están sumadas. Un reintento reconoce las que ya reclamó.
+     * 14. Agrupar las entradas sin reserva vigente
+     * 15. Sumar las entradas y recalcular porcentajes en un solo bulk ordenado
+     * 16. Quitar la marca de inventario pendiente y eliminar las reservas reclamadas
+
+     * Si alguna localidad no tenía entradas suficientes, el bulk quedó aplicado solo
+     * en parte y no se sabe en cuáles localidades. La orden pasa a EN_REVISION y
+     * conserva la marca de inventario pendiente: un reintento volvería a sumar las
+     * que sí se aplicaron y un reembolso devolvería las que no.
+
+     * Entre el bulk del paso 15 y la marca del paso 16 no hay transacción: si el
+     * proceso se detiene justo en ese punto, el reintento vuelve a sumar las
+     * entradas sin reserva. Es la única escritura que queda sin proteger.
+     */
+    private void registrarInventario(Orden orden) {
 
-                    emailServicio.enviarEmail(email);
-                }
+        String idReclamo = "orden:" + orden.getId();
 
-                // =================================================
-                // INVENTARIO
-                // =================================================
+        // La venta ya se sumó: solo quedan por eliminar las reservas de un intento anterior
+        if (!Boolean.TRUE.equals(orden.getInventarioPendiente())) {
+            reservaServicio.eliminarReclamadas(idReclamo);
+            return;
+        }
 
-                // 20. Recorrer items
-                for (DetalleOrden detalle : orden.getItems()) {
+        // 13. Reclamar las reservas vigentes con el id de la orden
+        Set<String> reclamadas = reservaServicio.reclamarReservas(idReclamo, orden.getItems().stream()
+                .map(DetalleOrden::getCodigoDetalle)
+                .filter(Objects::nonNull)
+                .toList());
 
-                    // 21. Obtener evento
-                    Optional<Evento> optionalEvento = eventoRepo.buscarId(detalle.getIdEvento());
+        // 14. Las entradas sin reserva vigente se deben sumar al inventario
+        Set<String> eventosActualizados = new LinkedHashSet<>();
+        List<MovimientoInventarioDTO> porSumar = new ArrayList<>();
 
-                    if (optionalEvento.isEmpty()) {
-                        System.out.println("Evento no encontrado");
-                        continue;
-                    }
+        for (DetalleOrden detalle : orden.getItems()) {
 
-                    Evento evento = optionalEvento.get();
+            eventosActualizados.add(detalle.getIdEvento());
 
-                    // 22. Obtener localidad
-                    Optional<Localidad> optionalLocalidad = evento.getLocalidades()
-                            .stream()
-                            .filter(l -> l.getNombre().equals(detalle.getNombreLocalidad()))
-                            .findFirst();
+            if (detalle.getCodigoDetalle() == null || !reclamadas.contains(detalle.getCodigoDetalle())) {
+                porSumar.add(new MovimientoInventarioDTO(
+                        detalle.getIdEvento(),
+                        detalle.getNombreLocalidad(),
+                        detalle.getCantidad()
+                ));
+            }
+        }
 
-                    if (optionalLocalidad.isEmpty()) {
-                        System.out.println("Localidad no encontrada");
-                        continue;
-                    }
+        // 15. Un único bulk ordenado: $inc por localidad (sin superar la capacidad)
+        //     y luego el porcentaje de venta de cada evento
+        boolean registrada = inventarioServicio.registrarVenta(porSumar, eventosActualizados);
+
+        // 15.1 Alguna localidad no tenía entradas suficientes: la orden queda en revisión
+        //      con la marca de inventario pendiente. Las reservas reclamadas sí son parte
+        //      de la venta, así que se eliminan para que el barrido no las devuelva
+        if (!registrada) {
+            mongoTemplate.updateFirst(
+                    new Query(Criteria.where("_id").is(orden.getId()).and("estado").is(EstadoOrden.PAGADA)),
+                    new Update().set("estado", EstadoOrden.EN_REVISION),
+                    Orden.class
+            );
+            orden.setEstado(EstadoOrden.EN_REVISION);
+            reservaServicio.eliminarReclamadas(idReclamo);
+
+            log.error("La orden {} quedó EN_REVISION: no había entradas suficientes para {}", orden.getId(), porSumar);
+            return;
+        }
 
-                    Localidad localidad = optionalLocalidad.get();
+        // 16. Inventario aplicado: quitar la marca y eliminar las reservas convertidas en venta
+        mongoTemplate.updateFirst(
+                new Query(Criteria.where("_id").is(orden.getId())),
+                new Update().unset("inventarioPendiente"),
+                Orden.class
+        );
+        orden.setInventarioPendiente(null);
 
-                    // 23. Actualizar ventas
-                    localidad.setEntradasVendidas(
-                            localidad.getEntradasVendidas() + detalle.getCantidad()
-                    );
+        reservaServicio.eliminarReclamadas(idReclamo);
+    }
 
-                    // 24. Recalcular porcentaje
-                    double porcentaje =
-                            (double) localidad.getEntradasVendidas() / localidad.getCapacidadMaxima() * 100;
+    /**
+     * Anula una orden pagada cuyo pago fue reembolsado o contracargado.
+
+     * Flujo:
+     * 1. Marcar la orden como CANCELADA con la devolución de inventario pendiente,
+     *    con un update condicional sobre el estado PAGADA; el cambio de estado
+     *    evita que una notificación repetida la anule dos veces.
+     * 2. Revocar sus entradas para que la puerta las rechace.
+     * 3. Devolver sus entradas al inventario y quitar la marca.
+     * 4. Descontar la venta del resumen diario.
+     */
+    private void anularOrden(Orden orden) throws Exception {
+
+        // 1. Marcar la orden como cancelada, con la devolución pendiente
+        boolean anulada = mongoTemplate.updateFirst(
+                new Query(Criteria.where("_id").is(orden.getId()).and("estado").is(EstadoOrden.PAGADA)),
+                new Update()
+                        .set("estado", EstadoOrden.CANCELADA)
+                        .set("pago", orden.getPago())
+                        .set("inventarioPendiente", true),
+                Orden.class
+        ).getModifiedCount() > 0;
+
+        if (!anulada) {
+            throw new Exception("La orden " + orden.getId() + " cambió de estado mientras se anulaba");
+        }
 
-                    localidad.setPorcentajeVenta(porcentaje);
+        orden.setEstado(EstadoOrden.CANCELADA);
+        orden.setInventarioPendiente(true);
 
-                    // 25. Guardar evento
-                    eventoRepo.save(evento);
-                }
-            }
+        // 2. Revocar las entradas emitidas
+        accesoServicio.revocarEntradas(orden);
 
-            else if ("rejected".equals(payment.getStatus())) {
+        // 3. Devolver las entradas al inventario
+        liberarInventario(orden);
 
-                // 26. Marcar como fallida
-                orden.setEstado(EstadoOrden.FALLIDA);
-            }
+        // 4. Descontar la venta del resumen
+        resumenVentasServicio.revertirVenta(orden);
+    }
 
-            // 27. Guardar la orden
-            ordenRepo.save(orden);
+    /**
+     * Devuelve al inventario las entradas de una orden CANCELADA cuya devolución
+     * está pendiente y luego quita la marca. Si falla antes de quitarla, el
+     * reintento de la notificación (paso 7.4) la vuelve a intentar.
+     */
+    private void liberarInventario(Orden orden) {
 
-        } catch (Exception e) {
+        if (!Boolean.TRUE.equals(orden.getInventarioPendiente())) {
+            return;
+        }
 
-            // 28. Nunca romper webhook
-            System.out.println("Error webhook: " + e.getMessage());
+        // 1. Entradas por localidad y eventos afectados
+        Set<String> eventos = new LinkedHashSet<>();
+        List<MovimientoInventarioDTO> movimientos = new ArrayList<>();
+
+        for (DetalleOrden detalle : orden.getItems()) {
+            eventos.add(detalle.getIdEvento());
+            movimientos.add(new MovimientoInventarioDTO(
+                    detalle.getIdEvento(),
+                    detalle.getNombreLocalidad(),
+                    detalle.getCantidad()
+            ));
         }
+
+        // 2. Devolverlas y recalcular los porcentajes
+        inventarioServicio.liberarEntradas(movimientos);
+        eventos.forEach(inventarioServicio::recalcularPorcentajeVenta);
+
+        // 3. Quitar la marca de devolución pendiente
+        mongoTemplate.updateFirst(
+                new Query(Criteria.where("_id").is(orden.getId())),
+                new Update().unset("inventarioPendiente"),
+                Orden.class
+        );
+        orden.setInventarioPendiente(null);
     }
 
     // =========================================================
     // AUXILIAR
     // =========================================================
 
+    /**
+     * Genera el HTML de la confirmación de compra con el resumen de las entradas.
+     * Los nombres de los eventos se leen en una sola consulta (o desde la caché).
+     */
+    private String generarConfirmacion(Orden orden) throws Exception {
+
+        Map<String, CatalogoEventoDTO> eventos = cacheEventoServicio.obtenerEventos(
+                orden.getItems().stream().map(DetalleOrden::getIdEvento).toList());
+
+        StringBuilder filas = new StringBuilder();
+
+        for (DetalleOrden detalle : orden.getItems()) {
+
+            CatalogoEventoDTO evento = eventos.get(detalle.getIdEvento());
+
+            filas.append(plantillaServicio.renderizar("confirmacion-orden-item", PlantillaServicio.modelo(
+                    "evento", evento != null ? evento.nombre() : detalle.getIdEvento(),
+                    "localidad", detalle.getNombreLocalidad(),
+                    "cantidad", detalle.getCantidad(),
+                    "subtotal", formatearValor(detalle.getPrecioUnitario() * detalle.getCantidad())
+            )));
+        }
+
+        return plantillaServicio.renderizar("confirmacion-orden", PlantillaServicio.modelo(
+                "idOrden", orden.getId(),
+                "fecha", orden.getFecha() != null ? orden.getFecha().format(FORMATO_FECHA) : "",
+                "filas", filas,
+                "total", formatearValor(orden.getTotal())
+        ));
+    }
+
+    /**
+     * Formatea un valor en pesos con separador de miles.
+     */
+    private static String formatearValor(double valor) {
+        return String.format("$%,.0f COP", valor);
+    }
+
     /**
      * Convierte un objeto Payment de MercadoPago
      * en un objeto Pago utilizado por el sistema.
@@ -0,0 +1,161 @@
+package dev.andresm.unieventosMongodb.servicios.implement;
+
+import dev.andresm.unieventosMongodb.servicios.interfaces.PlantillaServicio;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Implementación del servicio de plantillas de correo.
+
+ * - Al crear el servicio se leen todas las plantillas de
+ *   classpath:plantillas/*.html y cada una se compila en segmentos:
+ *   textos fijos intercalados con nombres de variables.
+ * - Renderizar solo recorre los segmentos y escribe en un único
+ *   StringBuilder de tamaño estimado; no se vuelve a analizar el archivo
+ *   ni se crean cadenas intermedias al escapar los valores.
+ * - Una plantilla mal formada detiene el arranque, de modo que el error
+ *   se detecta antes de enviar correos.
+ */
+@Service
+public class PlantillaServicioImp implements PlantillaServicio {
+
+    private static final String UBICACION = "classpath:plantillas/*.html";
+
+    /**
+     * Plantillas compiladas por nombre; no cambia después del arranque.
+     */
+    private final Map<String, PlantillaCompilada> plantillas;
+
+    public PlantillaServicioImp() throws IOException {
+
+        Map<String, PlantillaCompilada> compiladas = new HashMap<>();
+
+        for (Resource recurso : new PathMatchingResourcePatternResolver().getResources(UBICACION)) {
+
+            String archivo = recurso.getFilename();
+            String nombre = archivo.substring(0, archivo.length() - ".html".length());
+            String fuente = recurso.getContentAsString(StandardCharsets.UTF_8);
+
+            compiladas.put(nombre, compilar(nombre, fuente));
+        }
+
+        this.plantillas = Map.copyOf(compiladas);
+    }
+
+    @Override
+    public String renderizar(String nombre, Map<String, ?> modelo) throws Exception {
+
+        PlantillaCompilada plantilla = plantillas.get(nombre);
+
+        if (plantilla == null) {
+            throw new Exception("La plantilla " + nombre + " no existe");
+        }
+
+        return plantilla.renderizar(modelo != null ? modelo : Map.of());
+    }
+
+    /**
+     * Divide la fuente en textos fijos y variables.
+     * Siempre hay un texto fijo más que variables (pueden ser vacíos).
+     */
+    private static PlantillaCompilada compilar(String nombre, String fuente) {
+
+        List<String> textos = new ArrayList<>();
+        List<String> variables = new ArrayList<>();
+        List<Boolean> escapar = new ArrayList<>();
+
+        int posicion = 0;
+
+        while (true) {
+
+            int inicio = fuente.indexOf("{{", posicion);
+
+            if (inicio < 0) {
+                textos.add(fuente.substring(posicion));
+                break;
+            }
+
+            boolean crudo = fuente.startsWith("{{{", inicio);
+            String cierre = crudo ? "}}}" : "}}";
+            int fin = fuente.indexOf(cierre, inicio + cierre.length());
+
+            if (fin < 0) {
+                throw new IllegalStateException("Variable sin cerrar en la plantilla " + nombre);
+            }
+
+            textos.add(fuente.substring(posicion, inicio));
+            variables.add(fuente.substring(inicio + cierre.length(), fin).trim());
+            escapar.add(!crudo);
+
+            posicion = fin + cierre.length();
+        }
+
+        boolean[] escapes = new boolean[escapar.size()];
+        for (int i = 0; i < escapes.length; i++) {
+            escapes[i] = escapar.get(i);
+        }
+
+        return new PlantillaCompilada(
+                textos.toArray(String[]::new),
+                variables.toArray(String[]::new),
+                escapes,
+                textos.stream().mapToInt(String::length).sum()
+        );
+    }
+
+    /**
+     * Plantilla ya analizada.
+     *
+     * @param textos     textos fijos (uno más que variables)
+     * @param variables  nombre de cada variable en orden de aparición
+     * @param escapar    si el valor de cada variable se escapa como HTML
+     * @param longitud   suma de la longitud de los textos fijos
+     */
+    private record PlantillaCompilada(String[] textos, String[] variables, boolean[] escapar, int longitud) {
+
+        private String renderizar(Map<String, ?> modelo) {
+
+            StringBuilder html = new StringBuilder(longitud + variables.length * 32);
+
+            for (int i = 0; i < variables.length; i++) {
+
+                html.append(textos[i]);
+
+                Object valor = modelo.get(variables[i]);
+
+                if (valor != null) {
+                    if (escapar[i]) {
+                        escaparHtml(String.valueOf(valor), html);
+                    } else {
+                        html.append(valor);
+                    }
+                }
+            }
+
+            return html.append(textos[variables.length]).toString();
+        }
+
+        private static void escaparHtml(String valor, StringBuilder html) {
+
+            for (int i = 0; i < valor.length(); i++) {
+                char c = valor.charAt(i);
+                switch (c) {
+                    case '<' -> html.append("&lt;");
+                    case '>' -> html.append("&gt;");
+                    case '&' -> html.append("&amp;");
+                    case '"' -> html.append("&quot;");
+                    case '\'' -> html.append("&#39;");
+                    default -> html.append(c);
+                }
+            }
+        }
+    }
+}
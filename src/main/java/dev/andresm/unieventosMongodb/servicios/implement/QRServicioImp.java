@@ -1,22 +1,58 @@
 package dev.andresm.unieventosMongodb.servicios.implement;
 
 import com.google.zxing.BarcodeFormat;
+import com.google.zxing.EncodeHintType;
+import com.google.zxing.WriterException;
+import com.google.zxing.common.BitMatrix;
 import com.google.zxing.qrcode.QRCodeWriter;
+import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
+import dev.andresm.unieventosMongodb.documentos.CodigoQR;
 import dev.andresm.unieventosMongodb.servicios.interfaces.QRServicio;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import javax.imageio.ImageIO;
-import java.awt.image.BufferedImage;
 import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.Base64;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
 
 @Service
 @Transactional
 @RequiredArgsConstructor
 public class QRServicioImp implements QRServicio {
 
+    private static final byte[] FIRMA_PNG = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${qr.tamano:300}")
+    private int tamano;
+
+    @Value("${qr.correccion:M}")
+    private String nivelCorreccion;
+
+    @Value("${qr.margen:4}")
+    private int margen;
+
     /**
      * Genera un código QR a partir de un texto recibido como parámetro.
      * El QR se genera como una imagen y posteriormente se convierte
@@ -29,46 +65,211 @@ public class QRServicioImp implements QRServicio {
      */
     @Override
     public String generarQR(String contenido) throws Exception {
+        return Base64.getEncoder().encodeToString(generarImagen(contenido));
+    }
+
+    @Override
+    public Map<String, byte[]> obtenerImagenes(Collection<String> contenidos) throws Exception {
+
+        // 1. Calcular la llave (hash del contenido) de cada QR
+        Map<String, String> hashes = new LinkedHashMap<>();
+        for (String contenido : contenidos) {
+            hashes.computeIfAbsent(contenido, this::hash);
+        }
+
+        // 2. Leer en una sola consulta los QR que ya fueron generados
+        Map<String, byte[]> imagenes = new HashMap<>();
+        mongoTemplate.find(new Query(Criteria.where("_id").in(hashes.values())), CodigoQR.class)
+                .forEach(codigo -> imagenes.put(codigo.getHash(), codigo.getImagen()));
+
+        // 3. Generar y guardar solo los que falten
+        Map<String, byte[]> resultado = new LinkedHashMap<>();
+
+        for (Map.Entry<String, String> entrada : hashes.entrySet()) {
+
+            byte[] imagen = imagenes.get(entrada.getValue());
+
+            if (imagen == null) {
+                imagen = generarImagen(entrada.getKey());
+                mongoTemplate.save(new CodigoQR(entrada.getValue(), imagen, LocalDateTime.now()));
+            }
+
+            resultado.put(entrada.getKey(), imagen);
+        }
+
+        return resultado;
+    }
+
+    @Override
+    public byte[] obtenerImagen(String contenido) throws Exception {
+        return obtenerImagenes(List.of(contenido)).get(contenido);
+    }
+
+    @Override
+    public String generarEtag(String contenido, String formato) {
+        // El hash ya incluye la configuración de la imagen
+        return "\"" + hash(contenido) + "-" + formato + "\"";
+    }
+
+    @Override
+    public String generarSVG(String contenido) throws Exception {
+
+        // 1. Obtener la matriz de módulos (un bit por módulo, con zona de silencio)
+        BitMatrix matriz = codificar(contenido);
+        int modulos = matriz.getWidth();
+
+        // 2. Un rectángulo por cada tramo horizontal de módulos negros;
+        //    el SVG escala sin perder nitidez, así que no se multiplica por píxeles
+        StringBuilder svg = new StringBuilder(modulos * modulos)
+                .append("<svg xmlns=\"http://www.w3.org/2000/svg\" viewBox=\"0 0 ")
+                .append(modulos).append(' ').append(modulos)
+                .append("\" width=\"").append(tamano).append("\" height=\"").append(tamano)
+                .append("\" shape-rendering=\"crispEdges\"><rect width=\"100%\" height=\"100%\" fill=\"#fff\"/><path d=\"");
+
+        for (int y = 0; y < modulos; y++) {
+            int x = 0;
+            while (x < modulos) {
+                if (!matriz.get(x, y)) {
+                    x++;
+                    continue;
+                }
+                int inicio = x;
+                while (x < modulos && matriz.get(x, y)) {
+                    x++;
+                }
+                svg.append('M').append(inicio).append(' ').append(y)
+                        .append('h').append(x - inicio).append("v1h-").append(x - inicio).append('z');
+            }
+        }
+
+        return svg.append("\"/></svg>").toString();
+    }
 
-        // 1. Se crea el generador de códigos QR utilizando la librería ZXing
-        QRCodeWriter qrCodeWriter = new QRCodeWriter();
-
-        // 2. Se codifica el contenido dentro de una matriz de bits que representa el QR
-        //    Se define el formato QR_CODE y el tamaño de la imagen (300x300)
-        var bitMatrix = qrCodeWriter.encode(
-                contenido,
-                BarcodeFormat.QR_CODE,
-                300,
-                300
-        );
-
-        // 3.Se crea una imagen en memoria donde posteriormente se dibujará el QR
-        BufferedImage image = new BufferedImage(
-                300,
-                300,
-                BufferedImage.TYPE_INT_RGB
-        );
-
-        // 4️. Se recorren todos los puntos de la matriz para pintar la imagen
-        //  Si el bit es verdadero se pinta negro, de lo contrario blanco
-        for (int x = 0; x < 300; x++) {
-            for (int y = 0; y < 300; y++) {
-                image.setRGB(
-                        x,
-                        y,
-                        bitMatrix.get(x, y) ? 0x000000 : 0xFFFFFF
-                );
+    /**
+     * Codifica el contenido y lo dibuja como PNG de tamano x tamano píxeles.
+
+     * En lugar de pintar píxel por píxel un BufferedImage y pasarlo por ImageIO,
+     * cada fila de módulos se escribe una sola vez en un arreglo de bits
+     * (PNG en escala de grises de 1 bit), se repite tantas veces como píxeles
+     * mide un módulo y se comprime directamente con Deflater.
+     */
+    private byte[] generarImagen(String contenido) throws Exception {
+
+        // 1. Matriz con un bit por módulo (incluye la zona de silencio)
+        BitMatrix matriz = codificar(contenido);
+        int modulos = matriz.getWidth();
+
+        // 2. Píxeles por módulo y margen para centrar el QR en la imagen
+        int escala = Math.max(1, tamano / modulos);
+        int lado = Math.max(tamano, modulos * escala);
+        int desplazamiento = (lado - modulos * escala) / 2;
+        int bytesPorFila = (lado + 7) / 8;
+
+        // 3. Filas de la imagen: un byte de filtro (0 = ninguno) y los píxeles (1 = blanco)
+        byte[] blanca = new byte[1 + bytesPorFila];
+        Arrays.fill(blanca, 1, blanca.length, (byte) 0xFF);
+        byte[] fila = new byte[1 + bytesPorFila];
+
+        ByteArrayOutputStream datos = new ByteArrayOutputStream(bytesPorFila * 8);
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+
+        try (DeflaterOutputStream comprimido = new DeflaterOutputStream(datos, deflater)) {
+
+            // 4. Margen superior
+            for (int i = 0; i < desplazamiento; i++) {
+                comprimido.write(blanca);
             }
+
+            // 5. Cada fila de módulos se arma una vez y se escribe "escala" veces
+            for (int y = 0; y < modulos; y++) {
+
+                System.arraycopy(blanca, 0, fila, 0, fila.length);
+
+                for (int x = 0; x < modulos; x++) {
+                    if (matriz.get(x, y)) {
+                        int desde = desplazamiento + x * escala;
+                        for (int pixel = desde; pixel < desde + escala; pixel++) {
+                            fila[1 + (pixel >> 3)] &= (byte) ~(0x80 >>> (pixel & 7));
+                        }
+                    }
+                }
+
+                for (int i = 0; i < escala; i++) {
+                    comprimido.write(fila);
+                }
+            }
+
+            // 6. Margen inferior
+            for (int i = desplazamiento + modulos * escala; i < lado; i++) {
+                comprimido.write(blanca);
+            }
+        } finally {
+            deflater.end();
         }
 
-        // 5. Se crea un flujo de salida en memoria para almacenar la imagen generada
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        // 7. Archivo PNG: firma, IHDR (1 bit, escala de grises), IDAT e IEND
+        ByteArrayOutputStream png = new ByteArrayOutputStream(datos.size() + 64);
+        png.write(FIRMA_PNG);
 
-        // 6. La imagen se escribe en formato PNG dentro del flujo de salida
-        ImageIO.write(image, "png", outputStream);
+        ByteBuffer cabecera = ByteBuffer.allocate(13)
+                .putInt(lado).putInt(lado)
+                .put((byte) 1)   // profundidad de bits
+                .put((byte) 0)   // escala de grises
+                .put((byte) 0)   // compresión deflate
+                .put((byte) 0)   // filtro estándar
+                .put((byte) 0);  // sin entrelazado
 
-        // 7. Finalmente la imagen se convierte a Base64
-        //    Esto permite enviarla fácilmente dentro de respuestas JSON o APIs REST
-        return Base64.getEncoder().encodeToString(outputStream.toByteArray());
+        escribirBloque(png, "IHDR", cabecera.array());
+        escribirBloque(png, "IDAT", datos.toByteArray());
+        escribirBloque(png, "IEND", new byte[0]);
+
+        return png.toByteArray();
+    }
+
+    /**
+     * Codifica el contenido en la matriz mínima: un bit por módulo,
+     * con el nivel de corrección y la zona de silencio configurados.
+     */
+    private BitMatrix codificar(String contenido) throws WriterException {
+
+        Map<EncodeHintType, Object> opciones = new EnumMap<>(EncodeHintType.class);
+        opciones.put(EncodeHintType.ERROR_CORRECTION, ErrorCorrectionLevel.valueOf(nivelCorreccion));
+        opciones.put(EncodeHintType.MARGIN, margen);
+        opciones.put(EncodeHintType.CHARACTER_SET, StandardCharsets.UTF_8.name());
+
+        return new QRCodeWriter().encode(contenido, BarcodeFormat.QR_CODE, 0, 0, opciones);
+    }
+
+    /**
+     * Escribe un bloque PNG: longitud, tipo, datos y CRC32 de tipo + datos.
+     */
+    private static void escribirBloque(ByteArrayOutputStream png, String tipo, byte[] datos) {
+
+        byte[] bytesTipo = tipo.getBytes(StandardCharsets.US_ASCII);
+
+        CRC32 crc = new CRC32();
+        crc.update(bytesTipo);
+        crc.update(datos);
+
+        png.writeBytes(ByteBuffer.allocate(4).putInt(datos.length).array());
+        png.writeBytes(bytesTipo);
+        png.writeBytes(datos);
+        png.writeBytes(ByteBuffer.allocate(4).putInt((int) crc.getValue()).array());
+    }
+
+    /**
+     * SHA-256 (hexadecimal) del contenido y de la configuración de la imagen;
+     * identifica el QR en "codigos_qr". Si cambia el tamaño, el nivel de
+     * corrección o el margen, los QR se vuelven a generar.
+     */
+    private String hash(String contenido) {
+        try {
+            String llave = tamano + "|" + nivelCorreccion + "|" + margen + "|" + contenido;
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(llave.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
     }
 }
@@ -1,58 +1,117 @@
 package dev.andresm.unieventosMongodb.servicios.implement;
 
+import com.itextpdf.kernel.geom.PageSize;
+import com.itextpdf.layout.element.Cell;
 import com.itextpdf.layout.element.Paragraph;
+import com.itextpdf.layout.element.Table;
+import com.itextpdf.layout.properties.TextAlignment;
+import com.itextpdf.layout.properties.UnitValue;
 import dev.andresm.unieventosMongodb.documentos.*;
+import dev.andresm.unieventosMongodb.dto.reportes.GenerarReporteConsolidadoDTO;
 import dev.andresm.unieventosMongodb.dto.reportes.GenerarReporteDTO;
+import dev.andresm.unieventosMongodb.dto.reportes.ReporteConsolidadoDTO;
+import dev.andresm.unieventosMongodb.dto.reportes.ResumenEventoDTO;
+import dev.andresm.unieventosMongodb.dto.reportes.ResumenGrupoDTO;
+import dev.andresm.unieventosMongodb.dto.reportes.VentaEventoDTO;
+import dev.andresm.unieventosMongodb.dto.reportes.VentaLocalidadDTO;
 import dev.andresm.unieventosMongodb.repositorios.EventoRepo;
-import dev.andresm.unieventosMongodb.repositorios.OrdenRepo;
 import dev.andresm.unieventosMongodb.servicios.interfaces.ReporteServicio;
-import lombok.RequiredArgsConstructor;
+import dev.andresm.unieventosMongodb.servicios.interfaces.ResumenVentasServicio;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import com.itextpdf.kernel.pdf.PdfWriter;
 import com.itextpdf.kernel.pdf.PdfDocument;
 import com.itextpdf.layout.Document;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
 import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Implementación del servicio de reportes.
 
  * Responsabilidades:
  * - Generar reportes de ventas por evento
+ * - Generar reportes consolidados de varios eventos, leyendo sus ventas
+ *   por bloques (una agregación por bloque, en paralelo en el ejecutor de reportes)
  * - Calcular métricas de ocupación y ganancias
- * - Generar documentos PDF con la información del reporte
+ * - Generar documentos PDF y CSV con la información del reporte
 
  * IMPORTANTE:
  * Este servicio es responsable de obtener los datos necesarios
- * (evento y órdenes) desde los repositorios.
+ * (evento y resumen de ventas) desde los repositorios y servicios.
 
  * No recibe entidades completas desde el exterior,
  * evitando acoplamiento innecesario.
  */
 @Service
 @Transactional
-@RequiredArgsConstructor
 public class ReporteServicioImp implements ReporteServicio {
 
+    private static final DateTimeFormatter FORMATO_FECHA = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+
+    private static final List<String> ENCABEZADOS_LOCALIDAD = List.of(
+            "Localidad", "Precio", "Capacidad", "Vendidas", "% vendido", "Ganancias");
+
+    // Filas que se acumulan antes de pasar la tabla al documento
+    private static final int FILAS_POR_BLOQUE = 50;
+
+    private static final List<String> ENCABEZADOS_GRUPO = List.of(
+            "Eventos", "Capacidad", "Vendidas", "% vendido", "Ganancias");
+
+    private static final List<String> ENCABEZADOS_CSV = List.of(
+            "seccion", "nombre", "ciudad", "tipo", "fecha", "eventos",
+            "capacidad", "entradas_vendidas", "porcentaje_venta", "ganancias");
+
     private final EventoRepo eventoRepo;
-    private final OrdenRepo ordenRepo;
+    private final ResumenVentasServicio resumenVentasServicio;
+    private final ThreadPoolTaskExecutor ejecutorReportes;
+
+    @Value("${reportes.eventos.maximo:2000}")
+    private int maximoEventos;
+
+    @Value("${reportes.eventos.bloque:500}")
+    private int eventosPorBloque;
+
+    public ReporteServicioImp(EventoRepo eventoRepo,
+                              ResumenVentasServicio resumenVentasServicio,
+                              @Qualifier("ejecutorReportes") ThreadPoolTaskExecutor ejecutorReportes) {
+        this.eventoRepo = eventoRepo;
+        this.resumenVentasServicio = resumenVentasServicio;
+        this.ejecutorReportes = ejecutorReportes;
+    }
 
     /**
      * Genera un reporte de ventas para un evento específico.
      * <p>
      * Flujo:
      * 1. Obtener el evento
-     * 2. Obtener órdenes asociadas
-     * 3. Filtrar órdenes pagadas
-     * 4. Calcular ventas por localidad
-     * 5. Calcular ganancias totales
-     * 6. Calcular porcentaje de ocupación
-     * 7. Construir objeto Reporte
+     * 2. Leer las ventas por localidad del resumen diario ("ventas_diarias"),
+     *    que se mantiene al pagar y anular órdenes
+     * 3. Calcular ganancias totales
+     * 4. Calcular porcentaje de ocupación por localidad
+     * 5. Construir objeto Reporte
      *
      * @param generarReporteDTO contiene el id del evento
      * @return reporte generado
@@ -82,47 +141,44 @@ public class ReporteServicioImp implements ReporteServicio {
         // por lo tanto es seguro utilizar get()
         Evento evento = optionalEvento.get();
 
-        // 3. Obtener órdenes completas del evento
-        List<Orden> ordenes = ordenRepo.buscarOrdenesPorEvento(idEvento);
+        // 3. Ventas por localidad desde el resumen diario (se actualiza al pagar
+        //    y al anular órdenes), sin recorrer las órdenes del evento
+        Map<String, VentaLocalidadDTO> ventas = resumenVentasServicio
+                .obtenerVentasPorLocalidad(idEvento)
+                .stream()
+                .collect(Collectors.toMap(VentaLocalidadDTO::nombreLocalidad, Function.identity()));
 
         // 4. Crear reporte
         Reporte reporte = new Reporte();
         reporte.setEvento(evento);
         reporte.setFechaGeneracion(LocalDateTime.now());
 
+        // 5. Ganancias totales: suma de las ventas de todas las localidades
         double totalGanancias = 0;
+        for (VentaLocalidadDTO venta : ventas.values()) {
+            totalGanancias += venta.ganancias();
+        }
+
         List<Localidad> localidadReporte = new ArrayList<>();
+        Map<String, Double> gananciasLocalidad = new HashMap<>();
 
-        // 5. Recorrer localidades del evento
+        // 6. Recorrer localidades del evento
         for (Localidad localidad : evento.getLocalidades()) {
 
-            int totalVendido = 0;
-
-            // 6. Recorrer órdenes
-            for (Orden orden : ordenes) {
-
-                // 7. Recorrer los ítems (detalles) de cada orden
-                // Cada detalle representa una compra de una localidad específica
-                for (DetalleOrden detalle : orden.getItems()) {
-
-                    // Validar si el detalle corresponde a la localidad actual
-                    // Se compara por nombre de localidad
-                    if (detalle.getNombreLocalidad().equals(localidad.getNombre())) {
-
-                        // Acumular cantidad de entradas vendidas
-                        totalVendido += detalle.getCantidad();
+            // 7. Entradas vendidas de la localidad (0 si no tiene ventas)
+            VentaLocalidadDTO venta = ventas.get(localidad.getNombre());
+            int totalVendido = venta != null ? venta.entradasVendidas() : 0;
 
-                        // Acumular ganancias generadas por esas entradas
-                        totalGanancias +=
-                                detalle.getCantidad() * detalle.getPrecioUnitario();
-                    }
-                }
-            }
+            // 7.1 El contador del inventario incluye las reservas del carrito sin pagar;
+            //     el reporte muestra solo lo vendido y lo recaudado según el resumen
+            localidad.setEntradasVendidas(totalVendido);
+            gananciasLocalidad.put(localidad.getNombre(), venta != null ? venta.ganancias() : 0);
 
             // 8. Calcular porcentaje de venta
             // Fórmula: (entradas vendidas / capacidad máxima) * 100
-            double porcentajeVenta =
-                    (double) totalVendido / localidad.getCapacidadMaxima() * 100;
+            double porcentajeVenta = localidad.getCapacidadMaxima() > 0
+                    ? (double) totalVendido / localidad.getCapacidadMaxima() * 100
+                    : 0;
 
             // Asignar porcentaje calculado a la localidad
             localidad.setPorcentajeVenta(porcentajeVenta);
@@ -133,6 +189,7 @@ public class ReporteServicioImp implements ReporteServicio {
 
         // 9. Asignar resultados al reporte
         reporte.setLocalidad(localidadReporte);
+        reporte.setGananciasLocalidad(gananciasLocalidad);
         reporte.setGanancias(totalGanancias);
 
         // 10. Calcular porcentaje promedio total
@@ -154,13 +211,17 @@ public class ReporteServicioImp implements ReporteServicio {
     /**
      * Genera un archivo PDF con la información del reporte.
 
+     * El documento se escribe directamente en el flujo recibido
+     * (por ejemplo, la respuesta HTTP) y las páginas se vacían a medida
+     * que se completan, por lo que el PDF nunca se arma completo en memoria.
+
      * Flujo:
-     * 1. Crear escritor del PDF
+     * 1. Crear escritor del PDF sobre el flujo de salida
      * 2. Inicializar documento PDF
-     * 3. Crear objeto Document para escritura
+     * 3. Crear objeto Document con vaciado inmediato de páginas
      * 4. Agregar información general del reporte
      * 5. Agregar sección de detalle por localidad
-     * 6. Recorrer localidades y agregar información
+     * 6. Agregar una fila de la tabla por cada localidad
      * 7. Cerrar documento
      *
      * @param reporte objeto con la información calculada
@@ -176,37 +237,444 @@ public class ReporteServicioImp implements ReporteServicio {
         // 2. Inicializar el documento PDF
         PdfDocument pdfDocument = new PdfDocument(writer);
 
-        // 3. Crear el documento para agregar contenido
-        Document document = new Document(pdfDocument);
+        // 3. Crear el documento; cada página se escribe al completarse
+        Document document = new Document(pdfDocument, PageSize.A4, true);
 
         // =========================================================
         // INFORMACIÓN GENERAL
         // =========================================================
 
         // 4. Agregar datos principales del reporte
-        document.add(new Paragraph("Reporte de Evento: " + reporte.getEvento().getNombre()));
-        document.add(new Paragraph("Fecha de Generación: " + reporte.getFechaGeneracion()));
-        document.add(new Paragraph("Porcentaje de Venta Total: " + reporte.getPorcentajeVenta() + "%"));
-        document.add(new Paragraph("Ganancias Totales: $" + reporte.getGanancias()));
+        document.add(new Paragraph("Reporte de Evento: " + reporte.getEvento().getNombre()).setBold().setFontSize(16));
+        document.add(new Paragraph("Fecha de Generación: " + reporte.getFechaGeneracion().format(FORMATO_FECHA)));
+        document.add(new Paragraph("Porcentaje de Venta Total: " + String.format("%.2f", reporte.getPorcentajeVenta()) + "%"));
+        document.add(new Paragraph("Ganancias Totales: $" + String.format("%,.2f", reporte.getGanancias())));
 
         // =========================================================
         // DETALLE POR LOCALIDAD
         // =========================================================
 
-        // 5. Título de la sección
-        document.add(new Paragraph("Detalle por Localidad:"));
+        // 5. Título de la sección y encabezados de la tabla
+        document.add(new Paragraph("Detalle por Localidad:").setBold());
+
+        Table tabla = new Table(UnitValue.createPercentArray(new float[]{3, 2, 2, 2, 2, 3}), true)
+                .useAllAvailableWidth();
+
+        for (String encabezado : ENCABEZADOS_LOCALIDAD) {
+            tabla.addHeaderCell(new Cell().add(new Paragraph(encabezado).setBold()));
+        }
+        document.add(tabla);
 
-        // 6. Recorrer localidades del reporte
+        // 6. Una fila por localidad; la tabla se va vaciando por bloques
+        int filas = 0;
         for (Localidad localidad : reporte.getLocalidad()) {
 
-            // Agregar información de cada localidad
-            document.add(new Paragraph(
-                    localidad.getNombre() + ": " +
-                            localidad.getPorcentajeVenta() + "% vendido"
-            ));
+            tabla.addCell(localidad.getNombre());
+            tabla.addCell(celdaNumerica(String.format("%,.2f", localidad.getPrecio())));
+            tabla.addCell(celdaNumerica(String.valueOf(localidad.getCapacidadMaxima())));
+            tabla.addCell(celdaNumerica(String.valueOf(localidad.getEntradasVendidas())));
+            tabla.addCell(celdaNumerica(String.format("%.2f%%", localidad.getPorcentajeVenta())));
+            tabla.addCell(celdaNumerica(String.format("%,.2f",
+                    reporte.getGananciasLocalidad().getOrDefault(localidad.getNombre(), 0.0))));
+
+            if (++filas % FILAS_POR_BLOQUE == 0) {
+                tabla.flush();
+            }
         }
-        // 7. Cerrar documento (muy importante para guardar el archivo correctamente)
+        tabla.complete();
+
+        // 7. Cerrar documento (escribe las páginas pendientes y la tabla de referencias)
         document.close();
     }
-}
 
+    /**
+     * Genera un reporte de ventas de varios eventos.
+     * <p>
+     * Flujo:
+     * 1. Validar los criterios (al menos uno y rango coherente)
+     * 2. Buscar los eventos del rango y/o del organizador (solo los campos del reporte)
+     * 3. Leer las ventas de los eventos del resumen diario con una agregación
+     *    por bloque de eventos (los bloques se calculan en paralelo)
+     * 4. Unir los resultados: total, detalle por ciudad y por tipo
+     *
+     * @param generarReporteConsolidadoDTO rango de fechas y/o organizador
+     * @return reporte consolidado
+     * @throws Exception si los criterios no son válidos o hay demasiados eventos
+     */
+    @Override
+    public ReporteConsolidadoDTO generarReporteConsolidado(GenerarReporteConsolidadoDTO generarReporteConsolidadoDTO) throws Exception {
+
+        LocalDate fechaInicio = generarReporteConsolidadoDTO.fechaInicio();
+        LocalDate fechaFin = generarReporteConsolidadoDTO.fechaFin();
+        String idOrganizador = generarReporteConsolidadoDTO.idOrganizador();
+
+        // 1. Validar criterios
+        boolean conOrganizador = idOrganizador != null && !idOrganizador.isBlank();
+
+        if (fechaInicio == null && fechaFin == null && !conOrganizador) {
+            throw new Exception("Debe indicar un rango de fechas o un organizador");
+        }
+
+        if (fechaInicio != null && fechaFin != null && fechaFin.isBefore(fechaInicio)) {
+            throw new Exception("La fecha final no puede ser anterior a la fecha inicial");
+        }
+
+        // 2. Eventos del reporte (el último día del rango se incluye completo)
+        List<Evento> eventos = eventoRepo.buscarParaReporte(
+                fechaInicio != null ? fechaInicio.atStartOfDay() : null,
+                fechaFin != null ? fechaFin.plusDays(1).atStartOfDay() : null,
+                conOrganizador ? idOrganizador : null
+        );
+
+        if (eventos.size() > maximoEventos) {
+            throw new Exception("El reporte incluye " + eventos.size()
+                    + " eventos; el máximo es " + maximoEventos + ". Reduzca el rango de fechas");
+        }
+
+        // 3. Ventas de cada evento (una agregación por bloque)
+        ResumenEventoDTO[] resumenes = calcularEventos(eventos);
+
+        // 4. Unir resultados
+        Acumulado total = new Acumulado("Total");
+        Map<String, Acumulado> porCiudad = new HashMap<>();
+        Map<String, Acumulado> porTipo = new HashMap<>();
+
+        for (ResumenEventoDTO resumen : resumenes) {
+
+            String ciudad = resumen.ciudad() != null ? resumen.ciudad() : "Sin ciudad";
+            String tipo = resumen.tipo() != null ? resumen.tipo().name() : "Sin tipo";
+
+            total.sumar(resumen);
+            porCiudad.computeIfAbsent(ciudad, Acumulado::new).sumar(resumen);
+            porTipo.computeIfAbsent(tipo, Acumulado::new).sumar(resumen);
+        }
+
+        return new ReporteConsolidadoDTO(
+                fechaInicio,
+                fechaFin,
+                conOrganizador ? idOrganizador : null,
+                LocalDateTime.now(),
+                total.eventos,
+                total.capacidad,
+                total.entradasVendidas,
+                total.ganancias,
+                porcentaje(total.entradasVendidas, total.capacidad),
+                Arrays.asList(resumenes),
+                ordenarGrupos(porCiudad),
+                ordenarGrupos(porTipo)
+        );
+    }
+
+    /**
+     * Genera el PDF de un reporte consolidado directamente sobre el flujo recibido.
+
+     * Flujo:
+     * 1. Crear el documento con vaciado inmediato de páginas
+     * 2. Agregar criterios y totales
+     * 3. Agregar tablas por tipo y por ciudad
+     * 4. Agregar la tabla por evento, vaciándola por bloques de filas
+     * 5. Cerrar documento
+     */
+    @Override
+    public void generarPDFConsolidado(ReporteConsolidadoDTO reporte, OutputStream outputStream) throws Exception {
+
+        // 1. Documento sobre el flujo de salida
+        PdfDocument pdfDocument = new PdfDocument(new PdfWriter(outputStream));
+        Document document = new Document(pdfDocument, PageSize.A4.rotate(), true);
+
+        // 2. Criterios y totales
+        document.add(new Paragraph("Reporte Consolidado de Ventas").setBold().setFontSize(16));
+        document.add(new Paragraph("Fecha de Generación: " + reporte.fechaGeneracion().format(FORMATO_FECHA)));
+
+        if (reporte.fechaInicio() != null || reporte.fechaFin() != null) {
+            document.add(new Paragraph("Rango: "
+                    + (reporte.fechaInicio() != null ? reporte.fechaInicio() : "...") + " a "
+                    + (reporte.fechaFin() != null ? reporte.fechaFin() : "...")));
+        }
+        if (reporte.idOrganizador() != null) {
+            document.add(new Paragraph("Organizador: " + reporte.idOrganizador()));
+        }
+
+        document.add(new Paragraph("Eventos: " + reporte.totalEventos()));
+        document.add(new Paragraph("Entradas Vendidas: " + reporte.entradasVendidas() + " de " + reporte.capacidad()
+                + " (" + String.format("%.2f", reporte.porcentajeVenta()) + "%)"));
+        document.add(new Paragraph("Ganancias Totales: $" + String.format("%,.2f", reporte.ganancias())));
+
+        // 3. Detalle por tipo y por ciudad
+        document.add(new Paragraph("Detalle por Tipo de Evento:").setBold());
+        document.add(tablaGrupos("Tipo", reporte.porTipo()));
+
+        document.add(new Paragraph("Detalle por Ciudad:").setBold());
+        document.add(tablaGrupos("Ciudad", reporte.porCiudad()));
+
+        // 4. Detalle por evento (puede tener cientos de filas)
+        document.add(new Paragraph("Detalle por Evento:").setBold());
+
+        Table tabla = new Table(UnitValue.createPercentArray(new float[]{4, 2, 2, 2, 2, 2, 2, 3}), true)
+                .useAllAvailableWidth();
+
+        for (String encabezado : List.of("Evento", "Ciudad", "Tipo", "Fecha",
+                "Capacidad", "Vendidas", "% vendido", "Ganancias")) {
+            tabla.addHeaderCell(new Cell().add(new Paragraph(encabezado).setBold()));
+        }
+        document.add(tabla);
+
+        int filas = 0;
+        for (ResumenEventoDTO evento : reporte.eventos()) {
+
+            tabla.addCell(evento.nombre());
+            tabla.addCell(evento.ciudad() != null ? evento.ciudad() : "");
+            tabla.addCell(evento.tipo() != null ? evento.tipo().name() : "");
+            tabla.addCell(evento.fecha() != null ? evento.fecha().format(FORMATO_FECHA) : "");
+            tabla.addCell(celdaNumerica(String.valueOf(evento.capacidad())));
+            tabla.addCell(celdaNumerica(String.valueOf(evento.entradasVendidas())));
+            tabla.addCell(celdaNumerica(String.format("%.2f%%", evento.porcentajeVenta())));
+            tabla.addCell(celdaNumerica(String.format("%,.2f", evento.ganancias())));
+
+            if (++filas % FILAS_POR_BLOQUE == 0) {
+                tabla.flush();
+            }
+        }
+        tabla.complete();
+
+        // 5. Cerrar documento
+        document.close();
+    }
+
+    /**
+     * Escribe el CSV de un reporte consolidado directamente sobre el flujo recibido.
+
+     * Los números se escriben con punto decimal (Locale.ROOT) y el archivo
+     * empieza con la marca BOM para que las hojas de cálculo reconozcan UTF-8.
+     */
+    @Override
+    public void generarCSVConsolidado(ReporteConsolidadoDTO reporte, OutputStream outputStream) throws Exception {
+
+        Writer csv = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+
+        // 1. Marca BOM y encabezados
+        csv.write('\uFEFF');
+        csv.write(String.join(",", ENCABEZADOS_CSV));
+        csv.write("\r\n");
+
+        // 2. Total y grupos
+        escribirFilaCSV(csv, "TOTAL", "Total", null, null, null, reporte.totalEventos(), reporte.capacidad(),
+                reporte.entradasVendidas(), reporte.porcentajeVenta(), reporte.ganancias());
+
+        for (ResumenGrupoDTO grupo : reporte.porTipo()) {
+            escribirFilaCSV(csv, "TIPO", grupo.nombre(), null, grupo.nombre(), null, grupo.eventos(),
+                    grupo.capacidad(), grupo.entradasVendidas(), grupo.porcentajeVenta(), grupo.ganancias());
+        }
+
+        for (ResumenGrupoDTO grupo : reporte.porCiudad()) {
+            escribirFilaCSV(csv, "CIUDAD", grupo.nombre(), grupo.nombre(), null, null, grupo.eventos(),
+                    grupo.capacidad(), grupo.entradasVendidas(), grupo.porcentajeVenta(), grupo.ganancias());
+        }
+
+        // 3. Una fila por evento
+        for (ResumenEventoDTO evento : reporte.eventos()) {
+            escribirFilaCSV(csv, "EVENTO", evento.nombre(), evento.ciudad(),
+                    evento.tipo() != null ? evento.tipo().name() : null,
+                    evento.fecha() != null ? evento.fecha().toString() : null, 1,
+                    evento.capacidad(), evento.entradasVendidas(), evento.porcentajeVenta(), evento.ganancias());
+        }
+
+        // 4. Vaciar el búfer (el flujo lo cierra quien lo abrió)
+        csv.flush();
+    }
+
+    /**
+     * Calcula las ventas de cada evento por bloques de "reportes.eventos.bloque"
+     * eventos; cada bloque se resuelve con una sola agregación sobre el resumen
+     * diario. Si hay varios bloques se calculan en paralelo en el ejecutor.
+     * El resultado conserva el orden de la lista recibida.
+     */
+    private ResumenEventoDTO[] calcularEventos(List<Evento> eventos) throws Exception {
+
+        ResumenEventoDTO[] resumenes = new ResumenEventoDTO[eventos.size()];
+
+        // 1. Un solo bloque se calcula en el hilo actual
+        if (eventos.size() <= eventosPorBloque) {
+            calcularBloque(eventos, resumenes, 0, eventos.size());
+            return resumenes;
+        }
+
+        // 2. Un bloque de eventos contiguos por tarea
+        List<CompletableFuture<Void>> tareas = new ArrayList<>();
+
+        for (int desde = 0; desde < eventos.size(); desde += eventosPorBloque) {
+            int inicio = desde;
+            int fin = Math.min(desde + eventosPorBloque, eventos.size());
+            tareas.add(CompletableFuture.runAsync(
+                    () -> calcularBloque(eventos, resumenes, inicio, fin), ejecutorReportes));
+        }
+
+        // 3. Esperar a que terminen todos los bloques
+        try {
+            CompletableFuture.allOf(tareas.toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException e) {
+            throw new Exception("Error al calcular el reporte consolidado: " + e.getCause().getMessage(), e.getCause());
+        }
+
+        return resumenes;
+    }
+
+    /**
+     * Calcula las ventas de los eventos [desde, hasta) con una sola agregación
+     * ($match idEvento $in + $group) sobre el resumen diario.
+     */
+    private void calcularBloque(List<Evento> eventos, ResumenEventoDTO[] resumenes, int desde, int hasta) {
+
+        List<Evento> bloque = eventos.subList(desde, hasta);
+
+        // Ventas del resumen diario de todos los eventos del bloque
+        Map<String, VentaEventoDTO> ventas = resumenVentasServicio
+                .obtenerVentasPorEvento(bloque.stream().map(Evento::getId).toList())
+                .stream()
+                .collect(Collectors.toMap(VentaEventoDTO::idEvento, Function.identity()));
+
+        for (int i = desde; i < hasta; i++) {
+
+            Evento evento = eventos.get(i);
+
+            // Capacidad del evento: suma de sus localidades
+            int capacidad = 0;
+            for (Localidad localidad : evento.getLocalidades()) {
+                capacidad += localidad.getCapacidadMaxima();
+            }
+
+            // Ventas del evento (0 si no tiene ventas)
+            VentaEventoDTO venta = ventas.get(evento.getId());
+            int vendidas = venta != null ? venta.entradasVendidas() : 0;
+            double ganancias = venta != null ? venta.ganancias() : 0;
+
+            resumenes[i] = new ResumenEventoDTO(
+                    evento.getId(),
+                    evento.getNombre(),
+                    evento.getCiudad(),
+                    evento.getTipo(),
+                    evento.getFecha(),
+                    capacidad,
+                    vendidas,
+                    ganancias,
+                    porcentaje(vendidas, capacidad)
+            );
+        }
+    }
+
+    /**
+     * Convierte los acumulados en DTO, de mayor a menor ganancia.
+     */
+    private static List<ResumenGrupoDTO> ordenarGrupos(Map<String, Acumulado> grupos) {
+        return grupos.values().stream()
+                .map(Acumulado::aDTO)
+                .sorted(Comparator.comparingDouble(ResumenGrupoDTO::ganancias).reversed()
+                        .thenComparing(ResumenGrupoDTO::nombre))
+                .toList();
+    }
+
+    /**
+     * Tabla de un detalle agrupado (por tipo o por ciudad).
+     */
+    private static Table tablaGrupos(String titulo, List<ResumenGrupoDTO> grupos) {
+
+        Table tabla = new Table(UnitValue.createPercentArray(new float[]{4, 2, 2, 2, 2, 3}))
+                .useAllAvailableWidth();
+
+        tabla.addHeaderCell(new Cell().add(new Paragraph(titulo).setBold()));
+        for (String encabezado : ENCABEZADOS_GRUPO) {
+            tabla.addHeaderCell(new Cell().add(new Paragraph(encabezado).setBold()));
+        }
+
+        for (ResumenGrupoDTO grupo : grupos) {
+            tabla.addCell(grupo.nombre());
+            tabla.addCell(celdaNumerica(String.valueOf(grupo.eventos())));
+            tabla.addCell(celdaNumerica(String.valueOf(grupo.capacidad())));
+            tabla.addCell(celdaNumerica(String.valueOf(grupo.entradasVendidas())));
+            tabla.addCell(celdaNumerica(String.format("%.2f%%", grupo.porcentajeVenta())));
+            tabla.addCell(celdaNumerica(String.format("%,.2f", grupo.ganancias())));
+        }
+
+        return tabla;
+    }
+
+    /**
+     * Escribe una fila del CSV; los textos se escapan según RFC 4180.
+     */
+    private static void escribirFilaCSV(Writer csv, String seccion, String nombre, String ciudad, String tipo,
+                                        String fecha, int eventos, int capacidad, int entradasVendidas,
+                                        double porcentajeVenta, double ganancias) throws IOException {
+
+        csv.write(String.join(",",
+                textoCSV(seccion),
+                textoCSV(nombre),
+                textoCSV(ciudad),
+                textoCSV(tipo),
+                textoCSV(fecha),
+                String.valueOf(eventos),
+                String.valueOf(capacidad),
+                String.valueOf(entradasVendidas),
+                String.format(Locale.ROOT, "%.2f", porcentajeVenta),
+                String.format(Locale.ROOT, "%.2f", ganancias)
+        ));
+        csv.write("\r\n");
+    }
+
+    /**
+     * Escapa un texto para CSV: comillas dobles si contiene separadores,
+     * comillas o saltos de línea (las comillas internas se duplican).
+     */
+    private static String textoCSV(String valor) {
+
+        if (valor == null) {
+            return "";
+        }
+        if (valor.indexOf(',') < 0 && valor.indexOf('"') < 0
+                && valor.indexOf('\n') < 0 && valor.indexOf('\r') < 0) {
+            return valor;
+        }
+        return "\"" + valor.replace("\"", "\"\"") + "\"";
+    }
+
+    /**
+     * Porcentaje de entradas vendidas sobre la capacidad (0 si no hay capacidad).
+     */
+    private static double porcentaje(int vendidas, int capacidad) {
+        return capacidad > 0 ? (double) vendidas / capacidad * 100 : 0;
+    }
+
+    /**
+     * Acumulado de ventas de un grupo de eventos mientras se une el reporte.
+     */
+    private static final class Acumulado {
+
+        private final String nombre;
+        private int eventos;
+        private int capacidad;
+        private int entradasVendidas;
+        private double ganancias;
+
+        private Acumulado(String nombre) {
+            this.nombre = nombre;
+        }
+
+        private void sumar(ResumenEventoDTO resumen) {
+            eventos++;
+            capacidad += resumen.capacidad();
+            entradasVendidas += resumen.entradasVendidas();
+            ganancias += resumen.ganancias();
+        }
+
+        private ResumenGrupoDTO aDTO() {
+            return new ResumenGrupoDTO(nombre, eventos, capacidad, entradasVendidas, ganancias,
+                    porcentaje(entradasVendidas, capacidad));
+        }
+    }
+
+    /**
+     * Celda alineada a la derecha para columnas numéricas.
+     */
+    private static Cell celdaNumerica(String valor) {
+        return new Cell().add(new Paragraph(valor)).setTextAlignment(TextAlignment.RIGHT);
+    }
+}
@@ -0,0 +1,231 @@
+package dev.andresm.unieventosMongodb.servicios.implement;
+
+import dev.andresm.unieventosMongodb.documentos.DetalleCarrito;
+import dev.andresm.unieventosMongodb.documentos.ReservaEntrada;
+import dev.andresm.unieventosMongodb.dto.inventario.MovimientoInventarioDTO;
+import dev.andresm.unieventosMongodb.servicios.interfaces.InventarioServicio;
+import dev.andresm.unieventosMongodb.servicios.interfaces.ReservaServicio;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Implementación del servicio de reservas temporales de entradas.
+
+ * Cada reserva vive en la colección "reservas" con una fecha de expiración.
+ * No se usa un índice TTL nativo de MongoDB porque este eliminaría el
+ * documento sin devolver las entradas; el vencimiento lo aplica el
+ * barrido programado de este servicio.
+
+ * El barrido trabaja por lotes acotados:
+ * 1. Toma hasta "reservas.barrido.lote" reservas vencidas.
+ * 2. Las marca con un idBarrido propio y la fecha del reclamo (solo las que
+ *    nadie reclamó o cuyo reclamo venció).
+ * 3. Devuelve las entradas con una única escritura bulk agrupada por localidad.
+ * 4. Elimina las reservas marcadas.
+
+ * Un reclamo del barrido es una concesión de
+ * "reservas.reclamo.concesion.segundos": si el proceso que marcó la reserva
+ * falla antes de eliminarla, la siguiente ejecución puede volver a reclamarla,
+ * por lo que sus entradas no quedan sumadas para siempre.
+
+ * El reclamo del pago usa el id de la orden y no vence: sus entradas ya son
+ * una venta, y el reintento del pago reconoce y elimina sus propias reservas.
+ */
+@Slf4j
+@Service
+@Transactional
+@RequiredArgsConstructor
+public class ReservaServicioImp implements ReservaServicio {
+
+    private final MongoTemplate mongoTemplate;
+    private final InventarioServicio inventarioServicio;
+
+    @Value("${reservas.ventana.minutos:15}")
+    private long ventanaMinutos;
+
+    @Value("${reservas.barrido.lote:500}")
+    private int tamanoLote;
+
+    @Value("${reservas.reclamo.concesion.segundos:300}")
+    private long segundosConcesion;
+
+    @Override
+    public void registrarReserva(String idCuenta, DetalleCarrito detalle) {
+
+        LocalDateTime ahora = LocalDateTime.now();
+
+        ReservaEntrada reserva = ReservaEntrada.builder()
+                .codigoDetalle(detalle.getCodigoDetalle())
+                .idCuenta(idCuenta)
+                .idEvento(detalle.getIdEvento())
+                .nombreLocalidad(detalle.getNombreLocalidad())
+                .cantidad(detalle.getCantidad())
+                .fechaCreacion(ahora)
+                .fechaExpiracion(ahora.plusMinutes(ventanaMinutos))
+                .build();
+
+        mongoTemplate.save(reserva);
+    }
+
+    @Override
+    public boolean reclamarReserva(String codigoDetalle) {
+
+        // Solo se elimina si nadie la reclamó antes (o si su reclamo venció)
+        Query query = new Query(new Criteria().andOperator(
+                Criteria.where("_id").is(codigoDetalle),
+                sinReclamoVigente(LocalDateTime.now())
+        ));
+
+        return mongoTemplate.remove(query, ReservaEntrada.class).getDeletedCount() > 0;
+    }
+
+    @Override
+    public Set<String> obtenerReservasVigentes(Collection<String> codigosDetalle) {
+
+        if (codigosDetalle.isEmpty()) {
+            return Set.of();
+        }
+
+        Query vigentes = new Query(new Criteria().andOperator(
+                Criteria.where("_id").in(codigosDetalle),
+                sinReclamoVigente(LocalDateTime.now())
+        ));
+        vigentes.fields().include("_id");
+
+        return mongoTemplate.find(vigentes, ReservaEntrada.class).stream()
+                .map(ReservaEntrada::getCodigoDetalle)
+                .collect(Collectors.toSet());
+    }
+
+    @Override
+    public Set<String> reclamarReservas(String idReclamo, Collection<String> codigosDetalle) {
+
+        if (codigosDetalle.isEmpty()) {
+            return Set.of();
+        }
+
+        // 1. Marcar las reservas que siguen vigentes (las reclamadas por un barrido quedan por fuera).
+        //    Sin fechaBarrido: la concesión no aplica porque sus entradas ya son una venta
+        mongoTemplate.updateMulti(
+                new Query(new Criteria().andOperator(
+                        Criteria.where("_id").in(codigosDetalle),
+                        sinReclamoVigente(LocalDateTime.now())
+                )),
+                new Update().set("idBarrido", idReclamo).unset("fechaBarrido"),
+                ReservaEntrada.class
+        );
+
+        // 2. Leer los códigos marcados con este reclamo (incluye los de un intento anterior)
+        Query marcadas = new Query(Criteria.where("_id").in(codigosDetalle).and("idBarrido").is(idReclamo));
+        marcadas.fields().include("_id");
+
+        return mongoTemplate.find(marcadas, ReservaEntrada.class).stream()
+                .map(ReservaEntrada::getCodigoDetalle)
+                .collect(Collectors.toSet());
+    }
+
+    @Override
+    public void eliminarReclamadas(String idReclamo) {
+        mongoTemplate.remove(new Query(Criteria.where("idBarrido").is(idReclamo)), ReservaEntrada.class);
+    }
+
+    @Override
+    public int liberarReservasVencidas() {
+
+        LocalDateTime ahora = LocalDateTime.now();
+
+        // 1. Buscar un lote de reservas vencidas sin reclamo vigente (solo el _id)
+        Query vencidas = new Query(new Criteria().andOperator(
+                Criteria.where("fechaExpiracion").lt(ahora),
+                sinReclamoVigente(ahora)
+        ))
+                .with(Sort.by(Sort.Direction.ASC, "fechaExpiracion"))
+                .limit(tamanoLote);
+        vencidas.fields().include("_id");
+
+        List<Object> ids = mongoTemplate.find(vencidas, ReservaEntrada.class).stream()
+                .map(reserva -> (Object) reserva.getCodigoDetalle())
+                .toList();
+
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        // 2. Marcar el lote; las reservas reclamadas entre tanto por el carrito
+        //    o por el pago ya no existen o tienen un reclamo vigente y quedan por fuera
+        String idBarrido = UUID.randomUUID().toString();
+
+        mongoTemplate.updateMulti(
+                new Query(new Criteria().andOperator(
+                        Criteria.where("_id").in(ids),
+                        sinReclamoVigente(ahora)
+                )),
+                new Update().set("idBarrido", idBarrido).set("fechaBarrido", ahora),
+                ReservaEntrada.class
+        );
+
+        Query marcadas = new Query(Criteria.where("idBarrido").is(idBarrido));
+        List<ReservaEntrada> reservas = mongoTemplate.find(marcadas, ReservaEntrada.class);
+
+        // 3. Devolver las entradas con una sola escritura bulk
+        inventarioServicio.liberarEntradas(reservas.stream()
+                .map(reserva -> new MovimientoInventarioDTO(
+                        reserva.getIdEvento(),
+                        reserva.getNombreLocalidad(),
+                        reserva.getCantidad()))
+                .toList());
+
+        // 4. Eliminar las reservas liberadas
+        mongoTemplate.remove(marcadas, ReservaEntrada.class);
+
+        return reservas.size();
+    }
+
+    /**
+     * Tarea programada que libera las reservas vencidas.
+     * Cada ejecución procesa como máximo un lote.
+     */
+    @Scheduled(fixedDelayString = "${reservas.barrido.intervalo:60000}")
+    public void barrerReservasVencidas() {
+
+        try {
+            int liberadas = liberarReservasVencidas();
+
+            if (liberadas > 0) {
+                log.info("Reservas vencidas liberadas: {}", liberadas);
+            }
+
+        } catch (Exception e) {
+            // Un fallo no detiene el barrido; las reservas que alcanzaron a marcarse
+            // se vuelven a reclamar cuando vence la concesión del reclamo
+            log.error("Error liberando reservas vencidas", e);
+        }
+    }
+
+    /**
+     * Reservas que nadie ha reclamado o cuyo reclamo venció (el proceso que
+     * las marcó no terminó dentro de la concesión).
+     */
+    private Criteria sinReclamoVigente(LocalDateTime ahora) {
+        return new Criteria().orOperator(
+                Criteria.where("idBarrido").is(null),
+                Criteria.where("fechaBarrido").lt(ahora.minusSeconds(segundosConcesion))
+        );
+    }
+}
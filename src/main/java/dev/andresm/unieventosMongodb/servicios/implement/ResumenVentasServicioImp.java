@@ -0,0 +1,344 @@
+package dev.andresm.unieventosMongodb.servicios.implement;
+
+import dev.andresm.unieventosMongodb.documentos.DetalleOrden;
+import dev.andresm.unieventosMongodb.documentos.EstadoVentaAplicada;
+import dev.andresm.unieventosMongodb.documentos.Orden;
+import dev.andresm.unieventosMongodb.documentos.VentaAplicada;
+import dev.andresm.unieventosMongodb.documentos.VentaDiaria;
+import dev.andresm.unieventosMongodb.dto.reportes.VentaEventoDTO;
+import dev.andresm.unieventosMongodb.dto.reportes.VentaLocalidadDTO;
+import dev.andresm.unieventosMongodb.repositorios.VentaDiariaRepo;
+import dev.andresm.unieventosMongodb.servicios.interfaces.ResumenVentasServicio;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+
+/**
+ * Implementación del resumen incremental de ventas.
+
+ * - La venta de una orden en cada documento del resumen (evento, localidad, día)
+ *   se registra en "ventas_aplicadas" con el id "idOrden|idVenta". Ese registro
+ *   se reclama (con bloqueo) antes de tocar el resumen y su estado indica si la
+ *   orden ya se sumó o se descontó, así que repetir la venta no la suma dos veces.
+ * - El $inc sobre el resumen agrega en la misma escritura una marca ("+idOrden"
+ *   o "-idOrden") y solo se aplica si la marca no está: si el proceso se
+ *   interrumpe antes de cerrar el registro, el reintento no vuelve a sumar.
+ *   La marca se retira al cerrarlo, de modo que el resumen no crece con las ventas.
+ * - Al anular la orden se descuenta lo registrado, del mismo documento.
+ */
+@Service
+@Transactional
+@RequiredArgsConstructor
+public class ResumenVentasServicioImp implements ResumenVentasServicio {
+
+    private final MongoTemplate mongoTemplate;
+    private final VentaDiariaRepo ventaDiariaRepo;
+
+    @Value("${ventas.bloqueo.segundos:60}")
+    private long segundosBloqueo;
+
+    @Override
+    public boolean registrarVenta(Orden orden) {
+
+        // 1. Agrupar los ítems por documento de resumen (evento, localidad, día)
+        List<VentaAplicada> ventas = agrupar(orden, diaVenta(orden));
+
+        // 2. Sumar la venta a cada documento (los ya sumados se omiten)
+        boolean sumada = false;
+        for (VentaAplicada venta : ventas) {
+            sumada |= sumar(venta);
+        }
+        return sumada;
+    }
+
+    @Override
+    public boolean revertirVenta(Orden orden) {
+
+        // 1. Ventas registradas de la orden que no se han descontado (el día se toma
+        //    del registro, no de la fecha del pago de la anulación)
+        List<VentaAplicada> ventas = mongoTemplate.find(
+                new Query(Criteria.where("idOrden").is(orden.getId())
+                        .and("estado").ne(EstadoVentaAplicada.DESCONTADA)),
+                VentaAplicada.class
+        );
+
+        boolean descontada = false;
+        for (VentaAplicada venta : ventas) {
+
+            // 2. Una suma interrumpida se completa antes de descontarla
+            if (venta.getEstado() == EstadoVentaAplicada.SUMANDO) {
+                sumar(venta);
+            }
+
+            // 3. Descontar la venta del documento
+            descontada |= descontar(venta);
+        }
+        return descontada;
+    }
+
+    /**
+     * Suma una venta a su documento del resumen.
+
+     * Flujo:
+     * 1. Reclamar el registro en SUMANDO (se crea la primera vez).
+     * 2. $inc y marca "+idOrden" en la misma escritura, solo si la marca no está.
+     * 3. Cerrar el registro como SUMADA.
+     * 4. Retirar la marca del documento.
+     *
+     * @return true si se sumó; false si ya estaba sumada o la suma la completa otro proceso
+     */
+    private boolean sumar(VentaAplicada venta) {
+
+        LocalDateTime ahora = LocalDateTime.now();
+        String marca = "+" + venta.getIdOrden();
+
+        // 1. Reclamar el registro; si ya está en otro estado (o bloqueado), el upsert
+        //    intenta crearlo de nuevo y falla por clave duplicada
+        try {
+            mongoTemplate.findAndModify(
+                    new Query(Criteria.where("_id").is(venta.getId())
+                            .and("estado").is(EstadoVentaAplicada.SUMANDO)
+                            .orOperator(
+                                    Criteria.where("bloqueoHasta").exists(false),
+                                    Criteria.where("bloqueoHasta").lt(ahora))),
+                    new Update()
+                            .setOnInsert("idOrden", venta.getIdOrden())
+                            .setOnInsert("idVenta", venta.getIdVenta())
+                            .setOnInsert("idEvento", venta.getIdEvento())
+                            .setOnInsert("nombreLocalidad", venta.getNombreLocalidad())
+                            .setOnInsert("dia", venta.getDia())
+                            .setOnInsert("entradasVendidas", venta.getEntradasVendidas())
+                            .setOnInsert("ganancias", venta.getGanancias())
+                            .set("bloqueoHasta", ahora.plusSeconds(segundosBloqueo)),
+                    FindAndModifyOptions.options().upsert(true).returnNew(true),
+                    VentaAplicada.class
+            );
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+
+        // 2. Sumar con la marca; si la marca ya está, un intento interrumpido ya sumó
+        //    (el upsert intenta crear el documento y falla por clave duplicada)
+        try {
+            mongoTemplate.upsert(
+                    new Query(Criteria.where("_id").is(venta.getIdVenta()).and("pendientes").ne(marca)),
+                    new Update()
+                            .setOnInsert("idEvento", venta.getIdEvento())
+                            .setOnInsert("nombreLocalidad", venta.getNombreLocalidad())
+                            .setOnInsert("dia", venta.getDia())
+                            .inc("entradasVendidas", venta.getEntradasVendidas())
+                            .inc("ganancias", venta.getGanancias())
+                            .addToSet("pendientes", marca),
+                    VentaDiaria.class
+            );
+        } catch (DuplicateKeyException e) {
+            // Ya sumada por el intento anterior
+        }
+
+        // 3. Cerrar el registro y 4. retirar la marca
+        cerrar(venta, EstadoVentaAplicada.SUMADA);
+        mongoTemplate.updateFirst(
+                new Query(Criteria.where("_id").is(venta.getIdVenta())),
+                new Update().pull("pendientes", marca),
+                VentaDiaria.class
+        );
+
+        venta.setEstado(EstadoVentaAplicada.SUMADA);
+        return true;
+    }
+
+    /**
+     * Descuenta una venta sumada de su documento del resumen.
+
+     * Flujo:
+     * 1. Reclamar el registro en SUMADA (o en DESCONTANDO si se interrumpió) y pasarlo a DESCONTANDO.
+     * 2. $inc negativo y marca "-idOrden" en la misma escritura, solo si la marca no está.
+     * 3. Cerrar el registro como DESCONTADA.
+     * 4. Retirar las marcas de la orden del documento.
+     *
+     * @return true si se descontó; false si ya estaba descontada
+     * @throws IllegalStateException si otro proceso tiene reclamada la venta; la anulación
+     *                               se reintenta con la siguiente notificación
+     */
+    private boolean descontar(VentaAplicada venta) {
+
+        LocalDateTime ahora = LocalDateTime.now();
+        String marca = "-" + venta.getIdOrden();
+
+        // 1. Reclamar el registro
+        VentaAplicada reclamada = mongoTemplate.findAndModify(
+                new Query(Criteria.where("_id").is(venta.getId())
+                        .and("estado").in(EstadoVentaAplicada.SUMADA, EstadoVentaAplicada.DESCONTANDO)
+                        .orOperator(
+                                Criteria.where("bloqueoHasta").exists(false),
+                                Criteria.where("bloqueoHasta").lt(ahora))),
+                new Update()
+                        .set("estado", EstadoVentaAplicada.DESCONTANDO)
+                        .set("bloqueoHasta", ahora.plusSeconds(segundosBloqueo)),
+                FindAndModifyOptions.options().returnNew(true),
+                VentaAplicada.class
+        );
+
+        if (reclamada == null) {
+            VentaAplicada actual = mongoTemplate.findById(venta.getId(), VentaAplicada.class);
+            if (actual == null || actual.getEstado() == EstadoVentaAplicada.DESCONTADA) {
+                return false;
+            }
+            throw new IllegalStateException("La venta " + venta.getId() + " está siendo procesada");
+        }
+
+        // 2. Descontar con la marca; si ya está, un intento interrumpido ya descontó
+        mongoTemplate.updateFirst(
+                new Query(Criteria.where("_id").is(venta.getIdVenta()).and("pendientes").ne(marca)),
+                new Update()
+                        .inc("entradasVendidas", -reclamada.getEntradasVendidas())
+                        .inc("ganancias", -reclamada.getGanancias())
+                        .addToSet("pendientes", marca),
+                VentaDiaria.class
+        );
+
+        // 3. Cerrar el registro y 4. retirar las marcas de la orden
+        cerrar(venta, EstadoVentaAplicada.DESCONTADA);
+        mongoTemplate.updateFirst(
+                new Query(Criteria.where("_id").is(venta.getIdVenta())),
+                new Update().pullAll("pendientes", new Object[]{marca, "+" + venta.getIdOrden()}),
+                VentaDiaria.class
+        );
+
+        return true;
+    }
+
+    /**
+     * Deja el registro de la venta en el estado final indicado y sin bloqueo.
+     */
+    private void cerrar(VentaAplicada venta, EstadoVentaAplicada estado) {
+        mongoTemplate.updateFirst(
+                new Query(Criteria.where("_id").is(venta.getId())),
+                new Update().set("estado", estado).unset("bloqueoHasta"),
+                VentaAplicada.class
+        );
+    }
+
+    @Override
+    public List<VentaLocalidadDTO> obtenerVentasPorLocalidad(String idEvento) {
+        return ventaDiariaRepo.sumarVentasPorLocalidad(idEvento);
+    }
+
+    @Override
+    public List<VentaEventoDTO> obtenerVentasPorEvento(Collection<String> idsEventos) {
+
+        if (idsEventos.isEmpty()) {
+            return List.of();
+        }
+
+        return ventaDiariaRepo.sumarVentasPorEvento(idsEventos);
+    }
+
+    @Override
+    public long reconstruirResumen() {
+
+        String dia = "{ $dateToString: { format: '%Y-%m-%d', " +
+                "date: { $ifNull: [ '$pago.fecha', '$fecha' ] }, " +
+                "timezone: '" + TimeZone.getDefault().getID() + "' } }";
+
+        // 1. Venta de cada orden pagada por (evento, localidad, día), calculada en MongoDB;
+        //    $out reemplaza "ventas_aplicadas" de una sola vez y conserva sus índices
+        mongoTemplate.getCollection("ordenes").aggregate(List.of(
+                Document.parse("{ $match: { estado: 'PAGADA' } }"),
+                Document.parse("{ $set: { dia: " + dia + " } }"),
+                Document.parse("{ $unwind: '$items' }"),
+                Document.parse("{ $group: { " +
+                        "_id: { idOrden: { $toString: '$_id' }, idEvento: '$items.idEvento', " +
+                        "nombreLocalidad: '$items.nombreLocalidad', dia: '$dia' }, " +
+                        "entradasVendidas: { $sum: '$items.cantidad' }, " +
+                        "ganancias: { $sum: { $multiply: [ '$items.cantidad', '$items.precioUnitario' ] } } " +
+                        "} }"),
+                Document.parse("{ $set: { idVenta: { $concat: [ " +
+                        "'$_id.idEvento', '|', '$_id.nombreLocalidad', '|', '$_id.dia' ] } } }"),
+                Document.parse("{ $project: { " +
+                        "_id: { $concat: [ '$_id.idOrden', '|', '$idVenta' ] }, " +
+                        "idOrden: '$_id.idOrden', " +
+                        "idVenta: 1, " +
+                        "idEvento: '$_id.idEvento', " +
+                        "nombreLocalidad: '$_id.nombreLocalidad', " +
+                        "dia: '$_id.dia', " +
+                        "entradasVendidas: 1, " +
+                        "ganancias: 1, " +
+                        "estado: { $literal: 'SUMADA' } " +
+                        "} }"),
+                Document.parse("{ $out: 'ventas_aplicadas' }")
+        )).toCollection();
+
+        // 2. Resumen por (evento, localidad, día) a partir de las ventas registradas
+        mongoTemplate.getCollection("ventas_aplicadas").aggregate(List.of(
+                Document.parse("{ $group: { " +
+                        "_id: '$idVenta', " +
+                        "idEvento: { $first: '$idEvento' }, " +
+                        "nombreLocalidad: { $first: '$nombreLocalidad' }, " +
+                        "dia: { $first: '$dia' }, " +
+                        "entradasVendidas: { $sum: '$entradasVendidas' }, " +
+                        "ganancias: { $sum: '$ganancias' } " +
+                        "} }"),
+                Document.parse("{ $set: { pendientes: { $literal: [] } } }"),
+                Document.parse("{ $out: 'ventas_diarias' }")
+        )).toCollection();
+
+        return mongoTemplate.getCollection("ventas_diarias").countDocuments();
+    }
+
+    /**
+     * Agrupa los ítems de la orden por documento de resumen (evento, localidad, día).
+     */
+    private static List<VentaAplicada> agrupar(Orden orden, String dia) {
+
+        Map<String, VentaAplicada> ventas = new LinkedHashMap<>();
+
+        for (DetalleOrden item : orden.getItems()) {
+
+            String idVenta = item.getIdEvento() + "|" + item.getNombreLocalidad() + "|" + dia;
+
+            VentaAplicada venta = ventas.computeIfAbsent(idVenta, llave -> VentaAplicada.builder()
+                    .id(orden.getId() + "|" + llave)
+                    .idOrden(orden.getId())
+                    .idVenta(llave)
+                    .idEvento(item.getIdEvento())
+                    .nombreLocalidad(item.getNombreLocalidad())
+                    .dia(dia)
+                    .estado(EstadoVentaAplicada.SUMANDO)
+                    .build());
+
+            venta.setEntradasVendidas(venta.getEntradasVendidas() + item.getCantidad());
+            venta.setGanancias(venta.getGanancias() + item.getCantidad() * item.getPrecioUnitario());
+        }
+
+        return new ArrayList<>(ventas.values());
+    }
+
+    /**
+     * Día de la venta (yyyy-MM-dd): fecha del pago o, si no existe, de la orden.
+     */
+    private static String diaVenta(Orden orden) {
+
+        LocalDateTime fecha = orden.getPago() != null && orden.getPago().getFecha() != null
+                ? orden.getPago().getFecha()
+                : orden.getFecha();
+
+        return (fecha != null ? fecha : LocalDateTime.now()).toLocalDate().toString();
+    }
+}
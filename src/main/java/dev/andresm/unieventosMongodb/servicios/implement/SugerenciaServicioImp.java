@@ -0,0 +1,323 @@
+package dev.andresm.unieventosMongodb.servicios.implement;
+
+import dev.andresm.unieventosMongodb.documentos.EstadoEvento;
+import dev.andresm.unieventosMongodb.documentos.Evento;
+import dev.andresm.unieventosMongodb.dto.evento.SugerenciaEventoDTO;
+import dev.andresm.unieventosMongodb.repositorios.EventoRepo;
+import dev.andresm.unieventosMongodb.servicios.interfaces.SugerenciaServicio;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Implementación del autocompletado de eventos con un trie en memoria.
+
+ * Cada nombre se normaliza (minúsculas, sin tildes, espacios simples) y se
+ * inserta una vez por cada palabra en la que empieza, así "Festival de Rock"
+ * aparece al escribir "fes", "de" o "roc".
+
+ * Flujo de una sugerencia:
+ * 1. Normalizar el prefijo.
+ * 2. Descender por el trie un nodo por carácter.
+ * 3. Recorrer el subárbol en orden alfabético hasta completar el límite.
+
+ * Las lecturas comparten un bloqueo de lectura; las actualizaciones (poco
+ * frecuentes) usan el bloqueo de escritura. Las que llegan mientras se
+ * reconstruye el índice se anotan y se repiten sobre el índice nuevo
+ * antes de reemplazar el actual.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SugerenciaServicioImp implements SugerenciaServicio {
+
+    private static final int LIMITE_SUGERENCIAS = 10;
+    private static final int LIMITE_SUGERENCIAS_MAXIMO = 20;
+
+    private final EventoRepo eventoRepo;
+
+    private final ReadWriteLock bloqueo = new ReentrantReadWriteLock();
+
+    private Nodo raiz = new Nodo();
+
+    /**
+     * Claves insertadas por cada evento, para poder retirarlas al editar o eliminar.
+     */
+    private Map<String, List<String>> clavesPorEvento = new HashMap<>();
+
+    /**
+     * Actualizaciones recibidas durante una reconstrucción, por id de evento
+     * (null si el evento se eliminó). Es null cuando no hay reconstrucción en curso.
+     */
+    private Map<String, Evento> cambiosDuranteReconstruccion;
+
+    /**
+     * Nodo del trie. Los hijos se guardan ordenados para recorrer
+     * las sugerencias en orden alfabético.
+     */
+    private static class Nodo {
+        private final TreeMap<Character, Nodo> hijos = new TreeMap<>();
+        private final TreeMap<String, String> eventos = new TreeMap<>();
+    }
+
+    /**
+     * Construye el índice cuando la aplicación termina de iniciar.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void inicializar() {
+
+        try {
+            reconstruir();
+        } catch (Exception e) {
+            log.warn("No fue posible construir el índice de sugerencias", e);
+        }
+    }
+
+    @Override
+    public synchronized void reconstruir() {
+
+        // 1. Empezar a anotar las actualizaciones antes de consultar los eventos
+        bloqueo.writeLock().lock();
+        try {
+            cambiosDuranteReconstruccion = new LinkedHashMap<>();
+        } finally {
+            bloqueo.writeLock().unlock();
+        }
+
+        Nodo nuevaRaiz = new Nodo();
+        Map<String, List<String>> nuevasClaves = new HashMap<>();
+
+        try {
+            // 2. Construir un índice nuevo solo con nombre e id de los eventos activos
+            for (Evento evento : eventoRepo.buscarNombresPorEstado(EstadoEvento.ACTIVO)) {
+                nuevasClaves.put(evento.getId(), insertar(nuevaRaiz, evento.getId(), evento.getNombre()));
+            }
+        } catch (RuntimeException e) {
+            bloqueo.writeLock().lock();
+            try {
+                cambiosDuranteReconstruccion = null;
+            } finally {
+                bloqueo.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        // 3. Repetir sobre el índice nuevo las actualizaciones recibidas
+        //    mientras se construía y reemplazar el índice actual
+        bloqueo.writeLock().lock();
+        try {
+            for (Map.Entry<String, Evento> cambio : cambiosDuranteReconstruccion.entrySet()) {
+                aplicar(nuevaRaiz, nuevasClaves, cambio.getKey(), cambio.getValue());
+            }
+
+            raiz = nuevaRaiz;
+            clavesPorEvento = nuevasClaves;
+            cambiosDuranteReconstruccion = null;
+        } finally {
+            bloqueo.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void actualizarEvento(Evento evento) {
+        registrarCambio(evento.getId(), evento);
+    }
+
+    @Override
+    public void eliminarEvento(String idEvento) {
+        registrarCambio(idEvento, null);
+    }
+
+    @Override
+    public List<SugerenciaEventoDTO> sugerir(String prefijo, Integer limite) {
+
+        String clave = normalizar(prefijo);
+
+        if (clave.isEmpty()) {
+            return List.of();
+        }
+
+        int maximo = (limite == null || limite <= 0) ? LIMITE_SUGERENCIAS : Math.min(limite, LIMITE_SUGERENCIAS_MAXIMO);
+
+        bloqueo.readLock().lock();
+        try {
+            // 1. Descender hasta el nodo del prefijo
+            Nodo nodo = raiz;
+            for (char caracter : clave.toCharArray()) {
+                nodo = nodo.hijos.get(caracter);
+                if (nodo == null) {
+                    return List.of();
+                }
+            }
+
+            // 2. Recolectar eventos del subárbol sin repetir (un evento puede
+            //    estar varias veces, una por cada palabra de su nombre)
+            Map<String, String> encontrados = new LinkedHashMap<>();
+            recolectar(nodo, encontrados, maximo);
+
+            return encontrados.entrySet().stream()
+                    .map(entrada -> new SugerenciaEventoDTO(entrada.getKey(), entrada.getValue()))
+                    .toList();
+
+        } finally {
+            bloqueo.readLock().unlock();
+        }
+    }
+
+    /* =====================   MÉTODOS AUXILIARES   ========================================= */
+
+    /**
+     * Aplica una actualización al índice actual y, si hay una reconstrucción
+     * en curso, la anota para repetirla sobre el índice nuevo.
+     *
+     * @param evento evento actualizado, o null si se eliminó
+     */
+    private void registrarCambio(String idEvento, Evento evento) {
+
+        bloqueo.writeLock().lock();
+        try {
+            aplicar(raiz, clavesPorEvento, idEvento, evento);
+
+            if (cambiosDuranteReconstruccion != null) {
+                cambiosDuranteReconstruccion.remove(idEvento);
+                cambiosDuranteReconstruccion.put(idEvento, evento);
+            }
+        } finally {
+            bloqueo.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Retira el nombre anterior del evento y, si sigue activo, inserta el nuevo.
+     *
+     * @param evento evento actualizado, o null si se eliminó
+     */
+    private void aplicar(Nodo raizTrie, Map<String, List<String>> claves, String idEvento, Evento evento) {
+
+        // 1. Retirar el nombre anterior
+        retirar(raizTrie, claves, idEvento);
+
+        // 2. Solo los eventos activos se sugieren
+        if (evento != null && evento.getEstado() == EstadoEvento.ACTIVO && evento.getNombre() != null) {
+            claves.put(idEvento, insertar(raizTrie, idEvento, evento.getNombre()));
+        }
+    }
+
+    /**
+     * Inserta el nombre en el trie desde el inicio de cada palabra.
+     *
+     * @return claves insertadas
+     */
+    private List<String> insertar(Nodo raizTrie, String idEvento, String nombre) {
+
+        String normalizado = normalizar(nombre);
+        List<String> claves = new ArrayList<>();
+
+        for (int inicio = 0; inicio < normalizado.length(); inicio++) {
+
+            if (inicio > 0 && normalizado.charAt(inicio - 1) != ' ') {
+                continue;
+            }
+
+            String clave = normalizado.substring(inicio);
+            Nodo nodo = raizTrie;
+
+            for (char caracter : clave.toCharArray()) {
+                nodo = nodo.hijos.computeIfAbsent(caracter, c -> new Nodo());
+            }
+
+            // La clave de orden es el nombre normalizado completo más el id,
+            // para mantener el orden alfabético aunque dos eventos se llamen igual
+            nodo.eventos.put(normalizado + "|" + idEvento, nombre);
+            claves.add(clave);
+        }
+
+        return claves;
+    }
+
+    /**
+     * Retira del trie todas las claves de un evento y poda los nodos vacíos.
+     */
+    private void retirar(Nodo raizTrie, Map<String, List<String>> clavesEventos, String idEvento) {
+
+        List<String> claves = clavesEventos.remove(idEvento);
+
+        if (claves == null) {
+            return;
+        }
+
+        for (String clave : claves) {
+            retirarClave(raizTrie, clave, 0, idEvento);
+        }
+    }
+
+    /**
+     * Elimina la entrada del evento al final de la clave.
+     *
+     * @return true si el nodo quedó vacío y puede podarse
+     */
+    private boolean retirarClave(Nodo nodo, String clave, int posicion, String idEvento) {
+
+        if (posicion == clave.length()) {
+            nodo.eventos.keySet().removeIf(llave -> llave.endsWith("|" + idEvento));
+        } else {
+            Nodo hijo = nodo.hijos.get(clave.charAt(posicion));
+
+            if (hijo != null && retirarClave(hijo, clave, posicion + 1, idEvento)) {
+                nodo.hijos.remove(clave.charAt(posicion));
+            }
+        }
+
+        return nodo.eventos.isEmpty() && nodo.hijos.isEmpty();
+    }
+
+    /**
+     * Recorre el subárbol en orden alfabético hasta completar el límite.
+     */
+    private void recolectar(Nodo nodo, Map<String, String> encontrados, int maximo) {
+
+        for (Map.Entry<String, String> entrada : nodo.eventos.entrySet()) {
+            if (encontrados.size() >= maximo) {
+                return;
+            }
+            String llave = entrada.getKey();
+            encontrados.putIfAbsent(llave.substring(llave.lastIndexOf('|') + 1), entrada.getValue());
+        }
+
+        for (Nodo hijo : nodo.hijos.values()) {
+            if (encontrados.size() >= maximo) {
+                return;
+            }
+            recolectar(hijo, encontrados, maximo);
+        }
+    }
+
+    /**
+     * Normaliza un texto: sin tildes, en minúsculas y con espacios simples.
+     */
+    private String normalizar(String texto) {
+
+        if (texto == null) {
+            return "";
+        }
+
+        return Normalizer.normalize(texto, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT)
+                .replaceAll("\\s+", " ")
+                .trim();
+    }
+}
@@ -0,0 +1,89 @@
+package dev.andresm.unieventosMongodb.servicios.interfaces;
+
+import dev.andresm.unieventosMongodb.documentos.DetalleOrden;
+import dev.andresm.unieventosMongodb.documentos.Orden;
+import dev.andresm.unieventosMongodb.dto.acceso.ResultadoAccesoDTO;
+import dev.andresm.unieventosMongodb.dto.acceso.ValidarAccesoDTO;
+
+/**
+ * Servicio encargado de las entradas firmadas y del control de acceso
+ * en la puerta de los eventos.
+
+ * Responsabilidades:
+ * - Numerar las entradas de cada evento al pagar una orden
+ * - Generar el contenido firmado (HMAC) que se codifica en el QR
+ * - Validar en la puerta la firma sin consultar MongoDB y detectar
+ *   entradas que ya ingresaron
+
+ * IMPORTANTE:
+ * Los ingresos se marcan en un registro en memoria por evento (un bit por
+ * número de entrada) y se guardan en MongoDB por lotes.
+ */
+public interface AccesoServicio {
+
+    /**
+     * Asigna un número de entrada a los ítems de la orden que aún no lo tienen.
+     * Los números se reservan por evento con un único $inc atómico.
+     * La orden no se guarda; queda a cargo de quien la modifica.
+     *
+     * @param orden orden pagada
+     * @return true si se asignó algún número
+     */
+    boolean asignarNumeros(Orden orden);
+
+    /**
+     * Numera las entradas de una orden ya guardada (por ejemplo, pagada antes
+     * de que existiera la numeración). Los números solo se guardan si ningún
+     * otro proceso los asignó antes; en ese caso se devuelve la orden guardada.
+     *
+     * @param orden orden pagada con ítems sin número
+     * @return orden con los números vigentes
+     */
+    Orden numerarOrden(Orden orden);
+
+    /**
+     * Genera el contenido firmado del QR de una entrada.
+
+     * Es un texto Base64 URL compacto con la versión, el evento, la orden,
+     * el número de entrada, la cantidad y la localidad, seguido de su
+     * firma HMAC-SHA256 (truncada a 128 bits).
+
+     * La entrada es grupal: un número por ítem de la orden, que en la puerta
+     * admite a la cantidad de personas del ítem en un solo ingreso.
+     *
+     * @param idOrden identificador de la orden
+     * @param detalle ítem de la orden (debe tener número de entrada)
+     * @return texto que se codifica en el QR
+     */
+    String generarCodigoEntrada(String idOrden, DetalleOrden detalle);
+
+    /**
+     * Valida una entrada escaneada en la puerta de un evento.
+
+     * La firma se verifica sin consultar MongoDB. Si es válida y la entrada
+     * no había ingresado, se marca en el registro del evento.
+     *
+     * @param validarAccesoDTO código leído y evento de la puerta
+     * @return resultado de la validación
+     */
+    ResultadoAccesoDTO validarAcceso(ValidarAccesoDTO validarAccesoDTO);
+
+    /**
+     * Revoca las entradas numeradas de una orden anulada: se guardan en
+     * "ingresos" como revocadas y se marcan en los registros cargados, de
+     * modo que la puerta las rechaza aunque la firma siga siendo válida.
+     * Las demás instancias las leen en su siguiente volcado.
+     * Es idempotente; se puede repetir al reintentar una anulación.
+     *
+     * @param orden orden anulada
+     */
+    void revocarEntradas(Orden orden);
+
+    /**
+     * Guarda en MongoDB, en un bulk por evento, los ingresos marcados
+     * desde el último volcado.
+     *
+     * @return cantidad de ingresos guardados
+     */
+    int volcarIngresos();
+}
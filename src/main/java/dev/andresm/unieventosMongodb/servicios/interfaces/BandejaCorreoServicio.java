@@ -0,0 +1,32 @@
+package dev.andresm.unieventosMongodb.servicios.interfaces;
+
+import dev.andresm.unieventosMongodb.dto.email.EmailDTO;
+
+/**
+ * Servicio encargado de la bandeja de salida de correos.
+
+ * Responsabilidades:
+ * - Registrar los correos que generan los demás servicios
+ * - Enviar por lotes los correos pendientes fuera de la petición HTTP
+ * - Reintentar los envíos fallidos y apartar los que agotan los reintentos
+
+ * IMPORTANTE:
+ * Los servicios de negocio nunca deben esperar al servidor SMTP;
+ * solo registran el correo con encolarEmail.
+ */
+public interface BandejaCorreoServicio {
+
+    /**
+     * Registra un correo en la bandeja de salida para enviarlo después.
+     *
+     * @param emailDTO destinatario, asunto y contenido del correo
+     */
+    void encolarEmail(EmailDTO emailDTO);
+
+    /**
+     * Reclama un lote de correos pendientes y los envía.
+     *
+     * @return cantidad de correos enviados en el lote
+     */
+    int despacharLote();
+}
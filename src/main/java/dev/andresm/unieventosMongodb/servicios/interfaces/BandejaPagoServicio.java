@@ -0,0 +1,36 @@
+package dev.andresm.unieventosMongodb.servicios.interfaces;
+
+import java.util.Map;
+
+/**
+ * Servicio encargado de la bandeja de entrada de notificaciones de MercadoPago.
+
+ * Responsabilidades:
+ * - Guardar cada notificación recibida y responder de inmediato a la pasarela
+ * - Procesar las notificaciones pendientes en un grupo de hilos propio
+ * - Reintentar con espera exponencial las notificaciones que fallan
+
+ * IMPORTANTE:
+ * Las notificaciones se identifican por el id del pago. Un mismo pago
+ * nunca se procesa en dos hilos a la vez y las notificaciones repetidas
+ * no generan trabajo duplicado.
+ */
+public interface BandejaPagoServicio {
+
+    /**
+     * Guarda una notificación enviada por MercadoPago en la bandeja.
+     * Las notificaciones que no son de tipo "payment" se ignoran.
+     *
+     * @param request datos enviados por MercadoPago
+     * @return true si la notificación quedó registrada
+     */
+    boolean registrarNotificacion(Map<String, Object> request);
+
+    /**
+     * Reclama notificaciones pendientes y las entrega al grupo de hilos,
+     * sin superar los hilos disponibles.
+     *
+     * @return cantidad de notificaciones despachadas
+     */
+    int despacharPendientes();
+}
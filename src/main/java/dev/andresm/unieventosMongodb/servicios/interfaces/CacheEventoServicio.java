@@ -0,0 +1,49 @@
+package dev.andresm.unieventosMongodb.servicios.interfaces;
+
+import dev.andresm.unieventosMongodb.dto.evento.CatalogoEventoDTO;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Caché en memoria de eventos para lecturas de catálogo.
+
+ * Responsabilidades:
+ * - Leer un evento por id, consultando MongoDB solo si no está en caché
+ * - Limitar la caché por cantidad de eventos y por tiempo de vida
+ * - Invalidar un evento cuando se edita o elimina
+
+ * IMPORTANTE:
+ * La caché solo guarda copias inmutables con los datos de catálogo
+ * (nombre, fecha, ciudad, nombre y precio de las localidades). Las
+ * entradas vendidas y el porcentaje de venta cambian con cada compra,
+ * por lo que siempre se consultan en MongoDB (InventarioServicio o EventoRepo).
+ */
+public interface CacheEventoServicio {
+
+    /**
+     * Obtiene los datos de catálogo de un evento desde la caché o,
+     * si no está, desde MongoDB.
+     *
+     * @param idEvento identificador del evento
+     * @return datos de catálogo del evento si existe
+     */
+    Optional<CatalogoEventoDTO> obtenerEvento(String idEvento);
+
+    /**
+     * Obtiene varios eventos a la vez. Los que no están en caché
+     * se leen de MongoDB con una única consulta $in.
+     *
+     * @param idsEventos identificadores de los eventos (pueden repetirse)
+     * @return mapa id → datos de catálogo de los eventos existentes
+     */
+    Map<String, CatalogoEventoDTO> obtenerEventos(Collection<String> idsEventos);
+
+    /**
+     * Retira un evento de la caché.
+     *
+     * @param idEvento identificador del evento
+     */
+    void invalidar(String idEvento);
+}
@@ -0,0 +1,62 @@
+package dev.andresm.unieventosMongodb.servicios.interfaces;
+
+import dev.andresm.unieventosMongodb.dto.campana.CrearCampanaDTO;
+import dev.andresm.unieventosMongodb.dto.campana.ProgresoCampanaDTO;
+
+import java.util.List;
+
+/**
+ * Servicio encargado de las campañas de correos masivos.
+
+ * Responsabilidades:
+ * - Crear campañas de cupones o anuncios de eventos para los clientes activos
+ * - Enviarlas en segundo plano por lotes y con un límite de correos por minuto
+ * - Consultar su avance, pausarlas y reanudarlas
+
+ * IMPORTANTE:
+ * Los destinatarios se leen con un cursor de MongoDB por lotes;
+ * nunca se cargan todas las cuentas en memoria.
+ */
+public interface CampanaServicio {
+
+    /**
+     * Crea una campaña y comienza su envío en segundo plano.
+     *
+     * @param crearCampanaDTO asunto, mensaje y, opcionalmente, cupón y evento a anunciar
+     * @return id de la campaña creada
+     * @throws Exception si el cupón o el evento no existen
+     */
+    String crearCampana(CrearCampanaDTO crearCampanaDTO) throws Exception;
+
+    /**
+     * Consulta el avance de una campaña.
+     *
+     * @param id identificador de la campaña
+     * @return progreso de la campaña
+     * @throws Exception si la campaña no existe
+     */
+    ProgresoCampanaDTO obtenerProgreso(String id) throws Exception;
+
+    /**
+     * Lista el avance de todas las campañas, de la más reciente a la más antigua.
+     *
+     * @return progreso de cada campaña
+     */
+    List<ProgresoCampanaDTO> listarCampanas();
+
+    /**
+     * Detiene el envío de una campaña al terminar el lote en curso.
+     *
+     * @param id identificador de la campaña
+     * @throws Exception si la campaña no existe o no está en curso
+     */
+    void pausarCampana(String id) throws Exception;
+
+    /**
+     * Reanuda una campaña pausada o fallida desde la última cuenta procesada.
+     *
+     * @param id identificador de la campaña
+     * @throws Exception si la campaña no existe o no está pausada ni fallida
+     */
+    void reanudarCampana(String id) throws Exception;
+}
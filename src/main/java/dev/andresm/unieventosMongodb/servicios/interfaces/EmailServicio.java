@@ -1,6 +1,10 @@
 package dev.andresm.unieventosMongodb.servicios.interfaces;
 
 import dev.andresm.unieventosMongodb.dto.email.EmailDTO;
+import dev.andresm.unieventosMongodb.dto.email.EstadisticasEmailDTO;
+import dev.andresm.unieventosMongodb.dto.email.ResultadoEmailDTO;
+
+import java.util.List;
 
 /**
  * 🔹 Servicio de envío de correos electrónicos.
@@ -19,4 +23,20 @@ public interface EmailServicio {
      * @throws Exception si ocurre un error durante el envío
      */
     boolean enviarEmail(EmailDTO emailDTO) throws Exception;
+
+    /**
+     * 🔹 Enviar varios correos reutilizando las conexiones SMTP abiertas.
+     *
+     * @param correos correos a enviar
+     * @return resultado de cada correo, en el mismo orden recibido
+     */
+    List<ResultadoEmailDTO> enviarEmails(List<EmailDTO> correos);
+
+    /**
+     * 🔹 Consultar las métricas de envío (correos enviados, fallidos,
+     * conexiones y rendimiento).
+     *
+     * @return métricas acumuladas desde el inicio de la aplicación
+     */
+    EstadisticasEmailDTO obtenerEstadisticas();
 }
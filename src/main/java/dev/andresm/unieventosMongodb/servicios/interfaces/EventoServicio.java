@@ -59,6 +59,16 @@ public interface EventoServicio {
      */
     List<ItemEventoDTO> listarEventos();
 
+    /**
+     * - Listar una página de eventos ordenados por fecha.
+     *
+     * @param cursor cursor recibido en la página anterior (null para la primera)
+     * @param tamano cantidad de eventos por página (se limita a un máximo)
+     * @return página de eventos y cursor de la siguiente
+     * @throws Exception si el cursor no es válido
+     */
+    PaginaEventosDTO listarEventos(String cursor, Integer tamano) throws Exception;
+
     /**
      * - Listar eventos disponibles para los clientes.
 
@@ -73,6 +83,17 @@ public interface EventoServicio {
      */
     List<ItemEventoDTO> listarEventosCliente();
 
+    /**
+     * - Listar una página de eventos disponibles para los clientes
+     *   (ACTIVOS y con fecha posterior a la actual).
+     *
+     * @param cursor cursor recibido en la página anterior (null para la primera)
+     * @param tamano cantidad de eventos por página (se limita a un máximo)
+     * @return página de eventos y cursor de la siguiente
+     * @throws Exception si el cursor no es válido
+     */
+    PaginaEventosDTO listarEventosCliente(String cursor, Integer tamano) throws Exception;
+
     /**
      * - Verificar la disponibilidad de una localidad dentro de un evento.
      *
@@ -110,6 +131,40 @@ public interface EventoServicio {
      */
     List<ItemEventoDTO> filtrarEventos(FiltroEventoDTO filtroEventoDTO);
 
+    /**
+     * Filtra eventos activos y retorna una página del resultado.
+     *
+     * @param filtroEventoDTO DTO con los criterios de filtrado.
+     * @param cursor cursor recibido en la página anterior (null para la primera)
+     * @param tamano cantidad de eventos por página (se limita a un máximo)
+     * @return página de eventos y cursor de la siguiente
+     * @throws Exception si el cursor no es válido
+     */
+    PaginaEventosDTO filtrarEventos(FiltroEventoDTO filtroEventoDTO, String cursor, Integer tamano) throws Exception;
+
+    /**
+     * Obtiene sugerencias de autocompletado para el nombre de un evento.
+     * Se responden desde memoria, sin consultar MongoDB.
+     *
+     * @param prefijo texto escrito por el usuario
+     * @param limite cantidad máxima de sugerencias
+     * @return eventos activos cuyo nombre coincide con el prefijo
+     */
+    List<SugerenciaEventoDTO> sugerirEventos(String prefijo, Integer limite);
+
+    /**
+     * Busca eventos activos por texto en nombre, descripción y ciudad.
+
+     * Los resultados se ordenan por relevancia y se retornan por páginas.
+     *
+     * @param texto palabras a buscar
+     * @param pagina número de página (inicia en 0)
+     * @param tamano cantidad de eventos por página (se limita a un máximo)
+     * @return página de eventos encontrados
+     * @throws Exception si el texto está vacío
+     */
+    BusquedaEventoDTO buscarEventosTexto(String texto, Integer pagina, Integer tamano) throws Exception;
+
     /**
      * - Listar eventos filtrados por ciudad.
      *
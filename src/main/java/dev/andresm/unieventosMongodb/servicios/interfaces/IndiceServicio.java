@@ -0,0 +1,31 @@
+package dev.andresm.unieventosMongodb.servicios.interfaces;
+
+import dev.andresm.unieventosMongodb.dto.indices.ReporteIndiceDTO;
+
+import java.util.List;
+
+/**
+ * Servicio encargado de los índices de MongoDB que usan los repositorios.
+
+ * Responsabilidades:
+ * - Crear los índices declarados si no existen
+ * - Reportar los índices faltantes y los que no se están usando
+ */
+public interface IndiceServicio {
+
+    /**
+     * Crea todos los índices declarados.
+     * Un índice que no se pueda crear (por ejemplo, por datos duplicados
+     * en un índice único) no detiene la creación de los demás.
+     *
+     * @return cantidad de índices que no se pudieron crear
+     */
+    int crearIndices();
+
+    /**
+     * Compara los índices declarados con los existentes en MongoDB.
+     *
+     * @return estado de cada índice declarado y de los índices adicionales encontrados
+     */
+    List<ReporteIndiceDTO> generarReporteIndices();
+}
@@ -0,0 +1,96 @@
+package dev.andresm.unieventosMongodb.servicios.interfaces;
+
+import dev.andresm.unieventosMongodb.dto.inventario.MovimientoInventarioDTO;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Servicio encargado del inventario de entradas de los eventos.
+
+ * Responsabilidades:
+ * - Reservar entradas de una localidad sin superar su capacidad máxima
+ * - Liberar entradas reservadas previamente
+ * - Mantener actualizado el porcentaje de venta de las localidades
+
+ * IMPORTANTE:
+ * Todas las operaciones se ejecutan como una única actualización
+ * condicional en MongoDB. Nunca se carga el evento completo para
+ * modificarlo en memoria y volver a guardarlo.
+ */
+public interface InventarioServicio {
+
+    /**
+     * Reserva entradas en una localidad de un evento.
+
+     * La reserva solo se aplica si, después de sumar la cantidad,
+     * las entradas vendidas no superan la capacidad máxima.
+     *
+     * @param idEvento identificador del evento
+     * @param nombreLocalidad nombre de la localidad dentro del evento
+     * @param cantidad cantidad de entradas a reservar
+     * @return true si la reserva se aplicó, false si el evento o la localidad
+     *         no existen o no hay entradas suficientes
+     */
+    boolean reservarEntradas(String idEvento, String nombreLocalidad, int cantidad);
+
+    /**
+     * Verifica en MongoDB si una localidad tiene entradas disponibles
+     * para la cantidad indicada, sin modificar el inventario.
+
+     * La condición se evalúa en el servidor sobre los valores vigentes,
+     * por lo que no se transfiere el evento completo.
+     *
+     * @param idEvento identificador del evento
+     * @param nombreLocalidad nombre de la localidad dentro del evento
+     * @param cantidad cantidad de entradas requeridas
+     * @return true si la localidad existe y tiene entradas suficientes
+     */
+    boolean hayDisponibilidad(String idEvento, String nombreLocalidad, int cantidad);
+
+    /**
+     * Libera entradas reservadas previamente en una localidad.
+
+     * La liberación solo se aplica si la localidad tiene al menos
+     * la cantidad indicada, evitando valores negativos.
+     *
+     * @param idEvento identificador del evento
+     * @param nombreLocalidad nombre de la localidad dentro del evento
+     * @param cantidad cantidad de entradas a liberar
+     * @return true si la liberación se aplicó
+     */
+    boolean liberarEntradas(String idEvento, String nombreLocalidad, int cantidad);
+
+    /**
+     * Libera por lote las entradas de varios movimientos.
+
+     * Los movimientos de una misma localidad se agrupan y todo el lote
+     * se envía a MongoDB en una sola escritura bulk.
+     *
+     * @param movimientos entradas a devolver por evento y localidad
+     * @return cantidad de localidades actualizadas
+     */
+    int liberarEntradas(List<MovimientoInventarioDTO> movimientos);
+
+    /**
+     * Registra la venta de una orden pagada en una sola escritura bulk ordenada.
+
+     * Primero se suman las entradas de cada localidad (solo si no superan
+     * su capacidad) y después se recalcula el porcentaje de venta de cada
+     * evento indicado, sin cargar ni reescribir los eventos completos.
+     *
+     * @param movimientos entradas a sumar por evento y localidad
+     * @param idsEventos eventos cuyo porcentaje de venta se debe recalcular
+     * @return true si todas las localidades se actualizaron, false si alguna
+     *         no existe o no tenía entradas suficientes
+     */
+    boolean registrarVenta(List<MovimientoInventarioDTO> movimientos, Collection<String> idsEventos);
+
+    /**
+     * Recalcula el porcentaje de venta de todas las localidades de un evento
+     * a partir de sus entradas vendidas y su capacidad máxima.
+     *
+     * @param idEvento identificador del evento
+     */
+    void recalcularPorcentajeVenta(String idEvento);
+}
@@ -5,6 +5,7 @@ import dev.andresm.unieventosMongodb.dto.orden.CrearOrdenDTO;
 import dev.andresm.unieventosMongodb.dto.orden.ItemOrdenDTO;
 import dev.andresm.unieventosMongodb.dto.orden.OrdenDetalleDTO;
 
+import java.io.OutputStream;
 import java.util.List;
 
 /**
@@ -70,6 +71,41 @@ public interface OrdenServicio {
      */
     OrdenDetalleDTO obtenerItemsOrden(String idOrden) throws Exception;
 
+    /**
+     * Obtiene una orden pagada con todas sus entradas numeradas.
+
+     * @param idOrden identificador único de la orden
+     * @param idCliente cuenta que solicita las entradas (del token)
+     * @return orden pagada
+     * @throws Exception si la orden no existe, no ha sido pagada
+     *                   o no pertenece a la cuenta
+     */
+    Orden obtenerOrdenPagada(String idOrden, String idCliente) throws Exception;
+
+    /**
+     * Obtiene el contenido del código QR de una entrada de la orden.
+
+     * @param idOrden identificador único de la orden
+     * @param indice posición del ítem dentro de la orden (desde 0)
+     * @param idCliente cuenta que solicita la entrada (del token)
+     * @return texto que se codifica en el QR de la entrada
+     * @throws Exception si la orden o la entrada no existen, la orden no ha sido
+     *                   pagada o no pertenece a la cuenta
+     */
+    String obtenerContenidoEntrada(String idOrden, int indice, String idCliente) throws Exception;
+
+    /**
+     * Escribe en el flujo de salida un PDF con una página por entrada
+     * de la orden (evento, localidad, cantidad de personas y QR).
+     * Cada ítem es una entrada grupal: su QR admite a todas sus personas
+     * en un solo ingreso, y la página indica cuántas son.
+     *
+     * @param orden orden pagada (ver obtenerOrdenPagada)
+     * @param salida flujo donde se escribe el PDF
+     * @throws Exception si ocurre un error al generar el PDF
+     */
+    void generarPDFEntradas(Orden orden, OutputStream salida) throws Exception;
+
     /**
      * Valida si un cliente puede aplicar el cupón de primera compra.
      * Un cliente solo puede usar este cupón si no tiene órdenes registradas.
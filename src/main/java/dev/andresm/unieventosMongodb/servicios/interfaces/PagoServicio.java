@@ -3,8 +3,6 @@ package dev.andresm.unieventosMongodb.servicios.interfaces;
 import com.mercadopago.resources.payment.Payment;
 import com.mercadopago.resources.preference.Preference;
 
-import java.util.Map;
-
 /**
  * Servicio encargado de la gestión de pagos en la plataforma.
 
@@ -38,9 +36,13 @@ public interface PagoServicio {
     Payment obtenerPago(Long idPago) throws Exception;
 
     /**
-     * Procesa una notificación enviada por MercadoPago (Webhook).
+     * Aplica a su orden un pago notificado por MercadoPago (Webhook).
 
-     * @param request mapa con los datos enviados por MercadoPago
+     * Las notificaciones llegan primero a la bandeja de pagos, que invoca
+     * este método fuera de la petición HTTP y lo reintenta si falla.
+     *
+     * @param idPago identificador del pago en la pasarela
+     * @throws Exception si no es posible consultar el pago o actualizar la orden
      */
-   void procesarWebhook(Map<String, Object> request);
+    void procesarPago(Long idPago) throws Exception;
 }
@@ -0,0 +1,52 @@
+package dev.andresm.unieventosMongodb.servicios.interfaces;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Servicio encargado de las plantillas HTML de los correos.
+
+ * Responsabilidades:
+ * - Compilar una sola vez, al iniciar, las plantillas de resources/plantillas
+ * - Generar el HTML de un correo a partir de una plantilla y un modelo
+
+ * Sintaxis de las plantillas:
+ * - {{variable}}   → valor del modelo escapado como HTML
+ * - {{{variable}}} → valor del modelo sin escapar (fragmentos HTML ya generados)
+ */
+public interface PlantillaServicio {
+
+    /**
+     * Genera el HTML de una plantilla con los valores del modelo.
+     * Las variables que no estén en el modelo (o cuyo valor sea null)
+     * se dejan vacías.
+     *
+     * @param nombre nombre del archivo de la plantilla sin la extensión .html
+     * @param modelo valores de las variables de la plantilla
+     * @return HTML generado
+     * @throws Exception si la plantilla no existe
+     */
+    String renderizar(String nombre, Map<String, ?> modelo) throws Exception;
+
+    /**
+     * Construye un modelo a partir de pares clave, valor.
+
+     * A diferencia de Map.of, admite valores null (por ejemplo, un dato
+     * opcional del evento o de la cuenta); esas variables quedan vacías.
+     *
+     * @param claveValor claves (String) y valores intercalados
+     * @return modelo para renderizar
+     */
+    static Map<String, Object> modelo(Object... claveValor) {
+
+        if (claveValor.length % 2 != 0) {
+            throw new IllegalArgumentException("El modelo debe tener pares clave, valor");
+        }
+
+        Map<String, Object> modelo = new HashMap<>();
+        for (int i = 0; i < claveValor.length; i += 2) {
+            modelo.put((String) claveValor[i], claveValor[i + 1]);
+        }
+        return modelo;
+    }
+}
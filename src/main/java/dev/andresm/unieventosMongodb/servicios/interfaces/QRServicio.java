@@ -1,5 +1,8 @@
 package dev.andresm.unieventosMongodb.servicios.interfaces;
 
+import java.util.Collection;
+import java.util.Map;
+
 /**
  * Servicio encargado de generar códigos QR
  * para las entradas de los eventos.
@@ -17,4 +20,47 @@ public interface QRServicio {
      * @throws Exception si ocurre un error al generar el QR
      */
     String generarQR(String contenido) throws Exception;
+
+    /**
+     * Genera un código QR en formato SVG a partir de un texto.
+     * El SVG escala a cualquier tamaño sin perder nitidez.
+     *
+     * @param contenido información que tendrá el QR
+     * @return documento SVG del QR
+     * @throws Exception si ocurre un error al generar el QR
+     */
+    String generarSVG(String contenido) throws Exception;
+
+    /**
+     * Obtiene las imágenes PNG de varios QR.
+
+     * Los QR ya generados se leen de la colección "codigos_qr" en una sola
+     * consulta; los que falten se generan una única vez y se guardan.
+     *
+     * @param contenidos información de cada QR
+     * @return imagen PNG por cada contenido
+     * @throws Exception si ocurre un error al generar algún QR
+     */
+    Map<String, byte[]> obtenerImagenes(Collection<String> contenidos) throws Exception;
+
+    /**
+     * Obtiene la imagen PNG de un QR, leyéndola de "codigos_qr"
+     * o generándola y guardándola si aún no existe.
+     *
+     * @param contenido información que tendrá el QR
+     * @return imagen PNG del QR
+     * @throws Exception si ocurre un error al generar el QR
+     */
+    byte[] obtenerImagen(String contenido) throws Exception;
+
+    /**
+     * Calcula el ETag de la imagen de un QR sin generarla.
+     * Depende del contenido, del formato y de la configuración de la imagen,
+     * por lo que solo cambia cuando cambia la imagen.
+     *
+     * @param contenido información que tendrá el QR
+     * @param formato formato de la imagen (png o svg)
+     * @return ETag entre comillas, listo para la cabecera HTTP
+     */
+    String generarEtag(String contenido, String formato);
 }
@@ -1,7 +1,9 @@
 package dev.andresm.unieventosMongodb.servicios.interfaces;
 
 import dev.andresm.unieventosMongodb.documentos.Reporte;
+import dev.andresm.unieventosMongodb.dto.reportes.GenerarReporteConsolidadoDTO;
 import dev.andresm.unieventosMongodb.dto.reportes.GenerarReporteDTO;
+import dev.andresm.unieventosMongodb.dto.reportes.ReporteConsolidadoDTO;
 
 import java.io.OutputStream;
 
@@ -10,8 +12,9 @@ import java.io.OutputStream;
 
  * Responsabilidades:
  * - Generar reportes de ventas por evento
+ * - Generar reportes consolidados de varios eventos (rango de fechas u organizador)
  * - Calcular estadísticas (ganancias, porcentajes)
- * - Exportar reportes en formato PDF
+ * - Exportar reportes en formato PDF y CSV
  */
 public interface ReporteServicio {
 
@@ -20,8 +23,7 @@ public interface ReporteServicio {
 
      * Flujo:
      * - Obtiene el evento desde la base de datos
-     * - Consulta las órdenes asociadas
-     * - Calcula ventas por localidad
+     * - Lee las ventas por localidad del resumen diario de ventas
      * - Calcula ganancias totales
      * - Calcula porcentaje de ocupación
 
@@ -40,4 +42,38 @@ public interface ReporteServicio {
      */
     void generarPDF(Reporte reporte, OutputStream outputStream) throws Exception;
 
+
+    /**
+     * Genera un reporte de ventas de todos los eventos de un rango de fechas
+     * y/o de un organizador.
+
+     * Flujo:
+     * - Busca los eventos que cumplen los criterios
+     * - Calcula las ventas de cada evento en paralelo (ejecutor de reportes)
+     * - Une los resultados en el total y en el detalle por evento, ciudad y tipo
+     *
+     * @param generarReporteConsolidadoDTO rango de fechas y/o organizador
+     * @return reporte consolidado
+     * @throws Exception si los criterios no son válidos o hay demasiados eventos
+     */
+    ReporteConsolidadoDTO generarReporteConsolidado(GenerarReporteConsolidadoDTO generarReporteConsolidadoDTO) throws Exception;
+
+    /**
+     * Genera un archivo PDF a partir de un reporte consolidado.
+     *
+     * @param reporte reporte consolidado
+     * @param outputStream flujo de salida del archivo PDF
+     * @throws Exception si ocurre un error al generar el documento
+     */
+    void generarPDFConsolidado(ReporteConsolidadoDTO reporte, OutputStream outputStream) throws Exception;
+
+    /**
+     * Genera un archivo CSV (UTF-8, separado por comas) a partir de un
+     * reporte consolidado: una fila de total y una por tipo, ciudad y evento.
+     *
+     * @param reporte reporte consolidado
+     * @param outputStream flujo de salida del archivo CSV
+     * @throws Exception si ocurre un error al escribir el archivo
+     */
+    void generarCSVConsolidado(ReporteConsolidadoDTO reporte, OutputStream outputStream) throws Exception;
 }
@@ -0,0 +1,84 @@
+package dev.andresm.unieventosMongodb.servicios.interfaces;
+
+import dev.andresm.unieventosMongodb.documentos.DetalleCarrito;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Servicio encargado de las reservas temporales de entradas del carrito.
+
+ * Responsabilidades:
+ * - Registrar una reserva con vencimiento por cada detalle del carrito
+ * - Reclamar una reserva vigente cuando el detalle se edita, elimina o paga
+ * - Liberar por lotes las reservas vencidas
+
+ * IMPORTANTE:
+ * Las entradas de una reserva las devuelve únicamente quien la reclama
+ * (el carrito, el pago o el barrido). Así una misma reserva nunca
+ * se libera dos veces.
+ */
+public interface ReservaServicio {
+
+    /**
+     * Registra (o renueva) la reserva de un detalle del carrito.
+     * Las entradas deben haberse sumado previamente al inventario.
+     *
+     * @param idCuenta identificador de la cuenta dueña del carrito
+     * @param detalle detalle del carrito que se reserva
+     */
+    void registrarReserva(String idCuenta, DetalleCarrito detalle);
+
+    /**
+     * Elimina la reserva de un detalle si todavía está vigente.
+     *
+     * @param codigoDetalle código del detalle del carrito
+     * @return true si la reserva existía y fue reclamada; en ese caso
+     *         las entradas siguen sumadas y el llamador decide qué hacer con ellas.
+     *         false si la reserva ya había vencido y sus entradas fueron devueltas.
+     */
+    boolean reclamarReserva(String codigoDetalle);
+
+    /**
+     * Indica cuáles de los detalles todavía retienen sus entradas: la reserva
+     * existe y ningún barrido la está liberando. No modifica las reservas.
+
+     * Las entradas de esos detalles ya están sumadas en la localidad, así que
+     * no se deben volver a descontar del aforo disponible.
+     *
+     * @param codigosDetalle códigos de los detalles del carrito
+     * @return códigos cuyas reservas siguen reteniendo sus entradas
+     */
+    Set<String> obtenerReservasVigentes(Collection<String> codigosDetalle);
+
+    /**
+     * Reclama de una vez las reservas vigentes de varios detalles.
+     * Se usa al confirmar el pago de una orden con varios ítems.
+
+     * Las reservas quedan marcadas con idReclamo (no se eliminan) y el barrido
+     * ya no las toma, porque sus entradas pasan a ser una venta. Repetir la
+     * llamada con el mismo idReclamo devuelve también las que ya se marcaron,
+     * de modo que un pago reprocesado reconoce las reservas que reclamó antes.
+     *
+     * @param idReclamo identificador estable del reclamo (por ejemplo, de la orden)
+     * @param codigosDetalle códigos de los detalles del carrito
+     * @return códigos cuyas reservas estaban vigentes y quedaron reclamadas
+     */
+    Set<String> reclamarReservas(String idReclamo, Collection<String> codigosDetalle);
+
+    /**
+     * Elimina las reservas marcadas por un reclamo, una vez que su
+     * venta quedó registrada en el inventario.
+     *
+     * @param idReclamo identificador del reclamo
+     */
+    void eliminarReclamadas(String idReclamo);
+
+    /**
+     * Libera un lote de reservas vencidas devolviendo sus entradas
+     * a cada localidad.
+     *
+     * @return cantidad de reservas liberadas en el lote
+     */
+    int liberarReservasVencidas();
+}
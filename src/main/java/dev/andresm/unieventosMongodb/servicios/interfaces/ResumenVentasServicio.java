@@ -0,0 +1,69 @@
+package dev.andresm.unieventosMongodb.servicios.interfaces;
+
+import dev.andresm.unieventosMongodb.documentos.Orden;
+import dev.andresm.unieventosMongodb.dto.reportes.VentaEventoDTO;
+import dev.andresm.unieventosMongodb.dto.reportes.VentaLocalidadDTO;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Servicio encargado del resumen incremental de ventas
+ * por evento, localidad y día ("ventas_diarias").
+
+ * Responsabilidades:
+ * - Sumar la venta de una orden cuando se paga
+ * - Descontarla cuando una orden pagada se anula (reembolso o contracargo)
+ * - Entregar las ventas por localidad a los reportes
+ * - Reconstruir el resumen desde las órdenes pagadas
+
+ * IMPORTANTE:
+ * Sumar y descontar son idempotentes por orden, así que pueden
+ * repetirse cuando se reprocesa una notificación de pago. Las órdenes
+ * sumadas se registran en "ventas_aplicadas", no en el resumen.
+ */
+public interface ResumenVentasServicio {
+
+    /**
+     * Suma al resumen las entradas y ganancias de una orden pagada.
+     *
+     * @param orden orden pagada
+     * @return true si se sumó; false si la orden ya estaba contabilizada
+     */
+    boolean registrarVenta(Orden orden);
+
+    /**
+     * Descuenta del resumen la venta de una orden anulada.
+     *
+     * @param orden orden anulada
+     * @return true si se descontó; false si la orden no estaba contabilizada
+     */
+    boolean revertirVenta(Orden orden);
+
+    /**
+     * Obtiene las ventas de un evento por localidad desde el resumen.
+     *
+     * @param idEvento identificador del evento
+     * @return ventas por localidad
+     */
+    List<VentaLocalidadDTO> obtenerVentasPorLocalidad(String idEvento);
+
+    /**
+     * Obtiene las ventas totales de varios eventos con una sola agregación.
+     *
+     * @param idsEventos identificadores de los eventos
+     * @return ventas por evento; los eventos sin ventas no se incluyen
+     */
+    List<VentaEventoDTO> obtenerVentasPorEvento(Collection<String> idsEventos);
+
+    /**
+     * Reconstruye todo el resumen (y el registro de ventas aplicadas)
+     * a partir de las órdenes pagadas.
+     * Es una tarea de mantenimiento (por ejemplo, tras cargar datos
+     * antiguos); las ventas que se paguen mientras se ejecuta pueden
+     * quedar contadas dos veces o no contarse.
+     *
+     * @return cantidad de documentos de resumen generados
+     */
+    long reconstruirResumen();
+}
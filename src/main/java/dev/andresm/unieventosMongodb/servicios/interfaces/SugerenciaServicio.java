@@ -0,0 +1,52 @@
+package dev.andresm.unieventosMongodb.servicios.interfaces;
+
+import dev.andresm.unieventosMongodb.documentos.Evento;
+import dev.andresm.unieventosMongodb.dto.evento.SugerenciaEventoDTO;
+
+import java.util.List;
+
+/**
+ * Servicio de autocompletado de nombres de eventos.
+
+ * Responsabilidades:
+ * - Mantener en memoria un índice de prefijos (trie) con los nombres
+ *   normalizados de los eventos activos
+ * - Actualizar el índice cuando un evento se crea, edita o elimina
+ * - Responder sugerencias sin consultar MongoDB
+
+ * IMPORTANTE:
+ * El índice vive en la memoria de cada instancia de la aplicación y se
+ * reconstruye desde MongoDB al iniciar.
+ */
+public interface SugerenciaServicio {
+
+    /**
+     * Reconstruye el índice completo a partir de los eventos activos.
+     */
+    void reconstruir();
+
+    /**
+     * Agrega o reemplaza un evento en el índice.
+     * Si el evento no está ACTIVO, solo se elimina su entrada anterior.
+     *
+     * @param evento evento creado o editado
+     */
+    void actualizarEvento(Evento evento);
+
+    /**
+     * Elimina un evento del índice.
+     *
+     * @param idEvento identificador del evento
+     */
+    void eliminarEvento(String idEvento);
+
+    /**
+     * Obtiene los eventos cuyo nombre (o alguna de sus palabras) empieza
+     * por el prefijo indicado, sin distinguir mayúsculas ni tildes.
+     *
+     * @param prefijo texto escrito por el usuario
+     * @param limite cantidad máxima de sugerencias
+     * @return sugerencias en orden alfabético
+     */
+    List<SugerenciaEventoDTO> sugerir(String prefijo, Integer limite);
+}
@@ -0,0 +1,158 @@
+package dev.andresm.unieventosMongodb.test;
+
+import dev.andresm.unieventosMongodb.documentos.DetalleOrden;
+import dev.andresm.unieventosMongodb.documentos.Ingreso;
+import dev.andresm.unieventosMongodb.documentos.Orden;
+import dev.andresm.unieventosMongodb.dto.acceso.ResultadoAcceso;
+import dev.andresm.unieventosMongodb.dto.acceso.ResultadoAccesoDTO;
+import dev.andresm.unieventosMongodb.dto.acceso.ValidarAccesoDTO;
+import dev.andresm.unieventosMongodb.servicios.implement.AccesoServicioImp;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.Base64;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Pruebas del código firmado (HMAC) de las entradas: se genera, se lee
+ * y se rechaza cuando está alterado o fue firmado con otra clave.
+ * MongoDB se simula vacío (ningún ingreso registrado).
+ */
+public class AccesoServicioTest {
+
+    private static final String CLAVE = "clave-de-prueba-con-al-menos-32-bytes!";
+    private static final String ID_EVENTO = "69f192114913552c261075f4";
+    private static final String ID_ORDEN = "6a3bf03bebe52f1664cf6fe4";
+
+    private AccesoServicioImp accesoServicio;
+
+    @BeforeEach
+    public void crearServicio() {
+        accesoServicio = new AccesoServicioImp(mongoVacio(), CLAVE);
+    }
+
+    /**
+     * Prueba de ida y vuelta: los datos firmados se leen igual en la puerta
+     * y la misma entrada no ingresa dos veces.
+     */
+    @Test
+    public void generarYValidarCodigoTest() {
+
+        String codigo = accesoServicio.generarCodigoEntrada(ID_ORDEN, detalle(7, 3, "Platea Norte – Ñ"));
+
+        // Texto seguro para URL, sin relleno
+        Assertions.assertTrue(codigo.matches("[A-Za-z0-9_-]+"));
+
+        ResultadoAccesoDTO primero = validar(codigo, ID_EVENTO);
+        Assertions.assertEquals(ResultadoAcceso.PERMITIDO, primero.resultado());
+        Assertions.assertEquals(ID_ORDEN, primero.idOrden());
+        Assertions.assertEquals("Platea Norte – Ñ", primero.nombreLocalidad());
+        Assertions.assertEquals(3, primero.cantidad());
+
+        Assertions.assertEquals(ResultadoAcceso.DUPLICADO, validar(codigo, ID_EVENTO).resultado());
+    }
+
+    /**
+     * Prueba de códigos alterados: cualquier byte cambiado invalida la firma.
+     */
+    @Test
+    public void codigoAlteradoTest() {
+
+        String codigo = accesoServicio.generarCodigoEntrada(ID_ORDEN, detalle(8, 1, "VIP"));
+        byte[] datos = Base64.getUrlDecoder().decode(codigo);
+
+        for (int i = 0; i < datos.length; i++) {
+
+            byte[] alterado = datos.clone();
+            alterado[i] ^= 0x01;
+
+            String falso = Base64.getUrlEncoder().withoutPadding().encodeToString(alterado);
+            Assertions.assertEquals(ResultadoAcceso.FIRMA_INVALIDA, validar(falso, ID_EVENTO).resultado(),
+                    "Byte alterado: " + i);
+        }
+
+        Assertions.assertEquals(ResultadoAcceso.FIRMA_INVALIDA, validar(codigo.substring(1), ID_EVENTO).resultado());
+        Assertions.assertEquals(ResultadoAcceso.FIRMA_INVALIDA, validar("no es base64!", ID_EVENTO).resultado());
+    }
+
+    /**
+     * Prueba de un código firmado con otra clave y de una entrada de otro evento.
+     */
+    @Test
+    public void otraClaveYOtroEventoTest() {
+
+        AccesoServicioImp otraInstalacion = new AccesoServicioImp(mongoVacio(), CLAVE + "-otra");
+        String ajeno = otraInstalacion.generarCodigoEntrada(ID_ORDEN, detalle(9, 1, "VIP"));
+
+        Assertions.assertEquals(ResultadoAcceso.FIRMA_INVALIDA, validar(ajeno, ID_EVENTO).resultado());
+
+        String codigo = accesoServicio.generarCodigoEntrada(ID_ORDEN, detalle(10, 1, "VIP"));
+        Assertions.assertEquals(ResultadoAcceso.EVENTO_DIFERENTE,
+                validar(codigo, "000000000000000000000000").resultado());
+    }
+
+    /**
+     * Prueba de revocación: las entradas de una orden anulada se rechazan,
+     * hayan ingresado o no, aunque su firma siga siendo válida.
+     */
+    @Test
+    public void entradaRevocadaTest() {
+
+        DetalleOrden usada = detalle(11, 2, "VIP");
+        DetalleOrden sinUsar = detalle(12, 1, "VIP");
+        String codigoUsada = accesoServicio.generarCodigoEntrada(ID_ORDEN, usada);
+        String codigoSinUsar = accesoServicio.generarCodigoEntrada(ID_ORDEN, sinUsar);
+
+        Assertions.assertEquals(ResultadoAcceso.PERMITIDO, validar(codigoUsada, ID_EVENTO).resultado());
+
+        Orden orden = new Orden();
+        orden.setId(ID_ORDEN);
+        orden.setItems(List.of(usada, sinUsar));
+        accesoServicio.revocarEntradas(orden);
+
+        Assertions.assertEquals(ResultadoAcceso.REVOCADA, validar(codigoUsada, ID_EVENTO).resultado());
+        Assertions.assertEquals(ResultadoAcceso.REVOCADA, validar(codigoSinUsar, ID_EVENTO).resultado());
+    }
+
+    /**
+     * Prueba de la clave de firma: sin clave o con una clave corta no se inicia.
+     */
+    @Test
+    public void claveCortaTest() {
+
+        Assertions.assertThrows(IllegalStateException.class, () -> new AccesoServicioImp(mongoVacio(), null));
+        Assertions.assertThrows(IllegalStateException.class, () -> new AccesoServicioImp(mongoVacio(), "corta"));
+    }
+
+    private ResultadoAccesoDTO validar(String codigo, String idEvento) {
+        return accesoServicio.validarAcceso(new ValidarAccesoDTO(codigo, idEvento, "puerta-1"));
+    }
+
+    private static DetalleOrden detalle(int numeroEntrada, int cantidad, String localidad) {
+
+        DetalleOrden detalle = new DetalleOrden();
+        detalle.setIdEvento(ID_EVENTO);
+        detalle.setNombreLocalidad(localidad);
+        detalle.setCantidad(cantidad);
+        detalle.setNumeroEntrada(numeroEntrada);
+        return detalle;
+    }
+
+    private static MongoTemplate mongoVacio() {
+
+        MongoTemplate mongoTemplate = Mockito.mock(MongoTemplate.class);
+        Mockito.when(mongoTemplate.stream(ArgumentMatchers.any(Query.class), ArgumentMatchers.eq(Ingreso.class)))
+                .thenAnswer(invocacion -> Stream.empty());
+        Mockito.when(mongoTemplate.bulkOps(ArgumentMatchers.any(BulkOperations.BulkMode.class),
+                        ArgumentMatchers.eq(Ingreso.class)))
+                .thenAnswer(invocacion -> Mockito.mock(BulkOperations.class, Mockito.RETURNS_SELF));
+        return mongoTemplate;
+    }
+}
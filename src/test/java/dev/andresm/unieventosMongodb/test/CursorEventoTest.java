@@ -0,0 +1,49 @@
+package dev.andresm.unieventosMongodb.test;
+
+import dev.andresm.unieventosMongodb.dto.evento.CursorEventoDTO;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Pruebas del cursor opaco de la paginación de eventos.
+ */
+public class CursorEventoTest {
+
+    /**
+     * Prueba de ida y vuelta: el cursor decodificado es la misma posición.
+     */
+    @Test
+    public void codificarDecodificarTest() throws Exception {
+
+        CursorEventoDTO cursor = new CursorEventoDTO(
+                LocalDateTime.of(2026, 3, 14, 20, 30, 15, 123_000_000), "69f192114913552c261075f4");
+
+        String codificado = cursor.codificar();
+
+        // Seguro para la URL: sin '+', '/' ni relleno '='
+        Assertions.assertTrue(codificado.matches("[A-Za-z0-9_-]+"));
+        Assertions.assertEquals(cursor, CursorEventoDTO.decodificar(codificado));
+    }
+
+    /**
+     * Prueba de cursores alterados o inventados.
+     */
+    @Test
+    public void cursorInvalidoTest() {
+
+        String sinId = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("2026-03-14T20:30|".getBytes(StandardCharsets.UTF_8));
+        String sinFecha = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("ayer|69f192114913552c261075f4".getBytes(StandardCharsets.UTF_8));
+
+        for (String cursor : new String[]{"no-es-un-cursor", "%%%", "", sinId, sinFecha}) {
+
+            Exception error = Assertions.assertThrows(Exception.class, () -> CursorEventoDTO.decodificar(cursor));
+            Assertions.assertEquals("El cursor de paginación no es válido", error.getMessage());
+        }
+    }
+}
@@ -10,8 +10,12 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @SpringBootTest
 public class EventoServicioTest {
@@ -185,6 +189,53 @@ public class EventoServicioTest {
         Assertions.assertNotNull(lista);
     }
 
+    /**
+     * Prueba para listar eventos por páginas usando el cursor.
+
+     * Validaciones:
+     * 1. Ninguna página supera el tamaño pedido.
+     * 2. Las páginas no repiten eventos.
+     * 3. Recorriendo todas las páginas se obtienen todos los eventos.
+     */
+    @Test
+    public void listarEventosPaginadoTest() throws Exception {
+
+        List<String> paginados = new ArrayList<>();
+        String cursor = null;
+
+        // 1. Recorrer todas las páginas siguiendo el cursor
+        do {
+            PaginaEventosDTO pagina = eventoServicio.listarEventos(cursor, 2);
+
+            Assertions.assertTrue(pagina.items().size() <= 2);
+            pagina.items().forEach(item -> paginados.add(item.id()));
+
+            cursor = pagina.siguiente();
+        } while (cursor != null);
+
+        // 2. Las páginas no deben repetir eventos
+        Assertions.assertEquals(paginados.size(), new HashSet<>(paginados).size());
+
+        // 3. Entre todas las páginas deben estar todos los eventos
+        Set<String> todos = eventoServicio.listarEventos().stream()
+                .map(ItemEventoDTO::id)
+                .collect(Collectors.toSet());
+
+        Assertions.assertEquals(todos, new HashSet<>(paginados));
+    }
+
+    /**
+     * Prueba de un cursor de paginación alterado o inventado.
+     */
+    @Test
+    public void listarEventosCursorInvalidoTest() {
+
+        Exception error = Assertions.assertThrows(Exception.class,
+                () -> eventoServicio.listarEventos("no-es-un-cursor", 2));
+
+        Assertions.assertEquals("El cursor de paginación no es válido", error.getMessage());
+    }
+
     /**
      * Prueba de disponibilidad de localidades.
      */
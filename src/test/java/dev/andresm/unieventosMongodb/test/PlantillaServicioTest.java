@@ -0,0 +1,102 @@
+package dev.andresm.unieventosMongodb.test;
+
+import dev.andresm.unieventosMongodb.servicios.implement.PlantillaServicioImp;
+import dev.andresm.unieventosMongodb.servicios.interfaces.PlantillaServicio;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+/**
+ * Pruebas del servicio de plantillas con las plantillas reales de
+ * resources/plantillas. No necesita el contexto de Spring ni MongoDB.
+ */
+public class PlantillaServicioTest {
+
+    private static PlantillaServicio plantillaServicio;
+
+    @BeforeAll
+    public static void cargarPlantillas() throws Exception {
+        plantillaServicio = new PlantillaServicioImp();
+    }
+
+    /**
+     * Prueba de sustitución de variables.
+     */
+    @Test
+    public void sustituirVariablesTest() throws Exception {
+
+        String html = plantillaServicio.renderizar("cupon", PlantillaServicio.modelo(
+                "mensaje", "Bienvenido",
+                "descuento", 15,
+                "codigo", "ABC123",
+                "vencimiento", "2027-01-01"));
+
+        Assertions.assertTrue(html.contains("<p>Bienvenido</p>"));
+        Assertions.assertTrue(html.contains("<strong>15%</strong>"));
+        Assertions.assertTrue(html.contains(">ABC123</p>"));
+        Assertions.assertTrue(html.contains("Válido hasta el 2027-01-01."));
+        Assertions.assertFalse(html.contains("{{"));
+    }
+
+    /**
+     * Prueba de escape HTML de los caracteres especiales en {{variable}}.
+     */
+    @Test
+    public void escaparValoresTest() throws Exception {
+
+        String html = plantillaServicio.renderizar("recuperacion-password",
+                Map.of("codigo", "<b>\"a\" & 'b'</b>"));
+
+        Assertions.assertTrue(html.contains("&lt;b&gt;&quot;a&quot; &amp; &#39;b&#39;&lt;/b&gt;"));
+        Assertions.assertFalse(html.contains("<b>"));
+    }
+
+    /**
+     * Prueba de {{{variable}}}: el fragmento HTML se inserta sin escapar.
+     */
+    @Test
+    public void valorSinEscaparTest() throws Exception {
+
+        String html = plantillaServicio.renderizar("campana", PlantillaServicio.modelo(
+                "nombre", "Ana & Luis",
+                "mensaje", "Hola",
+                "detalle", "<p>Detalle</p>"));
+
+        Assertions.assertTrue(html.contains("Hola Ana &amp; Luis,"));
+        Assertions.assertTrue(html.contains("<p>Detalle</p>"));
+    }
+
+    /**
+     * Prueba de variables ausentes, valores null y claves que la plantilla no usa.
+     */
+    @Test
+    public void variablesFaltantesTest() throws Exception {
+
+        String html = Assertions.assertDoesNotThrow(() -> plantillaServicio.renderizar("codigo-activacion",
+                PlantillaServicio.modelo(
+                        "nombre", null,
+                        "desconocida", "no se usa")));
+
+        Assertions.assertFalse(html.contains("{{"));
+        Assertions.assertFalse(html.contains("null"));
+        Assertions.assertFalse(html.contains("no se usa"));
+
+        Assertions.assertDoesNotThrow(() -> plantillaServicio.renderizar("codigo-activacion", Map.of()));
+        Assertions.assertDoesNotThrow(() -> plantillaServicio.renderizar("codigo-activacion", null));
+    }
+
+    /**
+     * Prueba de una plantilla que no existe y de un modelo mal formado.
+     */
+    @Test
+    public void plantillaInexistenteTest() {
+
+        Exception error = Assertions.assertThrows(Exception.class,
+                () -> plantillaServicio.renderizar("no-existe", Map.of()));
+
+        Assertions.assertEquals("La plantilla no-existe no existe", error.getMessage());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> PlantillaServicio.modelo("sin-valor"));
+    }
+}
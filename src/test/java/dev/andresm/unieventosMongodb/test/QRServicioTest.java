@@ -0,0 +1,96 @@
+package dev.andresm.unieventosMongodb.test;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.EncodeHintType;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.qrcode.QRCodeWriter;
+import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
+import dev.andresm.unieventosMongodb.servicios.implement.QRServicioImp;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Pruebas del PNG que el servicio de QR escribe sin pasar por ImageIO.
+ * El archivo se lee con ImageIO y cada módulo se compara con la matriz de ZXing.
+ * No necesita el contexto de Spring ni MongoDB.
+ */
+public class QRServicioTest {
+
+    /**
+     * Prueba con varios tamaños: exacto, con sobrante centrado y menor que el QR.
+     */
+    @Test
+    public void pngCoincideConZxingTest() throws Exception {
+
+        String contenido = "AQBpHh8Sw0VBYmNkZWZnaGlqa2xtbm9wcXJzdHV2d3h5ejAxMjM0NQ";
+
+        for (int tamano : new int[]{300, 333, 10}) {
+            compararConZxing(contenido, tamano, "M", 4);
+        }
+
+        compararConZxing("Entrada VIP – Ñandú & \"ü\"", 250, "H", 0);
+    }
+
+    private void compararConZxing(String contenido, int tamano, String nivel, int margen) throws Exception {
+
+        QRServicioImp qrServicio = new QRServicioImp(Mockito.mock(MongoTemplate.class));
+        ReflectionTestUtils.setField(qrServicio, "tamano", tamano);
+        ReflectionTestUtils.setField(qrServicio, "nivelCorreccion", nivel);
+        ReflectionTestUtils.setField(qrServicio, "margen", margen);
+
+        // 1. Imagen generada por el servicio, leída con ImageIO
+        byte[] png = Base64.getDecoder().decode(qrServicio.generarQR(contenido));
+        BufferedImage imagen = ImageIO.read(new ByteArrayInputStream(png));
+        Assertions.assertNotNull(imagen, "ImageIO no reconoce el PNG");
+
+        // 2. Matriz de referencia de ZXing con la misma configuración
+        Map<EncodeHintType, Object> opciones = new EnumMap<>(EncodeHintType.class);
+        opciones.put(EncodeHintType.ERROR_CORRECTION, ErrorCorrectionLevel.valueOf(nivel));
+        opciones.put(EncodeHintType.MARGIN, margen);
+        opciones.put(EncodeHintType.CHARACTER_SET, StandardCharsets.UTF_8.name());
+        BitMatrix matriz = new QRCodeWriter().encode(contenido, BarcodeFormat.QR_CODE, 0, 0, opciones);
+
+        int modulos = matriz.getWidth();
+        int escala = Math.max(1, tamano / modulos);
+        int lado = Math.max(tamano, modulos * escala);
+        int desplazamiento = (lado - modulos * escala) / 2;
+
+        Assertions.assertEquals(lado, imagen.getWidth());
+        Assertions.assertEquals(lado, imagen.getHeight());
+
+        // 3. Cada píxel del módulo debe tener el color del módulo de ZXing
+        for (int y = 0; y < modulos; y++) {
+            for (int x = 0; x < modulos; x++) {
+                for (int py = 0; py < escala; py++) {
+                    for (int px = 0; px < escala; px++) {
+                        int rgb = imagen.getRGB(desplazamiento + x * escala + px, desplazamiento + y * escala + py);
+                        boolean negro = (rgb & 0xFFFFFF) == 0;
+                        Assertions.assertEquals(matriz.get(x, y), negro,
+                                "Módulo (" + x + ", " + y + ") con tamaño " + tamano);
+                    }
+                }
+            }
+        }
+
+        // 4. El borde que centra el QR es blanco
+        for (int i = 0; i < lado; i++) {
+            for (int borde : new int[]{0, lado - 1}) {
+                if (desplazamiento > 0) {
+                    Assertions.assertEquals(0xFFFFFF, imagen.getRGB(i, borde) & 0xFFFFFF);
+                    Assertions.assertEquals(0xFFFFFF, imagen.getRGB(borde, i) & 0xFFFFFF);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package dev.andresm.unieventosMongodb.test;
+
+import dev.andresm.unieventosMongodb.documentos.EstadoEvento;
+import dev.andresm.unieventosMongodb.documentos.Evento;
+import dev.andresm.unieventosMongodb.dto.evento.SugerenciaEventoDTO;
+import dev.andresm.unieventosMongodb.repositorios.EventoRepo;
+import dev.andresm.unieventosMongodb.servicios.implement.SugerenciaServicioImp;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.List;
+
+/**
+ * Pruebas del trie de sugerencias de nombres de eventos.
+ * Los eventos se cargan con actualizarEvento, sin MongoDB.
+ */
+public class SugerenciaServicioTest {
+
+    private EventoRepo eventoRepo;
+    private SugerenciaServicioImp sugerenciaServicio;
+
+    @BeforeEach
+    public void crearIndice() {
+
+        eventoRepo = Mockito.mock(EventoRepo.class);
+        sugerenciaServicio = new SugerenciaServicioImp(eventoRepo);
+
+        sugerenciaServicio.actualizarEvento(evento("1", "Concierto Metallica", EstadoEvento.ACTIVO));
+        sugerenciaServicio.actualizarEvento(evento("2", "Festival Rock Armenia", EstadoEvento.ACTIVO));
+        sugerenciaServicio.actualizarEvento(evento("3", "Conferencia de Café", EstadoEvento.ACTIVO));
+        sugerenciaServicio.actualizarEvento(evento("4", "Concierto Privado", EstadoEvento.INACTIVO));
+    }
+
+    /**
+     * Prueba de prefijos: orden alfabético, inicio de cualquier palabra,
+     * sin distinguir mayúsculas ni tildes y solo eventos activos.
+     */
+    @Test
+    public void sugerirPorPrefijoTest() {
+
+        Assertions.assertEquals(List.of("1", "3"), ids(sugerenciaServicio.sugerir("CON", null)));
+        Assertions.assertEquals(List.of("2"), ids(sugerenciaServicio.sugerir("rock", null)));
+        Assertions.assertEquals(List.of("3"), ids(sugerenciaServicio.sugerir("cafe", null)));
+        Assertions.assertEquals(List.of("1"), ids(sugerenciaServicio.sugerir("concierto  met", null)));
+
+        Assertions.assertTrue(sugerenciaServicio.sugerir("privado", null).isEmpty());
+        Assertions.assertTrue(sugerenciaServicio.sugerir("xyz", null).isEmpty());
+        Assertions.assertTrue(sugerenciaServicio.sugerir("  ", null).isEmpty());
+    }
+
+    /**
+     * Prueba del límite y de un evento cuyo nombre se repite en varias palabras.
+     */
+    @Test
+    public void limiteYSinRepetidosTest() {
+
+        sugerenciaServicio.actualizarEvento(evento("5", "Rock Rock Rock", EstadoEvento.ACTIVO));
+
+        // "rock" (desde la última palabra del evento 5) va antes que "rock armenia"
+        Assertions.assertEquals(List.of("5", "2"), ids(sugerenciaServicio.sugerir("ro", null)));
+        Assertions.assertEquals(1, sugerenciaServicio.sugerir("co", 1).size());
+    }
+
+    /**
+     * Prueba de edición y eliminación: el nombre anterior deja de sugerirse.
+     */
+    @Test
+    public void editarYEliminarTest() {
+
+        sugerenciaServicio.actualizarEvento(evento("1", "Gira Metallica", EstadoEvento.ACTIVO));
+
+        Assertions.assertEquals(List.of("3"), ids(sugerenciaServicio.sugerir("con", null)));
+        Assertions.assertEquals(List.of("1"), ids(sugerenciaServicio.sugerir("gira", null)));
+
+        List<SugerenciaEventoDTO> metallica = sugerenciaServicio.sugerir("metal", null);
+        Assertions.assertEquals("Gira Metallica", metallica.get(0).nombre());
+
+        sugerenciaServicio.eliminarEvento("1");
+        Assertions.assertTrue(sugerenciaServicio.sugerir("metal", null).isEmpty());
+
+        sugerenciaServicio.actualizarEvento(evento("2", "Festival Rock Armenia", EstadoEvento.INACTIVO));
+        Assertions.assertTrue(sugerenciaServicio.sugerir("rock", null).isEmpty());
+    }
+
+    /**
+     * Prueba de reconstrucción: las actualizaciones que llegan mientras se
+     * consulta MongoDB no se pierden al reemplazar el índice.
+     */
+    @Test
+    public void cambiosDuranteReconstruccionTest() {
+
+        // La consulta devuelve los nombres anteriores; mientras tanto se edita y se elimina
+        Mockito.when(eventoRepo.buscarNombresPorEstado(EstadoEvento.ACTIVO)).thenAnswer(invocacion -> {
+            sugerenciaServicio.actualizarEvento(evento("2", "Festival Jazz Armenia", EstadoEvento.ACTIVO));
+            sugerenciaServicio.eliminarEvento("1");
+            return List.of(
+                    evento("1", "Concierto Metallica", EstadoEvento.ACTIVO),
+                    evento("2", "Festival Rock Armenia", EstadoEvento.ACTIVO),
+                    evento("3", "Conferencia de Café", EstadoEvento.ACTIVO));
+        });
+
+        sugerenciaServicio.reconstruir();
+
+        Assertions.assertTrue(sugerenciaServicio.sugerir("metal", null).isEmpty());
+        Assertions.assertTrue(sugerenciaServicio.sugerir("rock", null).isEmpty());
+        Assertions.assertEquals(List.of("2"), ids(sugerenciaServicio.sugerir("jazz", null)));
+        Assertions.assertEquals(List.of("3"), ids(sugerenciaServicio.sugerir("con", null)));
+
+        // Sin reconstrucción en curso los cambios ya no se anotan: una segunda
+        // reconstrucción toma el estado que devuelve la consulta
+        Mockito.doReturn(List.of(evento("1", "Concierto Metallica", EstadoEvento.ACTIVO)))
+                .when(eventoRepo).buscarNombresPorEstado(EstadoEvento.ACTIVO);
+
+        sugerenciaServicio.reconstruir();
+
+        Assertions.assertEquals(List.of("1"), ids(sugerenciaServicio.sugerir("metal", null)));
+        Assertions.assertTrue(sugerenciaServicio.sugerir("jazz", null).isEmpty());
+    }
+
+    private static List<String> ids(List<SugerenciaEventoDTO> sugerencias) {
+        return sugerencias.stream().map(SugerenciaEventoDTO::id).toList();
+    }
+
+    private static Evento evento(String id, String nombre, EstadoEvento estado) {
+
+        Evento evento = Evento.builder().nombre(nombre).estado(estado).build();
+        evento.setId(id);
+        return evento;
+    }
+}